@@ -0,0 +1,62 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Banco SQLite temporário populado antes de cada benchmark e apagado ao final.
+ * O tamanho da carga e o perfil de armazenamento são parâmetros do JMH, por exemplo:
+ * {@code java -jar target/benchmarks.jar -p usuarios=50000 -p perfil=DESEMPENHO}.
+ */
+@State(Scope.Benchmark)
+public class BancoSemeado {
+
+    // Capacidade folgada, para que as inscrições do benchmark não esgotem as vagas.
+    static final int CAPACIDADE_EVENTOS = 1_000_000;
+
+    @Param({"10000"})
+    public int usuarios;
+
+    @Param({"2000"})
+    public int eventos;
+
+    @Param({"5"})
+    public int inscricoesPorUsuario;
+
+    @Param({"DURAVEL"})
+    public String perfil;
+
+    private Path diretorio;
+
+    @Setup(Level.Trial)
+    public void criarBanco() throws IOException {
+        diretorio = Semeador.criarBanco(perfil);
+        Semeador.popular(usuarios, eventos, CAPACIDADE_EVENTOS, inscricoesPorUsuario);
+    }
+
+    @TearDown(Level.Trial)
+    public void apagarBanco() throws IOException {
+        Semeador.apagarBanco(diretorio);
+    }
+
+    // O admin inicial ocupa o ID 1, então os usuários semeados vão de 2 a usuarios + 1.
+    int usuarioAleatorio() {
+        return 2 + ThreadLocalRandom.current().nextInt(usuarios);
+    }
+
+    int indiceUsuarioAleatorio() {
+        return 1 + ThreadLocalRandom.current().nextInt(usuarios);
+    }
+
+    int eventoAleatorio() {
+        return 1 + ThreadLocalRandom.current().nextInt(eventos);
+    }
+}
@@ -0,0 +1,92 @@
+package benchmark;
+
+import controller.AppController;
+import dao.RepositorioMemoria;
+import model.EventoComDetalhes;
+import model.ResultadoInscricao;
+import model.Usuario;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caminhos quentes do {@link AppController}, do jeito que a interface de console os chama.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ControllerBenchmark {
+
+    /**
+     * Controller compartilhado entre as threads, como na aplicação.
+     * As mensagens de erro esperadas (ex.: "já está inscrito") são descartadas para não medir o console.
+     * Com {@code -p armazenamento=MEMORIA}, o Controller usa um {@link RepositorioMemoria} com a mesma
+     * carga do banco, o que isola o custo do Controller do custo de I/O.
+     */
+    @State(Scope.Benchmark)
+    public static class Contexto {
+
+        @Param({"SQLITE"})
+        public String armazenamento;
+
+        AppController controller;
+        private PrintStream saidaOriginal;
+
+        // Depende do BancoSemeado para que o banco já esteja criado quando o Controller for usado.
+        @Setup(Level.Trial)
+        public void preparar(BancoSemeado banco) {
+            if ("MEMORIA".equalsIgnoreCase(armazenamento)) {
+                RepositorioMemoria memoria = Semeador.popularMemoria(banco.usuarios, banco.eventos,
+                        BancoSemeado.CAPACIDADE_EVENTOS, banco.inscricoesPorUsuario);
+                controller = new AppController(memoria, memoria, memoria, null);
+            } else {
+                controller = new AppController();
+            }
+            saidaOriginal = System.out;
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        }
+
+        @TearDown(Level.Trial)
+        public void restaurar() {
+            System.setOut(saidaOriginal);
+        }
+    }
+
+    // Pares aleatórios: a maioria vira inscrição nova, o resto exercita a recusa (já inscrito / próprio evento).
+    @Benchmark
+    public ResultadoInscricao inscreverEmEvento(BancoSemeado banco, Contexto ctx) {
+        return ctx.controller.inscreverEmEventoComResultado(banco.usuarioAleatorio(), banco.eventoAleatorio());
+    }
+
+    @Benchmark
+    public Usuario fazerLogin(BancoSemeado banco, Contexto ctx) {
+        return ctx.controller.fazerLogin(Semeador.email(banco.indiceUsuarioAleatorio()), Semeador.SENHA);
+    }
+
+    @Benchmark
+    public List<EventoComDetalhes> listarTodosEventosComDetalhes(Contexto ctx) {
+        return ctx.controller.listarTodosEventosComDetalhes();
+    }
+
+    @Benchmark
+    public List<EventoComDetalhes> listarInscricoesDoUsuario(BancoSemeado banco, Contexto ctx) {
+        return ctx.controller.listarInscricoesDoUsuario(banco.usuarioAleatorio());
+    }
+}
@@ -0,0 +1,67 @@
+package benchmark;
+
+import dao.EventoDAO;
+import dao.InscricaoDAO;
+import dao.UsuarioDAO;
+import model.Evento;
+import model.FiltroEventos;
+import model.PaginaEventos;
+import model.Usuario;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consultas dos DAOs chamadas diretamente, sem as regras do Controller.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DaoBenchmark {
+
+    private final EventoDAO eventoDAO = new EventoDAO();
+    private final UsuarioDAO usuarioDAO = new UsuarioDAO();
+    private final InscricaoDAO inscricaoDAO = new InscricaoDAO();
+
+    @Benchmark
+    public Evento getEventoPorId(BancoSemeado banco) {
+        return eventoDAO.getEventoPorId(banco.eventoAleatorio());
+    }
+
+    @Benchmark
+    public Usuario getUsuarioPorEmail(BancoSemeado banco) {
+        return usuarioDAO.getUsuarioPorEmail(Semeador.email(banco.indiceUsuarioAleatorio()));
+    }
+
+    @Benchmark
+    public Usuario getUsuarioPorId(BancoSemeado banco) {
+        return usuarioDAO.getUsuarioPorId(banco.usuarioAleatorio());
+    }
+
+    @Benchmark
+    public int contarParticipantes(BancoSemeado banco) {
+        return inscricaoDAO.contarParticipantes(banco.eventoAleatorio());
+    }
+
+    @Benchmark
+    public boolean isInscrito(BancoSemeado banco) {
+        return inscricaoDAO.isInscrito(banco.usuarioAleatorio(), banco.eventoAleatorio());
+    }
+
+    // Primeira página do catálogo de eventos futuros (o que o menu "Listar eventos" mostra).
+    @Benchmark
+    public PaginaEventos listarPaginaEventos(BancoSemeado banco) {
+        return eventoDAO.listarPaginaEventos(FiltroEventos.futuros(null), null, 20);
+    }
+}
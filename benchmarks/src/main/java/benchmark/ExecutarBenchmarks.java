@@ -0,0 +1,75 @@
+package benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Executa todos os benchmarks com uma e com várias threads e grava cada rodada em JSON,
+ * para comparar os números antes e depois de cada mudança na camada de persistência.
+ *
+ * Uso: java -cp target/benchmarks.jar benchmark.ExecutarBenchmarks [diretorioResultados] [filtro]
+ * <ul>
+ *   <li>diretorioResultados - onde gravar os JSON (padrão resultados-benchmark)</li>
+ *   <li>filtro - expressão regular dos benchmarks a executar (padrão: todos)</li>
+ * </ul>
+ * Propriedades: -Dbench.threads=1,8 (rodadas), -Dbench.usuarios, -Dbench.eventos,
+ * -Dbench.inscricoesPorUsuario e -Dbench.perfil (parâmetros do {@link BancoSemeado}) e
+ * -Dbench.armazenamento=SQLITE,MEMORIA (repositórios do {@link ControllerBenchmark}).
+ */
+public final class ExecutarBenchmarks {
+
+    private ExecutarBenchmarks() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path diretorio = Path.of(args.length > 0 ? args[0] : "resultados-benchmark");
+        String filtro = args.length > 1 ? args[1] : "benchmark\\..*";
+        Files.createDirectories(diretorio);
+
+        List<Integer> rodadas = new ArrayList<>();
+        String threadsPadrao = "1," + Runtime.getRuntime().availableProcessors();
+        for (String valor : System.getProperty("bench.threads", threadsPadrao).split(",")) {
+            int threads = Integer.parseInt(valor.trim());
+            if (!rodadas.contains(threads)) {
+                rodadas.add(threads);
+            }
+        }
+
+        for (int threads : rodadas) {
+            Path resultado = diretorio.resolve("threads-" + threads + ".json");
+            System.out.println("\n=== Rodada com " + threads + " thread(s) -> " + resultado + " ===");
+            executar(filtro, threads, resultado);
+        }
+    }
+
+    private static void executar(String filtro, int threads, Path resultado) throws RunnerException {
+        OptionsBuilder opcoes = new OptionsBuilder();
+        opcoes.include(filtro)
+                .threads(threads)
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultado.toString());
+        parametro(opcoes, "usuarios");
+        parametro(opcoes, "eventos");
+        parametro(opcoes, "inscricoesPorUsuario");
+        parametro(opcoes, "perfil");
+        parametro(opcoes, "armazenamento");
+        Options construidas = opcoes.build();
+        new Runner(construidas).run();
+    }
+
+    // Repassa -Dbench.<nome> como parâmetro @Param do BancoSemeado (ou do ControllerBenchmark), se informado.
+    private static void parametro(OptionsBuilder opcoes, String nome) {
+        String valor = System.getProperty("bench." + nome);
+        if (valor != null) {
+            opcoes.param(nome, valor.split(","));
+        }
+    }
+}
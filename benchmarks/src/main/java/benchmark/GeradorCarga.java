@@ -0,0 +1,371 @@
+package benchmark;
+
+import controller.AppController;
+import controller.FilaInscricoes;
+import dao.InscricaoDAO;
+import dao.UsuarioDAO;
+import model.FiltroEventos;
+import model.ResultadoInscricao;
+import model.Usuario;
+import util.DatabaseConnection;
+import util.HistogramaLatencia;
+import util.Metricas;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Gerador de carga que simula a abertura de inscrições de eventos disputados: milhares de clientes
+ * simultâneos fazendo login, navegando no catálogo, se inscrevendo e cancelando pelo {@link AppController},
+ * contra um banco temporário populado pelo {@link Semeador}.
+ *
+ * Ao final informa a vazão, os percentis de latência por operação, os erros do banco (SQLITE_BUSY e
+ * tempo esgotado no pool) e se algum evento ficou com mais inscritos que a capacidade.
+ * O código de saída é 1 se houver overbooking ou contadores de inscritos divergentes.
+ *
+ * Uso: java -cp target/benchmarks.jar [-Dcarga.*=...] benchmark.GeradorCarga
+ * <ul>
+ *   <li>carga.clientes - clientes simultâneos, cada um em uma thread (padrão 1000)</li>
+ *   <li>carga.duracao - duração em segundos, incluindo a rampa (padrão 30)</li>
+ *   <li>carga.rampa - segundos para todos os clientes entrarem (padrão 5; 0 = todos de uma vez)</li>
+ *   <li>carga.pensar - pausa máxima entre operações de um cliente, em ms (padrão 100)</li>
+ *   <li>carga.mix - pesos das operações (padrão login=10,navegar=50,inscrever=30,cancelar=10)</li>
+ *   <li>carga.usuarios, carga.eventos, carga.capacidade - tamanho do banco (padrão clientes, 20 e 100)</li>
+ *   <li>carga.perfil - perfil de armazenamento (padrão DURAVEL)</li>
+ *   <li>carga.pilha - tamanho da pilha de cada thread cliente, em KB (padrão 256)</li>
+ *   <li>carga.commit_grupo - inscrições e cancelamentos pela {@link FilaInscricoes} (padrão false)</li>
+ * </ul>
+ * As propriedades db.* (ex.: -Ddb.pool.tamanho=16, -Ddb.commit_grupo.lote=512) continuam valendo.
+ */
+public final class GeradorCarga {
+
+    /**
+     * Operações executadas pelos clientes, cada uma com o próprio histograma de latência.
+     */
+    enum Operacao {
+        LOGIN, NAVEGAR, INSCREVER, CANCELAR;
+
+        final HistogramaLatencia latencias = new HistogramaLatencia();
+        final AtomicLong falhas = new AtomicLong();
+    }
+
+    private static final int TAMANHO_PAGINA = 20;
+    // Linhas de erro repassadas ao console original; as demais são apenas contadas.
+    private static final int MAXIMO_ERROS_EXIBIDOS = 20;
+
+    private final int clientes;
+    private final long duracaoMs;
+    private final long rampaMs;
+    private final int pensarMs;
+    private final int pilhaKb;
+    private final int usuarios;
+    private final int eventos;
+    private final Map<Operacao, Integer> pesos;
+    private final int somaPesos;
+
+    private final boolean commitEmGrupo;
+    // Criado em executar(), depois que o banco temporário já está configurado.
+    private AppController controller;
+    private FilaInscricoes filaInscricoes;
+    private final AtomicLongArray resultadosInscricao = new AtomicLongArray(ResultadoInscricao.values().length);
+    private volatile long fimNanos;
+
+    private GeradorCarga() {
+        this.clientes = inteiro("carga.clientes", 1000);
+        this.duracaoMs = TimeUnit.SECONDS.toMillis(inteiro("carga.duracao", 30));
+        this.rampaMs = TimeUnit.SECONDS.toMillis(inteiro("carga.rampa", 5));
+        this.pensarMs = inteiro("carga.pensar", 100);
+        this.pilhaKb = inteiro("carga.pilha", 256);
+        this.usuarios = inteiro("carga.usuarios", clientes);
+        this.eventos = inteiro("carga.eventos", 20);
+        this.commitEmGrupo = Boolean.parseBoolean(System.getProperty("carga.commit_grupo", "false"));
+        this.pesos = lerMix(System.getProperty("carga.mix", "login=10,navegar=50,inscrever=30,cancelar=10"));
+        this.somaPesos = pesos.values().stream().mapToInt(Integer::intValue).sum();
+        if (clientes <= 0 || usuarios <= 0 || eventos <= 0 || somaPesos <= 0) {
+            throw new IllegalArgumentException("carga.clientes, carga.usuarios, carga.eventos e os pesos de "
+                    + "carga.mix devem ser positivos.");
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        GeradorCarga gerador = new GeradorCarga();
+        int capacidade = inteiro("carga.capacidade", 100);
+
+        Path diretorio = Semeador.criarBanco(System.getProperty("carga.perfil", "DURAVEL"));
+        int codigoSaida;
+        try {
+            System.out.println("Populando " + gerador.usuarios + " usuários e " + gerador.eventos
+                    + " eventos (capacidade " + capacidade + ")...");
+            Semeador.popular(gerador.usuarios, gerador.eventos, capacidade, 0);
+            codigoSaida = gerador.executar();
+        } finally {
+            Semeador.apagarBanco(diretorio);
+        }
+        System.exit(codigoSaida);
+    }
+
+    private int executar() throws InterruptedException {
+        PrintStream saidaOriginal = System.out;
+        PrintStream erroOriginal = System.err;
+        ContadorErros erros = new ContadorErros(erroOriginal);
+        filaInscricoes = commitEmGrupo ? new FilaInscricoes() : null;
+        controller = new AppController(filaInscricoes);
+
+        saidaOriginal.println("Iniciando " + clientes + " clientes por " + duracaoMs / 1000 + " s (rampa de "
+                + rampaMs / 1000 + " s, pausa de até " + pensarMs + " ms, mix " + pesos
+                + (commitEmGrupo ? ", commit em grupo" : "") + ")...");
+        // As mensagens do Controller ("Erro: O evento atingiu...") fazem parte do fluxo normal sob carga.
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        System.setErr(erros);
+
+        long inicio = System.nanoTime();
+        fimNanos = inicio + TimeUnit.MILLISECONDS.toNanos(duracaoMs);
+        CountDownLatch terminados = new CountDownLatch(clientes);
+        // Java 17 não tem threads virtuais: cada cliente é uma thread de plataforma com pilha reduzida.
+        for (int i = 0; i < clientes; i++) {
+            int indice = i;
+            long atrasoMs = clientes == 1 ? 0 : rampaMs * i / (clientes - 1);
+            Thread cliente = new Thread(null, () -> {
+                try {
+                    executarCliente(indice, atrasoMs);
+                } finally {
+                    terminados.countDown();
+                }
+            }, "cliente-" + i, pilhaKb * 1024L);
+            cliente.setDaemon(true);
+            cliente.start();
+        }
+        terminados.await();
+        long decorridoNanos = System.nanoTime() - inicio;
+        if (filaInscricoes != null) {
+            filaInscricoes.close();
+        }
+
+        System.setOut(saidaOriginal);
+        System.setErr(erroOriginal);
+        return relatar(decorridoNanos, erros);
+    }
+
+    private void executarCliente(int indice, long atrasoMs) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        try {
+            Thread.sleep(atrasoMs);
+        } catch (InterruptedException e) {
+            return;
+        }
+
+        String email = Semeador.email(1 + indice % usuarios);
+        Usuario usuario = medir(Operacao.LOGIN, () -> controller.fazerLogin(email, Semeador.SENHA));
+        if (usuario == null) {
+            return;
+        }
+        List<Integer> inscricoes = new ArrayList<>();
+
+        while (System.nanoTime() < fimNanos) {
+            Operacao operacao = sortear(random.nextInt(somaPesos));
+            if (operacao == Operacao.CANCELAR && inscricoes.isEmpty()) {
+                operacao = Operacao.INSCREVER;
+            }
+            switch (operacao) {
+                case LOGIN -> medir(operacao, () -> controller.fazerLogin(email, Semeador.SENHA));
+                case NAVEGAR -> medir(operacao, () -> controller.listarEventosPaginados(FiltroEventos.futuros(null),
+                        null, TAMANHO_PAGINA));
+                case INSCREVER -> {
+                    int eventoId = escolherEvento(random);
+                    ResultadoInscricao resultado = medir(operacao,
+                            () -> controller.inscreverEmEventoComResultado(usuario.id(), eventoId));
+                    resultadosInscricao.incrementAndGet(resultado.ordinal());
+                    if (resultado == ResultadoInscricao.OK) {
+                        inscricoes.add(eventoId);
+                    }
+                }
+                case CANCELAR -> {
+                    Integer eventoId = inscricoes.remove(random.nextInt(inscricoes.size()));
+                    medir(operacao, () -> controller.cancelarPresenca(usuario.id(), eventoId) ? Boolean.TRUE : null);
+                }
+            }
+            if (pensarMs > 0) {
+                try {
+                    Thread.sleep(random.nextInt(pensarMs + 1));
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    // Eventos disputados: todos os clientes concorrem pelos mesmos poucos eventos, com IDs de 1 a N.
+    private int escolherEvento(ThreadLocalRandom random) {
+        return 1 + random.nextInt(eventos);
+    }
+
+    /**
+     * Executa e cronometra uma operação. Resultado null (ou ERRO) conta como falha.
+     */
+    private <T> T medir(Operacao operacao, Supplier<T> acao) {
+        long inicio = System.nanoTime();
+        T resultado = acao.get();
+        operacao.latencias.registrar(System.nanoTime() - inicio);
+        if (resultado == null || resultado == ResultadoInscricao.ERRO) {
+            operacao.falhas.incrementAndGet();
+        }
+        return resultado;
+    }
+
+    private Operacao sortear(int sorteio) {
+        for (Map.Entry<Operacao, Integer> peso : pesos.entrySet()) {
+            sorteio -= peso.getValue();
+            if (sorteio < 0) {
+                return peso.getKey();
+            }
+        }
+        return Operacao.NAVEGAR;
+    }
+
+    // --- RELATÓRIO ---
+
+    private int relatar(long decorridoNanos, ContadorErros erros) {
+        double segundos = decorridoNanos / 1e9;
+        long totalOperacoes = 0;
+
+        System.out.println("\n=== Resultado da carga (" + String.format("%.1f", segundos) + " s) ===");
+        System.out.printf("%-10s %10s %10s %8s %10s %10s %10s %10s%n",
+                "Operação", "Total", "ops/s", "Falhas", "p50 (us)", "p99 (us)", "p99.9 (us)", "máx (us)");
+        for (Operacao operacao : Operacao.values()) {
+            HistogramaLatencia h = operacao.latencias;
+            totalOperacoes += h.getContagem();
+            System.out.printf("%-10s %10d %10.1f %8d %10d %10d %10d %10d%n", operacao, h.getContagem(),
+                    h.getContagem() / segundos, operacao.falhas.get(), h.percentilMicros(50), h.percentilMicros(99),
+                    h.percentilMicros(99.9), h.getMaximoMicros());
+        }
+        System.out.printf("Total: %d operações (%.1f ops/s)%n", totalOperacoes, totalOperacoes / segundos);
+
+        StringBuilder inscricoes = new StringBuilder("Inscrições:");
+        for (ResultadoInscricao resultado : ResultadoInscricao.values()) {
+            long quantidade = resultadosInscricao.get(resultado.ordinal());
+            if (quantidade > 0) {
+                inscricoes.append(' ').append(resultado).append('=').append(quantidade);
+            }
+        }
+        System.out.println(inscricoes);
+        if (filaInscricoes != null) {
+            System.out.printf("Commit em grupo: %.1f operações por transação em média%n", filaInscricoes.getTamanhoMedioLote());
+        }
+        System.out.println("Erros do banco: " + erros.total.get() + " (SQLITE_BUSY: " + erros.ocupado.get()
+                + ", tempo esgotado no pool: " + erros.timeoutPool.get() + ")");
+        System.out.println(DatabaseConnection.getEstatisticasPool());
+        UsuarioDAO.getEstatisticasCache().forEach(System.out::println);
+        // Detalhamento por operação do Controller, método de DAO e aquisição de conexão.
+        System.out.println();
+        System.out.print(Metricas.comoTexto());
+
+        List<String> overbooking = verificarOverbooking();
+        List<Integer> divergentes = new InscricaoDAO().verificarContadoresInscritos();
+        if (overbooking.isEmpty()) {
+            System.out.println("Overbooking: nenhum evento com mais inscritos que a capacidade.");
+        } else {
+            System.out.println("Overbooking em " + overbooking.size() + " evento(s): " + overbooking);
+        }
+        if (!divergentes.isEmpty()) {
+            System.out.println("Contadores de inscritos divergentes nos eventos: " + divergentes);
+        }
+        return overbooking.isEmpty() && divergentes.isEmpty() ? 0 : 1;
+    }
+
+    /**
+     * Compara a contagem real de participações de cada evento com a capacidade.
+     * @return Descrição dos eventos acima da capacidade ("id: inscritos/capacidade").
+     */
+    private static List<String> verificarOverbooking() {
+        String sql = "SELECT e.id, COUNT(*), e.capacidade FROM participacao p JOIN Eventos e ON e.id = p.evento_id " +
+                "GROUP BY e.id HAVING COUNT(*) > e.capacidade";
+        List<String> eventos = new ArrayList<>();
+        // As inscrições ficam no shard do evento: cada shard é verificado separadamente.
+        for (int shard = 0; shard < DatabaseConnection.getQuantidadeShards(); shard++) {
+            try (Connection conn = DatabaseConnection.getConnection(shard);
+                 Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery(sql)) {
+                while (rs.next()) {
+                    eventos.add(rs.getInt(1) + ": " + rs.getInt(2) + "/" + rs.getInt(3));
+                }
+            } catch (SQLException e) {
+                System.err.println("Erro ao verificar overbooking no shard " + shard + ": " + e.getMessage());
+                eventos.add("verificação falhou");
+            }
+        }
+        return eventos;
+    }
+
+    // --- CONFIGURAÇÃO ---
+
+    private static int inteiro(String chave, int padrao) {
+        String valor = System.getProperty(chave);
+        if (valor == null) {
+            return padrao;
+        }
+        try {
+            return Integer.parseInt(valor.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Valor numérico inválido para " + chave + ": '" + valor + "'.");
+        }
+    }
+
+    private static Map<Operacao, Integer> lerMix(String mix) {
+        Map<Operacao, Integer> pesos = new EnumMap<>(Operacao.class);
+        for (String item : mix.split(",")) {
+            String[] partes = item.split("=");
+            try {
+                pesos.put(Operacao.valueOf(partes[0].trim().toUpperCase()), Integer.parseInt(partes[1].trim()));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Item inválido em carga.mix: '" + item
+                        + "'. Use operacao=peso com login, navegar, inscrever e cancelar.");
+            }
+        }
+        return pesos;
+    }
+
+    /**
+     * Substitui o System.err durante a carga: conta as mensagens de erro dos DAOs
+     * ("Erro ao ...: [SQLITE_BUSY] ...") e repassa só as primeiras ao console.
+     */
+    private static final class ContadorErros extends PrintStream {
+        final AtomicLong total = new AtomicLong();
+        final AtomicLong ocupado = new AtomicLong();
+        final AtomicLong timeoutPool = new AtomicLong();
+        private final PrintStream destino;
+
+        ContadorErros(PrintStream destino) {
+            super(OutputStream.nullOutputStream());
+            this.destino = destino;
+        }
+
+        @Override
+        public void println(String linha) {
+            long numero = total.incrementAndGet();
+            if (linha.contains("SQLITE_BUSY") || linha.contains("database is locked")) {
+                ocupado.incrementAndGet();
+            }
+            if (linha.contains("Tempo esgotado aguardando conexão")) {
+                timeoutPool.incrementAndGet();
+            }
+            if (numero <= MAXIMO_ERROS_EXIBIDOS) {
+                destino.println(linha);
+            }
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package benchmark;
+
+import dao.ImportacaoDAO;
+import dao.RepositorioMemoria;
+import model.CategoriaEvento;
+import model.Evento;
+import model.Usuario;
+import util.DatabaseConnection;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Cria um banco SQLite temporário e o popula com usuários, eventos e inscrições sintéticos,
+ * gravados em lotes pelo {@link ImportacaoDAO}. Usado pelos benchmarks e pelo gerador de carga.
+ *
+ * Os usuários semeados têm e-mail usuarioN@bench.local (N de 1 a usuarios), senha {@link #SENHA}
+ * e IDs de 2 a usuarios + 1 (o ID 1 é o admin inicial). Os eventos têm IDs de 1 a eventos.
+ * {@link #popularMemoria} gera a mesma carga em um {@link RepositorioMemoria}, com os mesmos IDs.
+ */
+final class Semeador {
+
+    // E-mails e senha previsíveis para que os clientes possam sortear usuários existentes.
+    static final String SENHA = "senha123";
+    private static final int TAMANHO_LOTE = 1000;
+
+    private Semeador() {
+    }
+
+    /**
+     * Cria um diretório temporário com um banco vazio e aponta a aplicação para ele
+     * (db.url e db.perfil como propriedades de sistema), já com o esquema atual.
+     * @param perfil Perfil de armazenamento (DURAVEL, EQUILIBRADO ou DESEMPENHO).
+     * @return O diretório criado, a ser removido com {@link #apagarBanco(Path)}.
+     */
+    static Path criarBanco(String perfil) throws IOException {
+        Path diretorio = Files.createTempDirectory("eventos-bench");
+        System.setProperty("db.url", "jdbc:sqlite:" + diretorio.resolve("eventos.db").toAbsolutePath());
+        System.setProperty("db.perfil", perfil);
+        DatabaseConnection.fecharPool();
+        DatabaseConnection.initializeDatabase();
+        return diretorio;
+    }
+
+    /**
+     * Fecha o pool, desfaz a configuração e apaga o banco temporário.
+     */
+    static void apagarBanco(Path diretorio) throws IOException {
+        DatabaseConnection.fecharPool();
+        System.clearProperty("db.url");
+        System.clearProperty("db.perfil");
+        try (var arquivos = Files.list(diretorio)) {
+            for (Path arquivo : arquivos.toList()) {
+                Files.deleteIfExists(arquivo);
+            }
+        }
+        Files.deleteIfExists(diretorio);
+    }
+
+    /**
+     * Popula o banco. A semente é fixa: a mesma carga em todas as execuções, para comparar resultados.
+     * @param usuarios Quantidade de usuários.
+     * @param eventos Quantidade de eventos futuros, organizados por usuários sorteados.
+     * @param capacidade Capacidade de cada evento.
+     * @param inscricoesPorUsuario Inscrições sorteadas por usuário (duplicatas e recusas são ignoradas).
+     */
+    static void popular(int usuarios, int eventos, int capacidade, int inscricoesPorUsuario) {
+        Random random = new Random(42);
+        ImportacaoDAO dao = new ImportacaoDAO();
+
+        List<Usuario> loteUsuarios = new ArrayList<>(TAMANHO_LOTE);
+        for (int i = 1; i <= usuarios; i++) {
+            loteUsuarios.add(new Usuario(-1, "Usuário " + i, email(i), SENHA, false));
+            if (loteUsuarios.size() == TAMANHO_LOTE || i == usuarios) {
+                gravar(dao.inserirUsuarios(loteUsuarios), "usuários");
+                loteUsuarios.clear();
+            }
+        }
+
+        LocalDateTime base = LocalDateTime.now().plusDays(30).withSecond(0).withNano(0);
+        CategoriaEvento[] categorias = CategoriaEvento.values();
+        List<ImportacaoDAO.LinhaEvento> loteEventos = new ArrayList<>(TAMANHO_LOTE);
+        for (int i = 1; i <= eventos; i++) {
+            Evento evento = new Evento(-1, "Evento " + i, categorias[random.nextInt(categorias.length)],
+                    base.plusMinutes(random.nextInt(365 * 24 * 60)), "Local " + random.nextInt(100),
+                    capacidade, -1, "Evento gerado para benchmark.");
+            loteEventos.add(new ImportacaoDAO.LinhaEvento(evento, email(1 + random.nextInt(usuarios))));
+            if (loteEventos.size() == TAMANHO_LOTE || i == eventos) {
+                gravar(dao.inserirEventos(loteEventos), "eventos");
+                loteEventos.clear();
+            }
+        }
+
+        LocalDateTime agora = LocalDateTime.now();
+        List<ImportacaoDAO.LinhaInscricao> loteInscricoes = new ArrayList<>(TAMANHO_LOTE);
+        for (int i = 1; i <= usuarios; i++) {
+            for (int j = 0; j < inscricoesPorUsuario; j++) {
+                // Duplicatas, eventos lotados e do próprio organizador são recusados pelo banco, sem problema.
+                loteInscricoes.add(new ImportacaoDAO.LinhaInscricao(email(i), 1 + random.nextInt(eventos)));
+                if (loteInscricoes.size() == TAMANHO_LOTE) {
+                    gravar(dao.inserirInscricoes(loteInscricoes, agora), "inscrições");
+                    loteInscricoes.clear();
+                }
+            }
+        }
+        if (!loteInscricoes.isEmpty()) {
+            gravar(dao.inserirInscricoes(loteInscricoes, agora), "inscrições");
+        }
+    }
+
+    /**
+     * Gera a mesma carga de {@link #popular} (mesma semente e mesmos sorteios) em um repositório em
+     * memória, para medir o Controller sem o custo de I/O. Um admin é criado primeiro, para que os
+     * IDs coincidam com os do banco.
+     * @return O repositório populado, a ser usado nos três papéis do AppController.
+     */
+    static RepositorioMemoria popularMemoria(int usuarios, int eventos, int capacidade, int inscricoesPorUsuario) {
+        Random random = new Random(42);
+        RepositorioMemoria memoria = new RepositorioMemoria();
+        memoria.criarUsuario(new Usuario(-1, "Admin", "admin@eventos.com", "admin123", true));
+        for (int i = 1; i <= usuarios; i++) {
+            gravar(memoria.criarUsuario(new Usuario(-1, "Usuário " + i, email(i), SENHA, false)), "usuários");
+        }
+
+        LocalDateTime base = LocalDateTime.now().plusDays(30).withSecond(0).withNano(0);
+        CategoriaEvento[] categorias = CategoriaEvento.values();
+        for (int i = 1; i <= eventos; i++) {
+            CategoriaEvento categoria = categorias[random.nextInt(categorias.length)];
+            LocalDateTime dataHora = base.plusMinutes(random.nextInt(365 * 24 * 60));
+            String local = "Local " + random.nextInt(100);
+            // O usuário N (e-mail usuarioN) tem o ID N + 1.
+            int organizadorId = 2 + random.nextInt(usuarios);
+            gravar(memoria.criarEvento(new Evento(-1, "Evento " + i, categoria, dataHora, local, capacidade,
+                    organizadorId, "Evento gerado para benchmark.")), "eventos");
+        }
+
+        LocalDateTime agora = LocalDateTime.now();
+        for (int i = 1; i <= usuarios; i++) {
+            for (int j = 0; j < inscricoesPorUsuario; j++) {
+                // Duplicatas, eventos lotados e do próprio organizador são recusados, como no banco.
+                memoria.inscreverAtomicamente(i + 1, 1 + random.nextInt(eventos), agora);
+            }
+        }
+        return memoria;
+    }
+
+    static String email(int indice) {
+        return "usuario" + indice + "@bench.local";
+    }
+
+    private static void gravar(int id, String descricao) {
+        if (id <= 0) {
+            throw new IllegalStateException("Falha ao popular " + descricao + " do repositório em memória.");
+        }
+    }
+
+    private static void gravar(int[] contagens, String descricao) {
+        if (contagens == null) {
+            throw new IllegalStateException("Falha ao popular " + descricao + " do banco de benchmark.");
+        }
+    }
+}
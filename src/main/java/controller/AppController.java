@@ -1,61 +1,149 @@
 package controller;
 
+import dao.ArquivoEventosDAO;
 import dao.EventoDAO;
 import dao.InscricaoDAO; // Mantido o nome InscricaoDAO
+import dao.RepositorioEventos;
+import dao.RepositorioInscricoes;
+import dao.RepositorioUsuarios;
 import dao.UsuarioDAO;
 import model.CategoriaEvento;
 import model.Evento;
 import model.EventoComDetalhes;
+import model.FiltroEventos;
+import model.ModoInscricaoGrupo;
+import model.PaginaBusca;
+import model.PaginaEventos;
+import model.RelatorioExportacao;
+import model.ResultadoInscricao;
 import model.Usuario;
+import util.CacheLru;
+import util.MetricaOperacao;
+import util.Metricas;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 /**
  * AppController é a camada de lógica de negócios (Service Layer) que interage
  * com as DAOs (Data Access Objects) e manipula as regras de negócio e validações.
+ *
+ * Usuários, eventos e inscrições são acessados pelas interfaces de repositório, recebidas no
+ * construtor: os DAOs do SQLite por padrão, ou o {@link dao.RepositorioMemoria} para execuções sem banco.
+ * Histórico, arquivamento e exportação existem apenas no SQLite.
  */
+@SuppressWarnings("try")
 public class AppController {
 
-    private final UsuarioDAO usuarioDAO = new UsuarioDAO();
-    private final EventoDAO eventoDAO = new EventoDAO();
-    private final InscricaoDAO inscricaoDAO = new InscricaoDAO(); // Usa o novo DAO
+    private final RepositorioUsuarios usuarioDAO;
+    private final RepositorioEventos eventoDAO;
+    private final RepositorioInscricoes inscricaoDAO;
+    // false com repositórios fora do SQLite: as operações do arquivo e da exportação ficam indisponíveis.
+    private final boolean usaBancoDeDados;
+    private final ArquivoEventosDAO arquivoEventosDAO = new ArquivoEventosDAO();
+    private final ExportadorDados exportadorDados = new ExportadorDados();
+    // Navegação do catálogo servida da memória; o banco só é usado se o catálogo não puder ser carregado.
+    private final CatalogoEventos catalogo;
+    // Commit em grupo das inscrições e cancelamentos; null grava cada operação na própria transação.
+    private final FilaInscricoes filaInscricoes;
+
+    // Limite de eventos por página na paginação do catálogo.
+    public static final int TAMANHO_MAXIMO_PAGINA = 500;
 
     private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
 
-    // --- UTILS ---
+    // Busca textual: apenas letras e dígitos viram termos (a sintaxe do FTS5 não é exposta ao usuário).
+    private static final Pattern TERMO_BUSCA = Pattern.compile("[\\p{L}\\p{N}]+");
+    private static final int MAXIMO_TERMOS_BUSCA = 10;
+
+    // --- Métricas de desempenho por operação (veja util.Metricas) ---
+
+    private static final MetricaOperacao METRICA_FAZER_LOGIN = Metricas.operacao("AppController.fazerLogin");
+    private static final MetricaOperacao METRICA_CRIAR_NOVA_CONTA = Metricas.operacao("AppController.criarNovaConta");
+    private static final MetricaOperacao METRICA_DELETAR_CONTA = Metricas.operacao("AppController.deletarConta");
+    private static final MetricaOperacao METRICA_LISTAR_TODOS_EVENTOS_COM_DETALHES = Metricas.operacao("AppController.listarTodosEventosComDetalhes");
+    private static final MetricaOperacao METRICA_LISTAR_EVENTOS_PAGINADOS = Metricas.operacao("AppController.listarEventosPaginados");
+    private static final MetricaOperacao METRICA_PERCORRER_EVENTOS = Metricas.operacao("AppController.percorrerEventos");
+    private static final MetricaOperacao METRICA_BUSCAR_EVENTOS = Metricas.operacao("AppController.buscarEventos");
+    private static final MetricaOperacao METRICA_LISTAR_EVENTOS_ORGANIZADOS = Metricas.operacao("AppController.listarEventosOrganizados");
+    private static final MetricaOperacao METRICA_CRIAR_NOVO_EVENTO = Metricas.operacao("AppController.criarNovoEvento");
+    private static final MetricaOperacao METRICA_DELETAR_EVENTO = Metricas.operacao("AppController.deletarEvento");
+    private static final MetricaOperacao METRICA_INSCREVER_EM_EVENTO = Metricas.operacao("AppController.inscreverEmEvento");
+    private static final MetricaOperacao METRICA_INSCREVER_GRUPO_EM_EVENTO = Metricas.operacao("AppController.inscreverGrupoEmEvento");
+    private static final MetricaOperacao METRICA_CANCELAR_PRESENCA = Metricas.operacao("AppController.cancelarPresenca");
+    private static final MetricaOperacao METRICA_LISTAR_INSCRICOES_DO_USUARIO = Metricas.operacao("AppController.listarInscricoesDoUsuario");
+    private static final MetricaOperacao METRICA_LISTAR_HISTORICO_DO_USUARIO = Metricas.operacao("AppController.listarHistoricoDoUsuario");
+    private static final MetricaOperacao METRICA_EXPORTAR_INSCRITOS = Metricas.operacao("AppController.exportarInscritos");
+    private static final MetricaOperacao METRICA_LISTAR_HISTORICO_EVENTOS = Metricas.operacao("AppController.listarHistoricoEventos");
+    private static final MetricaOperacao METRICA_ARQUIVAR_EVENTOS_PASSADOS = Metricas.operacao("AppController.arquivarEventosPassados");
+    private static final MetricaOperacao METRICA_LISTAR_TODOS_USUARIOS = Metricas.operacao("AppController.listarTodosUsuarios");
+    private static final MetricaOperacao METRICA_TOGGLE_ADMIN_STATUS = Metricas.operacao("AppController.toggleAdminStatus");
+
+    public AppController() {
+        this(null);
+    }
 
     /**
-     * Converte um objeto Evento em um EventoComDetalhes (DTO) buscando o nome do organizador.
-     * @param evento O objeto Evento base.
-     * @return EventoComDetalhes com o nome do organizador, ou null se o organizador não for encontrado.
+     * @param filaInscricoes Fila de commit em grupo usada por inscrições e cancelamentos (veja
+     *                       {@link FilaInscricoes}), ou null para gravar cada operação na própria transação.
+     *                       O AppController não fecha a fila.
      */
-    private EventoComDetalhes toEventoComDetalhes(Evento evento) {
-        // Busca o usuário organizador pelo ID.
-        Usuario organizador = usuarioDAO.getUsuarioPorId(evento.organizadorId());
+    public AppController(FilaInscricoes filaInscricoes) {
+        this(new UsuarioDAO(), new EventoDAO(), new InscricaoDAO(), filaInscricoes);
+    }
 
-        if (organizador != null) {
-            return new EventoComDetalhes(evento, organizador.nome());
-        }
-        // Se o organizador não for encontrado, ainda retorna o evento com um nome padrão.
-        // Isso não deve ocorrer se as FKs estiverem corretas.
-        return new EventoComDetalhes(evento, "Organizador Desconhecido");
+    /**
+     * Cria o controller sobre os repositórios informados (ex.: um único {@link dao.RepositorioMemoria}
+     * nos três papéis). Com o EventoDAO, o catálogo em memória é o compartilhado por todos os
+     * AppControllers; com outro repositório, o catálogo é próprio deste AppController, então
+     * alterações feitas por outro AppController no mesmo repositório não aparecem nele.
+     * @param usuarios Repositório de usuários.
+     * @param eventos Repositório de eventos.
+     * @param inscricoes Repositório de inscrições (o mesmo usado pela fila, se houver).
+     * @param filaInscricoes Fila de commit em grupo, ou null (veja {@link #AppController(FilaInscricoes)}).
+     */
+    public AppController(RepositorioUsuarios usuarios, RepositorioEventos eventos, RepositorioInscricoes inscricoes,
+                         FilaInscricoes filaInscricoes) {
+        this.usuarioDAO = usuarios;
+        this.eventoDAO = eventos;
+        this.inscricaoDAO = inscricoes;
+        this.filaInscricoes = filaInscricoes;
+        this.usaBancoDeDados = eventos instanceof EventoDAO;
+        this.catalogo = usaBancoDeDados ? CatalogoEventos.getInstancia() : new CatalogoEventos(eventos);
+    }
+
+    /**
+     * @return true se inscrições e cancelamentos passam pela fila de commit em grupo.
+     */
+    public boolean usaFilaInscricoes() {
+        return filaInscricoes != null;
     }
 
+    // --- UTILS ---
+
     /**
      * Tenta converter uma string para um Enum CategoriaEvento.
      * @param categoriaStr A string de categoria.
      * @return A CategoriaEvento correspondente ou null.
      */
-    private CategoriaEvento parseCategoria(String categoriaStr) {
+    public static CategoriaEvento parseCategoria(String categoriaStr) {
         try {
-            return CategoriaEvento.valueOf(categoriaStr.toUpperCase());
-        } catch (IllegalArgumentException e) {
+            return CategoriaEvento.valueOf(categoriaStr.trim().toUpperCase());
+        } catch (IllegalArgumentException | NullPointerException e) {
             return null;
         }
     }
@@ -63,38 +151,63 @@ public class AppController {
     // --- AUTENTICAÇÃO E USUÁRIOS ---
 
     public Usuario fazerLogin(String email, String senha) {
-        if (email == null || senha == null || email.trim().isEmpty() || senha.trim().isEmpty()) {
-            System.out.println("Erro: Email e senha são obrigatórios.");
-            return null;
-        }
+        return METRICA_FAZER_LOGIN.medir(() -> {
+            if (email == null || senha == null || email.trim().isEmpty() || senha.trim().isEmpty()) {
+                System.out.println("Erro: Email e senha são obrigatórios.");
+                return null;
+            }
 
-        Usuario usuario = usuarioDAO.getUsuarioPorEmail(email);
+            Usuario usuario = usuarioDAO.getUsuarioPorEmail(email);
 
-        if (usuario != null && usuario.senha().equals(senha)) {
-            return usuario;
-        }
-        return null;
+            if (usuario != null && usuario.senha().equals(senha)) {
+                return usuario;
+            }
+            return null;
+        });
     }
 
-    public boolean criarNovaConta(String nome, String email, String senha) {
+    /**
+     * Busca um usuário pelo ID (atendido pelo cache do UsuarioDAO).
+     * @param userId ID do usuário.
+     * @return O usuário, ou null se não existir.
+     */
+    public Usuario getUsuario(int userId) {
+        return usuarioDAO.getUsuarioPorId(userId);
+    }
+
+    /**
+     * Valida os dados de uma nova conta (regras compartilhadas com a importação em lote).
+     * @return A mensagem de erro, ou null se os dados forem válidos.
+     */
+    public static String validarDadosConta(String nome, String email, String senha) {
         // Validação simples
         if (nome == null || email == null || senha == null ||
                 nome.trim().isEmpty() || email.trim().isEmpty() || senha.trim().isEmpty()) {
-            System.out.println("Erro: Todos os campos (nome, email, senha) são obrigatórios.");
-            return false;
+            return "Todos os campos (nome, email, senha) são obrigatórios.";
         }
+        return null;
+    }
 
-        if (usuarioDAO.getUsuarioPorEmail(email) != null) {
-            System.out.println("Erro: O email " + email + " já está em uso. Tente fazer login.");
-            return false;
-        }
+    public boolean criarNovaConta(String nome, String email, String senha) {
+        return METRICA_CRIAR_NOVA_CONTA.medir(() -> {
+            String erro = validarDadosConta(nome, email, senha);
+            if (erro != null) {
+                System.out.println("Erro: " + erro);
+                return false;
+            }
+
+            if (usuarioDAO.getUsuarioPorEmail(email) != null) {
+                System.out.println("Erro: O email " + email + " já está em uso. Tente fazer login.");
+                return false;
+            }
 
-        // Cria o novo usuário (não-administrador por padrão)
-        // O ID é -1 no POJO, será gerado no DAO.
-        Usuario novoUsuario = new Usuario(-1, nome, email, senha, false);
+            // Cria o novo usuário (não-administrador por padrão)
+            // O ID é -1 no POJO, será gerado no DAO.
+            Usuario novoUsuario = new Usuario(-1, nome, email, senha, false);
 
-        // Delegação para o DAO.
-        return usuarioDAO.criarUsuario(novoUsuario) != -1;
+            // Delegação para o DAO.
+            return usuarioDAO.criarUsuario(novoUsuario) != -1;
+        });
     }
 
     /**
@@ -105,147 +218,297 @@ public class AppController {
      * @return true se a deleção foi bem sucedida.
      */
     public boolean deletarConta(int userIdLogado, int idParaDeletar) {
-        boolean isSelfDeletion = userIdLogado == idParaDeletar;
-
-        // 1. Verificar a permissão
-        Usuario usuarioLogado = usuarioDAO.getUsuarioPorId(userIdLogado);
-        if (usuarioLogado == null) {
-            System.out.println("Erro: Usuário logado não encontrado.");
-            return false;
-        }
+        return METRICA_DELETAR_CONTA.medir(() -> {
+            boolean isSelfDeletion = userIdLogado == idParaDeletar;
 
-        // Se não for auto-deleção E o logado não for admin, nega.
-        if (!isSelfDeletion && !usuarioLogado.isAdmin()) {
-            System.out.println("Erro: Você não tem permissão para deletar a conta de outro usuário.");
-            return false;
-        }
-
-        // Não permite que o admin se auto-delete (para garantir que sempre haja um admin).
-        if (isSelfDeletion && usuarioLogado.isAdmin()) {
-            List<Usuario> admins = usuarioDAO.listarTodosUsuarios().stream()
-                    .filter(Usuario::isAdmin)
-                    .toList();
-
-            if (admins.size() == 1 && admins.get(0).id() == userIdLogado) {
-                System.out.println("Erro: Você é o único administrador. Não pode deletar sua própria conta.");
+            // 1. Verificar a permissão
+            Usuario usuarioLogado = usuarioDAO.getUsuarioPorId(userIdLogado);
+            if (usuarioLogado == null) {
+                System.out.println("Erro: Usuário logado não encontrado.");
                 return false;
             }
-        }
 
-        // 1. Limpa todas as participações (usando o método do InscricaoDAO)
-        // A deleção em cascata (FOREIGN KEY ON DELETE CASCADE) no banco de dados já cuidaria disso,
-        // mas é bom ter o método no DAO para clareza da operação.
-        // inscricaoDAO.deletarInscricoesPorUsuario(idParaDeletar); // Comentado, pois a FK fará isso.
+            // Se não for auto-deleção E o logado não for admin, nega.
+            if (!isSelfDeletion && !usuarioLogado.isAdmin()) {
+                System.out.println("Erro: Você não tem permissão para deletar a conta de outro usuário.");
+                return false;
+            }
 
-        // 2. Transfere a organização de eventos ou deixa a FK fazer a deleção em cascata
-        // Como o `DatabaseConnection` está configurado com `ON DELETE CASCADE` para o organizador_id,
-        // todos os eventos organizados por este usuário serão deletados automaticamente ao deletar o usuário,
-        // o que é um comportamento aceitável para um MVP.
+            // Não permite que o admin se auto-delete (para garantir que sempre haja um admin).
+            if (isSelfDeletion && usuarioLogado.isAdmin()) {
+                List<Usuario> admins = usuarioDAO.listarTodosUsuarios().stream()
+                        .filter(Usuario::isAdmin)
+                        .toList();
 
-        // 3. Deleta o usuário.
-        boolean sucesso = usuarioDAO.deletarUsuario(idParaDeletar);
+                if (admins.size() == 1 && admins.get(0).id() == userIdLogado) {
+                    System.out.println("Erro: Você é o único administrador. Não pode deletar sua própria conta.");
+                    return false;
+                }
+            }
 
-        if (!sucesso) {
-            System.out.println("Erro: Falha no processo de deleção do usuário.");
-        }
+            // 1. Limpa todas as participações (usando o método do InscricaoDAO)
+            // A deleção em cascata (FOREIGN KEY ON DELETE CASCADE) no banco de dados já cuidaria disso,
+            // mas é bom ter o método no DAO para clareza da operação.
+            // inscricaoDAO.deletarInscricoesPorUsuario(idParaDeletar); // Comentado, pois a FK fará isso.
+
+            // 2. Transfere a organização de eventos ou deixa a FK fazer a deleção em cascata
+            // Como o `DatabaseConnection` está configurado com `ON DELETE CASCADE` para o organizador_id,
+            // todos os eventos organizados por este usuário serão deletados automaticamente ao deletar o usuário,
+            // o que é um comportamento aceitável para um MVP.
+
+            // 3. Deleta o usuário. A lista das inscrições que a cascata vai remover (para atualizar os
+            // contadores do catálogo) é lida na mesma alteração, para não cruzar com uma recarga.
+            boolean sucesso = catalogo.alterar(() -> {
+                List<Evento> inscricoes = catalogo.isCarregado()
+                        ? eventoDAO.listarEventosInscritosPorUsuario(idParaDeletar) : List.of();
+                if (!usuarioDAO.deletarUsuario(idParaDeletar)) {
+                    return false;
+                }
+                catalogo.removerDoOrganizador(idParaDeletar);
+                inscricoes.forEach(e -> catalogo.ajustarInscritos(e.id(), -1));
+                return true;
+            });
+
+            if (!sucesso) {
+                System.out.println("Erro: Falha no processo de deleção do usuário.");
+                // Com vários shards, a deleção pode ter sido gravada só no shard principal (a cópia fica
+                // pendente): o catálogo é recarregado do banco em vez de ajustado.
+                if (catalogo.isCarregado() && usuarioDAO.getUsuarioPorId(idParaDeletar) == null) {
+                    catalogo.carregar();
+                }
+            }
 
-        return sucesso;
+            return sucesso;
+        });
     }
 
     // --- EVENTOS ---
 
     public List<EventoComDetalhes> listarTodosEventosComDetalhes() {
-        List<Evento> eventos = eventoDAO.listarTodosEventos();
-        List<EventoComDetalhes> detalhesList = new ArrayList<>();
+        return METRICA_LISTAR_TODOS_EVENTOS_COM_DETALHES.medir(() -> {
+            if (catalogo.garantirCarregado()) {
+                return catalogo.listarTodos();
+            }
+            // O DAO já traz o nome do organizador via JOIN (uma única consulta para toda a listagem).
+            return eventoDAO.listarTodosEventosComDetalhes();
+        });
+    }
 
-        for (Evento evento : eventos) {
-            EventoComDetalhes dto = toEventoComDetalhes(evento);
-            detalhesList.add(dto);
-        }
-        return detalhesList;
+    /**
+     * Carrega (ou recarrega) o catálogo de eventos em memória. Chamado na inicialização;
+     * sem essa chamada o catálogo é carregado no primeiro acesso.
+     * @return O número de eventos carregados, ou -1 se a carga falhar (as consultas usam o banco).
+     */
+    public int carregarCatalogo() {
+        return catalogo.carregar() ? catalogo.getTotalEventos() : -1;
     }
 
-    public List<EventoComDetalhes> listarEventosOrganizados(int organizadorId) {
-        List<Evento> eventos = eventoDAO.listarEventosPorOrganizador(organizadorId);
-        List<EventoComDetalhes> detalhesList = new ArrayList<>();
+    /**
+     * Busca uma página do catálogo de eventos (paginação por chave, ordenada por data e ID).
+     * @param filtro Filtros opcionais (null equivale a nenhum filtro).
+     * @param apos Cursor da página anterior ({@link PaginaEventos#proxima()}), ou null para a primeira.
+     * @param tamanhoPagina Número de eventos por página (1 a {@value #TAMANHO_MAXIMO_PAGINA}).
+     * @return A página de eventos, com o cursor para a próxima.
+     */
+    public PaginaEventos listarEventosPaginados(FiltroEventos filtro, PaginaEventos.Cursor apos, int tamanhoPagina) {
+        return METRICA_LISTAR_EVENTOS_PAGINADOS.medir(() -> {
+            if (tamanhoPagina <= 0 || tamanhoPagina > TAMANHO_MAXIMO_PAGINA) {
+                System.out.println("Erro: O tamanho da página deve estar entre 1 e " + TAMANHO_MAXIMO_PAGINA + ".");
+                return new PaginaEventos(List.of(), null);
+            }
+            FiltroEventos filtroEfetivo = filtro != null ? filtro : FiltroEventos.TODOS;
+            if (catalogo.garantirCarregado()) {
+                return catalogo.pagina(filtroEfetivo, apos, tamanhoPagina);
+            }
+            return eventoDAO.listarPaginaEventos(filtroEfetivo, apos, tamanhoPagina);
+        });
+    }
 
-        for (Evento evento : eventos) {
-            // Reutiliza toEventoComDetalhes. O nome do organizador será o do usuário logado.
-            EventoComDetalhes dto = toEventoComDetalhes(evento);
-            detalhesList.add(dto);
-        }
-        return detalhesList;
+    /**
+     * Percorre todo o catálogo (com filtros opcionais) entregando um evento por vez,
+     * sem carregar a lista completa em memória.
+     * @param filtro Filtros opcionais (null equivale a nenhum filtro).
+     * @param consumidor Recebe cada evento na ordem de data.
+     * @return O número de eventos percorridos, ou -1 em caso de erro.
+     */
+    public int percorrerEventos(FiltroEventos filtro, Consumer<EventoComDetalhes> consumidor) {
+        return METRICA_PERCORRER_EVENTOS.medir(() -> {
+            FiltroEventos filtroEfetivo = filtro != null ? filtro : FiltroEventos.TODOS;
+            if (catalogo.garantirCarregado()) {
+                return catalogo.percorrer(filtroEfetivo, consumidor);
+            }
+            return eventoDAO.percorrerEventos(filtroEfetivo, consumidor);
+        });
     }
 
-    public int criarNovoEvento(int organizadorId, String nome, String categoriaStr, String dataHoraStr, String local, int capacidade, String descricao) {
-        // 1. Validação de formato da Categoria
-        CategoriaEvento categoria = parseCategoria(categoriaStr);
-        if (categoria == null) {
-            System.out.println("Erro: Categoria '" + categoriaStr + "' inválida. Use uma das opções: " +
-                    Arrays.stream(CategoriaEvento.values()).map(CategoriaEvento::name).collect(Collectors.joining(", ")));
-            return -1;
+    /**
+     * Busca eventos por nome, descrição e local, do mais para o menos relevante.
+     * Cada palavra informada é buscada como prefixo ("work" encontra "workshop"), sem diferenciar
+     * acentos e maiúsculas, e todas precisam aparecer no evento.
+     * @param termos Texto digitado pelo usuário.
+     * @param filtro Filtros opcionais de categoria e período (null equivale a nenhum filtro).
+     * @param pagina Número da página, começando em 1.
+     * @param tamanhoPagina Número de eventos por página (1 a {@value #TAMANHO_MAXIMO_PAGINA}).
+     * @return A página de resultados.
+     */
+    public PaginaBusca buscarEventos(String termos, FiltroEventos filtro, int pagina, int tamanhoPagina) {
+        return METRICA_BUSCAR_EVENTOS.medir(() -> {
+            if (tamanhoPagina <= 0 || tamanhoPagina > TAMANHO_MAXIMO_PAGINA || pagina <= 0) {
+                System.out.println("Erro: Página inválida ou tamanho fora do intervalo de 1 a " + TAMANHO_MAXIMO_PAGINA + ".");
+                return new PaginaBusca(List.of(), pagina, false);
+            }
+            String consulta = montarConsultaBusca(termos);
+            if (consulta == null) {
+                System.out.println("Erro: Informe ao menos uma palavra para a busca.");
+                return new PaginaBusca(List.of(), pagina, false);
+            }
+            return eventoDAO.buscarEventos(consulta, filtro != null ? filtro : FiltroEventos.TODOS, pagina, tamanhoPagina);
+        });
+    }
+
+    /**
+     * Converte o texto digitado em uma expressão do FTS5: cada palavra entre aspas e com busca por prefixo.
+     * @return A expressão (ex.: "show"* "rock"*), ou null se não houver palavras.
+     */
+    static String montarConsultaBusca(String termos) {
+        if (termos == null) {
+            return null;
         }
+        List<String> partes = new ArrayList<>();
+        Matcher matcher = TERMO_BUSCA.matcher(termos);
+        while (matcher.find() && partes.size() < MAXIMO_TERMOS_BUSCA) {
+            partes.add("\"" + matcher.group() + "\"*");
+        }
+        return partes.isEmpty() ? null : String.join(" ", partes);
+    }
 
-        // 2. Validação de formato de Data e Hora
-        LocalDateTime dataHora;
+    public List<EventoComDetalhes> listarEventosOrganizados(int organizadorId) {
+        return METRICA_LISTAR_EVENTOS_ORGANIZADOS.medir(() -> {
+            if (catalogo.garantirCarregado()) {
+                return catalogo.listarPorOrganizador(organizadorId);
+            }
+            return eventoDAO.listarEventosComDetalhesPorOrganizador(organizadorId);
+        });
+    }
+
+    /**
+     * Busca um evento pelo ID no catálogo em memória (ou no banco, se o catálogo não puder ser carregado).
+     */
+    private Evento buscarEvento(int eventoId) {
+        return catalogo.garantirCarregado() ? catalogo.getEvento(eventoId) : eventoDAO.getEventoPorId(eventoId);
+    }
+
+    /**
+     * Converte a data e hora informada no padrão 'dd/MM/yyyy HH:mm'.
+     * @return A data e hora, ou null se o formato for inválido.
+     */
+    public static LocalDateTime parseDataHora(String dataHoraStr) {
         try {
-            dataHora = LocalDateTime.parse(dataHoraStr, FORMATTER);
-        } catch (DateTimeParseException e) {
-            System.out.println("Erro: Formato de data e hora inválido. Use o padrão 'dd/MM/yyyy HH:mm'.");
-            return -1;
+            return LocalDateTime.parse(dataHoraStr, FORMATTER);
+        } catch (DateTimeParseException | NullPointerException e) {
+            return null;
         }
+    }
 
+    /**
+     * Valida as regras de negócio de um novo evento (regras compartilhadas com a importação em lote).
+     * @param agora Data/hora de referência para a regra de eventos no passado.
+     * @return A mensagem de erro, ou null se os dados forem válidos.
+     */
+    public static String validarDadosEvento(String nome, LocalDateTime dataHora, String local, int capacidade,
+                                            String descricao, LocalDateTime agora) {
         // 3. Validação de Negócio: Data no futuro
-        if (dataHora.isBefore(LocalDateTime.now())) {
-            System.out.println("Erro: Não é possível criar eventos que já ocorreram.");
-            return -1;
+        if (dataHora.isBefore(agora)) {
+            return "Não é possível criar eventos que já ocorreram.";
         }
 
         // 4. Validação de Capacidade
         if (capacidade <= 0) {
-            System.out.println("Erro: A capacidade deve ser um número positivo.");
-            return -1;
+            return "A capacidade deve ser um número positivo.";
         }
 
         // 5. Validação de campos obrigatórios
-        if (nome.trim().isEmpty() || local.trim().isEmpty() || descricao.trim().isEmpty()) {
-            System.out.println("Erro: Nome, Local e Descrição do evento são obrigatórios.");
-            return -1;
+        if (nome == null || local == null || descricao == null ||
+                nome.trim().isEmpty() || local.trim().isEmpty() || descricao.trim().isEmpty()) {
+            return "Nome, Local e Descrição do evento são obrigatórios.";
         }
+        return null;
+    }
 
-        // Cria o objeto Evento
-        Evento novoEvento = new Evento(-1, nome, categoria, dataHora, local, capacidade, organizadorId, descricao);
+    public int criarNovoEvento(int organizadorId, String nome, String categoriaStr, String dataHoraStr, String local, int capacidade, String descricao) {
+        return METRICA_CRIAR_NOVO_EVENTO.medir(() -> {
+            // 1. Validação de formato da Categoria
+            CategoriaEvento categoria = parseCategoria(categoriaStr);
+            if (categoria == null) {
+                System.out.println("Erro: Categoria '" + categoriaStr + "' inválida. Use uma das opções: " +
+                        Arrays.stream(CategoriaEvento.values()).map(CategoriaEvento::name).collect(Collectors.joining(", ")));
+                return -1;
+            }
 
-        // Delegação para o DAO
-        return eventoDAO.criarEvento(novoEvento);
+            // 2. Validação de formato de Data e Hora
+            LocalDateTime dataHora = parseDataHora(dataHoraStr);
+            if (dataHora == null) {
+                System.out.println("Erro: Formato de data e hora inválido. Use o padrão 'dd/MM/yyyy HH:mm'.");
+                return -1;
+            }
+
+            // 3 a 5. Data no futuro, capacidade e campos obrigatórios
+            String erro = validarDadosEvento(nome, dataHora, local, capacidade, descricao, LocalDateTime.now());
+            if (erro != null) {
+                System.out.println("Erro: " + erro);
+                return -1;
+            }
+
+            // Cria o objeto Evento
+            Evento novoEvento = new Evento(-1, nome, categoria, dataHora, local, capacidade, organizadorId, descricao);
+
+            // Delegação para o DAO
+            return catalogo.alterar(() -> {
+                int eventoId = eventoDAO.criarEvento(novoEvento);
+                if (eventoId != -1) {
+                    Usuario organizador = usuarioDAO.getUsuarioPorId(organizadorId);
+                    catalogo.adicionar(new Evento(eventoId, nome, categoria, dataHora, local, capacidade, organizadorId,
+                            descricao), organizador != null ? organizador.nome() : "Organizador Desconhecido");
+                }
+                return eventoId;
+            });
+        });
     }
 
     public boolean deletarEvento(int eventoId, int userIdLogado) {
-        // 1. Buscar o evento para validação de posse
-        Evento evento = eventoDAO.getEventoPorId(eventoId);
-
-        if (evento == null) {
-            System.out.println("Erro: Evento ID " + eventoId + " não encontrado.");
-            return false;
-        }
+        return METRICA_DELETAR_EVENTO.medir(() -> {
+            // 1. Buscar o evento para validação de posse
+            Evento evento = buscarEvento(eventoId);
 
-        // 2. Verificar permissão: Somente o organizador ou um Admin pode deletar.
-        Usuario usuarioLogado = usuarioDAO.getUsuarioPorId(userIdLogado);
-        if (usuarioLogado == null) {
-            System.out.println("Erro: Usuário logado não encontrado.");
-            return false;
-        }
+            if (evento == null) {
+                System.out.println("Erro: Evento ID " + eventoId + " não encontrado.");
+                return false;
+            }
 
-        if (evento.organizadorId() != userIdLogado && !usuarioLogado.isAdmin()) {
-            System.out.println("Erro: Você não tem permissão para deletar este evento.");
-            return false;
-        }
+            // 2. Verificar permissão: Somente o organizador ou um Admin pode deletar.
+            Usuario usuarioLogado = usuarioDAO.getUsuarioPorId(userIdLogado);
+            if (usuarioLogado == null) {
+                System.out.println("Erro: Usuário logado não encontrado.");
+                return false;
+            }
 
-        // 3. Deletar inscrições (Opcional, pois a FK deve fazer isso - boa prática para clareza)
-        // inscricaoDAO.deletarInscricoesPorEvento(eventoId); // Comentado, pois a FK fará isso.
+            if (evento.organizadorId() != userIdLogado && !usuarioLogado.isAdmin()) {
+                System.out.println("Erro: Você não tem permissão para deletar este evento.");
+                return false;
+            }
 
-        // 4. Delegação para o DAO (deletar o evento)
-        return eventoDAO.deletarEvento(eventoId);
+            // 3. Deletar inscrições (Opcional, pois a FK deve fazer isso - boa prática para clareza)
+            // inscricaoDAO.deletarInscricoesPorEvento(eventoId); // Comentado, pois a FK fará isso.
+
+            // 4. Delegação para o DAO (deletar o evento)
+            return catalogo.alterar(() -> {
+                boolean sucesso = eventoDAO.deletarEvento(eventoId);
+                if (sucesso) {
+                    catalogo.remover(eventoId);
+                }
+                return sucesso;
+            });
+        });
     }
 
 
@@ -258,39 +521,128 @@ public class AppController {
      * @return true se a inscrição foi bem sucedida.
      */
     public boolean inscreverEmEvento(int userId, int eventoId) {
-        Evento evento = eventoDAO.getEventoPorId(eventoId);
+        return inscreverEmEventoComResultado(userId, eventoId) == ResultadoInscricao.OK;
+    }
 
-        if (evento == null) {
-            System.out.println("Erro: Evento ID " + eventoId + " não encontrado.");
-            return false;
-        }
+    /**
+     * Inscreve um usuário em um evento e retorna o resultado tipado.
+     * As verificações (evento existe, não ocorreu, não é o organizador, não está inscrito e há vagas)
+     * e a inserção são feitas atomicamente pelo DAO, evitando que inscrições concorrentes
+     * ultrapassem a capacidade do evento.
+     * @param userId ID do usuário.
+     * @param eventoId ID do evento.
+     * @return O resultado da tentativa de inscrição.
+     */
+    public ResultadoInscricao inscreverEmEventoComResultado(int userId, int eventoId) {
+        return METRICA_INSCREVER_EM_EVENTO.medir(() -> {
+            return catalogo.alterar(() -> {
+                if (filaInscricoes != null) {
+                    try {
+                        return concluirInscricao(eventoId, filaInscricoes.inscrever(userId, eventoId).join());
+                    } catch (CompletionException e) {
+                        return falhaFila(e);
+                    }
+                }
+                return concluirInscricao(eventoId, inscricaoDAO.inscreverAtomicamente(userId, eventoId, LocalDateTime.now()));
+            });
+        });
+    }
 
-        // Regra de Negócio: Não pode se inscrever em eventos que já ocorreram.
-        if (evento.dataHora().isBefore(LocalDateTime.now())) {
-            System.out.println("Erro: Não é possível se inscrever em eventos que já ocorreram.");
-            return false;
+    /**
+     * Versão assíncrona de {@link #inscreverEmEventoComResultado}: com a fila de commit em grupo, a
+     * thread chamadora não fica bloqueada enquanto o lote é gravado. Sem a fila, executa na hora.
+     * @return Future com o resultado (ERRO se a fila estiver cheia ou encerrada).
+     */
+    public CompletableFuture<ResultadoInscricao> inscreverEmEventoAssincrono(int userId, int eventoId) {
+        if (filaInscricoes == null) {
+            return CompletableFuture.completedFuture(inscreverEmEventoComResultado(userId, eventoId));
         }
+        long inicio = System.nanoTime();
+        // A alteração é fechada pela thread da fila, depois de atualizar o catálogo.
+        catalogo.abrirAlteracao();
+        return comAlteracaoAberta(filaInscricoes::inscrever, userId, eventoId)
+                .thenApply(resultado -> {
+                    METRICA_INSCREVER_EM_EVENTO.registrar(System.nanoTime() - inicio);
+                    return concluirInscricao(eventoId, resultado);
+                })
+                .exceptionally(AppController::falhaFila)
+                .whenComplete((resultado, erro) -> catalogo.fecharAlteracao());
+    }
 
-        // Regra de Negócio: Não pode se inscrever no próprio evento.
-        if (evento.organizadorId() == userId) { // USO: evento.getOrganizadorId()
-            System.out.println("Erro: O organizador não precisa se inscrever no próprio evento.");
-            return false;
+    private ResultadoInscricao concluirInscricao(int eventoId, ResultadoInscricao resultado) {
+        switch (resultado) {
+            case OK:
+                catalogo.ajustarInscritos(eventoId, 1);
+                break;
+            case NOT_FOUND:
+                System.out.println("Erro: Evento ID " + eventoId + " não encontrado.");
+                break;
+            case FULL:
+                System.out.println("Erro: O evento ID " + eventoId + " atingiu sua capacidade máxima.");
+                break;
+            default:
+                System.out.println("Erro: " + resultado.getDescricao());
         }
+        return resultado;
+    }
 
-        // Regra de Negócio: Não pode se inscrever se já estiver inscrito.
-        if (inscricaoDAO.isInscrito(userId, eventoId)) {
-            System.out.println("Erro: Você já está inscrito neste evento.");
-            return false;
+    // Envia a operação para a fila com uma alteração do catálogo já aberta; se o envio lançar, fecha a alteração.
+    private CompletableFuture<ResultadoInscricao> comAlteracaoAberta(
+            BiFunction<Integer, Integer, CompletableFuture<ResultadoInscricao>> envio, int userId, int eventoId) {
+        try {
+            return envio.apply(userId, eventoId);
+        } catch (RuntimeException e) {
+            catalogo.fecharAlteracao();
+            throw e;
         }
+    }
 
-        // Regra de Negócio: Capacidade máxima atingida.
-        if (inscricaoDAO.contarParticipantes(eventoId) >= evento.capacidade()) { // USO: evento.getCapacidade()
-            System.out.println("Erro: O evento ID " + eventoId + " atingiu sua capacidade máxima.");
-            return false;
-        }
+    // Fila cheia ou encerrada: a operação não foi gravada.
+    private static ResultadoInscricao falhaFila(Throwable erro) {
+        Throwable causa = erro instanceof CompletionException && erro.getCause() != null ? erro.getCause() : erro;
+        System.out.println("Erro: " + causa.getMessage());
+        return ResultadoInscricao.ERRO;
+    }
+
+    /**
+     * Inscreve um grupo de usuários em um evento (inscrições corporativas, turmas, etc.).
+     * Apenas o organizador do evento ou um administrador pode inscrever um grupo.
+     * A capacidade é verificada uma única vez e as inscrições são gravadas em uma única transação.
+     * @param userIdLogado ID do usuário que executa a ação.
+     * @param usuarioIds IDs dos usuários a inscrever (a ordem define a prioridade nas vagas).
+     * @param eventoId ID do evento.
+     * @param modo Tudo-ou-nada ou melhor esforço.
+     * @return O resultado de cada usuário (vazio se a ação não for permitida).
+     */
+    public Map<Integer, ResultadoInscricao> inscreverGrupoEmEvento(int userIdLogado, List<Integer> usuarioIds,
+                                                                   int eventoId, ModoInscricaoGrupo modo) {
+        return METRICA_INSCREVER_GRUPO_EM_EVENTO.medir(() -> {
+            Usuario usuarioLogado = usuarioDAO.getUsuarioPorId(userIdLogado);
+            if (usuarioLogado == null) {
+                System.out.println("Erro: Usuário logado não encontrado.");
+                return Map.of();
+            }
+
+            if (!usuarioLogado.isAdmin()) {
+                Evento evento = buscarEvento(eventoId);
+                if (evento == null) {
+                    System.out.println("Erro: Evento ID " + eventoId + " não encontrado.");
+                    return Map.of();
+                }
+                if (evento.organizadorId() != userIdLogado) {
+                    System.out.println("Erro: Apenas o organizador do evento ou um administrador pode inscrever um grupo.");
+                    return Map.of();
+                }
+            }
 
-        // Delegação para o DAO (criarInscricao na nova InscricaoDAO).
-        return inscricaoDAO.criarInscricao(userId, eventoId);
+            return catalogo.alterar(() -> {
+                Map<Integer, ResultadoInscricao> resultados =
+                        inscricaoDAO.inscreverEmGrupo(usuarioIds, eventoId, modo, LocalDateTime.now());
+                int inscritos = (int) resultados.values().stream().filter(r -> r == ResultadoInscricao.OK).count();
+                catalogo.ajustarInscritos(eventoId, inscritos);
+                return resultados;
+            });
+        });
     }
 
     /**
@@ -300,13 +652,62 @@ public class AppController {
      * @return true se o cancelamento foi bem sucedido.
      */
     public boolean cancelarPresenca(int userId, int eventoId) {
-        if (!inscricaoDAO.isInscrito(userId, eventoId)) {
-            System.out.println("Erro: Você não está inscrito neste evento para poder cancelar.");
-            return false;
+        return METRICA_CANCELAR_PRESENCA.medir(() -> {
+            return catalogo.alterar(() -> {
+                if (filaInscricoes != null) {
+                    // Na fila, a verificação de inscrição é o próprio DELETE (0 linhas = não inscrito).
+                    try {
+                        return concluirCancelamento(eventoId, filaInscricoes.cancelar(userId, eventoId).join());
+                    } catch (CompletionException e) {
+                        falhaFila(e);
+                        return false;
+                    }
+                }
+                if (!inscricaoDAO.isInscrito(userId, eventoId)) {
+                    System.out.println("Erro: Você não está inscrito neste evento para poder cancelar.");
+                    return false;
+                }
+
+                // Delegação para o DAO (removerInscricao na nova InscricaoDAO).
+                boolean sucesso = inscricaoDAO.removerInscricao(userId, eventoId);
+                if (sucesso) {
+                    catalogo.ajustarInscritos(eventoId, -1);
+                }
+                return sucesso;
+            });
+        });
+    }
+
+    /**
+     * Versão assíncrona de {@link #cancelarPresenca}, pela fila de commit em grupo (sem a fila, executa na hora).
+     */
+    public CompletableFuture<Boolean> cancelarPresencaAssincrono(int userId, int eventoId) {
+        if (filaInscricoes == null) {
+            return CompletableFuture.completedFuture(cancelarPresenca(userId, eventoId));
         }
+        long inicio = System.nanoTime();
+        catalogo.abrirAlteracao();
+        return comAlteracaoAberta(filaInscricoes::cancelar, userId, eventoId)
+                .thenApply(resultado -> {
+                    METRICA_CANCELAR_PRESENCA.registrar(System.nanoTime() - inicio);
+                    return concluirCancelamento(eventoId, resultado);
+                })
+                .exceptionally(erro -> {
+                    falhaFila(erro);
+                    return false;
+                })
+                .whenComplete((resultado, erro) -> catalogo.fecharAlteracao());
+    }
 
-        // Delegação para o DAO (removerInscricao na nova InscricaoDAO).
-        return inscricaoDAO.removerInscricao(userId, eventoId);
+    private boolean concluirCancelamento(int eventoId, ResultadoInscricao resultado) {
+        if (resultado == ResultadoInscricao.OK) {
+            catalogo.ajustarInscritos(eventoId, -1);
+            return true;
+        }
+        if (resultado == ResultadoInscricao.NOT_ENROLLED) {
+            System.out.println("Erro: Você não está inscrito neste evento para poder cancelar.");
+        }
+        return false;
     }
 
     /**
@@ -315,25 +716,147 @@ public class AppController {
      * @return Uma lista de EventoComDetalhes.
      */
     public List<EventoComDetalhes> listarInscricoesDoUsuario(int userId) {
-        // O DAO de Evento precisa de um método para buscar eventos por ID de usuário inscrito.
-        List<Evento> eventosInscritos = eventoDAO.listarEventosInscritosPorUsuario(userId);
-        List<EventoComDetalhes> detalhesList = new ArrayList<>();
+        return METRICA_LISTAR_INSCRICOES_DO_USUARIO.medir(() -> {
+            // Consulta única com JOIN em participacao e usuario (sem buscar o organizador por evento).
+            return eventoDAO.listarEventosComDetalhesInscritosPorUsuario(userId);
+        });
+    }
 
-        for (Evento evento : eventosInscritos) {
-            EventoComDetalhes dto = toEventoComDetalhes(evento);
-            detalhesList.add(dto);
+    /**
+     * Lista os eventos já arquivados (passados) em que o usuário estava inscrito.
+     * @param userId ID do usuário.
+     * @return Uma lista de EventoComDetalhes, do mais recente para o mais antigo.
+     */
+    public List<EventoComDetalhes> listarHistoricoDoUsuario(int userId) {
+        return METRICA_LISTAR_HISTORICO_DO_USUARIO.medir(() -> {
+            if (!usaBancoDeDados) {
+                // Sem banco não há arquivo de eventos passados.
+                return new ArrayList<>();
+            }
+            return arquivoEventosDAO.listarHistoricoDoUsuario(userId);
+        });
+    }
+
+    // --- EXPORTAÇÃO ---
+
+    /**
+     * Verifica se o usuário pode exportar a lista de inscritos de um evento (organizador do evento ou admin).
+     * @return true se o evento existe e a exportação é permitida.
+     */
+    public boolean podeExportarInscritos(int userIdLogado, int eventoId) {
+        Evento evento = buscarEvento(eventoId);
+        if (evento == null) {
+            System.out.println("Erro: Evento ID " + eventoId + " não encontrado.");
+            return false;
+        }
+        if (evento.organizadorId() == userIdLogado) {
+            return true;
+        }
+        Usuario usuarioLogado = usuarioDAO.getUsuarioPorId(userIdLogado);
+        if (usuarioLogado == null || !usuarioLogado.isAdmin()) {
+            System.out.println("Erro: Você não tem permissão para exportar os inscritos deste evento.");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Exporta eventos com as listas de inscritos, em fluxo, para a saída informada (veja {@link ExportadorDados}).
+     * Com um evento informado, exige ser o organizador dele ou admin; sem evento, admins exportam
+     * todos os eventos do filtro e os demais usuários apenas os eventos que organizam.
+     * @param userIdLogado ID do usuário que faz a exportação.
+     * @param eventoId Somente este evento, ou null para todos os permitidos.
+     * @param filtro Filtros opcionais de categoria e período.
+     * @param formato Formato da exportação.
+     * @param saida Destino dos bytes (não é fechado).
+     * @return O relatório da exportação, ou null se ela não for permitida (nada é escrito).
+     * @throws IOException Em erro de escrita ou de leitura do banco (a saída fica incompleta).
+     */
+    public RelatorioExportacao exportarInscritos(int userIdLogado, Integer eventoId, FiltroEventos filtro,
+                                                 ExportadorDados.FormatoExportacao formato, OutputStream saida)
+            throws IOException {
+        try (MetricaOperacao.Medicao medicao = METRICA_EXPORTAR_INSCRITOS.iniciar()) {
+            if (!usaBancoDeDados) {
+                System.out.println("Erro: A exportação está disponível apenas com o banco de dados.");
+                return null;
+            }
+            Integer organizadorId = null;
+            if (eventoId != null) {
+                if (!podeExportarInscritos(userIdLogado, eventoId)) {
+                    return null;
+                }
+            } else {
+                Usuario usuarioLogado = usuarioDAO.getUsuarioPorId(userIdLogado);
+                if (usuarioLogado == null) {
+                    System.out.println("Erro: Usuário logado não encontrado.");
+                    return null;
+                }
+                if (!usuarioLogado.isAdmin()) {
+                    organizadorId = userIdLogado;
+                }
+            }
+            return exportadorDados.exportar(formato, filtro, eventoId, organizadorId, saida);
+        } catch (IOException e) {
+            METRICA_EXPORTAR_INSCRITOS.registrarErro();
+            throw e;
         }
-        return detalhesList;
     }
 
     // --- ADMIN ---
 
+    /**
+     * Busca uma página do histórico de eventos arquivados (paginação por chave, do mais recente para o mais antigo).
+     * @param antes Cursor da página anterior ({@link PaginaEventos#proxima()}), ou null para a primeira.
+     * @param tamanhoPagina Número de eventos por página (1 a {@value #TAMANHO_MAXIMO_PAGINA}).
+     * @return A página de eventos arquivados, com o cursor para a próxima.
+     */
+    public PaginaEventos listarHistoricoEventos(PaginaEventos.Cursor antes, int tamanhoPagina) {
+        return METRICA_LISTAR_HISTORICO_EVENTOS.medir(() -> {
+            if (tamanhoPagina <= 0 || tamanhoPagina > TAMANHO_MAXIMO_PAGINA) {
+                System.out.println("Erro: O tamanho da página deve estar entre 1 e " + TAMANHO_MAXIMO_PAGINA + ".");
+                return new PaginaEventos(List.of(), null);
+            }
+            if (!usaBancoDeDados) {
+                return new PaginaEventos(List.of(), null);
+            }
+            return arquivoEventosDAO.listarPaginaHistorico(antes, tamanhoPagina);
+        });
+    }
+
+    /**
+     * Move para o arquivo todos os eventos que já ocorreram (apenas para admins logados).
+     * Normalmente feito pelo arquivamento periódico (veja {@link ArquivamentoEventos}).
+     * @param userIdLogado ID do admin que faz a ação.
+     * @return O número de eventos arquivados, ou -1 se a ação não for permitida ou falhar.
+     */
+    public int arquivarEventosPassados(int userIdLogado) {
+        return METRICA_ARQUIVAR_EVENTOS_PASSADOS.medir(() -> {
+            Usuario usuarioLogado = usuarioDAO.getUsuarioPorId(userIdLogado);
+            if (usuarioLogado == null || !usuarioLogado.isAdmin()) {
+                System.out.println("Erro: Apenas administradores podem arquivar eventos.");
+                return -1;
+            }
+            if (!usaBancoDeDados) {
+                System.out.println("Erro: O arquivamento está disponível apenas com o banco de dados.");
+                return -1;
+            }
+            return ArquivamentoEventos.executar();
+        });
+    }
+
     /**
      * Lista todos os usuários do sistema.
      * @return Uma lista de todos os objetos Usuario.
      */
     public List<Usuario> listarTodosUsuarios() {
-        return usuarioDAO.listarTodosUsuarios();
+        return METRICA_LISTAR_TODOS_USUARIOS.medir(() -> usuarioDAO.listarTodosUsuarios());
+    }
+
+    /**
+     * @return As estatísticas do cache de usuários (acertos, faltas, tamanho); vazia sem o UsuarioDAO.
+     */
+    public List<CacheLru.Estatisticas> getEstatisticasCacheUsuarios() {
+        return usuarioDAO instanceof UsuarioDAO ? UsuarioDAO.getEstatisticasCache() : List.of();
     }
 
     /**
@@ -344,32 +867,34 @@ public class AppController {
      * @return true se a alteração foi bem sucedida.
      */
     public boolean toggleAdminStatus(int userIdLogado, int userIdAlvo, boolean isAdmin) {
-        Usuario usuarioLogado = usuarioDAO.getUsuarioPorId(userIdLogado);
+        return METRICA_TOGGLE_ADMIN_STATUS.medir(() -> {
+            Usuario usuarioLogado = usuarioDAO.getUsuarioPorId(userIdLogado);
 
-        if (usuarioLogado == null || !usuarioLogado.isAdmin()) {
-            System.out.println("Erro: Apenas administradores podem alterar o status de admin.");
-            return false;
-        }
-
-        if (userIdLogado == userIdAlvo) {
-            System.out.println("Erro: Administradores não podem alterar o próprio status.");
-            return false;
-        }
-
-        // Regra de Negócio: Não permite remover o último admin.
-        if (!isAdmin) {
-            List<Usuario> admins = usuarioDAO.listarTodosUsuarios().stream()
-                    .filter(Usuario::isAdmin)
-                    .toList();
+            if (usuarioLogado == null || !usuarioLogado.isAdmin()) {
+                System.out.println("Erro: Apenas administradores podem alterar o status de admin.");
+                return false;
+            }
 
-            // Se for o penúltimo admin e estiver tentando despromover
-            if (admins.size() == 2 && admins.stream().anyMatch(u -> u.id() == userIdAlvo)) {
-                System.out.println("Erro: Não é possível despromover, pois restaria apenas um administrador.");
+            if (userIdLogado == userIdAlvo) {
+                System.out.println("Erro: Administradores não podem alterar o próprio status.");
                 return false;
             }
-        }
 
-        return usuarioDAO.atualizarStatusAdmin(isAdmin);
+            // Regra de Negócio: Não permite remover o último admin.
+            if (!isAdmin) {
+                List<Usuario> admins = usuarioDAO.listarTodosUsuarios().stream()
+                        .filter(Usuario::isAdmin)
+                        .toList();
+
+                // Se for o penúltimo admin e estiver tentando despromover
+                if (admins.size() == 2 && admins.stream().anyMatch(u -> u.id() == userIdAlvo)) {
+                    System.out.println("Erro: Não é possível despromover, pois restaria apenas um administrador.");
+                    return false;
+                }
+            }
+
+            return usuarioDAO.atualizarStatusAdmin(userIdAlvo, isAdmin);
+        });
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,256 @@
+package controller;
+
+import model.EventoComDetalhes;
+import model.FiltroEventos;
+import model.ModoInscricaoGrupo;
+import model.PaginaBusca;
+import model.PaginaEventos;
+import model.RelatorioExportacao;
+import model.ResultadoInscricao;
+import model.Usuario;
+import util.DatabaseConnection;
+import util.MetricaOperacao;
+import util.Metricas;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Fachada assíncrona do {@link AppController}: cada operação é executada em um pool de threads
+ * próprio e devolve um {@link CompletableFuture}, para que operações independentes possam ser
+ * disparadas em paralelo e compostas (ex.: carregar os eventos inscritos e os organizados de uma vez).
+ *
+ * O número de threads limita quantas operações da fachada usam o banco ao mesmo tempo. O padrão é o
+ * tamanho do pool de conexões (db.pool.tamanho), já que cada operação usa uma conexão por vez; o pool,
+ * porém, é compartilhado com o resto do processo (servidor HTTP, fila de inscrições, outras fachadas),
+ * então uma thread ainda pode esperar por uma conexão livre. Operações além do número de threads
+ * aguardam na fila; com a fila cheia o future já é devolvido com falha ({@link RejectedExecutionException}).
+ *
+ * As regras e mensagens são as mesmas do AppController (inclusive os retornos false/-1 em caso de erro).
+ */
+public class AppControllerAssincrono implements AutoCloseable {
+
+    private static final int CAPACIDADE_FILA_PADRAO = 10_000;
+
+    // Tempo entre o envio da operação e o início da execução (fila do executor).
+    private static final MetricaOperacao METRICA_ESPERA_FILA = Metricas.operacao("AppControllerAssincrono.esperaFila");
+    private static final AtomicInteger INSTANCIAS = new AtomicInteger();
+
+    private final AppController controller;
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * Cria a fachada com um AppController próprio, uma thread por conexão do pool e a fila padrão.
+     */
+    public AppControllerAssincrono() {
+        this(new AppController(), DatabaseConnection.getConfiguracao().getTamanhoPool(), CAPACIDADE_FILA_PADRAO);
+    }
+
+    /**
+     * @param controller Controller que executa as operações.
+     * @param threads Número máximo de operações executadas ao mesmo tempo.
+     * @param capacidadeFila Número máximo de operações aguardando execução.
+     */
+    public AppControllerAssincrono(AppController controller, int threads, int capacidadeFila) {
+        if (threads <= 0 || capacidadeFila <= 0) {
+            throw new IllegalArgumentException("O número de threads e a capacidade da fila devem ser positivos.");
+        }
+        this.controller = controller;
+        String prefixo = "controller-assincrono-" + INSTANCIAS.incrementAndGet() + "-";
+        AtomicInteger contador = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacidadeFila), r -> {
+                    Thread t = new Thread(r, prefixo + contador.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+    }
+
+    /**
+     * @return O controller síncrono usado pela fachada.
+     */
+    public AppController getController() {
+        return controller;
+    }
+
+    /**
+     * @return Número de operações aguardando na fila.
+     */
+    public int getOperacoesPendentes() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * Executa uma operação qualquer do controller no pool da fachada.
+     * @param operacao Operação síncrona (normalmente uma chamada ao {@link #getController()}).
+     * @return Future com o resultado; se a fila estiver cheia, um future já concluído com falha.
+     */
+    public <T> CompletableFuture<T> executar(Supplier<T> operacao) {
+        long enviadoEm = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                METRICA_ESPERA_FILA.registrar(System.nanoTime() - enviadoEm);
+                return operacao.get();
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            // Recusas (fila cheia ou fachada fechada) aparecem como erros da métrica da fila.
+            METRICA_ESPERA_FILA.registrarErro();
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    // --- USUÁRIOS ---
+
+    public CompletableFuture<Usuario> fazerLogin(String email, String senha) {
+        return executar(() -> controller.fazerLogin(email, senha));
+    }
+
+    public CompletableFuture<Boolean> criarNovaConta(String nome, String email, String senha) {
+        return executar(() -> controller.criarNovaConta(nome, email, senha));
+    }
+
+    public CompletableFuture<Boolean> deletarConta(int userIdLogado, int idParaDeletar) {
+        return executar(() -> controller.deletarConta(userIdLogado, idParaDeletar));
+    }
+
+    // --- EVENTOS ---
+
+    public CompletableFuture<List<EventoComDetalhes>> listarTodosEventosComDetalhes() {
+        return executar(controller::listarTodosEventosComDetalhes);
+    }
+
+    public CompletableFuture<PaginaEventos> listarEventosPaginados(FiltroEventos filtro, PaginaEventos.Cursor apos,
+                                                                   int tamanhoPagina) {
+        return executar(() -> controller.listarEventosPaginados(filtro, apos, tamanhoPagina));
+    }
+
+    /**
+     * O consumidor é chamado na thread do pool, um evento por vez.
+     */
+    public CompletableFuture<Integer> percorrerEventos(FiltroEventos filtro, Consumer<EventoComDetalhes> consumidor) {
+        return executar(() -> controller.percorrerEventos(filtro, consumidor));
+    }
+
+    public CompletableFuture<PaginaBusca> buscarEventos(String termos, FiltroEventos filtro, int pagina,
+                                                        int tamanhoPagina) {
+        return executar(() -> controller.buscarEventos(termos, filtro, pagina, tamanhoPagina));
+    }
+
+    public CompletableFuture<List<EventoComDetalhes>> listarEventosOrganizados(int organizadorId) {
+        return executar(() -> controller.listarEventosOrganizados(organizadorId));
+    }
+
+    public CompletableFuture<Integer> criarNovoEvento(int organizadorId, String nome, String categoriaStr,
+                                                      String dataHoraStr, String local, int capacidade,
+                                                      String descricao) {
+        return executar(() -> controller.criarNovoEvento(organizadorId, nome, categoriaStr, dataHoraStr, local,
+                capacidade, descricao));
+    }
+
+    public CompletableFuture<Boolean> deletarEvento(int eventoId, int userIdLogado) {
+        return executar(() -> controller.deletarEvento(eventoId, userIdLogado));
+    }
+
+    // --- INSCRIÇÕES ---
+
+    public CompletableFuture<Boolean> inscreverEmEvento(int userId, int eventoId) {
+        return inscreverEmEventoComResultado(userId, eventoId).thenApply(resultado -> resultado == ResultadoInscricao.OK);
+    }
+
+    /**
+     * Com a fila de commit em grupo no controller ({@link AppController#usaFilaInscricoes()}), a operação
+     * vai direto para a fila, sem ocupar uma thread da fachada enquanto o lote é gravado.
+     */
+    public CompletableFuture<ResultadoInscricao> inscreverEmEventoComResultado(int userId, int eventoId) {
+        if (controller.usaFilaInscricoes()) {
+            return controller.inscreverEmEventoAssincrono(userId, eventoId);
+        }
+        return executar(() -> controller.inscreverEmEventoComResultado(userId, eventoId));
+    }
+
+    public CompletableFuture<Map<Integer, ResultadoInscricao>> inscreverGrupoEmEvento(int userIdLogado,
+                                                                                      List<Integer> usuarioIds,
+                                                                                      int eventoId,
+                                                                                      ModoInscricaoGrupo modo) {
+        return executar(() -> controller.inscreverGrupoEmEvento(userIdLogado, usuarioIds, eventoId, modo));
+    }
+
+    public CompletableFuture<Boolean> cancelarPresenca(int userId, int eventoId) {
+        if (controller.usaFilaInscricoes()) {
+            return controller.cancelarPresencaAssincrono(userId, eventoId);
+        }
+        return executar(() -> controller.cancelarPresenca(userId, eventoId));
+    }
+
+    public CompletableFuture<List<EventoComDetalhes>> listarInscricoesDoUsuario(int userId) {
+        return executar(() -> controller.listarInscricoesDoUsuario(userId));
+    }
+
+    public CompletableFuture<List<EventoComDetalhes>> listarHistoricoDoUsuario(int userId) {
+        return executar(() -> controller.listarHistoricoDoUsuario(userId));
+    }
+
+    // --- EXPORTAÇÃO ---
+
+    /**
+     * A saída é escrita na thread do pool e não pode ser usada por outra thread até o future concluir.
+     * Um erro de escrita ou de leitura do banco conclui o future com {@link UncheckedIOException}.
+     */
+    public CompletableFuture<RelatorioExportacao> exportarInscritos(int userIdLogado, Integer eventoId,
+                                                                    FiltroEventos filtro,
+                                                                    ExportadorDados.FormatoExportacao formato,
+                                                                    OutputStream saida) {
+        return executar(() -> {
+            try {
+                return controller.exportarInscritos(userIdLogado, eventoId, filtro, formato, saida);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    // --- ADMIN ---
+
+    public CompletableFuture<PaginaEventos> listarHistoricoEventos(PaginaEventos.Cursor antes, int tamanhoPagina) {
+        return executar(() -> controller.listarHistoricoEventos(antes, tamanhoPagina));
+    }
+
+    public CompletableFuture<Integer> arquivarEventosPassados(int userIdLogado) {
+        return executar(() -> controller.arquivarEventosPassados(userIdLogado));
+    }
+
+    public CompletableFuture<List<Usuario>> listarTodosUsuarios() {
+        return executar(controller::listarTodosUsuarios);
+    }
+
+    public CompletableFuture<Boolean> toggleAdminStatus(int userIdLogado, int userIdAlvo, boolean isAdmin) {
+        return executar(() -> controller.toggleAdminStatus(userIdLogado, userIdAlvo, isAdmin));
+    }
+
+    /**
+     * Não aceita novas operações e aguarda (até 30 s) as que já foram enviadas.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
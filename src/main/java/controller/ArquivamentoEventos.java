@@ -0,0 +1,88 @@
+package controller;
+
+import dao.ArquivoEventosDAO;
+import util.ConfiguracaoBanco;
+import util.DatabaseConnection;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Arquivamento de eventos passados: move os eventos que já ocorreram (com as inscrições) para o
+ * arquivo (veja {@link ArquivoEventosDAO}) e os retira do catálogo em memória.
+ *
+ * Executado na inicialização e depois a cada db.arquivamento.intervalo minutos, em uma thread
+ * daemon; com intervalo 0 só é executado pelo menu de administrador.
+ */
+public final class ArquivamentoEventos {
+
+    private static final ArquivoEventosDAO ARQUIVO_DAO = new ArquivoEventosDAO();
+
+    private static ScheduledExecutorService agendador;
+
+    private ArquivamentoEventos() {
+    }
+
+    /**
+     * Arquiva todos os eventos com data anterior ao momento atual.
+     * @return O número de eventos arquivados, ou -1 em caso de erro.
+     */
+    public static int executar() {
+        CatalogoEventos catalogo = CatalogoEventos.getInstancia();
+        return catalogo.alterar(() -> {
+            LocalDateTime limite = LocalDateTime.now();
+            int arquivados = ARQUIVO_DAO.arquivarEventosAte(limite, DatabaseConnection.getConfiguracao().getLoteArquivamento());
+            if (arquivados < 0) {
+                // Parte dos lotes pode ter sido gravada: o catálogo é recarregado no próximo acesso.
+                catalogo.descartar();
+            } else if (arquivados > 0) {
+                // Mesmo critério do DAO (data_hora < limite), aplicado ao índice por data do catálogo.
+                catalogo.removerAnterioresA(limite);
+            }
+            return arquivados;
+        });
+    }
+
+    /**
+     * Executa o arquivamento uma vez e agenda as próximas execuções, conforme db.arquivamento.intervalo.
+     * Chamadas repetidas não criam outro agendamento.
+     * @return O número de eventos arquivados agora, -1 em caso de erro, ou 0 se o arquivamento automático estiver desativado.
+     */
+    public static synchronized int iniciarPeriodico() {
+        ConfiguracaoBanco config = DatabaseConnection.getConfiguracao();
+        long intervalo = config.getIntervaloArquivamentoMin();
+        if (intervalo == 0 || agendador != null) {
+            return 0;
+        }
+        // A primeira execução é síncrona, para que o catálogo carregado em seguida já venha sem os eventos passados.
+        int arquivados = executar();
+
+        agendador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "arquivamento-eventos");
+            t.setDaemon(true);
+            return t;
+        });
+        agendador.scheduleWithFixedDelay(() -> {
+            // Uma exceção cancelaria as próximas execuções do agendamento.
+            try {
+                executar();
+            } catch (RuntimeException e) {
+                System.err.println("Erro no arquivamento periódico de eventos: " + e.getMessage());
+            }
+        }, intervalo, intervalo, TimeUnit.MINUTES);
+        return arquivados;
+    }
+
+    /**
+     * Interrompe o arquivamento periódico.
+     */
+    public static synchronized void pararPeriodico() {
+        if (agendador == null) {
+            return;
+        }
+        agendador.shutdownNow();
+        agendador = null;
+    }
+}
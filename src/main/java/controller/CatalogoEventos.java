@@ -0,0 +1,444 @@
+package controller;
+
+import dao.EventoDAO;
+import dao.RepositorioEventos;
+import model.CategoriaEvento;
+import model.Evento;
+import model.EventoComDetalhes;
+import model.FiltroEventos;
+import model.PaginaEventos;
+import util.DatabaseConnection;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Catálogo de eventos em memória, otimizado para leitura: carrega todos os eventos uma vez
+ * e mantém índices secundários ordenados por (data_hora, id) — geral, por categoria e por
+ * organizador — além do índice por ID. As consultas de navegação não acessam o banco.
+ *
+ * O AppController atualiza o catálogo a cada criação/deleção de evento, deleção de usuário
+ * (eventos removidos em cascata), inscrição/cancelamento (contador de inscritos) e arquivamento
+ * de eventos passados (veja {@link ArquivamentoEventos}).
+ * Alterações feitas por fora do AppController (ex.: importação em lote) devem chamar
+ * {@link #descartar()}, para que o catálogo seja recarregado no próximo acesso.
+ *
+ * Cada gravação no banco que também atualiza o catálogo é feita dentro de uma alteração
+ * ({@link #alterar} ou {@link #abrirAlteracao()}/{@link #fecharAlteracao()}). A recarga espera as
+ * alterações abertas e segura as novas até trocar os índices: uma gravação entre a leitura do banco
+ * e a troca seria contada duas vezes (lida pela recarga e aplicada de novo) ou perdida (aplicada
+ * nos índices antigos).
+ */
+public final class CatalogoEventos {
+
+    // Mesma ordem das consultas do catálogo no EventoDAO: data_hora e, no empate, id.
+    private static final Comparator<PaginaEventos.Cursor> ORDEM =
+            Comparator.comparing(PaginaEventos.Cursor::dataHora).thenComparingInt(PaginaEventos.Cursor::id);
+
+    private static final CatalogoEventos INSTANCIA = new CatalogoEventos(new EventoDAO());
+
+    // Cada alteração ocupa uma permissão; a recarga ocupa todas.
+    private static final int PERMISSOES = Integer.MAX_VALUE;
+
+    static {
+        // Outro banco (ex.: troca de db.url) exige recarregar o catálogo.
+        DatabaseConnection.aoFecharPool(INSTANCIA::descartar);
+    }
+
+    private final RepositorioEventos eventoDAO;
+    // null enquanto o catálogo não foi carregado. Uma recarga troca todos os índices de uma vez.
+    private volatile Indices indices;
+    // Incrementada a cada evento incluído ou removido e a cada recarga (veja SnapshotCatalogo).
+    private final AtomicLong versao = new AtomicLong();
+    // Incrementada a cada mudança de contador de inscritos; muda bem mais que a versão.
+    private final AtomicLong versaoInscritos = new AtomicLong();
+    // Justa: uma recarga esperando não é ultrapassada por novas alterações.
+    private final Semaphore alteracoes = new Semaphore(PERMISSOES, true);
+    // Incrementada ao fim de cada tentativa de carga. Quem esperava pela vez enquanto outra carga
+    // acontecia usa o resultado dela em vez de ler o banco de novo.
+    private final AtomicLong cargas = new AtomicLong();
+    // Resultado da última tentativa de carga (acessado sob o monitor).
+    private boolean ultimaCargaFalhou;
+
+    /**
+     * Evento do catálogo. O contador de inscritos muda sem recriar a entrada.
+     */
+    private static final class Entrada {
+        final Evento evento;
+        final String nomeOrganizador;
+        final AtomicInteger inscritos;
+
+        Entrada(Evento evento, String nomeOrganizador, int inscritos) {
+            this.evento = evento;
+            this.nomeOrganizador = nomeOrganizador;
+            this.inscritos = new AtomicInteger(inscritos);
+        }
+
+        PaginaEventos.Cursor chave() {
+            return new PaginaEventos.Cursor(evento.dataHora(), evento.id());
+        }
+
+        EventoComDetalhes comDetalhes() {
+            return new EventoComDetalhes(evento, nomeOrganizador, inscritos.get());
+        }
+    }
+
+    /**
+     * Índices do catálogo. Leituras não usam trava; alterações são serializadas pelo catálogo.
+     */
+    private static final class Indices {
+        final Map<Integer, Entrada> porId = new ConcurrentHashMap<>();
+        final NavigableMap<PaginaEventos.Cursor, Entrada> porData = new ConcurrentSkipListMap<>(ORDEM);
+        // Todas as categorias são criadas aqui; depois o EnumMap só é lido.
+        final Map<CategoriaEvento, NavigableMap<PaginaEventos.Cursor, Entrada>> porCategoria =
+                new EnumMap<>(CategoriaEvento.class);
+        final Map<Integer, NavigableMap<PaginaEventos.Cursor, Entrada>> porOrganizador = new ConcurrentHashMap<>();
+
+        Indices() {
+            for (CategoriaEvento categoria : CategoriaEvento.values()) {
+                porCategoria.put(categoria, new ConcurrentSkipListMap<>(ORDEM));
+            }
+        }
+
+        void adicionar(Entrada entrada) {
+            Entrada anterior = porId.put(entrada.evento.id(), entrada);
+            if (anterior != null) {
+                removerDosOrdenados(anterior);
+            }
+            PaginaEventos.Cursor chave = entrada.chave();
+            porData.put(chave, entrada);
+            porCategoria.get(entrada.evento.categoria()).put(chave, entrada);
+            porOrganizador.computeIfAbsent(entrada.evento.organizadorId(), id -> new ConcurrentSkipListMap<>(ORDEM))
+                    .put(chave, entrada);
+        }
+
+        void remover(int eventoId) {
+            Entrada entrada = porId.remove(eventoId);
+            if (entrada != null) {
+                removerDosOrdenados(entrada);
+            }
+        }
+
+        private void removerDosOrdenados(Entrada entrada) {
+            PaginaEventos.Cursor chave = entrada.chave();
+            porData.remove(chave);
+            porCategoria.get(entrada.evento.categoria()).remove(chave);
+            NavigableMap<PaginaEventos.Cursor, Entrada> doOrganizador = porOrganizador.get(entrada.evento.organizadorId());
+            if (doOrganizador != null) {
+                doOrganizador.remove(chave);
+            }
+        }
+    }
+
+    /**
+     * @param eventoDAO Repositório de onde o catálogo é carregado.
+     */
+    CatalogoEventos(RepositorioEventos eventoDAO) {
+        this.eventoDAO = eventoDAO;
+    }
+
+    /**
+     * @return O catálogo compartilhado por todos os AppControllers.
+     */
+    public static CatalogoEventos getInstancia() {
+        return INSTANCIA;
+    }
+
+    // --- CARGA ---
+
+    /**
+     * Carrega o catálogo se ainda não estiver carregado.
+     * @return true se o catálogo está disponível; false se a carga falhou (use o banco diretamente).
+     */
+    public boolean garantirCarregado() {
+        return indices != null || carregar(true);
+    }
+
+    /**
+     * (Re)carrega todos os eventos do banco, substituindo os índices atuais de uma vez. Espera as
+     * alterações abertas terminarem; as novas esperam a carga. Não chame com uma alteração aberta.
+     * @return true se a carga foi concluída.
+     */
+    public boolean carregar() {
+        return carregar(false);
+    }
+
+    /**
+     * @param seAusente Carga sob demanda: se o catálogo já foi carregado enquanto esta esperava a vez, ou
+     *                  se a carga que terminou nesse meio-tempo falhou, devolve esse resultado sem ler o banco.
+     */
+    private boolean carregar(boolean seAusente) {
+        long cargasAntes = cargas.get();
+        // Adquirida fora do synchronized: as alterações abertas ainda precisam do monitor para terminar.
+        alteracoes.acquireUninterruptibly(PERMISSOES);
+        try {
+            synchronized (this) {
+                if (seAusente && indices != null) {
+                    return true;
+                }
+                if (seAusente && ultimaCargaFalhou && cargas.get() != cargasAntes) {
+                    return false;
+                }
+                ultimaCargaFalhou = true;
+                try {
+                    Indices novos = new Indices();
+                    int total = eventoDAO.percorrerEventos(FiltroEventos.TODOS,
+                            e -> novos.adicionar(new Entrada(e.evento(), e.nomeOrganizador(), e.inscritos())));
+                    if (total < 0) {
+                        return false;
+                    }
+                    indices = novos;
+                    versao.incrementAndGet();
+                    ultimaCargaFalhou = false;
+                    return true;
+                } finally {
+                    cargas.incrementAndGet();
+                }
+            }
+        } finally {
+            alteracoes.release(PERMISSOES);
+        }
+    }
+
+    /**
+     * Descarta o catálogo; o próximo acesso o recarrega do banco.
+     */
+    public synchronized void descartar() {
+        indices = null;
+        versao.incrementAndGet();
+    }
+
+    public boolean isCarregado() {
+        return indices != null;
+    }
+
+    /**
+     * @return Número de eventos no catálogo (0 se não estiver carregado).
+     */
+    public int getTotalEventos() {
+        Indices atuais = indices;
+        return atuais == null ? 0 : atuais.porId.size();
+    }
+
+    /**
+     * @return Versão do catálogo: muda a cada evento criado, removido ou arquivado e a cada recarga.
+     *         Lida antes de uma consulta, garante que o resultado é pelo menos tão novo quanto a versão.
+     */
+    public long getVersao() {
+        return versao.get();
+    }
+
+    /**
+     * @return Versão dos contadores de inscritos: muda a cada inscrição/cancelamento. Mesma garantia
+     *         de {@link #getVersao()}.
+     */
+    public long getVersaoInscritos() {
+        return versaoInscritos.get();
+    }
+
+    // --- CONSULTAS (chamar depois de garantirCarregado) ---
+
+    /**
+     * @return O evento com o ID informado, ou null se não existir.
+     */
+    public Evento getEvento(int eventoId) {
+        Entrada entrada = atuais().porId.get(eventoId);
+        return entrada == null ? null : entrada.evento;
+    }
+
+    /**
+     * @return Todos os eventos, em ordem de data.
+     */
+    public List<EventoComDetalhes> listarTodos() {
+        return comDetalhes(atuais().porData, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @return Os eventos do organizador, em ordem de data.
+     */
+    public List<EventoComDetalhes> listarPorOrganizador(int organizadorId) {
+        NavigableMap<PaginaEventos.Cursor, Entrada> doOrganizador = atuais().porOrganizador.get(organizadorId);
+        return doOrganizador == null ? new ArrayList<>() : comDetalhes(doOrganizador, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Mesma semântica de {@link RepositorioEventos#listarPaginaEventos}: página ordenada por (data_hora, id)
+     * a partir do cursor, com os filtros de categoria e período.
+     */
+    public PaginaEventos pagina(FiltroEventos filtro, PaginaEventos.Cursor apos, int tamanhoPagina) {
+        List<EventoComDetalhes> eventos = comDetalhes(faixa(filtro, apos), tamanhoPagina + 1);
+        PaginaEventos.Cursor proxima = null;
+        if (eventos.size() > tamanhoPagina) {
+            eventos.remove(eventos.size() - 1);
+            EventoComDetalhes ultimo = eventos.get(eventos.size() - 1);
+            proxima = new PaginaEventos.Cursor(ultimo.getDataHora(), ultimo.getId());
+        }
+        return new PaginaEventos(eventos, proxima);
+    }
+
+    /**
+     * Mesma semântica de {@link RepositorioEventos#percorrerEventos}.
+     * @return O número de eventos entregues ao consumidor.
+     */
+    public int percorrer(FiltroEventos filtro, Consumer<EventoComDetalhes> consumidor) {
+        int total = 0;
+        for (Entrada entrada : faixa(filtro, null).values()) {
+            consumidor.accept(entrada.comDetalhes());
+            total++;
+        }
+        return total;
+    }
+
+    /**
+     * Seleciona o índice (geral ou da categoria) e recorta o intervalo do filtro e do cursor.
+     */
+    private NavigableMap<PaginaEventos.Cursor, Entrada> faixa(FiltroEventos filtro, PaginaEventos.Cursor apos) {
+        Indices atuais = atuais();
+        NavigableMap<PaginaEventos.Cursor, Entrada> faixa = filtro.categoria() == null
+                ? atuais.porData : atuais.porCategoria.get(filtro.categoria());
+
+        // Integer.MIN_VALUE como id: a chave fica antes de todos os eventos daquele instante.
+        PaginaEventos.Cursor inicio = filtro.inicio() == null ? null
+                : new PaginaEventos.Cursor(filtro.inicio(), Integer.MIN_VALUE);
+        if (apos != null && (inicio == null || ORDEM.compare(apos, inicio) >= 0)) {
+            faixa = faixa.tailMap(apos, false);
+        } else if (inicio != null) {
+            faixa = faixa.tailMap(inicio, true);
+        }
+        if (filtro.fim() != null) {
+            faixa = faixa.headMap(new PaginaEventos.Cursor(filtro.fim(), Integer.MIN_VALUE), false);
+        }
+        return faixa;
+    }
+
+    // Se o catálogo foi descartado entre o garantirCarregado e a consulta, recarrega.
+    private Indices atuais() {
+        Indices atuais = indices;
+        if (atuais == null && carregar(true)) {
+            atuais = indices;
+        }
+        if (atuais == null) {
+            throw new IllegalStateException("Catálogo de eventos indisponível.");
+        }
+        return atuais;
+    }
+
+    private static List<EventoComDetalhes> comDetalhes(NavigableMap<PaginaEventos.Cursor, Entrada> faixa, int limite) {
+        // Sem faixa.size(): nos mapas ordenados concorrentes ele percorre todos os elementos.
+        List<EventoComDetalhes> eventos = new ArrayList<>();
+        for (Entrada entrada : faixa.values()) {
+            if (eventos.size() >= limite) {
+                break;
+            }
+            eventos.add(entrada.comDetalhes());
+        }
+        return eventos;
+    }
+
+    // --- ATUALIZAÇÕES (chamadas depois de gravar no banco; ignoradas se o catálogo não estiver carregado) ---
+
+    /**
+     * Abre uma alteração: chame antes de gravar no banco e feche com {@link #fecharAlteracao()}, em
+     * qualquer thread, depois de atualizar o catálogo (ou se a gravação falhar). Espera se houver
+     * uma recarga em andamento.
+     */
+    public void abrirAlteracao() {
+        alteracoes.acquireUninterruptibly();
+    }
+
+    public void fecharAlteracao() {
+        alteracoes.release();
+    }
+
+    /**
+     * Executa a gravação no banco e a atualização do catálogo como uma única alteração.
+     */
+    public <T> T alterar(Supplier<T> gravacao) {
+        abrirAlteracao();
+        try {
+            return gravacao.get();
+        } finally {
+            fecharAlteracao();
+        }
+    }
+
+    /**
+     * Inclui um evento recém-criado (sem inscritos).
+     */
+    public synchronized void adicionar(Evento evento, String nomeOrganizador) {
+        if (indices != null) {
+            indices.adicionar(new Entrada(evento, nomeOrganizador, 0));
+            versao.incrementAndGet();
+        }
+    }
+
+    /**
+     * Remove um evento deletado.
+     */
+    public synchronized void remover(int eventoId) {
+        if (indices != null) {
+            indices.remover(eventoId);
+            versao.incrementAndGet();
+        }
+    }
+
+    /**
+     * Remove todos os eventos de um organizador (deleção em cascata ao deletar o usuário).
+     */
+    public synchronized void removerDoOrganizador(int organizadorId) {
+        if (indices == null) {
+            return;
+        }
+        NavigableMap<PaginaEventos.Cursor, Entrada> doOrganizador = indices.porOrganizador.remove(organizadorId);
+        if (doOrganizador != null) {
+            for (Entrada entrada : doOrganizador.values()) {
+                indices.remover(entrada.evento.id());
+            }
+            versao.incrementAndGet();
+        }
+    }
+
+    /**
+     * Remove os eventos anteriores ao limite (movidos para o arquivo de eventos passados).
+     * @return O número de eventos removidos.
+     */
+    public synchronized int removerAnterioresA(LocalDateTime limite) {
+        if (indices == null) {
+            return 0;
+        }
+        // Cópia das entradas: a remoção altera o próprio mapa que está sendo percorrido.
+        List<Entrada> passados = new ArrayList<>(
+                indices.porData.headMap(new PaginaEventos.Cursor(limite, Integer.MIN_VALUE), false).values());
+        for (Entrada entrada : passados) {
+            indices.remover(entrada.evento.id());
+        }
+        versao.incrementAndGet();
+        return passados.size();
+    }
+
+    /**
+     * Soma (ou subtrai, com delta negativo) inscrições ao contador de um evento.
+     */
+    public synchronized void ajustarInscritos(int eventoId, int delta) {
+        if (indices == null || delta == 0) {
+            return;
+        }
+        Entrada entrada = indices.porId.get(eventoId);
+        if (entrada != null) {
+            entrada.inscritos.addAndGet(delta);
+            versaoInscritos.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package controller;
+
+import dao.ExportacaoDAO;
+import model.EventoComDetalhes;
+import model.FiltroEventos;
+import model.RelatorioExportacao;
+import util.EscritorCsv;
+import util.Json;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.format.DateTimeFormatter;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exportação de eventos com as listas de inscritos (e o nome do organizador) para CSV ou JSON Lines.
+ * As linhas vêm do banco em fluxo ({@link ExportacaoDAO}) e são escritas direto no destino, com
+ * buffer e gzip opcional: a memória usada é a mesma para dez ou para cem mil inscritos.
+ *
+ * Formatos:
+ * <ul>
+ *   <li>CSV (com cabeçalho): uma linha por inscrição; eventos sem inscritos aparecem uma vez, com as
+ *       colunas do participante vazias. data_hora no formato dd/MM/yyyy HH:mm, como na importação.</li>
+ *   <li>JSONL: um objeto por evento (mesmos campos da API HTTP), com o array "participantes".</li>
+ * </ul>
+ */
+public class ExportadorDados {
+
+    /**
+     * Formato do arquivo gerado.
+     */
+    public enum FormatoExportacao {
+        CSV, JSONL
+    }
+
+    // Buffer do texto antes da codificação e do gzip (menos chamadas de escrita no canal).
+    private static final int TAMANHO_BUFFER = 64 * 1024;
+
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
+    private static final String[] CABECALHO_CSV = {"evento_id", "evento_nome", "categoria", "data_hora", "local",
+            "capacidade", "inscritos", "organizador", "participante_id", "participante_nome", "participante_email"};
+
+    private final ExportacaoDAO exportacaoDAO = new ExportacaoDAO();
+
+    /**
+     * Exporta para um arquivo. O formato é definido pela extensão: .csv ou .jsonl, com .gz no
+     * final para gravar comprimido (ex.: inscritos.csv.gz).
+     * @param arquivo Caminho do arquivo (sobrescrito se existir).
+     * @param filtro Filtros opcionais de categoria e período.
+     * @param eventoId Somente este evento, ou null para todos.
+     * @param organizadorId Somente eventos deste organizador, ou null para todos.
+     * @return O relatório da exportação.
+     * @throws IOException Se a extensão não for suportada ou houver erro de escrita ou de leitura do banco.
+     */
+    public RelatorioExportacao exportar(Path arquivo, FiltroEventos filtro, Integer eventoId, Integer organizadorId)
+            throws IOException {
+        String nome = arquivo.getFileName().toString().toLowerCase();
+        boolean gzip = nome.endsWith(".gz");
+        if (gzip) {
+            nome = nome.substring(0, nome.length() - 3);
+        }
+        FormatoExportacao formato;
+        if (nome.endsWith(".csv")) {
+            formato = FormatoExportacao.CSV;
+        } else if (nome.endsWith(".jsonl")) {
+            formato = FormatoExportacao.JSONL;
+        } else {
+            throw new IOException("Formato não suportado: use arquivos .csv ou .jsonl (opcionalmente .gz).");
+        }
+
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+             OutputStream saida = gzip ? new GZIPOutputStream(Channels.newOutputStream(canal), TAMANHO_BUFFER)
+                     : Channels.newOutputStream(canal)) {
+            return exportar(formato, filtro, eventoId, organizadorId, saida);
+        }
+    }
+
+    /**
+     * Exporta para um fluxo de saída (ex.: resposta HTTP). O texto é gravado em UTF-8 e o fluxo
+     * recebe flush no final, mas não é fechado.
+     * @param formato Formato da exportação.
+     * @param filtro Filtros opcionais de categoria e período.
+     * @param eventoId Somente este evento, ou null para todos.
+     * @param organizadorId Somente eventos deste organizador, ou null para todos.
+     * @param saida Destino dos bytes (comprimir, se desejado, é responsabilidade de quem chama).
+     * @return O relatório da exportação.
+     * @throws IOException Em erro de escrita ou de leitura do banco (a saída fica incompleta).
+     */
+    public RelatorioExportacao exportar(FormatoExportacao formato, FiltroEventos filtro, Integer eventoId,
+                                        Integer organizadorId, OutputStream saida) throws IOException {
+        long inicio = System.nanoTime();
+        Writer writer = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8), TAMANHO_BUFFER);
+        Escrita escrita = formato == FormatoExportacao.CSV ? new EscritaCsv(writer) : new EscritaJsonLines(writer);
+
+        escrita.iniciar();
+        long linhas = exportacaoDAO.percorrerInscritos(filtro, eventoId, organizadorId, escrita::linha);
+        if (linhas < 0) {
+            throw new IOException("Erro ao ler os eventos do banco; a exportação ficou incompleta.");
+        }
+        escrita.terminar();
+        writer.flush();
+
+        long duracaoMs = (System.nanoTime() - inicio) / 1_000_000;
+        return new RelatorioExportacao(escrita.eventos, escrita.inscricoes, duracaoMs);
+    }
+
+    // --- ESCRITA DOS FORMATOS ---
+
+    /**
+     * Escreve as linhas recebidas do DAO, contando eventos e inscrições.
+     * As linhas de um evento chegam em sequência, então basta comparar com o evento anterior.
+     */
+    private abstract static class Escrita {
+        long eventos = 0;
+        long inscricoes = 0;
+        private EventoComDetalhes eventoAtual;
+
+        void iniciar() throws IOException {
+        }
+
+        final void linha(ExportacaoDAO.LinhaExportacao linha) throws IOException {
+            boolean novoEvento = linha.evento() != eventoAtual;
+            if (novoEvento) {
+                if (eventoAtual != null) {
+                    fimEvento();
+                }
+                eventoAtual = linha.evento();
+                eventos++;
+            }
+            if (linha.participanteId() != null) {
+                inscricoes++;
+            }
+            escrever(linha, novoEvento);
+        }
+
+        final void terminar() throws IOException {
+            if (eventoAtual != null) {
+                fimEvento();
+            }
+        }
+
+        abstract void escrever(ExportacaoDAO.LinhaExportacao linha, boolean novoEvento) throws IOException;
+
+        void fimEvento() throws IOException {
+        }
+    }
+
+    private static final class EscritaCsv extends Escrita {
+        private final EscritorCsv csv;
+
+        EscritaCsv(Writer writer) {
+            this.csv = new EscritorCsv(writer);
+        }
+
+        @Override
+        void iniciar() throws IOException {
+            csv.registro(CABECALHO_CSV);
+        }
+
+        @Override
+        void escrever(ExportacaoDAO.LinhaExportacao linha, boolean novoEvento) throws IOException {
+            EventoComDetalhes e = linha.evento();
+            csv.campo(e.getId());
+            csv.campo(e.getNome());
+            csv.campo(e.getCategoria().name());
+            csv.campo(e.getDataHora().format(FORMATTER));
+            csv.campo(e.evento().local());
+            csv.campo(e.getCapacidade());
+            csv.campo(e.inscritos());
+            csv.campo(e.nomeOrganizador());
+            csv.campo(linha.participanteId() != null ? linha.participanteId().toString() : null);
+            csv.campo(linha.nomeParticipante());
+            csv.campo(linha.emailParticipante());
+            csv.fimRegistro();
+        }
+    }
+
+    private static final class EscritaJsonLines extends Escrita {
+        private final Writer writer;
+        private boolean primeiroParticipante;
+
+        EscritaJsonLines(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        void escrever(ExportacaoDAO.LinhaExportacao linha, boolean novoEvento) throws IOException {
+            if (novoEvento) {
+                EventoComDetalhes e = linha.evento();
+                writer.write("{\"id\":" + e.getId()
+                        + ",\"nome\":" + Json.texto(e.getNome())
+                        + ",\"categoria\":" + Json.texto(e.getCategoria().name())
+                        + ",\"dataHora\":" + Json.texto(e.getDataHora().toString())
+                        + ",\"local\":" + Json.texto(e.evento().local())
+                        + ",\"capacidade\":" + e.getCapacidade()
+                        + ",\"inscritos\":" + e.inscritos()
+                        + ",\"organizadorId\":" + e.evento().organizadorId()
+                        + ",\"organizador\":" + Json.texto(e.nomeOrganizador())
+                        + ",\"descricao\":" + Json.texto(e.evento().descricao())
+                        + ",\"participantes\":[");
+                primeiroParticipante = true;
+            }
+            if (linha.participanteId() == null) {
+                return;
+            }
+            if (!primeiroParticipante) {
+                writer.write(',');
+            }
+            primeiroParticipante = false;
+            writer.write("{\"id\":" + linha.participanteId()
+                    + ",\"nome\":" + Json.texto(linha.nomeParticipante())
+                    + ",\"email\":" + Json.texto(linha.emailParticipante()) + "}");
+        }
+
+        @Override
+        void fimEvento() throws IOException {
+            writer.write("]}\n");
+        }
+    }
+}
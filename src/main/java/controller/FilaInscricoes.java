@@ -0,0 +1,230 @@
+package controller;
+
+import dao.InscricaoDAO;
+import dao.RepositorioInscricoes;
+import model.ResultadoInscricao;
+import util.ConfiguracaoBanco;
+import util.DatabaseConnection;
+import util.MetricaOperacao;
+import util.Metricas;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fila de commit em grupo para inscrições e cancelamentos. Em vez de cada operação ser uma
+ * transação própria (um fsync e uma disputa pelo lock de escrita do SQLite por inscrição), as
+ * operações entram em uma fila e uma única thread as grava em lotes, cada lote em uma transação
+ * ({@link RepositorioInscricoes#gravarLote}). Cada chamador recebe um future com o próprio resultado.
+ *
+ * Um lote é gravado quando atinge o tamanho máximo ou quando a espera máxima acaba, contada a partir
+ * da primeira operação do lote. Sem concorrência, o custo extra é no máximo a espera configurada;
+ * com milhares de inscrições por segundo, o fsync é dividido por todas as operações do lote.
+ *
+ * Não atualiza o catálogo em memória: isso fica com o {@link AppController}, a partir dos resultados.
+ */
+public class FilaInscricoes implements AutoCloseable {
+
+    // Tempo entre o envio da operação e o commit do lote que a contém.
+    private static final MetricaOperacao METRICA_ESPERA = Metricas.operacao("FilaInscricoes.espera");
+    private static final AtomicInteger INSTANCIAS = new AtomicInteger();
+
+    // Marca o fim da fila (enviada pelo close depois da última operação aceita).
+    private static final Pedido FIM = new Pedido(null, 0, null);
+
+    private final RepositorioInscricoes inscricaoDAO;
+    private final int tamanhoMaximoLote;
+    private final long esperaMaximaNanos;
+    private final BlockingQueue<Pedido> fila;
+    private final Thread gravador;
+    private volatile boolean aberta = true;
+
+    private final LongAdder lotes = new LongAdder();
+    private final LongAdder operacoes = new LongAdder();
+
+    /**
+     * Operação aguardando gravação.
+     */
+    private record Pedido(RepositorioInscricoes.OperacaoInscricao operacao, long enviadoEm,
+                          CompletableFuture<ResultadoInscricao> futuro) {
+    }
+
+    /**
+     * Cria a fila com os valores de db.commit_grupo.* (veja {@link ConfiguracaoBanco}) e inicia a thread gravadora.
+     */
+    public FilaInscricoes() {
+        this(new InscricaoDAO(), DatabaseConnection.getConfiguracao().getLoteCommitGrupo(),
+                DatabaseConnection.getConfiguracao().getEsperaCommitGrupoUs(),
+                DatabaseConnection.getConfiguracao().getFilaCommitGrupo());
+    }
+
+    /**
+     * @param inscricaoDAO Repositório que grava os lotes (InscricaoDAO ou RepositorioMemoria).
+     * @param tamanhoMaximoLote Número máximo de operações por transação.
+     * @param esperaMaximaUs Tempo máximo (microssegundos) que a primeira operação de um lote espera por outras.
+     * @param capacidadeFila Número máximo de operações aguardando gravação.
+     */
+    public FilaInscricoes(RepositorioInscricoes inscricaoDAO, int tamanhoMaximoLote, long esperaMaximaUs, int capacidadeFila) {
+        if (tamanhoMaximoLote <= 0 || capacidadeFila <= 0 || esperaMaximaUs < 0) {
+            throw new IllegalArgumentException("Tamanho do lote e capacidade da fila devem ser positivos, e a espera não pode ser negativa.");
+        }
+        this.inscricaoDAO = inscricaoDAO;
+        this.tamanhoMaximoLote = tamanhoMaximoLote;
+        this.esperaMaximaNanos = TimeUnit.MICROSECONDS.toNanos(esperaMaximaUs);
+        this.fila = new ArrayBlockingQueue<>(capacidadeFila);
+        this.gravador = new Thread(this::executar, "fila-inscricoes-" + INSTANCIAS.incrementAndGet());
+        this.gravador.setDaemon(true);
+        this.gravador.start();
+    }
+
+    /**
+     * Enfileira uma inscrição.
+     * @return Future com o resultado; se a fila estiver cheia ou fechada, um future já concluído com
+     *         falha ({@link RejectedExecutionException}).
+     */
+    public CompletableFuture<ResultadoInscricao> inscrever(int usuarioId, int eventoId) {
+        return enviar(new RepositorioInscricoes.OperacaoInscricao(false, usuarioId, eventoId));
+    }
+
+    /**
+     * Enfileira um cancelamento.
+     * @return Future com OK (inscrição removida), NOT_ENROLLED ou ERRO; falha como em {@link #inscrever}.
+     */
+    public CompletableFuture<ResultadoInscricao> cancelar(int usuarioId, int eventoId) {
+        return enviar(new RepositorioInscricoes.OperacaoInscricao(true, usuarioId, eventoId));
+    }
+
+    private CompletableFuture<ResultadoInscricao> enviar(RepositorioInscricoes.OperacaoInscricao operacao) {
+        CompletableFuture<ResultadoInscricao> futuro = new CompletableFuture<>();
+        if (!aberta || !fila.offer(new Pedido(operacao, System.nanoTime(), futuro))) {
+            METRICA_ESPERA.registrarErro();
+            futuro.completeExceptionally(new RejectedExecutionException(
+                    aberta ? "Fila de inscrições cheia." : "Fila de inscrições encerrada."));
+        }
+        return futuro;
+    }
+
+    /**
+     * @return Número de operações aguardando gravação.
+     */
+    public int getOperacoesPendentes() {
+        return fila.size();
+    }
+
+    /**
+     * @return Número médio de operações por transação desde a criação da fila.
+     */
+    public double getTamanhoMedioLote() {
+        long totalLotes = lotes.sum();
+        return totalLotes == 0 ? 0 : (double) operacoes.sum() / totalLotes;
+    }
+
+    // --- THREAD GRAVADORA ---
+
+    private void executar() {
+        List<Pedido> lote = new ArrayList<>(tamanhoMaximoLote);
+        boolean fim = false;
+        while (!fim) {
+            int posicaoFim = -1;
+            try {
+                lote.add(fila.take());
+                long limite = System.nanoTime() + esperaMaximaNanos;
+                int verificados = 0;
+                while (true) {
+                    for (; verificados < lote.size() && posicaoFim < 0; verificados++) {
+                        if (lote.get(verificados) == FIM) {
+                            posicaoFim = verificados;
+                        }
+                    }
+                    if (posicaoFim >= 0 || lote.size() >= tamanhoMaximoLote) {
+                        break;
+                    }
+                    if (fila.drainTo(lote, tamanhoMaximoLote - lote.size()) > 0) {
+                        continue;
+                    }
+                    long resta = limite - System.nanoTime();
+                    Pedido proximo = resta > 0 ? fila.poll(resta, TimeUnit.NANOSECONDS) : null;
+                    if (proximo == null) {
+                        break;
+                    }
+                    lote.add(proximo);
+                }
+            } catch (InterruptedException e) {
+                // Só o close interrompe a thread; o lote já montado ainda é gravado.
+                fim = true;
+            }
+            if (posicaoFim >= 0) {
+                // Operações depois do FIM entraram em corrida com o close e não são gravadas.
+                List<Pedido> depoisDoFim = lote.subList(posicaoFim, lote.size());
+                depoisDoFim.forEach(FilaInscricoes::recusarEncerrada);
+                depoisDoFim.clear();
+                fim = true;
+            }
+            if (!lote.isEmpty()) {
+                gravar(lote);
+                lote.clear();
+            }
+        }
+        Pedido restante;
+        while ((restante = fila.poll()) != null) {
+            recusarEncerrada(restante);
+        }
+    }
+
+    private static void recusarEncerrada(Pedido pedido) {
+        if (pedido != FIM) {
+            pedido.futuro().completeExceptionally(new RejectedExecutionException("Fila de inscrições encerrada."));
+        }
+    }
+
+    private void gravar(List<Pedido> lote) {
+        List<RepositorioInscricoes.OperacaoInscricao> operacoesLote = new ArrayList<>(lote.size());
+        for (Pedido pedido : lote) {
+            operacoesLote.add(pedido.operacao());
+        }
+        List<ResultadoInscricao> resultados;
+        try {
+            resultados = inscricaoDAO.gravarLote(operacoesLote, LocalDateTime.now());
+        } catch (RuntimeException e) {
+            System.err.println("Erro ao gravar lote da fila de inscrições: " + e);
+            resultados = null;
+        }
+        lotes.increment();
+        operacoes.add(lote.size());
+
+        long agora = System.nanoTime();
+        for (int i = 0; i < lote.size(); i++) {
+            Pedido pedido = lote.get(i);
+            METRICA_ESPERA.registrar(agora - pedido.enviadoEm());
+            // Os futures são completados nesta thread: continuações pesadas devem usar um executor próprio.
+            pedido.futuro().complete(resultados != null ? resultados.get(i) : ResultadoInscricao.ERRO);
+        }
+    }
+
+    /**
+     * Não aceita novas operações, grava as que já estão na fila e aguarda (até 30 s) a thread gravadora.
+     */
+    @Override
+    public void close() {
+        aberta = false;
+        try {
+            // put: espera vaga se a fila estiver cheia, para que o FIM venha depois de tudo que foi aceito.
+            fila.put(FIM);
+            gravador.join(TimeUnit.SECONDS.toMillis(30));
+            if (gravador.isAlive()) {
+                gravador.interrupt();
+            }
+        } catch (InterruptedException e) {
+            gravador.interrupt();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package controller;
+
+import dao.ImportacaoDAO;
+import model.CategoriaEvento;
+import model.Evento;
+import model.RelatorioImportacao;
+import model.Usuario;
+import util.Json;
+import util.LeitorCsv;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Importação em lote de usuários, eventos e inscrições a partir de arquivos CSV ou JSON.
+ * O arquivo é lido em fluxo (registro a registro), cada registro é validado com as mesmas
+ * regras do {@link AppController} e os válidos são gravados em lotes, cada lote em uma transação.
+ *
+ * Colunas/campos esperados (CSV com cabeçalho; JSON Lines ou array de objetos planos):
+ * <ul>
+ *   <li>USUARIOS: nome, email, senha</li>
+ *   <li>EVENTOS: nome, categoria, data_hora (dd/MM/yyyy HH:mm), local, capacidade, organizador_email, descricao</li>
+ *   <li>INSCRICOES: usuario_email, evento_id</li>
+ * </ul>
+ */
+public class ImportadorDados {
+
+    /**
+     * Tipo de registro contido no arquivo.
+     */
+    public enum TipoImportacao {
+        USUARIOS, EVENTOS, INSCRICOES
+    }
+
+    // Registros por transação: grande o bastante para diluir o fsync, pequeno para limitar a memória.
+    public static final int TAMANHO_LOTE_PADRAO = 1000;
+    // Quantidade máxima de motivos de rejeição guardados no relatório.
+    private static final int MAXIMO_MOTIVOS = 1000;
+
+    private final ImportacaoDAO importacaoDAO = new ImportacaoDAO();
+    private final int tamanhoLote;
+
+    public ImportadorDados() {
+        this(TAMANHO_LOTE_PADRAO);
+    }
+
+    /**
+     * @param tamanhoLote Número de registros gravados por transação.
+     */
+    public ImportadorDados(int tamanhoLote) {
+        if (tamanhoLote <= 0) {
+            throw new IllegalArgumentException("O tamanho do lote deve ser positivo.");
+        }
+        this.tamanhoLote = tamanhoLote;
+    }
+
+    /**
+     * Fonte de registros lidos em fluxo, independente do formato do arquivo.
+     */
+    private interface FonteRegistros {
+        Map<String, String> proximo() throws IOException;
+
+        /** Posição do último registro lido (linha do CSV ou número do objeto JSON). */
+        long posicao();
+    }
+
+    /**
+     * Registro válido aguardando gravação, com a posição no arquivo para o relatório.
+     */
+    private record Pendente<T>(long posicao, T item) {
+    }
+
+    /**
+     * Importa um arquivo. O formato é definido pela extensão: .csv, .json ou .jsonl.
+     * @param tipo O tipo de registro contido no arquivo.
+     * @param arquivo Caminho do arquivo.
+     * @return O relatório da importação.
+     * @throws IOException Se o arquivo não puder ser lido ou estiver mal formado.
+     */
+    public RelatorioImportacao importar(TipoImportacao tipo, Path arquivo) throws IOException {
+        String nome = arquivo.getFileName().toString().toLowerCase();
+        try (BufferedReader reader = Files.newBufferedReader(arquivo, StandardCharsets.UTF_8)) {
+            FonteRegistros fonte;
+            if (nome.endsWith(".csv")) {
+                LeitorCsv csv = new LeitorCsv(reader);
+                fonte = new FonteRegistros() {
+                    public Map<String, String> proximo() throws IOException {
+                        return csv.proximo();
+                    }
+
+                    public long posicao() {
+                        return csv.getLinhaAtual();
+                    }
+                };
+            } else if (nome.endsWith(".json") || nome.endsWith(".jsonl")) {
+                Json.LeitorObjetos json = new Json.LeitorObjetos(reader);
+                fonte = new FonteRegistros() {
+                    private long contador = 0;
+
+                    public Map<String, String> proximo() throws IOException {
+                        Map<String, String> registro = json.proximo();
+                        if (registro != null) {
+                            contador++;
+                        }
+                        return registro;
+                    }
+
+                    public long posicao() {
+                        return contador;
+                    }
+                };
+            } else {
+                throw new IOException("Formato não suportado: use arquivos .csv, .json ou .jsonl.");
+            }
+            return importar(tipo, fonte);
+        }
+    }
+
+    private RelatorioImportacao importar(TipoImportacao tipo, FonteRegistros fonte) throws IOException {
+        Execucao<?> execucao = switch (tipo) {
+            case USUARIOS -> new Execucao<>(this::validarUsuario, importacaoDAO::inserirUsuarios,
+                    "e-mail já cadastrado");
+            case EVENTOS -> new Execucao<>(this::validarEvento, importacaoDAO::inserirEventos,
+                    "organizador não encontrado");
+            case INSCRICOES -> new Execucao<ImportacaoDAO.LinhaInscricao>(this::validarInscricao,
+                    lote -> importacaoDAO.inserirInscricoes(lote, LocalDateTime.now()),
+                    "evento inexistente, já ocorrido, lotado, do próprio organizador, usuário inexistente ou inscrição duplicada");
+        };
+        RelatorioImportacao relatorio = execucao.executar(fonte);
+        if (tipo != TipoImportacao.USUARIOS) {
+            // Eventos e inscrições gravados direto pelo DAO: o catálogo em memória é recarregado no próximo acesso.
+            CatalogoEventos.getInstancia().descartar();
+        }
+        return relatorio;
+    }
+
+    // --- VALIDAÇÃO (mesmas regras do AppController) ---
+
+    /**
+     * Resultado da validação de um registro: o item pronto para gravar ou o motivo da rejeição.
+     */
+    private record Validacao<T>(T item, String erro) {
+        static <T> Validacao<T> ok(T item) {
+            return new Validacao<>(item, null);
+        }
+
+        static <T> Validacao<T> erro(String erro) {
+            return new Validacao<>(null, erro);
+        }
+    }
+
+    private Validacao<Usuario> validarUsuario(Map<String, String> registro) {
+        String nome = registro.get("nome");
+        String email = registro.get("email");
+        String senha = registro.get("senha");
+        String erro = AppController.validarDadosConta(nome, email, senha);
+        if (erro != null) {
+            return Validacao.erro(erro);
+        }
+        // Usuários importados nunca são administradores, como no cadastro pelo Controller.
+        return Validacao.ok(new Usuario(-1, nome.trim(), email.trim(), senha, false));
+    }
+
+    private Validacao<ImportacaoDAO.LinhaEvento> validarEvento(Map<String, String> registro) {
+        CategoriaEvento categoria = AppController.parseCategoria(registro.get("categoria"));
+        if (categoria == null) {
+            return Validacao.erro("Categoria '" + registro.get("categoria") + "' inválida.");
+        }
+        LocalDateTime dataHora = AppController.parseDataHora(registro.get("data_hora"));
+        if (dataHora == null) {
+            return Validacao.erro("Formato de data e hora inválido. Use o padrão 'dd/MM/yyyy HH:mm'.");
+        }
+        int capacidade;
+        try {
+            capacidade = Integer.parseInt(registro.getOrDefault("capacidade", "").trim());
+        } catch (NumberFormatException e) {
+            return Validacao.erro("Capacidade '" + registro.get("capacidade") + "' não é um número.");
+        }
+        String organizadorEmail = registro.get("organizador_email");
+        if (organizadorEmail == null || organizadorEmail.trim().isEmpty()) {
+            return Validacao.erro("O e-mail do organizador é obrigatório.");
+        }
+
+        String nome = registro.get("nome");
+        String local = registro.get("local");
+        String descricao = registro.get("descricao");
+        String erro = AppController.validarDadosEvento(nome, dataHora, local, capacidade, descricao, LocalDateTime.now());
+        if (erro != null) {
+            return Validacao.erro(erro);
+        }
+        Evento evento = new Evento(-1, nome, categoria, dataHora, local, capacidade, -1, descricao);
+        return Validacao.ok(new ImportacaoDAO.LinhaEvento(evento, organizadorEmail.trim()));
+    }
+
+    private Validacao<ImportacaoDAO.LinhaInscricao> validarInscricao(Map<String, String> registro) {
+        String email = registro.get("usuario_email");
+        if (email == null || email.trim().isEmpty()) {
+            return Validacao.erro("O e-mail do usuário é obrigatório.");
+        }
+        try {
+            int eventoId = Integer.parseInt(registro.getOrDefault("evento_id", "").trim());
+            return Validacao.ok(new ImportacaoDAO.LinhaInscricao(email.trim(), eventoId));
+        } catch (NumberFormatException e) {
+            return Validacao.erro("ID de evento '" + registro.get("evento_id") + "' inválido.");
+        }
+    }
+
+    // --- EXECUÇÃO ---
+
+    @FunctionalInterface
+    private interface Validador<T> {
+        Validacao<T> validar(Map<String, String> registro);
+    }
+
+    @FunctionalInterface
+    private interface GravadorLote<T> {
+        int[] gravar(List<T> lote);
+    }
+
+    /**
+     * Laço de leitura, validação e gravação em lotes de um tipo de registro.
+     */
+    private class Execucao<T> {
+        private final Validador<T> validador;
+        private final GravadorLote<T> gravador;
+        private final String motivoRecusaBanco;
+
+        private long lidos = 0;
+        private long importados = 0;
+        private long rejeitados = 0;
+        private final List<String> motivos = new ArrayList<>();
+
+        Execucao(Validador<T> validador, GravadorLote<T> gravador, String motivoRecusaBanco) {
+            this.validador = validador;
+            this.gravador = gravador;
+            this.motivoRecusaBanco = motivoRecusaBanco;
+        }
+
+        RelatorioImportacao executar(FonteRegistros fonte) throws IOException {
+            long inicio = System.nanoTime();
+            List<Pendente<T>> lote = new ArrayList<>(tamanhoLote);
+
+            Map<String, String> registro;
+            while ((registro = fonte.proximo()) != null) {
+                lidos++;
+                Validacao<T> validacao = validador.validar(registro);
+                if (validacao.erro() != null) {
+                    rejeitar(fonte.posicao(), validacao.erro());
+                    continue;
+                }
+                lote.add(new Pendente<>(fonte.posicao(), validacao.item()));
+                if (lote.size() >= tamanhoLote) {
+                    gravar(lote);
+                    lote.clear();
+                }
+            }
+            if (!lote.isEmpty()) {
+                gravar(lote);
+            }
+
+            long duracaoMs = (System.nanoTime() - inicio) / 1_000_000;
+            return new RelatorioImportacao(lidos, importados, rejeitados, List.copyOf(motivos), duracaoMs);
+        }
+
+        private void gravar(List<Pendente<T>> lote) {
+            List<T> itens = new ArrayList<>(lote.size());
+            for (Pendente<T> pendente : lote) {
+                itens.add(pendente.item());
+            }
+
+            int[] contagens = gravador.gravar(itens);
+            if (contagens == null) {
+                for (Pendente<T> pendente : lote) {
+                    rejeitar(pendente.posicao(), "Falha ao gravar o lote no banco de dados.");
+                }
+                return;
+            }
+            for (int i = 0; i < lote.size(); i++) {
+                if (i < contagens.length && contagens[i] > 0) {
+                    importados++;
+                } else {
+                    rejeitar(lote.get(i).posicao(), "Recusado pelo banco: " + motivoRecusaBanco + ".");
+                }
+            }
+        }
+
+        private void rejeitar(long posicao, String motivo) {
+            rejeitados++;
+            if (motivos.size() < MAXIMO_MOTIVOS) {
+                motivos.add("Registro " + posicao + ": " + motivo);
+            }
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package controller;
+
+import model.EventoComDetalhes;
+import model.FiltroEventos;
+import util.MetricaOperacao;
+import util.Metricas;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Listagem completa do catálogo já renderizada em bytes (ex.: JSON da API ou tabela do console),
+ * com uma versão/ETag. Servir a listagem passa a ser uma cópia de memória: o snapshot só é refeito
+ * quando a versão do {@link CatalogoEventos} muda, e mesmo assim apenas os eventos alterados são
+ * renderizados de novo — os demais reaproveitam os bytes da versão anterior.
+ *
+ * Eventos criados, removidos ou arquivados refazem o snapshot na próxima leitura. Inscrições e
+ * cancelamentos só mudam contadores: o snapshot é refeito por causa deles no máximo uma vez a cada
+ * {@link #INTERVALO_INSCRITOS_MS} ms, e até lá a listagem (e o ETag) mostra os contadores anteriores.
+ *
+ * Cada formato tem seu próprio SnapshotCatalogo; todos acompanham o mesmo catálogo compartilhado.
+ */
+@SuppressWarnings("try")
+public final class SnapshotCatalogo {
+
+    // Distingue ETags de execuções diferentes do processo (a versão do catálogo recomeça do zero).
+    private static final String EPOCA = Long.toHexString(System.currentTimeMillis());
+
+    private static final MetricaOperacao METRICA_REGENERAR = Metricas.operacao("SnapshotCatalogo.regenerar");
+
+    /**
+     * Intervalo mínimo entre regenerações causadas só por mudanças nos contadores de inscritos.
+     */
+    public static final long INTERVALO_INSCRITOS_MS = 1000;
+    private static final long INTERVALO_INSCRITOS_NANOS = INTERVALO_INSCRITOS_MS * 1_000_000;
+
+    /**
+     * Formato de renderização da listagem: início + itens separados + fim.
+     */
+    public interface Formato {
+        String inicio();
+
+        String separador();
+
+        String item(EventoComDetalhes evento);
+
+        String fim();
+
+        /**
+         * Conteúdo completo quando o catálogo não tem eventos.
+         */
+        String vazio();
+    }
+
+    /**
+     * Snapshot imutável de uma versão do catálogo.
+     * @param versao Versão do catálogo a partir da qual o snapshot foi gerado.
+     * @param etag Identificador para cache HTTP (If-None-Match); inclui também a versão dos contadores.
+     * @param bytes Listagem renderizada. Não deve ser alterada por quem a recebe.
+     * @param eventos Número de eventos na listagem.
+     */
+    public record Instantaneo(long versao, String etag, byte[] bytes, int eventos) {
+    }
+
+    // Snapshot atual e de quando são os seus contadores, trocados juntos.
+    private record Estado(Instantaneo instantaneo, long versaoInscritos, long geradoEmNanos) {
+    }
+
+    // Bytes já renderizados de um evento, válidos enquanto o evento (e seu contador de inscritos) não mudar.
+    private record Fragmento(EventoComDetalhes evento, byte[] bytes) {
+    }
+
+    private final CatalogoEventos catalogo;
+    private final Formato formato;
+    private final Charset charset;
+    private final byte[] inicio;
+    private final byte[] separador;
+    private final byte[] fim;
+    private final byte[] vazio;
+
+    private volatile Estado atual;
+    // Acessado apenas dentro de regenerar (synchronized).
+    private Map<Integer, Fragmento> fragmentos = new HashMap<>();
+
+    /**
+     * @param formato Formato da listagem.
+     * @param charset Codificação dos bytes (ex.: UTF-8 para JSON, a do console para a tabela).
+     */
+    public SnapshotCatalogo(Formato formato, Charset charset) {
+        this(CatalogoEventos.getInstancia(), formato, charset);
+    }
+
+    SnapshotCatalogo(CatalogoEventos catalogo, Formato formato, Charset charset) {
+        this.catalogo = catalogo;
+        this.formato = formato;
+        this.charset = charset;
+        this.inicio = formato.inicio().getBytes(charset);
+        this.separador = formato.separador().getBytes(charset);
+        this.fim = formato.fim().getBytes(charset);
+        this.vazio = formato.vazio().getBytes(charset);
+    }
+
+    private static String etag(long versao, long versaoInscritos) {
+        return "\"" + EPOCA + "-" + versao + "." + versaoInscritos + "\"";
+    }
+
+    /**
+     * @return O snapshot da versão atual do catálogo (regenerado se necessário; os contadores de
+     *         inscritos podem estar até {@link #INTERVALO_INSCRITOS_MS} ms atrasados), ou null se o
+     *         catálogo não puder ser carregado.
+     */
+    public Instantaneo obter() {
+        Estado estado = atual;
+        if (atual(estado)) {
+            return estado.instantaneo();
+        }
+        return regenerar();
+    }
+
+    private boolean atual(Estado estado) {
+        if (estado == null || estado.instantaneo().versao() != catalogo.getVersao()) {
+            return false;
+        }
+        return estado.versaoInscritos() == catalogo.getVersaoInscritos()
+                || System.nanoTime() - estado.geradoEmNanos() < INTERVALO_INSCRITOS_NANOS;
+    }
+
+    private synchronized Instantaneo regenerar() {
+        // Outra thread pode ter regenerado enquanto esta esperava a trava.
+        Estado estado = atual;
+        if (atual(estado)) {
+            return estado.instantaneo();
+        }
+        if (!catalogo.garantirCarregado()) {
+            return null;
+        }
+        // A carga pode ter mudado as versões; lidas antes da consulta, nunca são mais novas que o conteúdo.
+        long versao = catalogo.getVersao();
+        long versaoInscritos = catalogo.getVersaoInscritos();
+
+        try (MetricaOperacao.Medicao medicao = METRICA_REGENERAR.iniciar()) {
+            Map<Integer, Fragmento> anteriores = fragmentos;
+            Map<Integer, Fragmento> novos = new HashMap<>(Math.max(16, anteriores.size() * 4 / 3 + 1));
+            List<byte[]> partes = new ArrayList<>();
+            int[] tamanho = {0};
+            catalogo.percorrer(FiltroEventos.TODOS, evento -> {
+                Fragmento fragmento = anteriores.get(evento.getId());
+                if (fragmento == null || !fragmento.evento().equals(evento)) {
+                    fragmento = new Fragmento(evento, formato.item(evento).getBytes(charset));
+                }
+                novos.put(evento.getId(), fragmento);
+                partes.add(fragmento.bytes());
+                tamanho[0] += fragmento.bytes().length;
+            });
+            fragmentos = novos;
+
+            byte[] bytes = partes.isEmpty() ? vazio : concatenar(partes, tamanho[0]);
+            Instantaneo snapshot = new Instantaneo(versao, etag(versao, versaoInscritos), bytes, partes.size());
+            atual = new Estado(snapshot, versaoInscritos, System.nanoTime());
+            return snapshot;
+        }
+    }
+
+    private byte[] concatenar(List<byte[]> partes, int tamanhoItens) {
+        byte[] bytes = new byte[inicio.length + tamanhoItens + separador.length * (partes.size() - 1) + fim.length];
+        int posicao = 0;
+        System.arraycopy(inicio, 0, bytes, posicao, inicio.length);
+        posicao += inicio.length;
+        for (int i = 0; i < partes.size(); i++) {
+            if (i > 0) {
+                System.arraycopy(separador, 0, bytes, posicao, separador.length);
+                posicao += separador.length;
+            }
+            byte[] parte = partes.get(i);
+            System.arraycopy(parte, 0, bytes, posicao, parte.length);
+            posicao += parte.length;
+        }
+        System.arraycopy(fim, 0, bytes, posicao, fim.length);
+        return bytes;
+    }
+}
@@ -0,0 +1,266 @@
+package dao;
+
+import model.EventoComDetalhes;
+import model.PaginaEventos;
+import util.DatabaseConnection;
+import util.MetricaOperacao;
+import util.Metricas;
+import util.RoteadorShards;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * DAO do arquivo de eventos passados (tabelas eventos_arquivo e participacao_arquivo, veja Migracoes v6).
+ *
+ * O arquivamento move os eventos que já ocorreram, com as inscrições, para fora das tabelas
+ * eventos e participacao. Assim as listagens, a paginação, a busca e o catálogo em memória
+ * trabalham apenas com o conjunto "quente"; o histórico é consultado explicitamente por este DAO.
+ * Com shards, cada evento é arquivado no próprio shard e o histórico é intercalado entre eles.
+ */
+@SuppressWarnings("try")
+public class ArquivoEventosDAO {
+
+    // Colunas comuns às duas tabelas; o mapeamento do EventoDAO serve também para o arquivo.
+    private static final String COLUNAS_EVENTO = "id, nome, categoria, data_hora, local, capacidade, organizador_id, " +
+            "descricao, inscritos";
+    private static final String BASE_SELECT_ARQUIVO = "SELECT a.*, u.nome AS nome_organizador FROM eventos_arquivo a " +
+            "LEFT JOIN usuario u ON u.id = a.organizador_id ";
+
+    // --- Consultas SQL (constantes para que o VerificadorPlanos possa checar o plano de cada uma) ---
+
+    // Próximo lote a arquivar, do evento mais antigo para o mais recente (índice de data_hora).
+    private static final String SQL_SELECIONAR_LOTE = "SELECT id FROM eventos WHERE data_hora < ? " +
+            "ORDER BY data_hora ASC, id ASC LIMIT ?";
+    // Os IDs do lote são passados como um array JSON (json_each), como na inscrição em grupo.
+    private static final String SQL_COPIAR_EVENTOS = "INSERT OR REPLACE INTO eventos_arquivo (" + COLUNAS_EVENTO +
+            ", arquivado_em) SELECT " + COLUNAS_EVENTO + ", ? FROM eventos WHERE id IN (SELECT value FROM json_each(?))";
+    private static final String SQL_COPIAR_PARTICIPACOES = "INSERT OR IGNORE INTO participacao_arquivo (usuario_id, evento_id) " +
+            "SELECT usuario_id, evento_id FROM participacao WHERE evento_id IN (SELECT value FROM json_each(?))";
+    // As inscrições saem em cascata (FK participacao -> eventos) e o índice de busca pelos triggers da v5.
+    private static final String SQL_REMOVER_EVENTOS = "DELETE FROM eventos WHERE id IN (SELECT value FROM json_each(?))";
+
+    // Histórico, do evento mais recente para o mais antigo, por paginação por chave.
+    private static final String SQL_HISTORICO_PRIMEIRA_PAGINA = BASE_SELECT_ARQUIVO +
+            "ORDER BY a.data_hora DESC, a.id DESC LIMIT ?";
+    private static final String SQL_HISTORICO_PAGINA = BASE_SELECT_ARQUIVO +
+            "WHERE (a.data_hora, a.id) < (?, ?) " +
+            "ORDER BY a.data_hora DESC, a.id DESC LIMIT ?";
+    private static final String SQL_HISTORICO_DO_USUARIO = BASE_SELECT_ARQUIVO +
+            "JOIN participacao_arquivo p ON p.evento_id = a.id " +
+            "WHERE p.usuario_id = ? " +
+            "ORDER BY a.data_hora DESC";
+    private static final String SQL_CONTAR_ARQUIVADOS = "SELECT COUNT(*) FROM eventos_arquivo";
+
+    // Ordem do histórico ao intercalar os shards (a mesma do ORDER BY de cada shard).
+    private static final Comparator<EventoComDetalhes> ORDEM_HISTORICO = EventoDAO.ORDEM_EVENTO_COM_DETALHES.reversed();
+
+    // --- Métricas de desempenho (veja util.Metricas) ---
+
+    private static final MetricaOperacao METRICA_ARQUIVAR_LOTE = Metricas.operacao("ArquivoEventosDAO.arquivarLote");
+    private static final MetricaOperacao METRICA_LISTAR_PAGINA_HISTORICO = Metricas.operacao("ArquivoEventosDAO.listarPaginaHistorico");
+    private static final MetricaOperacao METRICA_LISTAR_HISTORICO_DO_USUARIO = Metricas.operacao("ArquivoEventosDAO.listarHistoricoDoUsuario");
+    private static final MetricaOperacao METRICA_CONTAR_ARQUIVADOS = Metricas.operacao("ArquivoEventosDAO.contarArquivados");
+
+    // Apenas para reaproveitar o mapeamento de ResultSet (as colunas do arquivo têm os mesmos nomes).
+    private final EventoDAO eventoDAO = new EventoDAO();
+
+    /**
+     * Arquiva os eventos com data_hora anterior ao limite, em lotes. Cada lote é uma transação
+     * própria (cópia para o arquivo + remoção das tabelas principais), para que o lock de escrita
+     * seja liberado entre os lotes e as inscrições concorrentes não fiquem esperando o arquivamento inteiro.
+     * Com shards, cada shard é arquivado em paralelo, com os próprios lotes.
+     * @param limite Eventos anteriores a este instante são arquivados.
+     * @param tamanhoLote Número máximo de eventos por transação.
+     * @return Número de eventos arquivados, ou -1 se algum lote falhou (os lotes anteriores já gravados são mantidos).
+     */
+    public int arquivarEventosAte(LocalDateTime limite, int tamanhoLote) {
+        List<Integer> arquivadosPorShard;
+        try {
+            arquivadosPorShard = RoteadorShards.emParalelo(RoteadorShards.todos(),
+                    shard -> arquivarShardAte(shard, limite, tamanhoLote));
+        } catch (SQLException e) {
+            METRICA_ARQUIVAR_LOTE.registrarErro();
+            System.err.println("Erro ao arquivar eventos passados: " + e.getMessage());
+            return -1;
+        }
+        int total = 0;
+        for (int arquivados : arquivadosPorShard) {
+            if (arquivados < 0) {
+                return -1;
+            }
+            total += arquivados;
+        }
+        return total;
+    }
+
+    private int arquivarShardAte(int shard, LocalDateTime limite, int tamanhoLote) {
+        int total = 0;
+        while (true) {
+            int arquivados = arquivarLote(shard, limite, tamanhoLote);
+            if (arquivados < 0) {
+                return -1;
+            }
+            total += arquivados;
+            if (arquivados < tamanhoLote) {
+                return total;
+            }
+        }
+    }
+
+    /**
+     * Arquiva um lote em uma única transação.
+     * @return Número de eventos arquivados no lote, ou -1 em caso de erro (o lote é desfeito).
+     */
+    private int arquivarLote(int shard, LocalDateTime limite, int tamanhoLote) {
+        try (MetricaOperacao.Medicao medicao = METRICA_ARQUIVAR_LOTE.iniciar();
+             Connection conn = DatabaseConnection.getConnection(shard)) {
+            // Com transaction_mode=IMMEDIATE o lock de escrita é obtido já na seleção do lote.
+            conn.setAutoCommit(false);
+            try {
+                List<Integer> ids = selecionarLote(conn, limite, tamanhoLote);
+                if (!ids.isEmpty()) {
+                    String idsJson = ids.stream().map(String::valueOf).collect(Collectors.joining(",", "[", "]"));
+                    try (PreparedStatement stmt = conn.prepareStatement(SQL_COPIAR_EVENTOS)) {
+                        stmt.setTimestamp(1, Timestamp.valueOf(LocalDateTime.now()));
+                        stmt.setString(2, idsJson);
+                        stmt.executeUpdate();
+                    }
+                    try (PreparedStatement stmt = conn.prepareStatement(SQL_COPIAR_PARTICIPACOES)) {
+                        stmt.setString(1, idsJson);
+                        stmt.executeUpdate();
+                    }
+                    try (PreparedStatement stmt = conn.prepareStatement(SQL_REMOVER_EVENTOS)) {
+                        stmt.setString(1, idsJson);
+                        stmt.executeUpdate();
+                    }
+                }
+                conn.commit();
+                return ids.size();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            METRICA_ARQUIVAR_LOTE.registrarErro();
+            System.err.println("Erro ao arquivar eventos passados: " + e.getMessage());
+            return -1;
+        }
+    }
+
+    private List<Integer> selecionarLote(Connection conn, LocalDateTime limite, int tamanhoLote) throws SQLException {
+        List<Integer> ids = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement(SQL_SELECIONAR_LOTE)) {
+            stmt.setTimestamp(1, Timestamp.valueOf(limite));
+            stmt.setInt(2, tamanhoLote);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getInt(1));
+                }
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Busca uma página do histórico de eventos arquivados, do mais recente para o mais antigo.
+     * @param antes Cursor da página anterior (null para a primeira página). A página começa
+     *              logo depois dele, na ordem decrescente.
+     * @param tamanhoPagina Número máximo de eventos na página.
+     * @return A página, com o cursor da próxima (null se for a última).
+     */
+    public PaginaEventos listarPaginaHistorico(PaginaEventos.Cursor antes, int tamanhoPagina) {
+        List<EventoComDetalhes> eventos;
+        try (MetricaOperacao.Medicao medicao = METRICA_LISTAR_PAGINA_HISTORICO.iniciar()) {
+            List<List<EventoComDetalhes>> partes = RoteadorShards.emCadaShard((conn, shard) -> {
+                List<EventoComDetalhes> parte = new ArrayList<>();
+                try (PreparedStatement stmt = conn.prepareStatement(antes == null
+                        ? SQL_HISTORICO_PRIMEIRA_PAGINA : SQL_HISTORICO_PAGINA)) {
+                    int indice = 1;
+                    if (antes != null) {
+                        stmt.setTimestamp(indice++, Timestamp.valueOf(antes.dataHora()));
+                        stmt.setInt(indice++, antes.id());
+                    }
+                    // Busca um evento a mais apenas para saber se existe próxima página.
+                    stmt.setInt(indice, tamanhoPagina + 1);
+
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            parte.add(eventoDAO.mapResultSetToEventoComDetalhes(rs));
+                        }
+                    }
+                }
+                return parte;
+            });
+            eventos = new ArrayList<>(RoteadorShards.intercalar(partes, ORDEM_HISTORICO, tamanhoPagina + 1));
+        } catch (SQLException e) {
+            METRICA_LISTAR_PAGINA_HISTORICO.registrarErro();
+            System.err.println("Erro ao listar histórico de eventos: " + e.getMessage());
+            return new PaginaEventos(List.of(), null);
+        }
+
+        PaginaEventos.Cursor proxima = null;
+        if (eventos.size() > tamanhoPagina) {
+            eventos.remove(eventos.size() - 1);
+            EventoComDetalhes ultimo = eventos.get(eventos.size() - 1);
+            proxima = new PaginaEventos.Cursor(ultimo.getDataHora(), ultimo.getId());
+        }
+        return new PaginaEventos(eventos, proxima);
+    }
+
+    /**
+     * Lista os eventos arquivados em que o usuário estava inscrito, do mais recente para o mais antigo.
+     * @param usuarioId ID do usuário.
+     * @return Lista de eventos arquivados (o contador de inscritos é o do momento do arquivamento).
+     */
+    public List<EventoComDetalhes> listarHistoricoDoUsuario(int usuarioId) {
+        try (MetricaOperacao.Medicao medicao = METRICA_LISTAR_HISTORICO_DO_USUARIO.iniciar()) {
+            List<List<EventoComDetalhes>> partes = RoteadorShards.emCadaShard((conn, shard) -> {
+                List<EventoComDetalhes> parte = new ArrayList<>();
+                try (PreparedStatement stmt = conn.prepareStatement(SQL_HISTORICO_DO_USUARIO)) {
+                    stmt.setInt(1, usuarioId);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            parte.add(eventoDAO.mapResultSetToEventoComDetalhes(rs));
+                        }
+                    }
+                }
+                return parte;
+            });
+            return new ArrayList<>(RoteadorShards.intercalar(partes, ORDEM_HISTORICO, Integer.MAX_VALUE));
+        } catch (SQLException e) {
+            METRICA_LISTAR_HISTORICO_DO_USUARIO.registrarErro();
+            System.err.println("Erro ao listar histórico do usuário ID " + usuarioId + ": " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * @return Número de eventos no arquivo (somado entre os shards), ou -1 em caso de erro.
+     */
+    public int contarArquivados() {
+        try (MetricaOperacao.Medicao medicao = METRICA_CONTAR_ARQUIVADOS.iniciar()) {
+            List<Integer> contagens = RoteadorShards.emCadaShard((conn, shard) -> {
+                try (PreparedStatement stmt = conn.prepareStatement(SQL_CONTAR_ARQUIVADOS);
+                     ResultSet rs = stmt.executeQuery()) {
+                    return rs.next() ? rs.getInt(1) : 0;
+                }
+            });
+            return contagens.stream().mapToInt(Integer::intValue).sum();
+        } catch (SQLException e) {
+            METRICA_CONTAR_ARQUIVADOS.registrarErro();
+            System.err.println("Erro ao contar eventos arquivados: " + e.getMessage());
+            return -1;
+        }
+    }
+}
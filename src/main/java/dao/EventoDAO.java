@@ -2,36 +2,131 @@ package dao;
 
 import model.CategoriaEvento;
 import model.Evento;
+import model.EventoComDetalhes;
+import model.FiltroEventos;
+import model.PaginaBusca;
+import model.PaginaEventos;
 import util.DatabaseConnection;
+import util.MetricaOperacao;
+import util.Metricas;
+import util.RoteadorShards;
+import util.VarreduraPermitida;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * DAO (Data Access Object) para a entidade Evento.
  * Gerencia a comunicação entre a aplicação e a tabela 'Eventos' no banco de dados.
+ * Com db.shards maior que 1, cada evento fica no shard indicado pelo próprio ID e as listagens
+ * consultam todos os shards, intercalando os resultados (veja {@link RoteadorShards}).
  */
-public class EventoDAO {
+@SuppressWarnings("try")
+public class EventoDAO implements RepositorioEventos {
+
+    // Base das consultas que já trazem o nome do organizador (uma única ida ao banco).
+    // LEFT JOIN para que um evento sem organizador válido ainda apareça na listagem.
+    private static final String BASE_SELECT_COM_DETALHES = "SELECT e.*, u.nome AS nome_organizador FROM Eventos e " +
+            "LEFT JOIN usuario u ON u.id = e.organizador_id ";
+
+    // Próximo ID de evento de um shard: o primeiro número acima do maior ID já usado no arquivo
+    // (sqlite_sequence, mantido pelo AUTOINCREMENT) com resto igual ao número do shard.
+    // Parâmetros: quantidade de shards, quantidade de shards, shard. Com um único shard, é o MAX + 1 do AUTOINCREMENT.
+    static final String PROXIMO_ID_EVENTO = "(SELECT (COALESCE(MAX(seq), 0) / ? + 1) * ? + ? " +
+            "FROM sqlite_sequence WHERE name = 'eventos')";
+
+    // --- Consultas SQL (constantes para que o VerificadorPlanos possa checar o plano de cada uma) ---
+
+    @VarreduraPermitida("sqlite_sequence tem uma linha por tabela com AUTOINCREMENT.")
+    private static final String SQL_CRIAR_EVENTO = "INSERT INTO Eventos (id, nome, categoria, data_hora, local, capacidade, organizador_id, descricao) " +
+            "VALUES (" + PROXIMO_ID_EVENTO + ", ?, ?, ?, ?, ?, ?, ?)";
+    private static final String SQL_GET_EVENTO_POR_ID = "SELECT * FROM Eventos WHERE id = ?";
+    private static final String SQL_LISTAR_TODOS_EVENTOS = "SELECT * FROM Eventos ORDER BY data_hora ASC";
+    private static final String SQL_LISTAR_EVENTOS_POR_ORGANIZADOR = "SELECT * FROM Eventos WHERE organizador_id = ? ORDER BY data_hora ASC";
+    private static final String SQL_LISTAR_EVENTOS_INSCRITOS_POR_USUARIO = "SELECT e.* FROM Eventos e " +
+            "JOIN participacao p ON e.id = p.evento_id " +
+            "WHERE p.usuario_id = ? " +
+            "ORDER BY e.data_hora ASC";
+    private static final String SQL_LISTAR_TODOS_EVENTOS_COM_DETALHES = BASE_SELECT_COM_DETALHES + "ORDER BY e.data_hora ASC";
+    private static final String SQL_LISTAR_EVENTOS_COM_DETALHES_POR_ORGANIZADOR = BASE_SELECT_COM_DETALHES + "WHERE e.organizador_id = ? ORDER BY e.data_hora ASC";
+    private static final String SQL_LISTAR_EVENTOS_COM_DETALHES_INSCRITOS_POR_USUARIO = BASE_SELECT_COM_DETALHES +
+            "JOIN participacao p ON e.id = p.evento_id " +
+            "WHERE p.usuario_id = ? " +
+            "ORDER BY e.data_hora ASC";
+    // Forma mais completa da consulta paginada (categoria + cursor), usada pelo VerificadorPlanos.
+    // As demais variantes são montadas por montarSqlCatalogo com os mesmos fragmentos.
+    private static final String SQL_PAGINA_EVENTOS_CATEGORIA = BASE_SELECT_COM_DETALHES +
+            "WHERE e.categoria = ? AND (e.data_hora, e.id) > (?, ?) " +
+            "ORDER BY e.data_hora ASC, e.id ASC LIMIT ?";
+    private static final String SQL_PAGINA_EVENTOS = BASE_SELECT_COM_DETALHES +
+            "WHERE (e.data_hora, e.id) > (?, ?) " +
+            "ORDER BY e.data_hora ASC, e.id ASC LIMIT ?";
+
+    // Busca textual no índice FTS5 (veja Migracoes v5), do resultado mais relevante para o menos relevante.
+    // Pesos do bm25 por coluna (nome, descricao, local): o nome pesa mais que o local, que pesa mais que a descrição.
+    // (Sem alias na tabela virtual: o MATCH e o bm25 precisam do nome da tabela FTS5.)
+    private static final String BASE_SELECT_BUSCA = "SELECT e.*, u.nome AS nome_organizador, " +
+            "bm25(eventos_fts, 10.0, 1.0, 3.0) AS relevancia FROM eventos_fts " +
+            "JOIN Eventos e ON e.id = eventos_fts.rowid " +
+            "LEFT JOIN usuario u ON u.id = e.organizador_id " +
+            "WHERE eventos_fts MATCH ? ";
+    private static final String ORDEM_BUSCA = "ORDER BY relevancia, e.data_hora ASC, e.id ASC LIMIT ? OFFSET ?";
+    // Forma mais completa da busca (categoria + período), usada pelo VerificadorPlanos.
+    // As demais variantes são montadas por montarSqlBusca com os mesmos fragmentos.
+    private static final String SQL_BUSCAR_EVENTOS_FILTRADOS = BASE_SELECT_BUSCA +
+            "AND e.categoria = ? AND e.data_hora >= ? AND e.data_hora < ? " + ORDEM_BUSCA;
+
+    // Linhas buscadas por ida ao driver ao percorrer o catálogo sem materializar a lista.
+    private static final int TAMANHO_LOTE_LEITURA = 256;
+
+    private static final String SQL_DELETAR_EVENTO = "DELETE FROM Eventos WHERE id = ?";
+
+    // Ordem das listagens ao intercalar os shards (a mesma do ORDER BY de cada shard).
+    private static final Comparator<Evento> ORDEM_EVENTO = Comparator.comparing(Evento::dataHora).thenComparingInt(Evento::id);
+    static final Comparator<EventoComDetalhes> ORDEM_EVENTO_COM_DETALHES =
+            Comparator.comparing(EventoComDetalhes::getDataHora).thenComparingInt(EventoComDetalhes::getId);
+
+    // --- Métricas de desempenho (veja util.Metricas) ---
+
+    private static final MetricaOperacao METRICA_CRIAR_EVENTO = Metricas.operacao("EventoDAO.criarEvento");
+    private static final MetricaOperacao METRICA_GET_EVENTO_POR_ID = Metricas.operacao("EventoDAO.getEventoPorId");
+    private static final MetricaOperacao METRICA_LISTAR_TODOS_EVENTOS = Metricas.operacao("EventoDAO.listarTodosEventos");
+    private static final MetricaOperacao METRICA_LISTAR_EVENTOS_POR_ORGANIZADOR = Metricas.operacao("EventoDAO.listarEventosPorOrganizador");
+    private static final MetricaOperacao METRICA_LISTAR_EVENTOS_INSCRITOS_POR_USUARIO = Metricas.operacao("EventoDAO.listarEventosInscritosPorUsuario");
+    private static final MetricaOperacao METRICA_LISTAR_TODOS_EVENTOS_COM_DETALHES = Metricas.operacao("EventoDAO.listarTodosEventosComDetalhes");
+    private static final MetricaOperacao METRICA_LISTAR_EVENTOS_COM_DETALHES_POR_ORGANIZADOR =
+            Metricas.operacao("EventoDAO.listarEventosComDetalhesPorOrganizador");
+    private static final MetricaOperacao METRICA_LISTAR_EVENTOS_COM_DETALHES_INSCRITOS_POR_USUARIO =
+            Metricas.operacao("EventoDAO.listarEventosComDetalhesInscritosPorUsuario");
+    private static final MetricaOperacao METRICA_LISTAR_PAGINA_EVENTOS = Metricas.operacao("EventoDAO.listarPaginaEventos");
+    private static final MetricaOperacao METRICA_PERCORRER_EVENTOS = Metricas.operacao("EventoDAO.percorrerEventos");
+    private static final MetricaOperacao METRICA_DELETAR_EVENTO = Metricas.operacao("EventoDAO.deletarEvento");
+    private static final MetricaOperacao METRICA_BUSCAR_EVENTOS = Metricas.operacao("EventoDAO.buscarEventos");
 
     /**
      * Cria um novo evento no banco de dados.
      * @param evento O objeto Evento a ser criado (ID é -1 no objeto, será gerado pelo DB).
      * @return O ID gerado para o novo evento ou -1 em caso de falha.
      */
+    @Override
     public int criarEvento(Evento evento) {
-        String sql = "INSERT INTO Eventos (nome, categoria, data_hora, local, capacidade, organizador_id, descricao) VALUES (?, ?, ?, ?, ?, ?, ?)";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+        int shard = RoteadorShards.shardParaNovoEvento();
+        try (MetricaOperacao.Medicao medicao = METRICA_CRIAR_EVENTO.iniciar();
+             Connection conn = DatabaseConnection.getConnection(shard);
+             PreparedStatement stmt = conn.prepareStatement(SQL_CRIAR_EVENTO, Statement.RETURN_GENERATED_KEYS)) {
 
+            int indice = preencherProximoId(stmt, 1, shard);
             // Uso dos getters do POJO
-            stmt.setString(1, evento.nome());
-            stmt.setString(2, evento.categoria().name()); // Salva o nome da enum
-            stmt.setTimestamp(3, Timestamp.valueOf(evento.dataHora()));
-            stmt.setString(4, evento.local());
-            stmt.setInt(5, evento.capacidade());
-            stmt.setInt(6, evento.organizadorId());
-            stmt.setString(7, evento.descricao());
+            stmt.setString(indice++, evento.nome());
+            stmt.setString(indice++, evento.categoria().name()); // Salva o nome da enum
+            stmt.setTimestamp(indice++, Timestamp.valueOf(evento.dataHora()));
+            stmt.setString(indice++, evento.local());
+            stmt.setInt(indice++, evento.capacidade());
+            stmt.setInt(indice++, evento.organizadorId());
+            stmt.setString(indice, evento.descricao());
 
             int affectedRows = stmt.executeUpdate();
             if (affectedRows > 0) {
@@ -42,20 +137,36 @@ public class EventoDAO {
                 }
             }
         } catch (SQLException e) {
+            METRICA_CRIAR_EVENTO.registrarErro();
             System.err.println("Erro ao criar evento: " + e.getMessage());
         }
         return -1; // Falha na criação
     }
 
+    /**
+     * Preenche os parâmetros de {@link #PROXIMO_ID_EVENTO}.
+     * @return O índice do próximo parâmetro livre.
+     * @throws SQLException Se a criação de eventos estiver bloqueada ({@link RoteadorShards#verificarCriacaoDeEventos}).
+     */
+    static int preencherProximoId(PreparedStatement stmt, int primeiroIndice, int shard) throws SQLException {
+        RoteadorShards.verificarCriacaoDeEventos();
+        int quantidadeShards = RoteadorShards.quantidade();
+        stmt.setInt(primeiroIndice, quantidadeShards);
+        stmt.setInt(primeiroIndice + 1, quantidadeShards);
+        stmt.setInt(primeiroIndice + 2, shard);
+        return primeiroIndice + 3;
+    }
+
     /**
      * Busca um evento pelo seu ID.
      * @param id O ID do evento.
      * @return O objeto Evento, ou null se não for encontrado.
      */
+    @Override
     public Evento getEventoPorId(int id) {
-        String sql = "SELECT * FROM Eventos WHERE id = ?";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (MetricaOperacao.Medicao medicao = METRICA_GET_EVENTO_POR_ID.iniciar();
+             Connection conn = RoteadorShards.conexaoDoEvento(id);
+             PreparedStatement stmt = conn.prepareStatement(SQL_GET_EVENTO_POR_ID)) {
 
             stmt.setInt(1, id);
 
@@ -65,6 +176,7 @@ public class EventoDAO {
                 }
             }
         } catch (SQLException e) {
+            METRICA_GET_EVENTO_POR_ID.registrarErro();
             System.err.println("Erro ao buscar evento por ID: " + e.getMessage());
         }
         return null;
@@ -74,21 +186,11 @@ public class EventoDAO {
      * Lista todos os eventos.
      * @return Uma lista de objetos Evento.
      */
+    @Override
     public List<Evento> listarTodosEventos() {
-        List<Evento> eventos = new ArrayList<>();
         // Ordena por data_hora (os mais próximos/futuros primeiro)
-        String sql = "SELECT * FROM Eventos ORDER BY data_hora ASC";
-        try (Connection conn = DatabaseConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-
-            while (rs.next()) {
-                eventos.add(mapResultSetToEvento(rs));
-            }
-        } catch (SQLException e) {
-            System.err.println("Erro ao listar todos os eventos: " + e.getMessage());
-        }
-        return eventos;
+        return listarEmCadaShard(SQL_LISTAR_TODOS_EVENTOS, null, this::mapResultSetToEvento, ORDEM_EVENTO,
+                METRICA_LISTAR_TODOS_EVENTOS, "Erro ao listar todos os eventos: ");
     }
 
     /**
@@ -96,23 +198,10 @@ public class EventoDAO {
      * @param organizadorId O ID do usuário organizador.
      * @return Uma lista de objetos Evento.
      */
+    @Override
     public List<Evento> listarEventosPorOrganizador(int organizadorId) {
-        List<Evento> eventos = new ArrayList<>();
-        String sql = "SELECT * FROM Eventos WHERE organizador_id = ? ORDER BY data_hora ASC";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setInt(1, organizadorId);
-
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    eventos.add(mapResultSetToEvento(rs));
-                }
-            }
-        } catch (SQLException e) {
-            System.err.println("Erro ao listar eventos por organizador: " + e.getMessage());
-        }
-        return eventos;
+        return listarEmCadaShard(SQL_LISTAR_EVENTOS_POR_ORGANIZADOR, organizadorId, this::mapResultSetToEvento,
+                ORDEM_EVENTO, METRICA_LISTAR_EVENTOS_POR_ORGANIZADOR, "Erro ao listar eventos por organizador: ");
     }
 
     /**
@@ -120,30 +209,296 @@ public class EventoDAO {
      * @param userId O ID do usuário inscrito.
      * @return Uma lista de objetos Evento.
      */
+    @Override
     public List<Evento> listarEventosInscritosPorUsuario(int userId) {
-        List<Evento> eventos = new ArrayList<>();
-        // Query de junção entre Eventos e a tabela de participação
-        String sql = "SELECT e.* FROM Eventos e " +
-                "JOIN participacao p ON e.id = p.evento_id " +
-                "WHERE p.usuario_id = ? " +
-                "ORDER BY e.data_hora ASC";
+        // Query de junção entre Eventos e a tabela de participação (inscrições ficam no shard do evento)
+        return listarEmCadaShard(SQL_LISTAR_EVENTOS_INSCRITOS_POR_USUARIO, userId, this::mapResultSetToEvento,
+                ORDEM_EVENTO, METRICA_LISTAR_EVENTOS_INSCRITOS_POR_USUARIO, "Erro ao listar eventos inscritos por usuário: ");
+    }
 
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            stmt.setInt(1, userId);
+    /**
+     * Lista todos os eventos já com o nome do organizador, em uma única consulta.
+     * @return Uma lista de EventoComDetalhes ordenada por data_hora.
+     */
+    @Override
+    public List<EventoComDetalhes> listarTodosEventosComDetalhes() {
+        return listarEmCadaShard(SQL_LISTAR_TODOS_EVENTOS_COM_DETALHES, null, this::mapResultSetToEventoComDetalhes,
+                ORDEM_EVENTO_COM_DETALHES, METRICA_LISTAR_TODOS_EVENTOS_COM_DETALHES, "Erro ao listar eventos com detalhes: ");
+    }
 
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    eventos.add(mapResultSetToEvento(rs));
+    /**
+     * Lista os eventos de um organizador já com o nome do organizador, em uma única consulta.
+     * @param organizadorId O ID do usuário organizador.
+     * @return Uma lista de EventoComDetalhes ordenada por data_hora.
+     */
+    @Override
+    public List<EventoComDetalhes> listarEventosComDetalhesPorOrganizador(int organizadorId) {
+        return listarComDetalhesPorId(SQL_LISTAR_EVENTOS_COM_DETALHES_POR_ORGANIZADOR, organizadorId,
+                METRICA_LISTAR_EVENTOS_COM_DETALHES_POR_ORGANIZADOR, "Erro ao listar eventos com detalhes por organizador: ");
+    }
+
+    /**
+     * Lista os eventos nos quais um usuário está inscrito já com o nome do organizador, em uma única consulta.
+     * @param userId O ID do usuário inscrito.
+     * @return Uma lista de EventoComDetalhes ordenada por data_hora.
+     */
+    @Override
+    public List<EventoComDetalhes> listarEventosComDetalhesInscritosPorUsuario(int userId) {
+        return listarComDetalhesPorId(SQL_LISTAR_EVENTOS_COM_DETALHES_INSCRITOS_POR_USUARIO, userId,
+                METRICA_LISTAR_EVENTOS_COM_DETALHES_INSCRITOS_POR_USUARIO, "Erro ao listar eventos com detalhes inscritos por usuário: ");
+    }
+
+    /**
+     * Busca uma página do catálogo por paginação por chave (keyset), ordenada por (data_hora, id).
+     * Cada página é uma busca no índice a partir do cursor, com custo independente da posição.
+     * @param filtro Filtros opcionais de categoria e período.
+     * @param apos Cursor retornado pela página anterior, ou null para a primeira página.
+     * @param tamanhoPagina Número máximo de eventos na página.
+     * @return A página encontrada (vazia em caso de erro).
+     */
+    @Override
+    public PaginaEventos listarPaginaEventos(FiltroEventos filtro, PaginaEventos.Cursor apos, int tamanhoPagina) {
+        List<EventoComDetalhes> eventos;
+        // Busca um evento a mais apenas para saber se existe próxima página.
+        // Com shards, cada um devolve a sua página a partir do mesmo cursor e as páginas são intercaladas.
+        String sql = montarSqlCatalogo(filtro, apos, true);
+        try (MetricaOperacao.Medicao medicao = METRICA_LISTAR_PAGINA_EVENTOS.iniciar()) {
+            List<List<EventoComDetalhes>> partes = RoteadorShards.emCadaShard((conn, shard) -> {
+                List<EventoComDetalhes> parte = new ArrayList<>();
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    int indice = preencherParametrosCatalogo(stmt, filtro, apos, 1);
+                    stmt.setInt(indice, tamanhoPagina + 1);
+
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            parte.add(mapResultSetToEventoComDetalhes(rs));
+                        }
+                    }
+                }
+                return parte;
+            });
+            eventos = new ArrayList<>(RoteadorShards.intercalar(partes, ORDEM_EVENTO_COM_DETALHES, tamanhoPagina + 1));
+        } catch (SQLException e) {
+            METRICA_LISTAR_PAGINA_EVENTOS.registrarErro();
+            System.err.println("Erro ao listar página de eventos: " + e.getMessage());
+            return new PaginaEventos(List.of(), null);
+        }
+
+        PaginaEventos.Cursor proxima = null;
+        if (eventos.size() > tamanhoPagina) {
+            eventos.remove(eventos.size() - 1);
+            EventoComDetalhes ultimo = eventos.get(eventos.size() - 1);
+            proxima = new PaginaEventos.Cursor(ultimo.getDataHora(), ultimo.getId());
+        }
+        return new PaginaEventos(eventos, proxima);
+    }
+
+    /**
+     * Percorre o catálogo linha a linha, entregando cada evento ao consumidor assim que é lido,
+     * sem montar a lista completa em memória (com shards, uma leitura aberta por shard, intercaladas).
+     * O consumidor é chamado com as conexões abertas, então deve ser rápido e não acessar o banco.
+     * @param filtro Filtros opcionais de categoria e período.
+     * @param consumidor Recebe cada evento, na ordem (data_hora, id).
+     * @return O número de eventos entregues, ou -1 em caso de erro.
+     */
+    @Override
+    public int percorrerEventos(FiltroEventos filtro, Consumer<EventoComDetalhes> consumidor) {
+        String sql = montarSqlCatalogo(filtro, null, false);
+        try (MetricaOperacao.Medicao medicao = METRICA_PERCORRER_EVENTOS.iniciar()) {
+            return (int) RoteadorShards.<EventoComDetalhes, RuntimeException>percorrerIntercalado((conn, shard) -> {
+                PreparedStatement stmt = conn.prepareStatement(sql);
+                preencherParametrosCatalogo(stmt, filtro, null, 1);
+                stmt.setFetchSize(TAMANHO_LOTE_LEITURA);
+                return stmt;
+            }, () -> this::mapResultSetToEventoComDetalhes, ORDEM_EVENTO_COM_DETALHES, consumidor::accept);
+        } catch (SQLException e) {
+            METRICA_PERCORRER_EVENTOS.registrarErro();
+            System.err.println("Erro ao percorrer eventos: " + e.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * Busca eventos pelo índice de texto completo (nome, descrição e local), com filtros opcionais.
+     * A paginação é por deslocamento (OFFSET): a ordem por relevância não tem uma chave estável
+     * para cursor, e as buscas raramente passam das primeiras páginas.
+     * Com shards, cada um devolve os primeiros deslocamento + tamanho resultados e o deslocamento é
+     * aplicado depois da intercalação. O bm25 usa as estatísticas do índice de cada shard, então a
+     * ordem entre eventos de shards diferentes é uma aproximação da ordem com um único arquivo.
+     * @param consultaFts Expressão de busca já no formato do FTS5 (ex.: "show"* "rock"*).
+     * @param filtro Filtros opcionais de categoria e período.
+     * @param pagina Número da página, começando em 1.
+     * @param tamanhoPagina Número máximo de eventos na página.
+     * @return A página de resultados (vazia em caso de erro).
+     */
+    @Override
+    public PaginaBusca buscarEventos(String consultaFts, FiltroEventos filtro, int pagina, int tamanhoPagina) {
+        List<EventoComDetalhes> eventos;
+        String sql = montarSqlBusca(filtro);
+        int deslocamento = (pagina - 1) * tamanhoPagina;
+        // Sem shards, o próprio banco aplica o OFFSET; com shards, ele é aplicado depois da intercalação.
+        boolean intercalar = RoteadorShards.quantidade() > 1;
+        try (MetricaOperacao.Medicao medicao = METRICA_BUSCAR_EVENTOS.iniciar()) {
+            List<List<ResultadoBusca>> partes = RoteadorShards.emCadaShard((conn, shard) -> {
+                List<ResultadoBusca> parte = new ArrayList<>();
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.setString(1, consultaFts);
+                    int indice = preencherParametrosCatalogo(stmt, filtro, null, 2);
+                    // Busca um evento a mais apenas para saber se existe próxima página.
+                    stmt.setInt(indice++, (intercalar ? deslocamento : 0) + tamanhoPagina + 1);
+                    stmt.setInt(indice, intercalar ? 0 : deslocamento);
+
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            parte.add(new ResultadoBusca(mapResultSetToEventoComDetalhes(rs), rs.getDouble("relevancia")));
+                        }
+                    }
                 }
+                return parte;
+            });
+            List<ResultadoBusca> resultados = RoteadorShards.intercalar(partes, ORDEM_BUSCA_INTERCALADA,
+                    (intercalar ? deslocamento : 0) + tamanhoPagina + 1);
+            eventos = new ArrayList<>();
+            for (int i = intercalar ? deslocamento : 0; i < resultados.size(); i++) {
+                eventos.add(resultados.get(i).evento());
             }
         } catch (SQLException e) {
-            System.err.println("Erro ao listar eventos inscritos por usuário: " + e.getMessage());
+            METRICA_BUSCAR_EVENTOS.registrarErro();
+            System.err.println("Erro ao buscar eventos: " + e.getMessage());
+            return new PaginaBusca(List.of(), pagina, false);
         }
-        return eventos;
+
+        boolean temProxima = eventos.size() > tamanhoPagina;
+        if (temProxima) {
+            eventos.remove(eventos.size() - 1);
+        }
+        return new PaginaBusca(eventos, pagina, temProxima);
     }
 
+    /**
+     * Evento encontrado pela busca textual, com a pontuação bm25 (menor é mais relevante).
+     */
+    private record ResultadoBusca(EventoComDetalhes evento, double relevancia) {
+    }
+
+    // Ordem da busca ao intercalar os shards (a mesma do ORDER BY de cada shard).
+    private static final Comparator<ResultadoBusca> ORDEM_BUSCA_INTERCALADA = Comparator
+            .comparingDouble(ResultadoBusca::relevancia)
+            .thenComparing(resultado -> resultado.evento(), ORDEM_EVENTO_COM_DETALHES);
+
+    /**
+     * Monta o SQL da busca textual a partir dos filtros presentes (parâmetros na ordem de
+     * {@link #preencherParametrosCatalogo}, depois da expressão de busca).
+     */
+    private String montarSqlBusca(FiltroEventos filtro) {
+        StringBuilder sql = new StringBuilder(BASE_SELECT_BUSCA);
+        for (String condicao : condicoesFiltro(filtro)) {
+            sql.append("AND ").append(condicao).append(' ');
+        }
+        return sql.append(ORDEM_BUSCA).toString();
+    }
+
+    /**
+     * Condições SQL dos filtros presentes, na ordem dos parâmetros de {@link #preencherParametrosCatalogo}.
+     */
+    List<String> condicoesFiltro(FiltroEventos filtro) {
+        List<String> condicoes = new ArrayList<>();
+        if (filtro.categoria() != null) {
+            condicoes.add("e.categoria = ?");
+        }
+        if (filtro.inicio() != null) {
+            condicoes.add("e.data_hora >= ?");
+        }
+        if (filtro.fim() != null) {
+            condicoes.add("e.data_hora < ?");
+        }
+        return condicoes;
+    }
+
+    /**
+     * Monta o SQL do catálogo a partir dos filtros presentes. A ordem dos parâmetros segue
+     * a de {@link #preencherParametrosCatalogo}.
+     */
+    private String montarSqlCatalogo(FiltroEventos filtro, PaginaEventos.Cursor apos, boolean comLimite) {
+        List<String> condicoes = condicoesFiltro(filtro);
+        if (apos != null) {
+            condicoes.add("(e.data_hora, e.id) > (?, ?)");
+        }
+
+        StringBuilder sql = new StringBuilder(BASE_SELECT_COM_DETALHES);
+        if (!condicoes.isEmpty()) {
+            sql.append("WHERE ").append(String.join(" AND ", condicoes)).append(' ');
+        }
+        sql.append("ORDER BY e.data_hora ASC, e.id ASC");
+        if (comLimite) {
+            sql.append(" LIMIT ?");
+        }
+        return sql.toString();
+    }
+
+    /**
+     * Preenche os parâmetros montados por {@link #montarSqlCatalogo} (ou os filtros de {@link #montarSqlBusca}).
+     * @param primeiroIndice Índice do primeiro parâmetro dos filtros.
+     * @return O índice do próximo parâmetro livre (usado pelo LIMIT).
+     */
+    int preencherParametrosCatalogo(PreparedStatement stmt, FiltroEventos filtro,
+                                    PaginaEventos.Cursor apos, int primeiroIndice) throws SQLException {
+        int indice = primeiroIndice;
+        if (filtro.categoria() != null) {
+            stmt.setString(indice++, filtro.categoria().name());
+        }
+        if (filtro.inicio() != null) {
+            stmt.setTimestamp(indice++, Timestamp.valueOf(filtro.inicio()));
+        }
+        if (filtro.fim() != null) {
+            stmt.setTimestamp(indice++, Timestamp.valueOf(filtro.fim()));
+        }
+        if (apos != null) {
+            stmt.setTimestamp(indice++, Timestamp.valueOf(apos.dataHora()));
+            stmt.setInt(indice++, apos.id());
+        }
+        return indice;
+    }
+
+    /**
+     * Executa uma consulta de EventoComDetalhes com um único parâmetro inteiro.
+     */
+    private List<EventoComDetalhes> listarComDetalhesPorId(String sql, int id, MetricaOperacao metrica,
+                                                           String mensagemErro) {
+        return listarEmCadaShard(sql, id, this::mapResultSetToEventoComDetalhes, ORDEM_EVENTO_COM_DETALHES,
+                metrica, mensagemErro);
+    }
+
+    /**
+     * Executa a consulta (sem parâmetros ou com um único parâmetro inteiro) em todos os shards e
+     * intercala os resultados na ordem informada.
+     * @return A lista intercalada (vazia em caso de erro).
+     */
+    private <T> List<T> listarEmCadaShard(String sql, Integer parametro, RoteadorShards.LeitorLinha<T> leitor,
+                                          Comparator<? super T> ordem, MetricaOperacao metrica, String mensagemErro) {
+        try (MetricaOperacao.Medicao medicao = metrica.iniciar()) {
+            List<List<T>> partes = RoteadorShards.emCadaShard((conn, shard) -> {
+                List<T> parte = new ArrayList<>();
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    if (parametro != null) {
+                        stmt.setInt(1, parametro);
+                    }
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            parte.add(leitor.ler(rs));
+                        }
+                    }
+                }
+                return parte;
+            });
+            return new ArrayList<>(RoteadorShards.intercalar(partes, ordem, Integer.MAX_VALUE));
+        } catch (SQLException e) {
+            metrica.registrarErro();
+            System.err.println(mensagemErro + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
 
     /**
      * Deleta um evento do banco de dados.
@@ -152,10 +507,11 @@ public class EventoDAO {
      * @param id O ID do evento a ser deletado.
      * @return true se a deleção foi bem sucedida, false caso contrário.
      */
+    @Override
     public boolean deletarEvento(int id) {
-        String sql = "DELETE FROM Eventos WHERE id = ?";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (MetricaOperacao.Medicao medicao = METRICA_DELETAR_EVENTO.iniciar();
+             Connection conn = RoteadorShards.conexaoDoEvento(id);
+             PreparedStatement stmt = conn.prepareStatement(SQL_DELETAR_EVENTO)) {
 
             stmt.setInt(1, id);
             int affectedRows = stmt.executeUpdate();
@@ -163,6 +519,7 @@ public class EventoDAO {
             return affectedRows > 0;
 
         } catch (SQLException e) {
+            METRICA_DELETAR_EVENTO.registrarErro();
             System.err.println("Erro ao deletar evento: " + e.getMessage());
         }
         return false;
@@ -175,7 +532,7 @@ public class EventoDAO {
      * @return Objeto Evento populado.
      * @throws SQLException Se ocorrer um erro de acesso ao banco de dados.
      */
-    private Evento mapResultSetToEvento(ResultSet rs) throws SQLException {
+    Evento mapResultSetToEvento(ResultSet rs) throws SQLException {
         // Uso do construtor completo do POJO para criar a instância.
         return new Evento(
                 rs.getInt("id"),
@@ -188,4 +545,19 @@ public class EventoDAO {
                 rs.getString("descricao")
         );
     }
+
+    /**
+     * Mapeia um ResultSet das consultas com JOIN para um EventoComDetalhes.
+     * @param rs ResultSet contendo as colunas do evento e a coluna nome_organizador.
+     * @return Objeto EventoComDetalhes populado.
+     * @throws SQLException Se ocorrer um erro de acesso ao banco de dados.
+     */
+    EventoComDetalhes mapResultSetToEventoComDetalhes(ResultSet rs) throws SQLException {
+        String nomeOrganizador = rs.getString("nome_organizador");
+        // Não deve ocorrer se as FKs estiverem corretas, mas mantém o mesmo nome padrão do Controller.
+        if (nomeOrganizador == null) {
+            nomeOrganizador = "Organizador Desconhecido";
+        }
+        return new EventoComDetalhes(mapResultSetToEvento(rs), nomeOrganizador, rs.getInt("inscritos"));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,147 @@
+package dao;
+
+import model.EventoComDetalhes;
+import model.FiltroEventos;
+import util.MetricaOperacao;
+import util.Metricas;
+import util.RoteadorShards;
+
+import java.io.IOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * DAO de leitura usado pela exportação de eventos com as listas de inscritos.
+ * Uma única consulta (eventos + organizador + inscrições + participantes) é percorrida linha a
+ * linha em um ResultSet só de avanço, e cada linha é entregue ao consumidor assim que é lida:
+ * a memória usada não depende do número de eventos nem de inscritos. Com shards, há uma leitura
+ * aberta por shard, intercaladas pela ordem dos eventos ({@link RoteadorShards#percorrerIntercalado}).
+ */
+@SuppressWarnings("try")
+public class ExportacaoDAO {
+
+    // Uma linha por inscrição; eventos sem inscritos aparecem uma vez, com as colunas do participante nulas.
+    // Os participantes de um evento vêm pelo idx_participacao_evento, na ordem de inscrição (rowid),
+    // sem ordenação extra: só os eventos são ordenados, e pelo próprio índice de data.
+    private static final String BASE_SELECT_INSCRITOS = "SELECT e.*, o.nome AS nome_organizador, " +
+            "pu.id AS participante_id, pu.nome AS participante_nome, pu.email AS participante_email " +
+            "FROM eventos e " +
+            "LEFT JOIN usuario o ON o.id = e.organizador_id " +
+            "LEFT JOIN participacao p ON p.evento_id = e.id " +
+            "LEFT JOIN usuario pu ON pu.id = p.usuario_id ";
+    private static final String ORDEM_INSCRITOS = "ORDER BY e.data_hora ASC, e.id ASC";
+
+    // Formas usadas pelo VerificadorPlanos; as demais variantes são montadas por montarSql com os mesmos fragmentos.
+    private static final String SQL_EXPORTAR_INSCRITOS_EVENTO = BASE_SELECT_INSCRITOS + "WHERE e.id = ? " + ORDEM_INSCRITOS;
+    private static final String SQL_EXPORTAR_INSCRITOS_ORGANIZADOR = BASE_SELECT_INSCRITOS +
+            "WHERE e.organizador_id = ? AND e.data_hora >= ? AND e.data_hora < ? " + ORDEM_INSCRITOS;
+    private static final String SQL_EXPORTAR_INSCRITOS_FILTRADOS = BASE_SELECT_INSCRITOS +
+            "WHERE e.categoria = ? AND e.data_hora >= ? AND e.data_hora < ? " + ORDEM_INSCRITOS;
+
+    // Linhas buscadas por ida ao driver.
+    private static final int TAMANHO_LOTE_LEITURA = 1024;
+
+    // Ordem das linhas ao intercalar os shards: a do evento, já que as inscrições ficam no shard dele.
+    private static final Comparator<LinhaExportacao> ORDEM_LINHAS =
+            Comparator.comparing(LinhaExportacao::evento, EventoDAO.ORDEM_EVENTO_COM_DETALHES);
+
+    private static final MetricaOperacao METRICA_PERCORRER_INSCRITOS = Metricas.operacao("ExportacaoDAO.percorrerInscritos");
+
+    // Apenas para reaproveitar o mapeamento de ResultSet e os filtros do catálogo.
+    private final EventoDAO eventoDAO = new EventoDAO();
+
+    /**
+     * Uma linha da exportação: o evento e um de seus inscritos.
+     * Os campos do participante são nulos quando o evento não tem inscritos.
+     */
+    public record LinhaExportacao(EventoComDetalhes evento, Integer participanteId, String nomeParticipante,
+                                  String emailParticipante) {
+    }
+
+    /**
+     * Recebe as linhas da exportação (normalmente escrevendo-as em um arquivo).
+     */
+    @FunctionalInterface
+    public interface ConsumidorLinhas {
+        void aceitar(LinhaExportacao linha) throws IOException;
+    }
+
+    /**
+     * Percorre os eventos do filtro com seus inscritos, na ordem (data_hora, id do evento).
+     * As linhas de um mesmo evento são consecutivas e compartilham o mesmo objeto EventoComDetalhes.
+     * As conexões ficam ocupadas durante toda a exportação, então o consumidor não deve acessar o banco.
+     * @param filtro Filtros opcionais de categoria e período.
+     * @param eventoId Somente este evento, ou null para todos.
+     * @param organizadorId Somente eventos deste organizador, ou null para todos.
+     * @param consumidor Recebe cada linha assim que é lida.
+     * @return O número de linhas entregues, ou -1 em caso de erro no banco.
+     * @throws IOException Se o consumidor falhar (a leitura é interrompida).
+     */
+    public long percorrerInscritos(FiltroEventos filtro, Integer eventoId, Integer organizadorId,
+                                   ConsumidorLinhas consumidor) throws IOException {
+        String sql = montarSql(filtro, eventoId, organizadorId);
+        try (MetricaOperacao.Medicao medicao = METRICA_PERCORRER_INSCRITOS.iniciar()) {
+            return RoteadorShards.<LinhaExportacao, IOException>percorrerIntercalado((conn, shard) -> {
+                PreparedStatement stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                int indice = 1;
+                if (eventoId != null) {
+                    stmt.setInt(indice++, eventoId);
+                }
+                if (organizadorId != null) {
+                    stmt.setInt(indice++, organizadorId);
+                }
+                eventoDAO.preencherParametrosCatalogo(stmt, filtro, null, indice);
+                stmt.setFetchSize(TAMANHO_LOTE_LEITURA);
+                return stmt;
+            }, LeitorLinhas::new, ORDEM_LINHAS, consumidor::aceitar);
+        } catch (SQLException e) {
+            METRICA_PERCORRER_INSCRITOS.registrarErro();
+            System.err.println("Erro ao exportar inscritos: " + e.getMessage());
+            return -1;
+        } catch (IOException e) {
+            METRICA_PERCORRER_INSCRITOS.registrarErro();
+            throw e;
+        }
+    }
+
+    /**
+     * Converte as linhas da leitura de um shard, reaproveitando o EventoComDetalhes enquanto o evento não muda.
+     */
+    private final class LeitorLinhas implements RoteadorShards.LeitorLinha<LinhaExportacao> {
+        private EventoComDetalhes evento;
+
+        @Override
+        public LinhaExportacao ler(ResultSet rs) throws SQLException {
+            if (evento == null || evento.getId() != rs.getInt("id")) {
+                evento = eventoDAO.mapResultSetToEventoComDetalhes(rs);
+            }
+            int participanteId = rs.getInt("participante_id");
+            if (rs.wasNull()) {
+                return new LinhaExportacao(evento, null, null, null);
+            }
+            return new LinhaExportacao(evento, participanteId,
+                    rs.getString("participante_nome"), rs.getString("participante_email"));
+        }
+    }
+
+    /**
+     * Monta o SQL a partir dos filtros presentes (evento, organizador, categoria e período, nessa ordem de parâmetros).
+     */
+    private String montarSql(FiltroEventos filtro, Integer eventoId, Integer organizadorId) {
+        StringBuilder sql = new StringBuilder(BASE_SELECT_INSCRITOS);
+        List<String> condicoes = eventoDAO.condicoesFiltro(filtro);
+        if (organizadorId != null) {
+            condicoes.add(0, "e.organizador_id = ?");
+        }
+        if (eventoId != null) {
+            condicoes.add(0, "e.id = ?");
+        }
+        if (!condicoes.isEmpty()) {
+            sql.append("WHERE ").append(String.join(" AND ", condicoes)).append(' ');
+        }
+        return sql.append(ORDEM_INSCRITOS).toString();
+    }
+}
@@ -0,0 +1,211 @@
+package dao;
+
+import model.Evento;
+import model.Usuario;
+import util.DatabaseConnection;
+import util.MetricaOperacao;
+import util.Metricas;
+import util.ReplicacaoUsuarios;
+import util.RoteadorShards;
+import util.VarreduraPermitida;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.ToIntFunction;
+
+/**
+ * DAO de escrita em lote usado pela importação de dados.
+ * Cada chamada grava um lote inteiro com PreparedStatement em batch dentro de uma única
+ * transação (um único fsync por lote, em vez de um por registro).
+ * Os INSERTs são condicionais, então um registro que viola uma regra simplesmente não é
+ * inserido (contagem 0 no resultado), sem abortar o restante do lote.
+ * Com shards, os usuários são gravados no shard 0 e replicados; eventos e inscrições são
+ * divididos por shard, com uma transação por shard.
+ */
+@SuppressWarnings("try")
+public class ImportacaoDAO {
+
+    // E-mail duplicado é ignorado (contagem 0) em vez de abortar o lote.
+    private static final String SQL_INSERIR_USUARIO = "INSERT OR IGNORE INTO usuario (nome, email, senha, is_admin) VALUES (?, ?, ?, ?)";
+
+    // O organizador é identificado pelo e-mail; se não existir, nada é inserido.
+    // O ID segue o passo do shard, como em EventoDAO.criarEvento.
+    @VarreduraPermitida("sqlite_sequence tem uma linha por tabela com AUTOINCREMENT.")
+    private static final String SQL_INSERIR_EVENTO = "INSERT INTO eventos (id, nome, categoria, data_hora, local, capacidade, organizador_id, descricao) " +
+            "SELECT " + EventoDAO.PROXIMO_ID_EVENTO + ", ?, ?, ?, ?, ?, u.id, ? FROM usuario u WHERE u.email = ?";
+
+    // Mesmas regras da inscrição atômica (InscricaoDAO), com o usuário identificado pelo e-mail.
+    private static final String SQL_INSERIR_INSCRICAO = "INSERT INTO participacao (usuario_id, evento_id) " +
+            "SELECT u.id, e.id FROM usuario u JOIN eventos e ON e.id = ? " +
+            "WHERE u.email = ? " +
+            "AND e.data_hora >= ? " +
+            "AND e.organizador_id <> u.id " +
+            "AND NOT EXISTS (SELECT 1 FROM participacao p WHERE p.usuario_id = u.id AND p.evento_id = e.id) " +
+            "AND e.inscritos < e.capacidade";
+
+    // --- Métricas de desempenho (veja util.Metricas); cada medição corresponde a um lote ---
+
+    private static final MetricaOperacao METRICA_INSERIR_USUARIOS = Metricas.operacao("ImportacaoDAO.inserirUsuarios");
+    private static final MetricaOperacao METRICA_INSERIR_EVENTOS = Metricas.operacao("ImportacaoDAO.inserirEventos");
+    private static final MetricaOperacao METRICA_INSERIR_INSCRICOES = Metricas.operacao("ImportacaoDAO.inserirInscricoes");
+
+    /**
+     * Evento a importar, com o organizador identificado pelo e-mail.
+     */
+    public record LinhaEvento(Evento evento, String emailOrganizador) {
+    }
+
+    /**
+     * Inscrição a importar: usuário (pelo e-mail) no evento (pelo ID).
+     */
+    public record LinhaInscricao(String emailUsuario, int eventoId) {
+    }
+
+    /**
+     * Insere um lote de usuários em uma transação.
+     * @return Contagem por registro (1 inserido, 0 e-mail já existente), ou null se o lote falhar por inteiro.
+     */
+    public int[] inserirUsuarios(List<Usuario> usuarios) {
+        int[] contagens = executarLote(0, SQL_INSERIR_USUARIO, METRICA_INSERIR_USUARIOS, usuarios, (stmt, usuario, shard) -> {
+            stmt.setString(1, usuario.nome());
+            stmt.setString(2, usuario.email());
+            stmt.setString(3, usuario.senha());
+            stmt.setBoolean(4, usuario.isAdmin());
+        }, "usuários");
+        if (contagens != null && RoteadorShards.quantidade() > 1) {
+            List<String> inseridos = new ArrayList<>();
+            for (int i = 0; i < contagens.length; i++) {
+                if (contagens[i] > 0) {
+                    inseridos.add(usuarios.get(i).email());
+                }
+            }
+            // Se a cópia falhar, a próxima inicialização sincroniza os shards.
+            ReplicacaoUsuarios.replicarPorEmails(inseridos);
+        }
+        return contagens;
+    }
+
+    /**
+     * Insere um lote de eventos em uma transação.
+     * @return Contagem por registro (1 inserido, 0 organizador não encontrado), ou null se o lote falhar por inteiro.
+     */
+    public int[] inserirEventos(List<LinhaEvento> eventos) {
+        // Cada evento vai para o próximo shard do rodízio, como na criação pelo EventoDAO.
+        return executarPorShard(SQL_INSERIR_EVENTO, METRICA_INSERIR_EVENTOS, eventos,
+                linha -> RoteadorShards.shardParaNovoEvento(), (stmt, linha, shard) -> {
+            Evento evento = linha.evento();
+            int indice = EventoDAO.preencherProximoId(stmt, 1, shard);
+            stmt.setString(indice++, evento.nome());
+            stmt.setString(indice++, evento.categoria().name());
+            stmt.setTimestamp(indice++, Timestamp.valueOf(evento.dataHora()));
+            stmt.setString(indice++, evento.local());
+            stmt.setInt(indice++, evento.capacidade());
+            stmt.setString(indice++, evento.descricao());
+            stmt.setString(indice, linha.emailOrganizador());
+        }, "eventos");
+    }
+
+    /**
+     * Insere um lote de inscrições em uma transação, aplicando as regras de inscrição.
+     * Como o contador de inscritos é atualizado por trigger a cada linha, a capacidade
+     * é respeitada também entre as linhas do mesmo lote.
+     * @param agora Data/hora de referência para a regra de eventos que já ocorreram.
+     * @return Contagem por registro (1 inserida, 0 regra violada), ou null se o lote falhar por inteiro.
+     */
+    public int[] inserirInscricoes(List<LinhaInscricao> inscricoes, LocalDateTime agora) {
+        Timestamp referencia = Timestamp.valueOf(agora);
+        return executarPorShard(SQL_INSERIR_INSCRICAO, METRICA_INSERIR_INSCRICOES, inscricoes,
+                linha -> RoteadorShards.shardDoEvento(linha.eventoId()), (stmt, linha, shard) -> {
+            stmt.setInt(1, linha.eventoId());
+            stmt.setString(2, linha.emailUsuario());
+            stmt.setTimestamp(3, referencia);
+        }, "inscrições");
+    }
+
+    @FunctionalInterface
+    private interface Preenchedor<T> {
+        void preencher(PreparedStatement stmt, T item, int shard) throws SQLException;
+    }
+
+    /**
+     * Divide o lote pelo shard de cada item e executa as partes em paralelo, uma transação por shard.
+     * @return Contagens na ordem dos itens (0 para os itens de uma parte que falhou), ou null se todas as partes falharem.
+     */
+    private <T> int[] executarPorShard(String sql, MetricaOperacao metrica, List<T> itens, ToIntFunction<T> shardDoItem,
+                                       Preenchedor<T> preenchedor, String descricao) {
+        if (RoteadorShards.quantidade() == 1) {
+            return executarLote(0, sql, metrica, itens, preenchedor, descricao);
+        }
+
+        Map<Integer, List<Integer>> posicoesPorShard = new TreeMap<>();
+        for (int i = 0; i < itens.size(); i++) {
+            posicoesPorShard.computeIfAbsent(shardDoItem.applyAsInt(itens.get(i)), shard -> new ArrayList<>()).add(i);
+        }
+        List<Integer> shards = new ArrayList<>(posicoesPorShard.keySet());
+        List<int[]> contagensPorShard;
+        try {
+            contagensPorShard = RoteadorShards.emParalelo(shards, shard -> {
+                List<T> parte = new ArrayList<>();
+                for (Integer posicao : posicoesPorShard.get(shard)) {
+                    parte.add(itens.get(posicao));
+                }
+                return executarLote(shard, sql, metrica, parte, preenchedor, descricao);
+            });
+        } catch (SQLException e) {
+            metrica.registrarErro();
+            System.err.println("Erro ao importar lote de " + descricao + " (" + itens.size() + " registros): " + e.getMessage());
+            return null;
+        }
+
+        int[] contagens = new int[itens.size()];
+        boolean algumaParteGravada = false;
+        for (int i = 0; i < shards.size(); i++) {
+            int[] parte = contagensPorShard.get(i);
+            if (parte == null) {
+                continue;
+            }
+            algumaParteGravada = true;
+            List<Integer> posicoes = posicoesPorShard.get(shards.get(i));
+            for (int j = 0; j < posicoes.size(); j++) {
+                contagens[posicoes.get(j)] = parte[j];
+            }
+        }
+        return algumaParteGravada ? contagens : null;
+    }
+
+    /**
+     * Executa um lote de comandos em uma única transação no shard informado. Em caso de erro, o lote inteiro é desfeito.
+     */
+    private <T> int[] executarLote(int shard, String sql, MetricaOperacao metrica, List<T> itens, Preenchedor<T> preenchedor,
+                                   String descricao) {
+        try (MetricaOperacao.Medicao medicao = metrica.iniciar();
+             Connection conn = DatabaseConnection.getConnection(shard)) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                for (T item : itens) {
+                    preenchedor.preencher(stmt, item, shard);
+                    stmt.addBatch();
+                }
+                int[] contagens = stmt.executeBatch();
+                conn.commit();
+                return contagens;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            metrica.registrarErro();
+            System.err.println("Erro ao importar lote de " + descricao + " (" + itens.size() + " registros): " + e.getMessage());
+        }
+        return null;
+    }
+}
@@ -1,17 +1,426 @@
 package dao;
 
+import model.ModoInscricaoGrupo;
+import model.ResultadoInscricao;
 import util.DatabaseConnection;
+import util.MetricaOperacao;
+import util.Metricas;
+import util.RoteadorShards;
+import util.VarreduraPermitida;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
 
 /**
  * Data Access Object (DAO) para a entidade de ligação Inscricao/Participacao.
  * Gerencia as inscrições e cancelamentos de usuários em eventos, utilizando a tabela 'participacao'.
+ * As inscrições ficam no shard do evento ({@link RoteadorShards}), então cada operação é uma
+ * transação local de um único arquivo, junto com o contador de inscritos.
  */
-public class InscricaoDAO {
+@SuppressWarnings("try")
+public class InscricaoDAO implements RepositorioInscricoes {
+
+    // Inserção condicional: só insere se todas as regras de negócio forem atendidas.
+    // Como é um único INSERT, o SQLite já obtém o lock de escrita antes de ler as condições,
+    // então duas inscrições concorrentes não conseguem ultrapassar a capacidade.
+    // A capacidade é comparada com o contador eventos.inscritos (mantido por trigger), sem COUNT(*).
+    private static final String SQL_INSCRICAO_CONDICIONAL = "INSERT INTO participacao (usuario_id, evento_id) " +
+            "SELECT ?, e.id FROM eventos e " +
+            "WHERE e.id = ? " +
+            "AND e.data_hora >= ? " +
+            "AND e.organizador_id <> ? " +
+            "AND NOT EXISTS (SELECT 1 FROM participacao p WHERE p.usuario_id = ? AND p.evento_id = e.id) " +
+            "AND e.inscritos < e.capacidade";
+
+    // Usada apenas quando a inserção condicional não insere nada, para descobrir qual regra falhou.
+    private static final String SQL_DIAGNOSTICO_INSCRICAO = "SELECT e.data_hora, e.organizador_id, e.capacidade, e.inscritos, " +
+            "EXISTS (SELECT 1 FROM participacao p WHERE p.usuario_id = ? AND p.evento_id = e.id) AS ja_inscrito " +
+            "FROM eventos e WHERE e.id = ?";
+
+    // Consultas da inscrição em grupo. A lista de IDs é passada como um array JSON (json_each),
+    // o que mantém o SQL fixo para qualquer tamanho de grupo.
+    private static final String SQL_EVENTO_PARA_GRUPO = "SELECT data_hora, organizador_id, capacidade, inscritos FROM eventos WHERE id = ?";
+    private static final String SQL_USUARIOS_EXISTENTES_GRUPO = "SELECT id FROM usuario WHERE id IN (SELECT value FROM json_each(?))";
+    private static final String SQL_JA_INSCRITOS_GRUPO = "SELECT usuario_id FROM participacao " +
+            "WHERE evento_id = ? AND usuario_id IN (SELECT value FROM json_each(?))";
+
+    // --- Consultas SQL (constantes para que o VerificadorPlanos possa checar o plano de cada uma) ---
+
+    private static final String SQL_CRIAR_INSCRICAO = "INSERT INTO participacao (usuario_id, evento_id) VALUES (?, ?)";
+    private static final String SQL_IS_INSCRITO = "SELECT COUNT(*) FROM participacao WHERE usuario_id = ? AND evento_id = ?";
+    private static final String SQL_REMOVER_INSCRICAO = "DELETE FROM participacao WHERE usuario_id = ? AND evento_id = ?";
+    private static final String SQL_CONTAR_PARTICIPANTES = "SELECT inscritos FROM eventos WHERE id = ?";
+    @VarreduraPermitida("Rotina de verificação: percorre todos os eventos de propósito.")
+    private static final String SQL_VERIFICAR_CONTADORES_INSCRITOS = "SELECT e.id FROM eventos e " +
+            "WHERE e.inscritos <> (SELECT COUNT(*) FROM participacao p WHERE p.evento_id = e.id) " +
+            "ORDER BY e.id";
+    @VarreduraPermitida("Rotina de reparo: percorre todos os eventos de propósito.")
+    private static final String SQL_REPARAR_CONTADORES_INSCRITOS = "UPDATE eventos SET inscritos = " +
+            "(SELECT COUNT(*) FROM participacao p WHERE p.evento_id = eventos.id) " +
+            "WHERE inscritos <> (SELECT COUNT(*) FROM participacao p WHERE p.evento_id = eventos.id)";
+
+    // Códigos primários do SQLite (getErrorCode() das exceções do sqlite-jdbc) causados por uma operação
+    // específica do lote: SQLITE_ERROR, SQLITE_TOOBIG, SQLITE_CONSTRAINT, SQLITE_MISMATCH e SQLITE_RANGE.
+    // Os demais (SQLITE_BUSY, erro de E/S, tempo esgotado no pool) valem para o lote inteiro.
+    private static final Set<Integer> ERROS_DA_OPERACAO = Set.of(1, 18, 19, 20, 25);
+
+    // --- Métricas de desempenho (veja util.Metricas) ---
+
+    private static final MetricaOperacao METRICA_INSCREVER_ATOMICAMENTE = Metricas.operacao("InscricaoDAO.inscreverAtomicamente");
+    private static final MetricaOperacao METRICA_INSCREVER_EM_GRUPO = Metricas.operacao("InscricaoDAO.inscreverEmGrupo");
+    private static final MetricaOperacao METRICA_GRAVAR_LOTE = Metricas.operacao("InscricaoDAO.gravarLote");
+    private static final MetricaOperacao METRICA_CRIAR_INSCRICAO = Metricas.operacao("InscricaoDAO.criarInscricao");
+    private static final MetricaOperacao METRICA_IS_INSCRITO = Metricas.operacao("InscricaoDAO.isInscrito");
+    private static final MetricaOperacao METRICA_REMOVER_INSCRICAO = Metricas.operacao("InscricaoDAO.removerInscricao");
+    private static final MetricaOperacao METRICA_CONTAR_PARTICIPANTES = Metricas.operacao("InscricaoDAO.contarParticipantes");
+    private static final MetricaOperacao METRICA_VERIFICAR_CONTADORES_INSCRITOS = Metricas.operacao("InscricaoDAO.verificarContadoresInscritos");
+    private static final MetricaOperacao METRICA_REPARAR_CONTADORES_INSCRITOS = Metricas.operacao("InscricaoDAO.repararContadoresInscritos");
+
+    /**
+     * Inscreve um usuário em um evento de forma atômica, aplicando todas as regras de negócio
+     * (existência, data, próprio evento, duplicidade e capacidade) em uma única transação.
+     * No caminho de sucesso executa um único comando (INSERT ... SELECT condicional).
+     * @param usuarioId ID do usuário.
+     * @param eventoId ID do evento.
+     * @param agora Data/hora de referência para a regra de eventos que já ocorreram.
+     * @return O resultado tipado da tentativa.
+     */
+    @Override
+    public ResultadoInscricao inscreverAtomicamente(int usuarioId, int eventoId, LocalDateTime agora) {
+        try (MetricaOperacao.Medicao medicao = METRICA_INSCREVER_ATOMICAMENTE.iniciar();
+             Connection conn = RoteadorShards.conexaoDoEvento(eventoId)) {
+            conn.setAutoCommit(false);
+            try {
+                ResultadoInscricao resultado = inscreverNaTransacao(conn, usuarioId, eventoId, agora);
+                conn.commit();
+                return resultado;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            METRICA_INSCREVER_ATOMICAMENTE.registrarErro();
+            System.err.println("Erro ao inscrever (usuário ID " + usuarioId + ", evento ID " + eventoId + "): " + e.getMessage());
+        }
+        return ResultadoInscricao.ERRO;
+    }
+
+    /**
+     * Executa a inscrição condicional e, se nada for inserido, o diagnóstico, na transação corrente.
+     */
+    private ResultadoInscricao inscreverNaTransacao(Connection conn, int usuarioId, int eventoId,
+                                                    LocalDateTime agora) throws SQLException {
+        Timestamp referencia = Timestamp.valueOf(agora);
+
+        try (PreparedStatement stmt = conn.prepareStatement(SQL_INSCRICAO_CONDICIONAL)) {
+            stmt.setInt(1, usuarioId);
+            stmt.setInt(2, eventoId);
+            stmt.setTimestamp(3, referencia);
+            stmt.setInt(4, usuarioId);
+            stmt.setInt(5, usuarioId);
+            if (stmt.executeUpdate() > 0) {
+                return ResultadoInscricao.OK;
+            }
+        }
+
+        // Nada foi inserido: descobre o motivo lendo o estado dentro da mesma transação.
+        try (PreparedStatement stmt = conn.prepareStatement(SQL_DIAGNOSTICO_INSCRICAO)) {
+            stmt.setInt(1, usuarioId);
+            stmt.setInt(2, eventoId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) {
+                    return ResultadoInscricao.NOT_FOUND;
+                }
+                // Mesma ordem de verificação usada historicamente pelo Controller.
+                if (rs.getTimestamp("data_hora").before(referencia)) {
+                    return ResultadoInscricao.PAST;
+                }
+                if (rs.getInt("organizador_id") == usuarioId) {
+                    return ResultadoInscricao.OWN_EVENT;
+                }
+                if (rs.getBoolean("ja_inscrito")) {
+                    return ResultadoInscricao.ALREADY_ENROLLED;
+                }
+                if (rs.getInt("inscritos") >= rs.getInt("capacidade")) {
+                    return ResultadoInscricao.FULL;
+                }
+            }
+        }
+        // Todas as regras passaram no diagnóstico, mas o INSERT não ocorreu: trata como erro.
+        return ResultadoInscricao.ERRO;
+    }
+
+    /**
+     * Grava várias inscrições e cancelamentos independentes (de usuários e eventos quaisquer) em uma
+     * única transação: um único lock de escrita e um único fsync para o lote inteiro (commit em grupo).
+     * Cada operação segue as mesmas regras de {@link #inscreverAtomicamente} e de {@link #removerInscricao},
+     * na ordem recebida, então uma operação enxerga o efeito das anteriores do mesmo lote (ex.: vagas).
+     * Se o lote falhar por causa de uma operação (ex.: restrição violada), ele é desfeito e cada operação
+     * é refeita na própria transação, para que uma operação com erro não derrube as demais. Falhas do
+     * shard (banco ocupado, conexão indisponível) devolvem ERRO para o lote inteiro, sem novas tentativas.
+     * Com shards, o lote é dividido pelo shard de cada evento e cada parte é gravada na própria
+     * transação, em paralelo.
+     * @param operacoes Operações a gravar.
+     * @param agora Data/hora de referência para a regra de eventos que já ocorreram.
+     * @return O resultado de cada operação, na mesma ordem (cancelamentos: OK ou NOT_ENROLLED).
+     */
+    @Override
+    public List<ResultadoInscricao> gravarLote(List<OperacaoInscricao> operacoes, LocalDateTime agora) {
+        if (RoteadorShards.quantidade() == 1) {
+            return gravarLoteNoShard(0, operacoes, agora);
+        }
+
+        Map<Integer, List<Integer>> posicoesPorShard = new TreeMap<>();
+        for (int i = 0; i < operacoes.size(); i++) {
+            posicoesPorShard.computeIfAbsent(RoteadorShards.shardDoEvento(operacoes.get(i).eventoId()),
+                    shard -> new ArrayList<>()).add(i);
+        }
+        List<Integer> shards = new ArrayList<>(posicoesPorShard.keySet());
+        List<List<ResultadoInscricao>> resultadosPorShard;
+        try {
+            resultadosPorShard = RoteadorShards.emParalelo(shards, shard -> {
+                List<OperacaoInscricao> parte = new ArrayList<>();
+                for (Integer posicao : posicoesPorShard.get(shard)) {
+                    parte.add(operacoes.get(posicao));
+                }
+                return gravarLoteNoShard(shard, parte, agora);
+            });
+        } catch (SQLException e) {
+            METRICA_GRAVAR_LOTE.registrarErro();
+            System.err.println("Erro ao gravar lote de " + operacoes.size() + " inscrição(ões)/cancelamento(s): " + e.getMessage());
+            return new ArrayList<>(Collections.nCopies(operacoes.size(), ResultadoInscricao.ERRO));
+        }
+
+        ResultadoInscricao[] resultados = new ResultadoInscricao[operacoes.size()];
+        for (int i = 0; i < shards.size(); i++) {
+            List<Integer> posicoes = posicoesPorShard.get(shards.get(i));
+            for (int j = 0; j < posicoes.size(); j++) {
+                resultados[posicoes.get(j)] = resultadosPorShard.get(i).get(j);
+            }
+        }
+        return new ArrayList<>(Arrays.asList(resultados));
+    }
+
+    /**
+     * Grava em uma única transação operações cujos eventos estão todos no shard informado.
+     */
+    private List<ResultadoInscricao> gravarLoteNoShard(int shard, List<OperacaoInscricao> operacoes, LocalDateTime agora) {
+        try {
+            return gravarNaTransacao(shard, operacoes, agora);
+        } catch (SQLException e) {
+            System.err.println("Erro ao gravar lote de " + operacoes.size() + " inscrição(ões)/cancelamento(s): " + e.getMessage());
+            if (operacoes.size() == 1 || !ERROS_DA_OPERACAO.contains(e.getErrorCode())) {
+                return new ArrayList<>(Collections.nCopies(operacoes.size(), ResultadoInscricao.ERRO));
+            }
+        }
+
+        // Refaz cada operação sozinha; se o shard deixar de responder no meio, as restantes ficam com ERRO.
+        List<ResultadoInscricao> resultados = new ArrayList<>(operacoes.size());
+        for (OperacaoInscricao operacao : operacoes) {
+            try {
+                resultados.add(gravarNaTransacao(shard, List.of(operacao), agora).get(0));
+            } catch (SQLException e) {
+                System.err.println("Erro ao gravar inscrição/cancelamento do usuário ID " + operacao.usuarioId()
+                        + " no evento ID " + operacao.eventoId() + ": " + e.getMessage());
+                resultados.add(ResultadoInscricao.ERRO);
+                if (!ERROS_DA_OPERACAO.contains(e.getErrorCode())) {
+                    break;
+                }
+            }
+        }
+        resultados.addAll(Collections.nCopies(operacoes.size() - resultados.size(), ResultadoInscricao.ERRO));
+        return resultados;
+    }
+
+    private List<ResultadoInscricao> gravarNaTransacao(int shard, List<OperacaoInscricao> operacoes, LocalDateTime agora)
+            throws SQLException {
+        try (MetricaOperacao.Medicao medicao = METRICA_GRAVAR_LOTE.iniciar();
+             Connection conn = DatabaseConnection.getConnection(shard)) {
+            conn.setAutoCommit(false);
+            try {
+                List<ResultadoInscricao> resultados = new ArrayList<>(operacoes.size());
+                for (OperacaoInscricao operacao : operacoes) {
+                    resultados.add(operacao.cancelamento()
+                            ? cancelarNaTransacao(conn, operacao.usuarioId(), operacao.eventoId())
+                            : inscreverNaTransacao(conn, operacao.usuarioId(), operacao.eventoId(), agora));
+                }
+                conn.commit();
+                return resultados;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            METRICA_GRAVAR_LOTE.registrarErro();
+            throw e;
+        }
+    }
+
+    private ResultadoInscricao cancelarNaTransacao(Connection conn, int usuarioId, int eventoId) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(SQL_REMOVER_INSCRICAO)) {
+            stmt.setInt(1, usuarioId);
+            stmt.setInt(2, eventoId);
+            return stmt.executeUpdate() > 0 ? ResultadoInscricao.OK : ResultadoInscricao.NOT_ENROLLED;
+        }
+    }
+
+    /**
+     * Inscreve vários usuários em um mesmo evento em uma única transação.
+     * O evento é lido e a capacidade verificada uma única vez; as verificações de usuário
+     * (existência e inscrição prévia) são feitas com uma consulta cada para o grupo todo,
+     * e as inscrições aceitas são gravadas em um único batch.
+     * @param usuarioIds IDs dos usuários (duplicados são ignorados; a ordem define a prioridade nas vagas).
+     * @param eventoId ID do evento.
+     * @param modo TUDO_OU_NADA não grava nada se algum usuário for recusado; MELHOR_ESFORCO grava os aceitos.
+     * @param agora Data/hora de referência para a regra de eventos que já ocorreram.
+     * @return O resultado de cada usuário, na ordem recebida.
+     */
+    @Override
+    public Map<Integer, ResultadoInscricao> inscreverEmGrupo(List<Integer> usuarioIds, int eventoId,
+                                                             ModoInscricaoGrupo modo, LocalDateTime agora) {
+        Set<Integer> grupo = new LinkedHashSet<>(usuarioIds);
+        Map<Integer, ResultadoInscricao> resultados = new LinkedHashMap<>();
+        if (grupo.isEmpty()) {
+            return resultados;
+        }
+
+        try (MetricaOperacao.Medicao medicao = METRICA_INSCREVER_EM_GRUPO.iniciar();
+             Connection conn = RoteadorShards.conexaoDoEvento(eventoId)) {
+            // BEGIN IMMEDIATE (configurado no DatabaseConnection): o lock de escrita é obtido antes das leituras,
+            // então a capacidade lida não muda até o commit.
+            conn.setAutoCommit(false);
+            try {
+                inscreverGrupoNaTransacao(conn, grupo, eventoId, modo, agora, resultados);
+                conn.commit();
+                return resultados;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            METRICA_INSCREVER_EM_GRUPO.registrarErro();
+            System.err.println("Erro ao inscrever grupo no evento ID " + eventoId + ": " + e.getMessage());
+        }
+
+        for (Integer id : grupo) {
+            resultados.put(id, ResultadoInscricao.ERRO);
+        }
+        return resultados;
+    }
+
+    private void inscreverGrupoNaTransacao(Connection conn, Set<Integer> grupo, int eventoId, ModoInscricaoGrupo modo,
+                                           LocalDateTime agora, Map<Integer, ResultadoInscricao> resultados)
+            throws SQLException {
+        // 1. Evento: lido uma única vez para o grupo inteiro.
+        int organizadorId;
+        int vagas;
+        try (PreparedStatement stmt = conn.prepareStatement(SQL_EVENTO_PARA_GRUPO)) {
+            stmt.setInt(1, eventoId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                ResultadoInscricao falhaEvento = null;
+                if (!rs.next()) {
+                    falhaEvento = ResultadoInscricao.NOT_FOUND;
+                } else if (rs.getTimestamp("data_hora").before(Timestamp.valueOf(agora))) {
+                    falhaEvento = ResultadoInscricao.PAST;
+                }
+                if (falhaEvento != null) {
+                    for (Integer id : grupo) {
+                        resultados.put(id, falhaEvento);
+                    }
+                    return;
+                }
+                organizadorId = rs.getInt("organizador_id");
+                vagas = rs.getInt("capacidade") - rs.getInt("inscritos");
+            }
+        }
+
+        // 2. Usuários existentes e já inscritos: uma consulta cada para o grupo todo.
+        String idsJson = grupo.stream().map(String::valueOf).collect(Collectors.joining(",", "[", "]"));
+        Set<Integer> existentes = lerIds(conn, SQL_USUARIOS_EXISTENTES_GRUPO, null, idsJson);
+        Set<Integer> jaInscritos = lerIds(conn, SQL_JA_INSCRITOS_GRUPO, eventoId, idsJson);
+
+        // 3. Regras por usuário, na ordem do grupo; as vagas vão para os primeiros aceitos.
+        List<Integer> aceitos = new ArrayList<>();
+        boolean algumRecusado = false;
+        for (Integer id : grupo) {
+            ResultadoInscricao resultado;
+            if (!existentes.contains(id)) {
+                resultado = ResultadoInscricao.USER_NOT_FOUND;
+            } else if (id == organizadorId) {
+                resultado = ResultadoInscricao.OWN_EVENT;
+            } else if (jaInscritos.contains(id)) {
+                resultado = ResultadoInscricao.ALREADY_ENROLLED;
+            } else if (aceitos.size() >= vagas) {
+                resultado = ResultadoInscricao.FULL;
+            } else {
+                resultado = ResultadoInscricao.OK;
+                aceitos.add(id);
+            }
+            algumRecusado |= resultado != ResultadoInscricao.OK;
+            resultados.put(id, resultado);
+        }
+
+        if (modo == ModoInscricaoGrupo.TUDO_OU_NADA && algumRecusado) {
+            for (Integer id : aceitos) {
+                resultados.put(id, ResultadoInscricao.ROLLED_BACK);
+            }
+            return;
+        }
+
+        // 4. Grava todas as inscrições aceitas em um único batch.
+        try (PreparedStatement stmt = conn.prepareStatement(SQL_CRIAR_INSCRICAO)) {
+            for (Integer id : aceitos) {
+                stmt.setInt(1, id);
+                stmt.setInt(2, eventoId);
+                stmt.addBatch();
+            }
+            if (!aceitos.isEmpty()) {
+                stmt.executeBatch();
+            }
+        }
+    }
+
+    /**
+     * Executa uma consulta que retorna IDs, com um parâmetro inteiro opcional seguido do array JSON de IDs.
+     */
+    private Set<Integer> lerIds(Connection conn, String sql, Integer eventoId, String idsJson) throws SQLException {
+        Set<Integer> ids = new HashSet<>();
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            int indice = 1;
+            if (eventoId != null) {
+                stmt.setInt(indice++, eventoId);
+            }
+            stmt.setString(indice, idsJson);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getInt(1));
+                }
+            }
+        }
+        return ids;
+    }
 
     /**
      * Insere um novo registro de inscrição. Corresponde ao `criarInscricao` no Controller.
@@ -19,10 +428,11 @@ public class InscricaoDAO {
      * @param eventoId ID do evento.
      * @return true se inserido, false se duplicado ou erro.
      */
+    @Override
     public boolean criarInscricao(int usuarioId, int eventoId) {
-        String sql = "INSERT INTO participacao (usuario_id, evento_id) VALUES (?, ?)";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (MetricaOperacao.Medicao medicao = METRICA_CRIAR_INSCRICAO.iniciar();
+             Connection conn = RoteadorShards.conexaoDoEvento(eventoId);
+             PreparedStatement stmt = conn.prepareStatement(SQL_CRIAR_INSCRICAO)) {
 
             stmt.setInt(1, usuarioId);
             stmt.setInt(2, eventoId);
@@ -32,6 +442,7 @@ public class InscricaoDAO {
 
         } catch (SQLException e) {
             // Em caso de erro (ex: chave duplicada se já estiver inscrito), retorna false.
+            METRICA_CRIAR_INSCRICAO.registrarErro();
             System.err.println("Erro ao criar inscrição (usuário ID " + usuarioId + ", evento ID " + eventoId + "): " + e.getMessage());
         }
         return false;
@@ -43,10 +454,11 @@ public class InscricaoDAO {
      * @param eventoId ID do evento.
      * @return true se inscrito, false caso contrário.
      */
+    @Override
     public boolean isInscrito(int usuarioId, int eventoId) {
-        String sql = "SELECT COUNT(*) FROM participacao WHERE usuario_id = ? AND evento_id = ?";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (MetricaOperacao.Medicao medicao = METRICA_IS_INSCRITO.iniciar();
+             Connection conn = RoteadorShards.conexaoDoEvento(eventoId);
+             PreparedStatement stmt = conn.prepareStatement(SQL_IS_INSCRITO)) {
 
             stmt.setInt(1, usuarioId);
             stmt.setInt(2, eventoId);
@@ -57,6 +469,7 @@ public class InscricaoDAO {
                 }
             }
         } catch (SQLException e) {
+            METRICA_IS_INSCRITO.registrarErro();
             System.err.println("Erro ao verificar inscrição: " + e.getMessage());
         }
         return false;
@@ -68,10 +481,11 @@ public class InscricaoDAO {
      * @param eventoId ID do evento.
      * @return true se removido, false se não existir ou erro.
      */
+    @Override
     public boolean removerInscricao(int usuarioId, int eventoId) {
-        String sql = "DELETE FROM participacao WHERE usuario_id = ? AND evento_id = ?";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (MetricaOperacao.Medicao medicao = METRICA_REMOVER_INSCRICAO.iniciar();
+             Connection conn = RoteadorShards.conexaoDoEvento(eventoId);
+             PreparedStatement stmt = conn.prepareStatement(SQL_REMOVER_INSCRICAO)) {
 
             stmt.setInt(1, usuarioId);
             stmt.setInt(2, eventoId);
@@ -80,6 +494,7 @@ public class InscricaoDAO {
             return affectedRows > 0;
 
         } catch (SQLException e) {
+            METRICA_REMOVER_INSCRICAO.registrarErro();
             System.err.println("Erro ao remover inscrição: " + e.getMessage());
         }
         return false;
@@ -87,13 +502,15 @@ public class InscricaoDAO {
 
     /**
      * Conta o número total de participantes inscritos em um evento.
+     * Lê o contador mantido em eventos.inscritos (O(1)), em vez de contar a tabela participacao.
      * @param eventoId ID do evento.
      * @return O número de participantes.
      */
+    @Override
     public int contarParticipantes(int eventoId) {
-        String sql = "SELECT COUNT(*) FROM participacao WHERE evento_id = ?";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (MetricaOperacao.Medicao medicao = METRICA_CONTAR_PARTICIPANTES.iniciar();
+             Connection conn = RoteadorShards.conexaoDoEvento(eventoId);
+             PreparedStatement stmt = conn.prepareStatement(SQL_CONTAR_PARTICIPANTES)) {
 
             stmt.setInt(1, eventoId);
             try (ResultSet rs = stmt.executeQuery()) {
@@ -102,10 +519,55 @@ public class InscricaoDAO {
                 }
             }
         } catch (SQLException e) {
+            METRICA_CONTAR_PARTICIPANTES.registrarErro();
             System.err.println("Erro ao contar participantes: " + e.getMessage());
         }
         return 0;
     }
 
+    /**
+     * Verifica a consistência dos contadores eventos.inscritos com a tabela participacao (em todos os shards).
+     * @return IDs dos eventos cujo contador diverge da contagem real (lista vazia se tudo estiver correto).
+     */
+    public List<Integer> verificarContadoresInscritos() {
+        List<Integer> divergentes = new ArrayList<>();
+        try (MetricaOperacao.Medicao medicao = METRICA_VERIFICAR_CONTADORES_INSCRITOS.iniciar()) {
+            List<List<Integer>> partes = RoteadorShards.emCadaShard((conn, shard) -> {
+                List<Integer> parte = new ArrayList<>();
+                try (Statement stmt = conn.createStatement();
+                     ResultSet rs = stmt.executeQuery(SQL_VERIFICAR_CONTADORES_INSCRITOS)) {
+                    while (rs.next()) {
+                        parte.add(rs.getInt(1));
+                    }
+                }
+                return parte;
+            });
+            partes.forEach(divergentes::addAll);
+            Collections.sort(divergentes);
+        } catch (SQLException e) {
+            METRICA_VERIFICAR_CONTADORES_INSCRITOS.registrarErro();
+            System.err.println("Erro ao verificar contadores de inscritos: " + e.getMessage());
+        }
+        return divergentes;
+    }
 
+    /**
+     * Recalcula os contadores eventos.inscritos a partir da tabela participacao.
+     * Rotina de reparo para o caso de a verificação encontrar divergências.
+     * @return O número de eventos cujo contador foi corrigido (somado entre os shards), ou -1 em caso de erro.
+     */
+    public int repararContadoresInscritos() {
+        try (MetricaOperacao.Medicao medicao = METRICA_REPARAR_CONTADORES_INSCRITOS.iniciar()) {
+            List<Integer> corrigidos = RoteadorShards.emCadaShard((conn, shard) -> {
+                try (Statement stmt = conn.createStatement()) {
+                    return stmt.executeUpdate(SQL_REPARAR_CONTADORES_INSCRITOS);
+                }
+            });
+            return corrigidos.stream().mapToInt(Integer::intValue).sum();
+        } catch (SQLException e) {
+            METRICA_REPARAR_CONTADORES_INSCRITOS.registrarErro();
+            System.err.println("Erro ao reparar contadores de inscritos: " + e.getMessage());
+        }
+        return -1;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,82 @@
+package dao;
+
+import model.Evento;
+import model.EventoComDetalhes;
+import model.FiltroEventos;
+import model.PaginaBusca;
+import model.PaginaEventos;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Armazenamento de eventos usado pelo AppController e pelo CatalogoEventos, independente do
+ * mecanismo de persistência. Implementações: {@link EventoDAO} (SQLite) e {@link RepositorioMemoria}.
+ *
+ * Regras comuns (verificadas pelo util.VerificadorContratoRepositorios):
+ * <ul>
+ *   <li>O organizador precisa existir; o ID é gerado pelo repositório e não é reaproveitado.</li>
+ *   <li>As listagens são ordenadas por (data_hora, id); o contador de inscritos de cada
+ *       EventoComDetalhes é o número de inscrições do evento.</li>
+ *   <li>Deletar um evento remove também as inscrições dele.</li>
+ * </ul>
+ */
+public interface RepositorioEventos {
+
+    /**
+     * Cria um novo evento.
+     * @param evento O evento a ser criado (o ID do objeto é ignorado).
+     * @return O ID gerado, ou -1 se o organizador não existir ou em caso de falha.
+     */
+    int criarEvento(Evento evento);
+
+    /**
+     * @return O evento com o ID informado, ou null se não existir.
+     */
+    Evento getEventoPorId(int id);
+
+    List<Evento> listarTodosEventos();
+
+    List<Evento> listarEventosPorOrganizador(int organizadorId);
+
+    List<Evento> listarEventosInscritosPorUsuario(int userId);
+
+    List<EventoComDetalhes> listarTodosEventosComDetalhes();
+
+    List<EventoComDetalhes> listarEventosComDetalhesPorOrganizador(int organizadorId);
+
+    List<EventoComDetalhes> listarEventosComDetalhesInscritosPorUsuario(int userId);
+
+    /**
+     * Busca uma página do catálogo por paginação por chave, ordenada por (data_hora, id).
+     * @param filtro Filtros de categoria e período.
+     * @param apos Cursor retornado pela página anterior, ou null para a primeira página.
+     * @param tamanhoPagina Número máximo de eventos na página.
+     * @return A página encontrada (vazia em caso de erro).
+     */
+    PaginaEventos listarPaginaEventos(FiltroEventos filtro, PaginaEventos.Cursor apos, int tamanhoPagina);
+
+    /**
+     * Percorre o catálogo entregando um evento por vez, na ordem (data_hora, id). O consumidor não
+     * deve acessar o repositório.
+     * @return O número de eventos entregues, ou -1 em caso de erro.
+     */
+    int percorrerEventos(FiltroEventos filtro, Consumer<EventoComDetalhes> consumidor);
+
+    /**
+     * Busca eventos por nome, descrição e local, do mais para o menos relevante. Todos os termos
+     * precisam aparecer no evento, como prefixo de uma palavra, sem diferenciar acentos e maiúsculas.
+     * @param consultaFts Termos no formato montado pelo AppController (ex.: "show"* "rock"*).
+     * @param filtro Filtros de categoria e período.
+     * @param pagina Número da página, começando em 1.
+     * @param tamanhoPagina Número máximo de eventos na página.
+     * @return A página de resultados (vazia em caso de erro).
+     */
+    PaginaBusca buscarEventos(String consultaFts, FiltroEventos filtro, int pagina, int tamanhoPagina);
+
+    /**
+     * Deleta o evento, com as inscrições removidas em cascata.
+     * @return true se o evento existia e foi removido.
+     */
+    boolean deletarEvento(int id);
+}
@@ -0,0 +1,69 @@
+package dao;
+
+import model.ModoInscricaoGrupo;
+import model.ResultadoInscricao;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Armazenamento das inscrições usado pelo AppController e pela FilaInscricoes, independente do
+ * mecanismo de persistência. Implementações: {@link InscricaoDAO} (SQLite) e {@link RepositorioMemoria}.
+ *
+ * A inscrição é identificada pelo par (usuário, evento): um usuário se inscreve no máximo uma vez
+ * em cada evento. As regras de negócio (evento existe, não ocorreu, não é o organizador, não está
+ * inscrito e há vagas) são aplicadas atomicamente pelo repositório, nesta ordem, para que inscrições
+ * concorrentes não ultrapassem a capacidade (verificadas pelo util.VerificadorContratoRepositorios).
+ */
+public interface RepositorioInscricoes {
+
+    /**
+     * Inscrição ou cancelamento de um usuário em um evento, para gravação em lote ({@link #gravarLote}).
+     */
+    record OperacaoInscricao(boolean cancelamento, int usuarioId, int eventoId) {
+    }
+
+    /**
+     * Inscreve um usuário em um evento de forma atômica, aplicando todas as regras de negócio.
+     * @param agora Data/hora de referência para a regra de eventos que já ocorreram.
+     * @return O resultado tipado da tentativa (ERRO se o usuário não existir ou em caso de falha).
+     */
+    ResultadoInscricao inscreverAtomicamente(int usuarioId, int eventoId, LocalDateTime agora);
+
+    /**
+     * Grava várias inscrições e cancelamentos independentes, na ordem recebida: uma operação
+     * enxerga o efeito das anteriores do mesmo lote (ex.: vagas).
+     * @return O resultado de cada operação, na mesma ordem (cancelamentos: OK ou NOT_ENROLLED).
+     */
+    List<ResultadoInscricao> gravarLote(List<OperacaoInscricao> operacoes, LocalDateTime agora);
+
+    /**
+     * Inscreve vários usuários em um mesmo evento de uma vez.
+     * @param usuarioIds IDs dos usuários (duplicados são ignorados; a ordem define a prioridade nas vagas).
+     * @param modo TUDO_OU_NADA não grava nada se algum usuário for recusado; MELHOR_ESFORCO grava os aceitos.
+     * @return O resultado de cada usuário, na ordem recebida.
+     */
+    Map<Integer, ResultadoInscricao> inscreverEmGrupo(List<Integer> usuarioIds, int eventoId,
+                                                      ModoInscricaoGrupo modo, LocalDateTime agora);
+
+    /**
+     * Insere a inscrição sem as regras de negócio (apenas a existência do usuário e do evento e a
+     * chave única são verificadas).
+     * @return true se inserida, false se duplicada ou em caso de erro.
+     */
+    boolean criarInscricao(int usuarioId, int eventoId);
+
+    boolean isInscrito(int usuarioId, int eventoId);
+
+    /**
+     * Cancela a inscrição.
+     * @return true se removida, false se não existir ou em caso de erro.
+     */
+    boolean removerInscricao(int usuarioId, int eventoId);
+
+    /**
+     * @return O número de inscritos no evento (0 se não existir).
+     */
+    int contarParticipantes(int eventoId);
+}
@@ -0,0 +1,612 @@
+package dao;
+
+import model.Evento;
+import model.EventoComDetalhes;
+import model.FiltroEventos;
+import model.ModoInscricaoGrupo;
+import model.PaginaBusca;
+import model.PaginaEventos;
+import model.ResultadoInscricao;
+import model.Usuario;
+
+import java.text.Normalizer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Implementação somente em memória dos repositórios de usuários, eventos e inscrições, sem banco
+ * de dados. Os dados existem apenas enquanto a instância existir: serve para execuções efêmeras
+ * (demonstrações, testes manuais) e para benchmarks que medem o custo do AppController sem o
+ * custo de E/S do SQLite.
+ *
+ * As mesmas restrições do esquema do SQLite são aplicadas aqui (veja util.Migracoes):
+ * <ul>
+ *   <li>email único (comparação exata) e IDs gerados em sequência, sem reaproveitamento;</li>
+ *   <li>o organizador do evento e o usuário da inscrição precisam existir;</li>
+ *   <li>inscrição identificada pelo par (usuário, evento), guardado nos dois sentidos;</li>
+ *   <li>deletar um usuário remove em cascata os eventos que organiza e as inscrições dele;
+ *       deletar um evento remove as inscrições do evento.</li>
+ * </ul>
+ *
+ * Concorrência: os dados ficam em mapas concorrentes e as leituras não usam trava. Cada alteração
+ * é feita sob uma única trava de escrita, o que torna atômicas as regras que envolvem mais de um
+ * mapa (email único, capacidade do evento, cascatas), como a transação faz no SQLite.
+ *
+ * A busca textual aplica as mesmas regras de correspondência do índice FTS5 (prefixo, sem acentos e
+ * maiúsculas, todos os termos), mas a relevância é uma contagem ponderada dos termos por coluna
+ * (nome 10, local 3, descrição 1) em vez do bm25.
+ */
+public class RepositorioMemoria implements RepositorioUsuarios, RepositorioEventos, RepositorioInscricoes {
+
+    private static final String ORGANIZADOR_DESCONHECIDO = "Organizador Desconhecido";
+
+    // Mesma ordem das listagens do EventoDAO: data_hora e, no empate, id.
+    private static final Comparator<PaginaEventos.Cursor> ORDEM =
+            Comparator.comparing(PaginaEventos.Cursor::dataHora).thenComparingInt(PaginaEventos.Cursor::id);
+
+    // Termos da expressão montada pelo AppController ("show"* "rock"*) e palavras dos campos pesquisados.
+    private static final Pattern TERMO_CONSULTA = Pattern.compile("\"([^\"]*)\"");
+    private static final Pattern PALAVRA = Pattern.compile("[\\p{L}\\p{N}]+");
+    private static final Pattern ACENTOS = Pattern.compile("\\p{M}+");
+
+    // Pesos por coluna da busca, na mesma proporção dos pesos do bm25 no EventoDAO.
+    private static final int PESO_NOME = 10;
+    private static final int PESO_LOCAL = 3;
+    private static final int PESO_DESCRICAO = 1;
+
+    private final Map<Integer, Usuario> usuarios = new ConcurrentHashMap<>();
+    private final Map<String, Integer> usuarioPorEmail = new ConcurrentHashMap<>();
+    private final Map<Integer, EventoMemoria> eventos = new ConcurrentHashMap<>();
+    private final NavigableMap<PaginaEventos.Cursor, EventoMemoria> eventosPorData = new ConcurrentSkipListMap<>(ORDEM);
+    private final Map<Integer, Set<Integer>> eventosPorOrganizador = new ConcurrentHashMap<>();
+    // Segundo sentido da chave (usuário, evento): eventos em que cada usuário está inscrito.
+    private final Map<Integer, Set<Integer>> inscricoesPorUsuario = new ConcurrentHashMap<>();
+
+    private final AtomicInteger ultimoIdUsuario = new AtomicInteger();
+    private final AtomicInteger ultimoIdEvento = new AtomicInteger();
+
+    // Serializa as alterações (equivalente ao lock de escrita do SQLite).
+    private final Object escrita = new Object();
+
+    /**
+     * Evento guardado, com os IDs dos usuários inscritos (primeiro sentido da chave (usuário, evento)).
+     */
+    private static final class EventoMemoria {
+        final Evento evento;
+        final Set<Integer> inscritos = ConcurrentHashMap.newKeySet();
+
+        EventoMemoria(Evento evento) {
+            this.evento = evento;
+        }
+
+        PaginaEventos.Cursor chave() {
+            return new PaginaEventos.Cursor(evento.dataHora(), evento.id());
+        }
+    }
+
+    /**
+     * Evento encontrado pela busca textual, com a pontuação (maior é mais relevante).
+     */
+    private record ResultadoBusca(EventoComDetalhes evento, int relevancia) {
+    }
+
+    // --- USUÁRIOS ---
+
+    @Override
+    public int criarUsuario(Usuario usuario) {
+        if (usuario.nome() == null || usuario.email() == null || usuario.senha() == null) {
+            return -1;
+        }
+        synchronized (escrita) {
+            if (usuarioPorEmail.containsKey(usuario.email())) {
+                return -1;
+            }
+            int id = ultimoIdUsuario.incrementAndGet();
+            usuarios.put(id, new Usuario(id, usuario.nome(), usuario.email(), usuario.senha(), usuario.isAdmin()));
+            usuarioPorEmail.put(usuario.email(), id);
+            return id;
+        }
+    }
+
+    @Override
+    public Usuario getUsuarioPorId(int id) {
+        return usuarios.get(id);
+    }
+
+    @Override
+    public Usuario getUsuarioPorEmail(String email) {
+        Integer id = email == null ? null : usuarioPorEmail.get(email);
+        return id == null ? null : usuarios.get(id);
+    }
+
+    @Override
+    public List<Usuario> listarTodosUsuarios() {
+        List<Usuario> lista = new ArrayList<>(usuarios.values());
+        lista.sort(Comparator.comparingInt(Usuario::id));
+        return lista;
+    }
+
+    @Override
+    public boolean deletarUsuario(int id) {
+        synchronized (escrita) {
+            Usuario usuario = usuarios.remove(id);
+            if (usuario == null) {
+                return false;
+            }
+            usuarioPorEmail.remove(usuario.email());
+
+            // Cascata: eventos organizados (com as inscrições deles) e inscrições do usuário.
+            Set<Integer> organizados = eventosPorOrganizador.remove(id);
+            if (organizados != null) {
+                for (Integer eventoId : organizados) {
+                    removerEvento(eventoId);
+                }
+            }
+            Set<Integer> inscricoes = inscricoesPorUsuario.remove(id);
+            if (inscricoes != null) {
+                for (Integer eventoId : inscricoes) {
+                    EventoMemoria evento = eventos.get(eventoId);
+                    if (evento != null) {
+                        evento.inscritos.remove(id);
+                    }
+                }
+            }
+            return true;
+        }
+    }
+
+    @Override
+    public boolean atualizarStatusAdmin(int id, boolean isAdmin) {
+        synchronized (escrita) {
+            Usuario usuario = usuarios.get(id);
+            if (usuario == null) {
+                return false;
+            }
+            usuarios.put(id, new Usuario(id, usuario.nome(), usuario.email(), usuario.senha(), isAdmin));
+            return true;
+        }
+    }
+
+    // --- EVENTOS ---
+
+    @Override
+    public int criarEvento(Evento evento) {
+        if (evento.nome() == null || evento.categoria() == null || evento.dataHora() == null || evento.local() == null) {
+            return -1;
+        }
+        synchronized (escrita) {
+            // Chave estrangeira do organizador.
+            if (!usuarios.containsKey(evento.organizadorId())) {
+                return -1;
+            }
+            int id = ultimoIdEvento.incrementAndGet();
+            EventoMemoria novo = new EventoMemoria(new Evento(id, evento.nome(), evento.categoria(), evento.dataHora(),
+                    evento.local(), evento.capacidade(), evento.organizadorId(), evento.descricao()));
+            eventos.put(id, novo);
+            eventosPorData.put(novo.chave(), novo);
+            eventosPorOrganizador.computeIfAbsent(evento.organizadorId(), org -> ConcurrentHashMap.newKeySet()).add(id);
+            return id;
+        }
+    }
+
+    @Override
+    public Evento getEventoPorId(int id) {
+        EventoMemoria evento = eventos.get(id);
+        return evento == null ? null : evento.evento;
+    }
+
+    @Override
+    public List<Evento> listarTodosEventos() {
+        List<Evento> lista = new ArrayList<>();
+        for (EventoMemoria evento : eventosPorData.values()) {
+            lista.add(evento.evento);
+        }
+        return lista;
+    }
+
+    @Override
+    public List<Evento> listarEventosPorOrganizador(int organizadorId) {
+        List<Evento> lista = new ArrayList<>();
+        for (EventoMemoria evento : ordenados(eventosPorOrganizador.get(organizadorId))) {
+            lista.add(evento.evento);
+        }
+        return lista;
+    }
+
+    @Override
+    public List<Evento> listarEventosInscritosPorUsuario(int userId) {
+        List<Evento> lista = new ArrayList<>();
+        for (EventoMemoria evento : ordenados(inscricoesPorUsuario.get(userId))) {
+            lista.add(evento.evento);
+        }
+        return lista;
+    }
+
+    @Override
+    public List<EventoComDetalhes> listarTodosEventosComDetalhes() {
+        List<EventoComDetalhes> lista = new ArrayList<>();
+        for (EventoMemoria evento : eventosPorData.values()) {
+            lista.add(comDetalhes(evento));
+        }
+        return lista;
+    }
+
+    @Override
+    public List<EventoComDetalhes> listarEventosComDetalhesPorOrganizador(int organizadorId) {
+        List<EventoComDetalhes> lista = new ArrayList<>();
+        for (EventoMemoria evento : ordenados(eventosPorOrganizador.get(organizadorId))) {
+            lista.add(comDetalhes(evento));
+        }
+        return lista;
+    }
+
+    @Override
+    public List<EventoComDetalhes> listarEventosComDetalhesInscritosPorUsuario(int userId) {
+        List<EventoComDetalhes> lista = new ArrayList<>();
+        for (EventoMemoria evento : ordenados(inscricoesPorUsuario.get(userId))) {
+            lista.add(comDetalhes(evento));
+        }
+        return lista;
+    }
+
+    @Override
+    public PaginaEventos listarPaginaEventos(FiltroEventos filtro, PaginaEventos.Cursor apos, int tamanhoPagina) {
+        List<EventoComDetalhes> pagina = new ArrayList<>();
+        // Um evento a mais apenas para saber se existe próxima página.
+        for (EventoMemoria evento : faixa(filtro, apos).values()) {
+            if (pagina.size() > tamanhoPagina) {
+                break;
+            }
+            if (filtro.categoria() == null || evento.evento.categoria() == filtro.categoria()) {
+                pagina.add(comDetalhes(evento));
+            }
+        }
+
+        PaginaEventos.Cursor proxima = null;
+        if (pagina.size() > tamanhoPagina) {
+            pagina.remove(pagina.size() - 1);
+            EventoComDetalhes ultimo = pagina.get(pagina.size() - 1);
+            proxima = new PaginaEventos.Cursor(ultimo.getDataHora(), ultimo.getId());
+        }
+        return new PaginaEventos(pagina, proxima);
+    }
+
+    @Override
+    public int percorrerEventos(FiltroEventos filtro, Consumer<EventoComDetalhes> consumidor) {
+        int total = 0;
+        for (EventoMemoria evento : faixa(filtro, null).values()) {
+            if (filtro.categoria() == null || evento.evento.categoria() == filtro.categoria()) {
+                consumidor.accept(comDetalhes(evento));
+                total++;
+            }
+        }
+        return total;
+    }
+
+    @Override
+    public PaginaBusca buscarEventos(String consultaFts, FiltroEventos filtro, int pagina, int tamanhoPagina) {
+        List<String> termos = new ArrayList<>();
+        Matcher matcher = TERMO_CONSULTA.matcher(consultaFts);
+        while (matcher.find()) {
+            String termo = normalizar(matcher.group(1));
+            if (!termo.isEmpty()) {
+                termos.add(termo);
+            }
+        }
+        if (termos.isEmpty()) {
+            return new PaginaBusca(List.of(), pagina, false);
+        }
+
+        List<ResultadoBusca> resultados = new ArrayList<>();
+        for (EventoMemoria entrada : faixa(filtro, null).values()) {
+            Evento evento = entrada.evento;
+            if (filtro.categoria() != null && evento.categoria() != filtro.categoria()) {
+                continue;
+            }
+            List<String> nome = palavras(evento.nome());
+            List<String> local = palavras(evento.local());
+            List<String> descricao = palavras(evento.descricao());
+            int relevancia = 0;
+            boolean todos = true;
+            for (String termo : termos) {
+                Predicate<String> comPrefixo = palavra -> palavra.startsWith(termo);
+                int pontos = PESO_NOME * contar(nome, comPrefixo) + PESO_LOCAL * contar(local, comPrefixo)
+                        + PESO_DESCRICAO * contar(descricao, comPrefixo);
+                if (pontos == 0) {
+                    todos = false;
+                    break;
+                }
+                relevancia += pontos;
+            }
+            if (todos) {
+                resultados.add(new ResultadoBusca(comDetalhes(entrada), relevancia));
+            }
+        }
+        // Mais relevante primeiro; no empate, a ordem do catálogo (a faixa já está em ordem e o sort é estável).
+        resultados.sort(Comparator.comparingInt(ResultadoBusca::relevancia).reversed());
+
+        int deslocamento = (pagina - 1) * tamanhoPagina;
+        List<EventoComDetalhes> encontrados = new ArrayList<>();
+        for (int i = deslocamento; i < resultados.size() && encontrados.size() < tamanhoPagina; i++) {
+            encontrados.add(resultados.get(i).evento());
+        }
+        return new PaginaBusca(encontrados, pagina, resultados.size() > deslocamento + tamanhoPagina);
+    }
+
+    @Override
+    public boolean deletarEvento(int id) {
+        synchronized (escrita) {
+            EventoMemoria evento = eventos.get(id);
+            if (evento == null) {
+                return false;
+            }
+            Set<Integer> doOrganizador = eventosPorOrganizador.get(evento.evento.organizadorId());
+            if (doOrganizador != null) {
+                doOrganizador.remove(id);
+            }
+            removerEvento(id);
+            return true;
+        }
+    }
+
+    /**
+     * Remove o evento dos índices e as inscrições dele (chamado com a trava de escrita).
+     * O índice por organizador fica com quem chama.
+     */
+    private void removerEvento(int eventoId) {
+        EventoMemoria evento = eventos.remove(eventoId);
+        if (evento == null) {
+            return;
+        }
+        eventosPorData.remove(evento.chave());
+        for (Integer usuarioId : evento.inscritos) {
+            Set<Integer> doUsuario = inscricoesPorUsuario.get(usuarioId);
+            if (doUsuario != null) {
+                doUsuario.remove(eventoId);
+            }
+        }
+        evento.inscritos.clear();
+    }
+
+    // --- INSCRIÇÕES ---
+
+    @Override
+    public ResultadoInscricao inscreverAtomicamente(int usuarioId, int eventoId, LocalDateTime agora) {
+        synchronized (escrita) {
+            return inscrever(usuarioId, eventoId, agora);
+        }
+    }
+
+    /**
+     * Aplica as regras de negócio na ordem do InscricaoDAO e grava a inscrição (com a trava de escrita).
+     */
+    private ResultadoInscricao inscrever(int usuarioId, int eventoId, LocalDateTime agora) {
+        EventoMemoria evento = eventos.get(eventoId);
+        if (evento == null) {
+            return ResultadoInscricao.NOT_FOUND;
+        }
+        if (evento.evento.dataHora().isBefore(agora)) {
+            return ResultadoInscricao.PAST;
+        }
+        if (evento.evento.organizadorId() == usuarioId) {
+            return ResultadoInscricao.OWN_EVENT;
+        }
+        if (evento.inscritos.contains(usuarioId)) {
+            return ResultadoInscricao.ALREADY_ENROLLED;
+        }
+        if (evento.inscritos.size() >= evento.evento.capacidade()) {
+            return ResultadoInscricao.FULL;
+        }
+        // No SQLite, a chave estrangeira do usuário falha no INSERT (ERRO).
+        if (!usuarios.containsKey(usuarioId)) {
+            return ResultadoInscricao.ERRO;
+        }
+        adicionarInscricao(usuarioId, evento);
+        return ResultadoInscricao.OK;
+    }
+
+    private void adicionarInscricao(int usuarioId, EventoMemoria evento) {
+        evento.inscritos.add(usuarioId);
+        inscricoesPorUsuario.computeIfAbsent(usuarioId, id -> ConcurrentHashMap.newKeySet()).add(evento.evento.id());
+    }
+
+    @Override
+    public List<ResultadoInscricao> gravarLote(List<OperacaoInscricao> operacoes, LocalDateTime agora) {
+        List<ResultadoInscricao> resultados = new ArrayList<>(operacoes.size());
+        synchronized (escrita) {
+            for (OperacaoInscricao operacao : operacoes) {
+                if (operacao.cancelamento()) {
+                    resultados.add(cancelar(operacao.usuarioId(), operacao.eventoId())
+                            ? ResultadoInscricao.OK : ResultadoInscricao.NOT_ENROLLED);
+                } else {
+                    resultados.add(inscrever(operacao.usuarioId(), operacao.eventoId(), agora));
+                }
+            }
+        }
+        return resultados;
+    }
+
+    @Override
+    public Map<Integer, ResultadoInscricao> inscreverEmGrupo(List<Integer> usuarioIds, int eventoId,
+                                                             ModoInscricaoGrupo modo, LocalDateTime agora) {
+        Set<Integer> grupo = new LinkedHashSet<>(usuarioIds);
+        Map<Integer, ResultadoInscricao> resultados = new LinkedHashMap<>();
+        if (grupo.isEmpty()) {
+            return resultados;
+        }
+
+        synchronized (escrita) {
+            EventoMemoria evento = eventos.get(eventoId);
+            ResultadoInscricao falhaEvento = evento == null ? ResultadoInscricao.NOT_FOUND
+                    : evento.evento.dataHora().isBefore(agora) ? ResultadoInscricao.PAST : null;
+            if (falhaEvento != null) {
+                for (Integer id : grupo) {
+                    resultados.put(id, falhaEvento);
+                }
+                return resultados;
+            }
+
+            int vagas = evento.evento.capacidade() - evento.inscritos.size();
+            List<Integer> aceitos = new ArrayList<>();
+            boolean algumRecusado = false;
+            for (Integer id : grupo) {
+                ResultadoInscricao resultado;
+                if (!usuarios.containsKey(id)) {
+                    resultado = ResultadoInscricao.USER_NOT_FOUND;
+                } else if (id == evento.evento.organizadorId()) {
+                    resultado = ResultadoInscricao.OWN_EVENT;
+                } else if (evento.inscritos.contains(id)) {
+                    resultado = ResultadoInscricao.ALREADY_ENROLLED;
+                } else if (aceitos.size() >= vagas) {
+                    resultado = ResultadoInscricao.FULL;
+                } else {
+                    resultado = ResultadoInscricao.OK;
+                    aceitos.add(id);
+                }
+                algumRecusado |= resultado != ResultadoInscricao.OK;
+                resultados.put(id, resultado);
+            }
+
+            if (modo == ModoInscricaoGrupo.TUDO_OU_NADA && algumRecusado) {
+                for (Integer id : aceitos) {
+                    resultados.put(id, ResultadoInscricao.ROLLED_BACK);
+                }
+                return resultados;
+            }
+            for (Integer id : aceitos) {
+                adicionarInscricao(id, evento);
+            }
+            return resultados;
+        }
+    }
+
+    @Override
+    public boolean criarInscricao(int usuarioId, int eventoId) {
+        synchronized (escrita) {
+            EventoMemoria evento = eventos.get(eventoId);
+            if (evento == null || !usuarios.containsKey(usuarioId) || evento.inscritos.contains(usuarioId)) {
+                return false;
+            }
+            adicionarInscricao(usuarioId, evento);
+            return true;
+        }
+    }
+
+    @Override
+    public boolean isInscrito(int usuarioId, int eventoId) {
+        EventoMemoria evento = eventos.get(eventoId);
+        return evento != null && evento.inscritos.contains(usuarioId);
+    }
+
+    @Override
+    public boolean removerInscricao(int usuarioId, int eventoId) {
+        synchronized (escrita) {
+            return cancelar(usuarioId, eventoId);
+        }
+    }
+
+    private boolean cancelar(int usuarioId, int eventoId) {
+        EventoMemoria evento = eventos.get(eventoId);
+        if (evento == null || !evento.inscritos.remove(usuarioId)) {
+            return false;
+        }
+        Set<Integer> doUsuario = inscricoesPorUsuario.get(usuarioId);
+        if (doUsuario != null) {
+            doUsuario.remove(eventoId);
+        }
+        return true;
+    }
+
+    @Override
+    public int contarParticipantes(int eventoId) {
+        EventoMemoria evento = eventos.get(eventoId);
+        return evento == null ? 0 : evento.inscritos.size();
+    }
+
+    // --- AUXILIARES ---
+
+    private EventoComDetalhes comDetalhes(EventoMemoria entrada) {
+        Usuario organizador = usuarios.get(entrada.evento.organizadorId());
+        return new EventoComDetalhes(entrada.evento,
+                organizador != null ? organizador.nome() : ORGANIZADOR_DESCONHECIDO, entrada.inscritos.size());
+    }
+
+    /**
+     * Eventos dos IDs informados, na ordem (data_hora, id).
+     */
+    private List<EventoMemoria> ordenados(Set<Integer> ids) {
+        List<EventoMemoria> lista = new ArrayList<>();
+        if (ids != null) {
+            for (Integer id : ids) {
+                EventoMemoria evento = eventos.get(id);
+                if (evento != null) {
+                    lista.add(evento);
+                }
+            }
+        }
+        lista.sort(Comparator.comparing(EventoMemoria::chave, ORDEM));
+        return lista;
+    }
+
+    /**
+     * Recorta o intervalo do período e do cursor no índice por data (a categoria é filtrada por quem chama).
+     */
+    private NavigableMap<PaginaEventos.Cursor, EventoMemoria> faixa(FiltroEventos filtro, PaginaEventos.Cursor apos) {
+        NavigableMap<PaginaEventos.Cursor, EventoMemoria> faixa = eventosPorData;
+        // Integer.MIN_VALUE como id: a chave fica antes de todos os eventos daquele instante.
+        PaginaEventos.Cursor inicio = filtro.inicio() == null ? null
+                : new PaginaEventos.Cursor(filtro.inicio(), Integer.MIN_VALUE);
+        if (apos != null && (inicio == null || ORDEM.compare(apos, inicio) >= 0)) {
+            faixa = faixa.tailMap(apos, false);
+        } else if (inicio != null) {
+            faixa = faixa.tailMap(inicio, true);
+        }
+        if (filtro.fim() != null) {
+            faixa = faixa.headMap(new PaginaEventos.Cursor(filtro.fim(), Integer.MIN_VALUE), false);
+        }
+        return faixa;
+    }
+
+    /**
+     * Palavras do texto sem acentos e em minúsculas (como o tokenizador unicode61 do FTS5).
+     */
+    private static List<String> palavras(String texto) {
+        List<String> palavras = new ArrayList<>();
+        if (texto != null) {
+            Matcher matcher = PALAVRA.matcher(normalizar(texto));
+            while (matcher.find()) {
+                palavras.add(matcher.group());
+            }
+        }
+        return palavras;
+    }
+
+    private static String normalizar(String texto) {
+        return ACENTOS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    private static int contar(List<String> palavras, Predicate<String> condicao) {
+        int total = 0;
+        for (String palavra : palavras) {
+            if (condicao.test(palavra)) {
+                total++;
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,53 @@
+package dao;
+
+import model.Usuario;
+
+import java.util.List;
+
+/**
+ * Armazenamento de usuários usado pelo AppController, independente do mecanismo de persistência.
+ * Implementações: {@link UsuarioDAO} (SQLite) e {@link RepositorioMemoria} (somente memória).
+ *
+ * Regras comuns (verificadas pelo util.VerificadorContratoRepositorios):
+ * <ul>
+ *   <li>O email é único; o ID é gerado pelo repositório e não é reaproveitado depois de uma deleção.</li>
+ *   <li>Deletar um usuário remove também os eventos que ele organiza e as inscrições dele e desses eventos.</li>
+ *   <li>Falhas não lançam exceções: retornam -1, null, false ou lista vazia, conforme o método.</li>
+ * </ul>
+ */
+public interface RepositorioUsuarios {
+
+    /**
+     * Insere um novo usuário.
+     * @param usuario O usuário a ser criado (o ID do objeto é ignorado).
+     * @return O ID gerado, ou -1 se o email já estiver em uso ou em caso de falha.
+     */
+    int criarUsuario(Usuario usuario);
+
+    /**
+     * @return O usuário com o ID informado, ou null se não existir.
+     */
+    Usuario getUsuarioPorId(int id);
+
+    /**
+     * @return O usuário com o email informado (comparação exata), ou null se não existir.
+     */
+    Usuario getUsuarioPorEmail(String email);
+
+    /**
+     * @return Todos os usuários, ordenados pelo ID.
+     */
+    List<Usuario> listarTodosUsuarios();
+
+    /**
+     * Deleta o usuário, com os eventos que organiza e todas as inscrições removidas em cascata.
+     * @return true se o usuário existia e foi removido.
+     */
+    boolean deletarUsuario(int id);
+
+    /**
+     * Promove ou despromove um usuário a administrador.
+     * @return true se o usuário existia e foi atualizado.
+     */
+    boolean atualizarStatusAdmin(int id, boolean isAdmin);
+}
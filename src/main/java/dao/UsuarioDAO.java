@@ -1,7 +1,12 @@
 package dao;
 
 import model.Usuario;
+import util.CacheLru;
 import util.DatabaseConnection;
+import util.MetricaOperacao;
+import util.Metricas;
+import util.ReplicacaoUsuarios;
+import util.VarreduraPermitida;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -14,8 +19,49 @@ import java.util.List;
 /**
  * Classe de acesso a dados (DAO) para a entidade Usuario.
  * Responsável por todas as operações de banco de dados relacionadas a usuários.
+ *
+ * As buscas por ID e por email passam por um cache de leitura compartilhado (tamanho em
+ * db.cache_usuarios), invalidado por criarUsuario, deletarUsuario e atualizarStatusAdmin.
+ * Alterações feitas na tabela usuario por fora deste DAO (ex.: outro processo) não são vistas
+ * enquanto o usuário estiver em cache.
+ *
+ * Com db.shards maior que 1, as leituras e gravações usam o shard 0 (cópia principal) e cada
+ * alteração é replicada para os demais shards ({@link ReplicacaoUsuarios}).
  */
-public class UsuarioDAO {
+@SuppressWarnings("try")
+public class UsuarioDAO implements RepositorioUsuarios {
+
+    // --- Consultas SQL (constantes para que o VerificadorPlanos possa checar o plano de cada uma) ---
+
+    private static final String SQL_CRIAR_USUARIO = "INSERT INTO usuario (nome, email, senha, is_admin) VALUES (?, ?, ?, ?)";
+    private static final String SQL_GET_USUARIO_POR_ID = "SELECT * FROM usuario WHERE id = ?";
+    private static final String SQL_GET_USUARIO_POR_EMAIL = "SELECT * FROM usuario WHERE email = ?";
+    @VarreduraPermitida("Listagem administrativa de todos os usuários.")
+    private static final String SQL_LISTAR_TODOS_USUARIOS = "SELECT * FROM usuario ORDER BY id";
+    // RETURNING devolve o email da linha alterada, para invalidar o cache por email sem percorrê-lo.
+    private static final String SQL_DELETAR_USUARIO = "DELETE FROM usuario WHERE id = ? RETURNING email";
+    private static final String SQL_ATUALIZAR_STATUS_ADMIN = "UPDATE usuario SET is_admin = ? WHERE id = ? RETURNING email";
+
+    // --- Métricas de desempenho (veja util.Metricas) ---
+
+    private static final MetricaOperacao METRICA_CRIAR_USUARIO = Metricas.operacao("UsuarioDAO.criarUsuario");
+    private static final MetricaOperacao METRICA_GET_USUARIO_POR_ID = Metricas.operacao("UsuarioDAO.getUsuarioPorId");
+    private static final MetricaOperacao METRICA_GET_USUARIO_POR_EMAIL = Metricas.operacao("UsuarioDAO.getUsuarioPorEmail");
+    private static final MetricaOperacao METRICA_LISTAR_TODOS_USUARIOS = Metricas.operacao("UsuarioDAO.listarTodosUsuarios");
+    private static final MetricaOperacao METRICA_DELETAR_USUARIO = Metricas.operacao("UsuarioDAO.deletarUsuario");
+    private static final MetricaOperacao METRICA_ATUALIZAR_STATUS_ADMIN = Metricas.operacao("UsuarioDAO.atualizarStatusAdmin");
+
+    // --- Cache de leitura (usuários mudam pouco e são lidos em toda checagem de permissão e login) ---
+
+    private static final CacheLru<Integer, Usuario> CACHE_POR_ID =
+            new CacheLru<>("usuarios por ID", DatabaseConnection.getConfiguracao().getTamanhoCacheUsuarios());
+    private static final CacheLru<String, Usuario> CACHE_POR_EMAIL =
+            new CacheLru<>("usuarios por email", DatabaseConnection.getConfiguracao().getTamanhoCacheUsuarios());
+
+    static {
+        // Outro banco (ex.: troca de db.url) não pode reaproveitar usuários do anterior.
+        DatabaseConnection.aoFecharPool(UsuarioDAO::limparCache);
+    }
 
     /**
      * Tenta obter um usuário a partir de um ResultSet.
@@ -39,10 +85,22 @@ public class UsuarioDAO {
      * @param usuario O objeto Usuario a ser criado (ID é -1 no objeto, será gerado pelo DB).
      * @return O ID gerado para o novo usuário ou -1 em caso de falha.
      */
+    @Override
     public int criarUsuario(Usuario usuario) {
-        String sql = "INSERT INTO usuario (nome, email, senha, is_admin) VALUES (?, ?, ?, ?)";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+        int id = inserirUsuario(usuario);
+        if (id > 0 && !ReplicacaoUsuarios.replicar(List.of(id))) {
+            // Sem a cópia nos shards, o usuário não poderia organizar nem se inscrever em parte dos eventos.
+            System.err.println("Erro ao criar usuário: não foi possível replicá-lo entre os shards.");
+            deletarUsuario(id);
+            return -1;
+        }
+        return id;
+    }
+
+    private int inserirUsuario(Usuario usuario) {
+        try (MetricaOperacao.Medicao medicao = METRICA_CRIAR_USUARIO.iniciar();
+             Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SQL_CRIAR_USUARIO, Statement.RETURN_GENERATED_KEYS)) {
 
             stmt.setString(1, usuario.nome());
             stmt.setString(2, usuario.email());
@@ -52,6 +110,7 @@ public class UsuarioDAO {
             int affectedRows = stmt.executeUpdate();
 
             if (affectedRows > 0) {
+                CACHE_POR_EMAIL.remover(usuario.email());
                 try (ResultSet rs = stmt.getGeneratedKeys()) {
                     if (rs.next()) {
                         return rs.getInt(1);
@@ -59,20 +118,36 @@ public class UsuarioDAO {
                 }
             }
         } catch (SQLException e) {
+            METRICA_CRIAR_USUARIO.registrarErro();
             System.err.println("Erro ao criar usuário: " + e.getMessage());
         }
         return -1;
     }
 
     /**
-     * Obtém um usuário do banco de dados pelo ID.
+     * Obtém um usuário pelo ID, consultando o banco apenas se ele não estiver em cache.
      * @param id O ID do usuário.
      * @return O objeto Usuario correspondente ou null se não for encontrado.
      */
+    @Override
     public Usuario getUsuarioPorId(int id) {
-        String sql = "SELECT * FROM usuario WHERE id = ?";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        Usuario emCache = CACHE_POR_ID.obter(id);
+        if (emCache != null) {
+            return emCache;
+        }
+        long geracao = CACHE_POR_ID.geracao();
+        Usuario usuario = buscarUsuarioPorId(id);
+        // Ausências não são guardadas: um usuário criado depois (inclusive pela importação) é encontrado.
+        if (usuario != null) {
+            CACHE_POR_ID.colocar(id, usuario, geracao);
+        }
+        return usuario;
+    }
+
+    private Usuario buscarUsuarioPorId(int id) {
+        try (MetricaOperacao.Medicao medicao = METRICA_GET_USUARIO_POR_ID.iniciar();
+             Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SQL_GET_USUARIO_POR_ID)) {
 
             stmt.setInt(1, id);
             try (ResultSet rs = stmt.executeQuery()) {
@@ -81,20 +156,35 @@ public class UsuarioDAO {
                 }
             }
         } catch (SQLException e) {
+            METRICA_GET_USUARIO_POR_ID.registrarErro();
             System.err.println("Erro ao buscar usuário por ID: " + e.getMessage());
         }
         return null;
     }
 
     /**
-     * Obtém um usuário do banco de dados pelo email (usado para login).
+     * Obtém um usuário pelo email (usado para login), consultando o banco apenas se ele não estiver em cache.
      * @param email O email do usuário.
      * @return O objeto Usuario correspondente ou null se não for encontrado.
      */
+    @Override
     public Usuario getUsuarioPorEmail(String email) {
-        String sql = "SELECT * FROM usuario WHERE email = ?";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        Usuario emCache = CACHE_POR_EMAIL.obter(email);
+        if (emCache != null) {
+            return emCache;
+        }
+        long geracao = CACHE_POR_EMAIL.geracao();
+        Usuario usuario = buscarUsuarioPorEmail(email);
+        if (usuario != null) {
+            CACHE_POR_EMAIL.colocar(email, usuario, geracao);
+        }
+        return usuario;
+    }
+
+    private Usuario buscarUsuarioPorEmail(String email) {
+        try (MetricaOperacao.Medicao medicao = METRICA_GET_USUARIO_POR_EMAIL.iniciar();
+             Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SQL_GET_USUARIO_POR_EMAIL)) {
 
             stmt.setString(1, email);
             try (ResultSet rs = stmt.executeQuery()) {
@@ -103,6 +193,7 @@ public class UsuarioDAO {
                 }
             }
         } catch (SQLException e) {
+            METRICA_GET_USUARIO_POR_EMAIL.registrarErro();
             System.err.println("Erro ao buscar usuário por email: " + e.getMessage());
         }
         return null;
@@ -112,17 +203,19 @@ public class UsuarioDAO {
      * Lista todos os usuários presentes no banco de dados, ordenados pelo ID.
      * @return Uma lista de objetos Usuario. Retorna uma lista vazia em caso de erro.
      */
+    @Override
     public List<Usuario> listarTodosUsuarios() {
         List<Usuario> usuarios = new ArrayList<>();
-        String sql = "SELECT * FROM usuario ORDER BY id";
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (MetricaOperacao.Medicao medicao = METRICA_LISTAR_TODOS_USUARIOS.iniciar();
+             Connection conn = DatabaseConnection.getConnection();
              Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+             ResultSet rs = stmt.executeQuery(SQL_LISTAR_TODOS_USUARIOS)) {
 
             while (rs.next()) {
                 usuarios.add(mapResultSetToUsuario(rs));
             }
         } catch (SQLException e) {
+            METRICA_LISTAR_TODOS_USUARIOS.registrarErro();
             System.err.println("Erro ao listar todos os usuários: " + e.getMessage());
         }
         return usuarios;
@@ -133,26 +226,97 @@ public class UsuarioDAO {
      * A exclusão em cascata (ON DELETE CASCADE) garante que todos os registros
      * de 'participacao' e 'eventos' (organizados por ele) sejam removidos,
      * conforme configurado em DatabaseConnection.java.
+     * Com vários shards, a deleção também precisa chegar às cópias do usuário ({@link ReplicacaoUsuarios}),
+     * onde remove os eventos e inscrições dele nos demais shards.
      * @param id O ID do usuário a ser deletado.
-     * @return true se a exclusão for bem-sucedida, false caso contrário.
+     * @return true se a exclusão for bem-sucedida em todos os shards, false caso contrário (se só a
+     *         cópia falhar, o usuário já foi removido do shard principal e a deleção fica pendente de replicação).
      */
+    @Override
     public boolean deletarUsuario(int id) {
-        String sql = "DELETE FROM usuario WHERE id = ?";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        int affectedRows;
+        try (MetricaOperacao.Medicao medicao = METRICA_DELETAR_USUARIO.iniciar();
+             Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SQL_DELETAR_USUARIO)) {
 
             stmt.setInt(1, id);
-            int affectedRows = stmt.executeUpdate();
-
-            // Retorna true se exatamente uma linha foi afetada.
-            return affectedRows == 1;
+            affectedRows = executarRetornandoEmail(stmt, id);
         } catch (SQLException e) {
+            METRICA_DELETAR_USUARIO.registrarErro();
             System.err.println("Erro ao deletar usuário: " + e.getMessage());
             return false;
         }
+        // Nas cópias, a deleção remove em cascata os eventos e inscrições do usuário em cada shard.
+        if (!ReplicacaoUsuarios.replicar(List.of(id))) {
+            System.err.println("Erro ao deletar usuário: a deleção não chegou a todos os shards e será reenviada.");
+            return false;
+        }
+
+        // Retorna true se exatamente uma linha foi afetada.
+        return affectedRows == 1;
     }
 
-    public boolean atualizarStatusAdmin(boolean isAdmin) {
-        return isAdmin;
+    /**
+     * Promove ou despromove um usuário a administrador.
+     * @param id O ID do usuário alvo.
+     * @param isAdmin O novo status de admin.
+     * @return true se o usuário existia e foi atualizado em todos os shards, false caso contrário.
+     */
+    @Override
+    public boolean atualizarStatusAdmin(int id, boolean isAdmin) {
+        int affectedRows;
+        try (MetricaOperacao.Medicao medicao = METRICA_ATUALIZAR_STATUS_ADMIN.iniciar();
+             Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SQL_ATUALIZAR_STATUS_ADMIN)) {
+
+            stmt.setBoolean(1, isAdmin);
+            stmt.setInt(2, id);
+            affectedRows = executarRetornandoEmail(stmt, id);
+        } catch (SQLException e) {
+            METRICA_ATUALIZAR_STATUS_ADMIN.registrarErro();
+            System.err.println("Erro ao atualizar status de admin: " + e.getMessage());
+            return false;
+        }
+        if (!ReplicacaoUsuarios.replicar(List.of(id))) {
+            System.err.println("Erro ao atualizar status de admin: a alteração não chegou a todos os shards e será reenviada.");
+            return false;
+        }
+
+        return affectedRows == 1;
+    }
+
+    // --- CACHE ---
+
+    /**
+     * Executa um comando com RETURNING email sobre o usuário e o remove do cache (nas duas chaves).
+     * @return Número de linhas alteradas (0 ou 1).
+     */
+    private static int executarRetornandoEmail(PreparedStatement stmt, int id) throws SQLException {
+        String email = null;
+        try (ResultSet rs = stmt.executeQuery()) {
+            if (rs.next()) {
+                email = rs.getString(1);
+            }
+        }
+        CACHE_POR_ID.remover(id);
+        if (email != null) {
+            CACHE_POR_EMAIL.remover(email);
+        }
+        return email != null ? 1 : 0;
+    }
+
+    /**
+     * Descarta todos os usuários em cache.
+     */
+    public static void limparCache() {
+        CACHE_POR_ID.limpar();
+        CACHE_POR_EMAIL.limpar();
+    }
+
+    /**
+     * @return As estatísticas dos caches por ID e por email.
+     */
+    public static List<CacheLru.Estatisticas> getEstatisticasCache() {
+        return List.of(CACHE_POR_ID.getEstatisticas(), CACHE_POR_EMAIL.getEstatisticas());
     }
-}
\ No newline at end of file
+}
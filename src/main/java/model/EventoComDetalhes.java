@@ -11,13 +11,15 @@ import java.time.LocalDateTime;
  *
  * @param evento          Composição: Contém o objeto Evento original
  * @param nomeOrganizador Campo adicional que será buscado no Controller/Service.
+ * @param inscritos       Número de inscritos no evento (contador mantido no banco).
  */
-public record EventoComDetalhes(Evento evento, String nomeOrganizador) {
+public record EventoComDetalhes(Evento evento, String nomeOrganizador, int inscritos) {
     /**
      * Construtor do DTO.
      *
      * @param evento          O objeto Evento base.
      * @param nomeOrganizador O nome do organizador do evento.
+     * @param inscritos       O número de inscritos no evento.
      */
     public EventoComDetalhes {
     }
@@ -44,6 +46,13 @@ public record EventoComDetalhes(Evento evento, String nomeOrganizador) {
         return evento.capacidade();
     }
 
+    /**
+     * Retorna o número de vagas ainda disponíveis no evento.
+     */
+    public int getVagasRestantes() {
+        return Math.max(0, evento.capacidade() - inscritos);
+    }
+
     // --- Getter Próprio (Nome do Organizador) ---
 
     /**
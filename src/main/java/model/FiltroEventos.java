@@ -0,0 +1,28 @@
+package model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Filtros opcionais para as consultas paginadas e de percurso do catálogo de eventos.
+ * Campos nulos significam "sem filtro".
+ *
+ * @param categoria Somente eventos desta categoria.
+ * @param inicio    Somente eventos com data/hora a partir deste instante (inclusive).
+ * @param fim       Somente eventos com data/hora antes deste instante (exclusive).
+ */
+public record FiltroEventos(CategoriaEvento categoria, LocalDateTime inicio, LocalDateTime fim) {
+
+    /**
+     * Filtro vazio (todo o catálogo).
+     */
+    public static final FiltroEventos TODOS = new FiltroEventos(null, null, null);
+
+    /**
+     * Filtro dos eventos que ainda não ocorreram, opcionalmente de uma categoria.
+     * @param categoria A categoria desejada, ou null para todas.
+     * @return O filtro correspondente.
+     */
+    public static FiltroEventos futuros(CategoriaEvento categoria) {
+        return new FiltroEventos(categoria, LocalDateTime.now(), null);
+    }
+}
@@ -0,0 +1,24 @@
+package model;
+
+/**
+ * Modo de uma inscrição em grupo (vários usuários em um mesmo evento).
+ */
+public enum ModoInscricaoGrupo {
+    // Ou todos os usuários do grupo são inscritos, ou nenhum é.
+    TUDO_OU_NADA("Tudo ou nada"),
+    // Inscreve quem for possível (até a capacidade) e informa o motivo dos demais.
+    MELHOR_ESFORCO("Melhor esforço");
+
+    private final String descricao;
+
+    ModoInscricaoGrupo(String descricao) {
+        this.descricao = descricao;
+    }
+
+    /**
+     * Retorna a descrição amigável do modo para exibição.
+     */
+    public String getDescricao() {
+        return descricao;
+    }
+}
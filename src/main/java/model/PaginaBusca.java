@@ -0,0 +1,13 @@
+package model;
+
+import java.util.List;
+
+/**
+ * Uma página de resultados da busca textual de eventos, ordenada por relevância.
+ *
+ * @param eventos    Eventos encontrados, do mais para o menos relevante.
+ * @param pagina     Número desta página (começando em 1).
+ * @param temProxima true se existem mais resultados depois desta página.
+ */
+public record PaginaBusca(List<EventoComDetalhes> eventos, int pagina, boolean temProxima) {
+}
@@ -0,0 +1,31 @@
+package model;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Uma página do catálogo de eventos obtida por paginação por chave (keyset/seek),
+ * ordenada por (data_hora, id).
+ *
+ * @param eventos Eventos da página, na ordem do catálogo.
+ * @param proxima Cursor para buscar a próxima página, ou null se esta for a última.
+ */
+public record PaginaEventos(List<EventoComDetalhes> eventos, Cursor proxima) {
+
+    /**
+     * Posição no catálogo: a próxima página começa logo após o evento (dataHora, id).
+     * Diferente de OFFSET, o custo de buscar uma página não cresce com a posição dela.
+     *
+     * @param dataHora Data/hora do último evento da página anterior.
+     * @param id       ID do último evento da página anterior (desempate).
+     */
+    public record Cursor(LocalDateTime dataHora, int id) {
+    }
+
+    /**
+     * @return true se existe uma próxima página.
+     */
+    public boolean temProxima() {
+        return proxima != null;
+    }
+}
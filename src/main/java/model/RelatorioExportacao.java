@@ -0,0 +1,24 @@
+package model;
+
+/**
+ * Resultado de uma exportação de eventos com as listas de inscritos.
+ *
+ * @param eventos    Eventos exportados.
+ * @param inscricoes Inscrições exportadas (soma das listas de inscritos).
+ * @param duracaoMs  Duração total da exportação, em milissegundos.
+ */
+public record RelatorioExportacao(long eventos, long inscricoes, long duracaoMs) {
+
+    /**
+     * @return Taxa de inscrições escritas por segundo.
+     */
+    public double inscricoesPorSegundo() {
+        return duracaoMs == 0 ? inscricoes : inscricoes * 1000.0 / duracaoMs;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Eventos: %d | Inscrições: %d | Tempo: %.1f s | %.0f inscrições/s",
+                eventos, inscricoes, duracaoMs / 1000.0, inscricoesPorSegundo());
+    }
+}
@@ -0,0 +1,29 @@
+package model;
+
+import java.util.List;
+
+/**
+ * Resultado de uma importação em lote.
+ *
+ * @param lidos              Registros lidos do arquivo.
+ * @param importados         Registros gravados no banco.
+ * @param rejeitados         Registros rejeitados (validação ou regra do banco).
+ * @param motivosRejeicao    Linha e motivo das primeiras rejeições (limitado para não crescer sem fim).
+ * @param duracaoMs          Duração total da importação, em milissegundos.
+ */
+public record RelatorioImportacao(long lidos, long importados, long rejeitados, List<String> motivosRejeicao,
+                                  long duracaoMs) {
+
+    /**
+     * @return Taxa de registros lidos por segundo.
+     */
+    public double registrosPorSegundo() {
+        return duracaoMs == 0 ? lidos : lidos * 1000.0 / duracaoMs;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Lidos: %d | Importados: %d | Rejeitados: %d | Tempo: %.1f s | %.0f registros/s",
+                lidos, importados, rejeitados, duracaoMs / 1000.0, registrosPorSegundo());
+    }
+}
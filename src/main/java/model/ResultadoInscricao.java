@@ -0,0 +1,34 @@
+package model;
+
+/**
+ * Resultado tipado de uma tentativa de inscrição em evento.
+ * Permite que o Controller (e a View) saibam exatamente qual regra de negócio
+ * impediu a inscrição, sem depender de mensagens impressas pelo DAO.
+ */
+public enum ResultadoInscricao {
+    OK("Inscrição realizada com sucesso."),
+    FULL("O evento atingiu sua capacidade máxima."),
+    ALREADY_ENROLLED("Você já está inscrito neste evento."),
+    PAST("Não é possível se inscrever em eventos que já ocorreram."),
+    NOT_FOUND("Evento não encontrado."),
+    OWN_EVENT("O organizador não precisa se inscrever no próprio evento."),
+    USER_NOT_FOUND("Usuário não encontrado."),
+    // Inscrição em grupo no modo tudo-ou-nada: este usuário seria aceito, mas outro membro do grupo foi recusado.
+    ROLLED_BACK("Inscrição não realizada porque outro membro do grupo foi recusado."),
+    // Cancelamento: o usuário não estava inscrito no evento.
+    NOT_ENROLLED("Você não está inscrito neste evento."),
+    ERRO("Erro de banco de dados ao registrar a inscrição.");
+
+    private final String descricao;
+
+    ResultadoInscricao(String descricao) {
+        this.descricao = descricao;
+    }
+
+    /**
+     * Retorna a mensagem amigável do resultado para exibição.
+     */
+    public String getDescricao() {
+        return descricao;
+    }
+}
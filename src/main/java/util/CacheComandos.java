@@ -0,0 +1,217 @@
+package util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache de PreparedStatements de uma conexão física do pool, pelo texto do SQL, com descarte do
+ * comando usado há mais tempo (LRU). Evita que o SQLite analise e planeje de novo o mesmo SQL a cada
+ * chamada dos DAOs, o que é uma parte considerável do tempo das consultas por chave.
+ *
+ * O comando devolvido é um proxy: o close() limpa os parâmetros, fecha o ResultSet que ficou aberto
+ * (liberando a leitura no SQLite) e devolve o comando ao cache, então os DAOs continuam usando
+ * try-with-resources normalmente. Se o mesmo SQL já estiver em uso nesta conexão (consulta aninhada),
+ * um comando avulso, fora do cache, é preparado.
+ *
+ * Uma conexão é usada por um chamador de cada vez; a trava só protege a leitura das estatísticas.
+ */
+final class CacheComandos {
+
+    private final Connection fisica;
+    private final int capacidade;
+    private final LongAdder acertos;
+    private final LongAdder faltas;
+    private final LongAdder descartes;
+    // Ordem de acesso: a primeira entrada é a usada há mais tempo.
+    private final LinkedHashMap<String, Entrada> entradas = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Comando preparado guardado no cache.
+     */
+    private static final class Entrada {
+        final String chave;
+        final PreparedStatement comando;
+        boolean emUso;
+        // Saiu do cache enquanto estava em uso: é fechado quando o chamador o devolver.
+        boolean descartada;
+
+        Entrada(String chave, PreparedStatement comando) {
+            this.chave = chave;
+            this.comando = comando;
+        }
+    }
+
+    /**
+     * @param fisica Conexão física dona dos comandos.
+     * @param capacidade Número máximo de comandos guardados (positivo).
+     * @param acertos Contador de comandos reaproveitados, compartilhado pelas conexões do pool.
+     * @param faltas Contador de comandos preparados.
+     * @param descartes Contador de comandos removidos por falta de espaço.
+     */
+    CacheComandos(Connection fisica, int capacidade, LongAdder acertos, LongAdder faltas, LongAdder descartes) {
+        this.fisica = fisica;
+        this.capacidade = capacidade;
+        this.acertos = acertos;
+        this.faltas = faltas;
+        this.descartes = descartes;
+    }
+
+    /**
+     * Equivalente a {@link Connection#prepareStatement(String, int)}, reaproveitando o comando se possível.
+     * @param chavesGeradas Statement.RETURN_GENERATED_KEYS ou Statement.NO_GENERATED_KEYS.
+     */
+    synchronized PreparedStatement preparar(String sql, int chavesGeradas) throws SQLException {
+        boolean retornaChaves = chavesGeradas == Statement.RETURN_GENERATED_KEYS;
+        String chave = retornaChaves ? "[chaves geradas] " + sql : sql;
+
+        Entrada entrada = entradas.get(chave);
+        if (entrada != null && entrada.comando.isClosed()) {
+            entradas.remove(chave);
+            entrada = null;
+        }
+        if (entrada != null && !entrada.emUso) {
+            acertos.increment();
+            entrada.emUso = true;
+            return proxy(entrada);
+        }
+
+        faltas.increment();
+        PreparedStatement comando = retornaChaves ? fisica.prepareStatement(sql, chavesGeradas) : fisica.prepareStatement(sql);
+        if (entrada != null) {
+            return comando;
+        }
+        entrada = new Entrada(chave, comando);
+        entrada.emUso = true;
+        entradas.put(chave, entrada);
+        if (entradas.size() > capacidade) {
+            Iterator<Entrada> maisAntigas = entradas.values().iterator();
+            Entrada maisAntiga = maisAntigas.next();
+            maisAntigas.remove();
+            descartes.increment();
+            descartar(maisAntiga);
+        }
+        return proxy(entrada);
+    }
+
+    /**
+     * Tira do cache os comandos que o chamador não devolveu antes de devolver a conexão ao pool,
+     * fechando-os (um ResultSet esquecido aberto manteria a leitura ativa no SQLite).
+     */
+    synchronized void liberarPendentes() {
+        entradas.values().removeIf(entrada -> {
+            if (entrada.emUso) {
+                entrada.descartada = true;
+                fechar(entrada.comando);
+                return true;
+            }
+            return false;
+        });
+    }
+
+    /**
+     * @return Número de comandos guardados.
+     */
+    synchronized int tamanho() {
+        return entradas.size();
+    }
+
+    private synchronized void devolver(Entrada entrada, ResultSet resultado) {
+        try {
+            if (resultado != null) {
+                resultado.close();
+            }
+            if (entrada.descartada) {
+                entrada.comando.close();
+                return;
+            }
+            entrada.comando.clearParameters();
+            entrada.comando.clearBatch();
+            entrada.emUso = false;
+        } catch (SQLException e) {
+            // Comando em estado desconhecido: não volta para o cache.
+            entradas.remove(entrada.chave, entrada);
+            entrada.descartada = true;
+            fechar(entrada.comando);
+        }
+    }
+
+    private static void descartar(Entrada entrada) {
+        entrada.descartada = true;
+        // Em uso, o comando só é fechado quando o chamador o devolver.
+        if (!entrada.emUso) {
+            fechar(entrada.comando);
+        }
+    }
+
+    private static void fechar(PreparedStatement comando) {
+        try {
+            comando.close();
+        } catch (SQLException e) {
+            System.err.println("Erro ao fechar comando do cache: " + e.getMessage());
+        }
+    }
+
+    private PreparedStatement proxy(Entrada entrada) {
+        return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class}, new ComandoEmCache(entrada));
+    }
+
+    /**
+     * Empréstimo de um comando do cache, válido até o close().
+     */
+    private final class ComandoEmCache implements InvocationHandler {
+        private final Entrada entrada;
+        // Último ResultSet criado, fechado na devolução (o SQLite fecha os anteriores a cada nova execução).
+        private ResultSet resultado;
+        private boolean fechado = false;
+
+        ComandoEmCache(Entrada entrada) {
+            this.entrada = entrada;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!fechado) {
+                        fechado = true;
+                        devolver(entrada, resultado);
+                    }
+                    return null;
+                case "isClosed":
+                    return fechado || entrada.comando.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "ComandoEmCache[" + entrada.chave + "]";
+                default:
+                    break;
+            }
+            if (fechado) {
+                throw new SQLException("O comando já foi fechado.");
+            }
+            Object retorno;
+            try {
+                retorno = method.invoke(entrada.comando, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (retorno instanceof ResultSet rs) {
+                resultado = rs;
+            }
+            return retorno;
+        }
+    }
+}
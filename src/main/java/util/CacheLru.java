@@ -0,0 +1,183 @@
+package util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache limitado, seguro para uso concorrente, com descarte do item usado há mais tempo (LRU).
+ * As entradas são distribuídas em segmentos com travas independentes, para que leituras
+ * simultâneas de chaves diferentes raramente disputem a mesma trava.
+ *
+ * Uso como cache de leitura (read-through): o chamador anota a {@link #geracao()} antes de ler
+ * o banco e passa o valor para {@link #colocar(Object, Object, long)}. Se houve uma invalidação
+ * nesse intervalo, o valor lido (possivelmente antigo) não é guardado.
+ */
+public final class CacheLru<K, V> {
+
+    private static final int SEGMENTOS = 16;
+
+    private final String nome;
+    private final int capacidade;
+    private final Segmento<K, V>[] segmentos;
+    private final AtomicLong geracao = new AtomicLong();
+    private final LongAdder acertos = new LongAdder();
+    private final LongAdder faltas = new LongAdder();
+    private final LongAdder descartes = new LongAdder();
+
+    /**
+     * Fotografia das estatísticas do cache.
+     */
+    public record Estatisticas(String nome, int capacidade, int tamanho, long acertos, long faltas,
+                               long descartes) {
+
+        /**
+         * @return Percentual de leituras atendidas pelo cache (0 se ainda não houve leituras).
+         */
+        public double taxaAcerto() {
+            long total = acertos + faltas;
+            return total == 0 ? 0 : acertos * 100.0 / total;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Cache %s[capacidade=%d, tamanho=%d, acertos=%d, faltas=%d, taxa=%.1f%%, " +
+                    "descartes=%d]", nome, capacidade, tamanho, acertos, faltas, taxaAcerto(), descartes);
+        }
+    }
+
+    /**
+     * @param nome Nome exibido nas estatísticas.
+     * @param capacidade Número máximo de entradas (0 desativa o cache).
+     */
+    public CacheLru(String nome, int capacidade) {
+        if (capacidade < 0) {
+            throw new IllegalArgumentException("A capacidade do cache não pode ser negativa.");
+        }
+        this.nome = nome;
+        this.capacidade = capacidade;
+        this.segmentos = novosSegmentos(SEGMENTOS);
+        // Capacidade dividida entre os segmentos, arredondada para cima.
+        int porSegmento = (capacidade + SEGMENTOS - 1) / SEGMENTOS;
+        for (int i = 0; i < SEGMENTOS; i++) {
+            segmentos[i] = new Segmento<>(porSegmento, descartes);
+        }
+    }
+
+    /**
+     * @return O valor em cache, ou null se a chave não estiver no cache.
+     */
+    public V obter(K chave) {
+        if (capacidade == 0) {
+            faltas.increment();
+            return null;
+        }
+        Segmento<K, V> segmento = segmento(chave);
+        V valor;
+        synchronized (segmento) {
+            valor = segmento.get(chave);
+        }
+        if (valor == null) {
+            faltas.increment();
+        } else {
+            acertos.increment();
+        }
+        return valor;
+    }
+
+    /**
+     * @return A geração atual, incrementada a cada invalidação.
+     */
+    public long geracao() {
+        return geracao.get();
+    }
+
+    /**
+     * Guarda um valor lido do banco, se nenhuma invalidação aconteceu desde que a leitura começou.
+     * @param geracaoLeitura Valor de {@link #geracao()} obtido antes da leitura.
+     */
+    public void colocar(K chave, V valor, long geracaoLeitura) {
+        if (capacidade == 0) {
+            return;
+        }
+        Segmento<K, V> segmento = segmento(chave);
+        synchronized (segmento) {
+            // Conferido sob a trava: a invalidação incrementa a geração antes de remover do segmento.
+            if (geracao.get() == geracaoLeitura) {
+                segmento.put(chave, valor);
+            }
+        }
+    }
+
+    /**
+     * Invalida uma chave.
+     */
+    public void remover(K chave) {
+        geracao.incrementAndGet();
+        Segmento<K, V> segmento = segmento(chave);
+        synchronized (segmento) {
+            segmento.remove(chave);
+        }
+    }
+
+    /**
+     * Remove todas as entradas (as estatísticas são mantidas).
+     */
+    public void limpar() {
+        geracao.incrementAndGet();
+        for (Segmento<K, V> segmento : segmentos) {
+            synchronized (segmento) {
+                segmento.clear();
+            }
+        }
+    }
+
+    public Estatisticas getEstatisticas() {
+        int tamanho = 0;
+        for (Segmento<K, V> segmento : segmentos) {
+            synchronized (segmento) {
+                tamanho += segmento.size();
+            }
+        }
+        return new Estatisticas(nome, capacidade, tamanho, acertos.sum(), faltas.sum(), descartes.sum());
+    }
+
+    // Arrays genéricos não podem ser criados diretamente: cria com curinga e converte.
+    @SuppressWarnings("unchecked")
+    private static <K, V> Segmento<K, V>[] novosSegmentos(int quantidade) {
+        return (Segmento<K, V>[]) new Segmento<?, ?>[quantidade];
+    }
+
+    private Segmento<K, V> segmento(K chave) {
+        int hash = chave.hashCode();
+        // Espalha os bits altos, como o HashMap, antes de escolher o segmento.
+        return segmentos[(hash ^ (hash >>> 16)) & (SEGMENTOS - 1)];
+    }
+
+    /**
+     * Segmento do cache: LinkedHashMap em ordem de acesso, que descarta a entrada mais antiga ao encher.
+     * Acessado apenas sob a trava do próprio segmento.
+     */
+    private static final class Segmento<K, V> extends LinkedHashMap<K, V> {
+        private static final long serialVersionUID = 1L;
+
+        private final int capacidade;
+        private final LongAdder descartes;
+
+        Segmento(int capacidade, LongAdder descartes) {
+            super(16, 0.75f, true);
+            this.capacidade = capacidade;
+            this.descartes = descartes;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> maisAntiga) {
+            if (size() > capacidade) {
+                descartes.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+}
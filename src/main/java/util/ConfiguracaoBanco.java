@@ -0,0 +1,284 @@
+package util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Configuração do banco de dados, lida do arquivo eventos.properties (opcional) e das
+ * propriedades de sistema (-Dchave=valor), que têm prioridade sobre o arquivo.
+ *
+ * Chaves reconhecidas:
+ * <ul>
+ *   <li>db.url - URL JDBC (padrão jdbc:sqlite:eventos.db)</li>
+ *   <li>db.shards - número de arquivos entre os quais os eventos são divididos (padrão 1; veja {@link RoteadorShards})</li>
+ *   <li>db.perfil - DURAVEL, EQUILIBRADO ou DESEMPENHO (padrão DURAVEL)</li>
+ *   <li>db.journal_mode, db.synchronous, db.mmap_size, db.cache_size, db.temp_store - sobrescrevem o perfil</li>
+ *   <li>db.busy_timeout - espera (ms) quando o banco está bloqueado por outro escritor (padrão 5000)</li>
+ *   <li>db.pool.tamanho - número máximo de conexões no pool (padrão 8)</li>
+ *   <li>db.cache_usuarios - número máximo de usuários no cache de leitura do UsuarioDAO (padrão 10000; 0 desativa)</li>
+ *   <li>db.cache_comandos - número máximo de PreparedStatements guardados por conexão do pool (padrão 64; 0 desativa)</li>
+ *   <li>db.monitor_sql - ativa o {@link MonitorSql} desde a inicialização (padrão false)</li>
+ *   <li>db.monitor_sql.lenta_ms - duração a partir da qual um SQL vai para o log de consultas lentas (padrão 200)</li>
+ *   <li>db.monitor_sql.arquivo - arquivo do log de consultas lentas (padrão consultas-lentas.log)</li>
+ *   <li>db.arquivamento.intervalo - minutos entre execuções do arquivamento de eventos passados (padrão 60; 0 desativa)</li>
+ *   <li>db.arquivamento.lote - eventos movidos por transação no arquivamento (padrão 500)</li>
+ *   <li>db.commit_grupo.lote - máximo de inscrições/cancelamentos por transação na fila de commit em grupo (padrão 256)</li>
+ *   <li>db.commit_grupo.espera_us - espera máxima (microssegundos) por mais operações antes de gravar um lote (padrão 2000)</li>
+ *   <li>db.commit_grupo.fila - máximo de operações aguardando na fila de commit em grupo (padrão 10000)</li>
+ * </ul>
+ * O caminho do arquivo pode ser trocado com -Deventos.config=caminho.
+ */
+public final class ConfiguracaoBanco {
+
+    private static final String ARQUIVO_PADRAO = "eventos.properties";
+
+    private final String url;
+    private final int quantidadeShards;
+    private final PerfilArmazenamento perfil;
+    private final String journalMode;
+    private final String synchronous;
+    private final long mmapSize;
+    private final int cacheSize;
+    private final String tempStore;
+    private final int busyTimeoutMs;
+    private final int tamanhoPool;
+    private final int tamanhoCacheUsuarios;
+    private final int tamanhoCacheComandos;
+    private final boolean monitorSql;
+    private final long limiteConsultaLentaMs;
+    private final String arquivoConsultasLentas;
+    private final long intervaloArquivamentoMin;
+    private final int loteArquivamento;
+    private final int loteCommitGrupo;
+    private final long esperaCommitGrupoUs;
+    private final int filaCommitGrupo;
+
+    private ConfiguracaoBanco(Properties props) {
+        this.url = props.getProperty("db.url", "jdbc:sqlite:eventos.db").trim();
+        this.quantidadeShards = (int) numero(props, "db.shards", 1);
+        if (quantidadeShards < 1) {
+            throw new IllegalArgumentException("db.shards deve ser pelo menos 1.");
+        }
+        if (quantidadeShards > 1 && url.contains(":memory:")) {
+            throw new IllegalArgumentException("db.shards maior que 1 exige um banco em arquivo (db.url).");
+        }
+
+        String nomePerfil = props.getProperty("db.perfil", PerfilArmazenamento.DURAVEL.name()).trim().toUpperCase();
+        try {
+            this.perfil = PerfilArmazenamento.valueOf(nomePerfil);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Perfil de armazenamento '" + nomePerfil + "' inválido. Use DURAVEL, EQUILIBRADO ou DESEMPENHO.");
+        }
+
+        this.journalMode = texto(props, "db.journal_mode", perfil.getJournalMode());
+        this.synchronous = texto(props, "db.synchronous", perfil.getSynchronous());
+        this.tempStore = texto(props, "db.temp_store", perfil.getTempStore());
+        this.mmapSize = numero(props, "db.mmap_size", perfil.getMmapSize());
+        this.cacheSize = (int) numero(props, "db.cache_size", perfil.getCacheSize());
+        this.busyTimeoutMs = (int) numero(props, "db.busy_timeout", 5000);
+        this.tamanhoPool = (int) numero(props, "db.pool.tamanho", 8);
+        this.tamanhoCacheUsuarios = (int) numero(props, "db.cache_usuarios", 10_000);
+        this.tamanhoCacheComandos = (int) numero(props, "db.cache_comandos", 64);
+        if (tamanhoCacheComandos < 0) {
+            throw new IllegalArgumentException("db.cache_comandos não pode ser negativo.");
+        }
+        this.monitorSql = booleano(props, "db.monitor_sql", false);
+        this.limiteConsultaLentaMs = numero(props, "db.monitor_sql.lenta_ms", 200);
+        this.arquivoConsultasLentas = props.getProperty("db.monitor_sql.arquivo", "consultas-lentas.log").trim();
+        this.intervaloArquivamentoMin = numero(props, "db.arquivamento.intervalo", 60);
+        this.loteArquivamento = (int) numero(props, "db.arquivamento.lote", 500);
+        if (intervaloArquivamentoMin < 0) {
+            throw new IllegalArgumentException("db.arquivamento.intervalo não pode ser negativo.");
+        }
+        if (loteArquivamento <= 0) {
+            throw new IllegalArgumentException("db.arquivamento.lote deve ser positivo.");
+        }
+        this.loteCommitGrupo = (int) numero(props, "db.commit_grupo.lote", 256);
+        this.esperaCommitGrupoUs = numero(props, "db.commit_grupo.espera_us", 2000);
+        this.filaCommitGrupo = (int) numero(props, "db.commit_grupo.fila", 10_000);
+        if (loteCommitGrupo <= 0 || filaCommitGrupo <= 0) {
+            throw new IllegalArgumentException("db.commit_grupo.lote e db.commit_grupo.fila devem ser positivos.");
+        }
+        if (esperaCommitGrupoUs < 0) {
+            throw new IllegalArgumentException("db.commit_grupo.espera_us não pode ser negativo.");
+        }
+    }
+
+    /**
+     * Carrega a configuração do arquivo (se existir) e das propriedades de sistema.
+     * @return A configuração efetiva.
+     * @throws IllegalArgumentException Se algum valor for inválido ou o arquivo não puder ser lido.
+     */
+    public static ConfiguracaoBanco carregar() {
+        Properties props = new Properties();
+        Path arquivo = Path.of(System.getProperty("eventos.config", ARQUIVO_PADRAO));
+        if (Files.isReadable(arquivo)) {
+            try (Reader reader = Files.newBufferedReader(arquivo, StandardCharsets.UTF_8)) {
+                props.load(reader);
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Não foi possível ler " + arquivo + ": " + e.getMessage(), e);
+            }
+        }
+        // Propriedades de sistema sobrescrevem o arquivo.
+        for (String chave : System.getProperties().stringPropertyNames()) {
+            if (chave.startsWith("db.")) {
+                props.setProperty(chave, System.getProperty(chave));
+            }
+        }
+        return new ConfiguracaoBanco(props);
+    }
+
+    /**
+     * @return Os PRAGMAs aplicados em cada nova conexão, na ordem de execução.
+     */
+    public List<String> pragmasConexao() {
+        List<String> pragmas = new ArrayList<>();
+        // O foreign_keys vale por conexão no SQLite, então precisa ser ativado em todas elas.
+        pragmas.add("PRAGMA foreign_keys = ON;");
+        // busy_timeout antes de journal_mode: a troca de modo pode precisar esperar outro escritor.
+        pragmas.add("PRAGMA busy_timeout = " + busyTimeoutMs + ";");
+        pragmas.add("PRAGMA journal_mode = " + journalMode + ";");
+        pragmas.add("PRAGMA synchronous = " + synchronous + ";");
+        pragmas.add("PRAGMA mmap_size = " + mmapSize + ";");
+        pragmas.add("PRAGMA cache_size = " + cacheSize + ";");
+        pragmas.add("PRAGMA temp_store = " + tempStore + ";");
+        return pragmas;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public int getQuantidadeShards() {
+        return quantidadeShards;
+    }
+
+    /**
+     * URL de um shard. O shard 0 é o próprio db.url (que guarda a cópia principal dos usuários);
+     * os demais ficam ao lado, com o número no nome: eventos.db -> eventos-shard1.db, eventos-shard2.db...
+     * @param shard Número do shard (0 a db.shards - 1).
+     */
+    public String getUrlShard(int shard) {
+        if (shard == 0) {
+            return url;
+        }
+        int inicioParametros = url.indexOf('?');
+        String base = inicioParametros < 0 ? url : url.substring(0, inicioParametros);
+        String parametros = inicioParametros < 0 ? "" : url.substring(inicioParametros);
+        String marca = "-shard" + shard;
+        String comMarca = base.endsWith(".db") ? base.substring(0, base.length() - 3) + marca + ".db" : base + marca;
+        return comMarca + parametros;
+    }
+
+    /**
+     * Caminho do arquivo de um shard, como aceito pelo ATTACH do SQLite (a URL sem o prefixo JDBC e os parâmetros).
+     */
+    public String getArquivoShard(int shard) {
+        String arquivo = getUrlShard(shard);
+        if (arquivo.startsWith("jdbc:sqlite:")) {
+            arquivo = arquivo.substring("jdbc:sqlite:".length());
+        }
+        int inicioParametros = arquivo.indexOf('?');
+        if (inicioParametros >= 0) {
+            arquivo = arquivo.substring(0, inicioParametros);
+        }
+        return arquivo.startsWith("file:") ? arquivo.substring("file:".length()) : arquivo;
+    }
+
+    public PerfilArmazenamento getPerfil() {
+        return perfil;
+    }
+
+    public int getTamanhoPool() {
+        return tamanhoPool;
+    }
+
+    public int getTamanhoCacheUsuarios() {
+        return tamanhoCacheUsuarios;
+    }
+
+    public int getTamanhoCacheComandos() {
+        return tamanhoCacheComandos;
+    }
+
+    public boolean isMonitorSql() {
+        return monitorSql;
+    }
+
+    public long getLimiteConsultaLentaMs() {
+        return limiteConsultaLentaMs;
+    }
+
+    public String getArquivoConsultasLentas() {
+        return arquivoConsultasLentas;
+    }
+
+    public long getIntervaloArquivamentoMin() {
+        return intervaloArquivamentoMin;
+    }
+
+    public int getLoteArquivamento() {
+        return loteArquivamento;
+    }
+
+    public int getLoteCommitGrupo() {
+        return loteCommitGrupo;
+    }
+
+    public long getEsperaCommitGrupoUs() {
+        return esperaCommitGrupoUs;
+    }
+
+    public int getFilaCommitGrupo() {
+        return filaCommitGrupo;
+    }
+
+    /**
+     * @return Resumo da configuração ativa, para exibição na inicialização.
+     */
+    public String descrever() {
+        return String.format("%s | perfil %s (journal_mode=%s, synchronous=%s, mmap_size=%d, cache_size=%d, " +
+                        "temp_store=%s, busy_timeout=%dms) | pool de %d conexões%s",
+                url, perfil.getDescricao(), journalMode, synchronous, mmapSize, cacheSize, tempStore,
+                busyTimeoutMs, tamanhoPool, quantidadeShards > 1 ? " por shard | " + quantidadeShards + " shards" : "");
+    }
+
+    // Valores textuais viram parte do PRAGMA, então só letras são aceitas.
+    private static String texto(Properties props, String chave, String padrao) {
+        String valor = props.getProperty(chave, padrao).trim().toUpperCase();
+        if (!valor.matches("[A-Z]+")) {
+            throw new IllegalArgumentException("Valor inválido para " + chave + ": '" + valor + "'.");
+        }
+        return valor;
+    }
+
+    private static boolean booleano(Properties props, String chave, boolean padrao) {
+        String valor = props.getProperty(chave);
+        if (valor == null) {
+            return padrao;
+        }
+        String normalizado = valor.trim().toLowerCase();
+        if (!normalizado.equals("true") && !normalizado.equals("false")) {
+            throw new IllegalArgumentException("Valor inválido para " + chave + ": '" + valor + "' (use true ou false).");
+        }
+        return Boolean.parseBoolean(normalizado);
+    }
+
+    private static long numero(Properties props, String chave, long padrao) {
+        String valor = props.getProperty(chave);
+        if (valor == null) {
+            return padrao;
+        }
+        try {
+            return Long.parseLong(valor.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Valor numérico inválido para " + chave + ": '" + valor + "'.");
+        }
+    }
+}
@@ -0,0 +1,390 @@
+package util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pool limitado de conexões SQLite reutilizáveis.
+ * As conexões físicas são abertas sob demanda (até o limite máximo), inicializadas
+ * com os PRAGMAs informados e devolvidas ao pool quando o chamador executa close().
+ * Dessa forma os DAOs continuam usando try-with-resources sem nenhuma mudança.
+ * Cada conexão física guarda os PreparedStatements já preparados ({@link CacheComandos}), e os
+ * prepareStatement(sql) seguintes com o mesmo SQL reaproveitam o comando.
+ */
+public class ConnectionPool {
+
+    // Tempo de aquisição (espera por uma vaga + validação/abertura), publicado em util.Metricas.
+    private static final MetricaOperacao METRICA_AQUISICAO = Metricas.operacao("ConnectionPool.getConnection");
+    // Uma conexão SQLite local não "cai" sozinha: só as que ficaram ociosas mais que isso são validadas
+    // (isValid executa uma consulta) antes do reuso.
+    private static final long VALIDAR_OCIOSA_APOS_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    private final String url;
+    private final Properties propriedades;
+    private final int tamanhoMaximo;
+    private final long timeoutAquisicaoMs;
+    private final long limiteVazamentoMs;
+    private final List<String> pragmas;
+    private final int tamanhoCacheComandos;
+
+    // Limita o número de conexões emprestadas simultaneamente.
+    private final Semaphore permissoes;
+    // Conexões físicas ociosas, prontas para reuso (LIFO para manter as "quentes" no topo).
+    private final LinkedBlockingDeque<Ociosa> ociosas = new LinkedBlockingDeque<>();
+    // Conexões emprestadas no momento, com o registro de quem as pegou (para detecção de vazamento).
+    private final Map<Connection, Emprestimo> emprestadas = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService detectorVazamento;
+    // Cache de comandos preparados de cada conexão física aberta.
+    private final Map<Connection, CacheComandos> caches = new ConcurrentHashMap<>();
+
+    // --- Estatísticas ---
+    private final AtomicLong conexoesCriadas = new AtomicLong();
+    private final AtomicLong conexoesDescartadas = new AtomicLong();
+    private final AtomicLong aquisicoes = new AtomicLong();
+    private final AtomicLong tempoEsperaTotalNanos = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong vazamentosDetectados = new AtomicLong();
+    private final LongAdder comandosReaproveitados = new LongAdder();
+    private final LongAdder comandosPreparados = new LongAdder();
+    private final LongAdder comandosDescartados = new LongAdder();
+
+    private volatile boolean fechado = false;
+
+    /**
+     * Registro de um empréstimo ativo. A pilha de chamadas não é capturada no empréstimo (custaria em
+     * toda aquisição): se houver vazamento, é exibida a pilha atual da thread que pegou a conexão.
+     * @param inicioNanos Instante (System.nanoTime) em que a conexão foi emprestada.
+     * @param thread Thread que pegou a conexão.
+     * @param reportado Evita reportar o mesmo vazamento repetidas vezes.
+     */
+    private record Emprestimo(long inicioNanos, Thread thread, boolean[] reportado) {
+    }
+
+    /**
+     * Conexão física ociosa.
+     * @param desdeNanos Instante (System.nanoTime) em que a conexão foi devolvida.
+     */
+    private record Ociosa(Connection conn, long desdeNanos) {
+    }
+
+    /**
+     * Fotografia imutável das estatísticas do pool.
+     */
+    public record Estatisticas(int tamanhoMaximo, int emUso, int ociosas, long conexoesCriadas,
+                               long conexoesDescartadas, long aquisicoes, long tempoMedioEsperaMicros,
+                               long timeouts, long vazamentosDetectados) {
+        @Override
+        public String toString() {
+            return String.format("Pool[max=%d, emUso=%d, ociosas=%d, criadas=%d, descartadas=%d, " +
+                            "aquisicoes=%d, esperaMedia=%dus, timeouts=%d, vazamentos=%d]",
+                    tamanhoMaximo, emUso, ociosas, conexoesCriadas, conexoesDescartadas,
+                    aquisicoes, tempoMedioEsperaMicros, timeouts, vazamentosDetectados);
+        }
+    }
+
+    /**
+     * Cria o pool. Nenhuma conexão é aberta até a primeira chamada de {@link #getConnection()}.
+     * @param url URL JDBC do banco SQLite.
+     * @param propriedades Propriedades do driver JDBC usadas ao abrir cada conexão física.
+     * @param tamanhoMaximo Número máximo de conexões físicas abertas ao mesmo tempo.
+     * @param timeoutAquisicaoMs Tempo máximo de espera por uma conexão livre.
+     * @param limiteVazamentoMs Tempo de empréstimo a partir do qual a conexão é considerada vazada (0 desativa).
+     * @param pragmas Comandos PRAGMA executados em cada nova conexão física.
+     * @param tamanhoCacheComandos Número máximo de PreparedStatements guardados por conexão (0 desativa).
+     */
+    public ConnectionPool(String url, Properties propriedades, int tamanhoMaximo, long timeoutAquisicaoMs,
+                          long limiteVazamentoMs, List<String> pragmas, int tamanhoCacheComandos) {
+        if (tamanhoMaximo <= 0) {
+            throw new IllegalArgumentException("O tamanho máximo do pool deve ser positivo.");
+        }
+        if (tamanhoCacheComandos < 0) {
+            throw new IllegalArgumentException("O tamanho do cache de comandos não pode ser negativo.");
+        }
+        this.url = url;
+        this.propriedades = (Properties) propriedades.clone();
+        this.tamanhoMaximo = tamanhoMaximo;
+        this.timeoutAquisicaoMs = timeoutAquisicaoMs;
+        this.limiteVazamentoMs = limiteVazamentoMs;
+        this.pragmas = List.copyOf(pragmas);
+        this.tamanhoCacheComandos = tamanhoCacheComandos;
+        this.permissoes = new Semaphore(tamanhoMaximo, true);
+
+        if (limiteVazamentoMs > 0) {
+            detectorVazamento = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "pool-detector-vazamento");
+                t.setDaemon(true);
+                return t;
+            });
+            long intervalo = Math.max(1000, limiteVazamentoMs / 2);
+            detectorVazamento.scheduleAtFixedRate(this::verificarVazamentos, intervalo, intervalo, TimeUnit.MILLISECONDS);
+        } else {
+            detectorVazamento = null;
+        }
+    }
+
+    /**
+     * Empresta uma conexão do pool. O close() da conexão retornada a devolve ao pool
+     * em vez de fechar a conexão física.
+     * @return Conexão pronta para uso (auto-commit ativo).
+     * @throws SQLException Se o pool estiver fechado, o tempo de espera esgotar ou a abertura falhar.
+     */
+    public Connection getConnection() throws SQLException {
+        if (fechado) {
+            throw new SQLException("O pool de conexões está fechado.");
+        }
+
+        long inicio = System.nanoTime();
+        try {
+            if (!permissoes.tryAcquire(timeoutAquisicaoMs, TimeUnit.MILLISECONDS)) {
+                timeouts.incrementAndGet();
+                METRICA_AQUISICAO.registrarErro();
+                throw new SQLException("Tempo esgotado aguardando conexão livre (" + timeoutAquisicaoMs + " ms). " + getEstatisticas());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrompido aguardando conexão livre.", e);
+        }
+
+        try {
+            Connection fisica = obterConexaoValida();
+            long espera = System.nanoTime() - inicio;
+            tempoEsperaTotalNanos.addAndGet(espera);
+            METRICA_AQUISICAO.registrar(espera);
+            aquisicoes.incrementAndGet();
+            emprestadas.put(fisica, new Emprestimo(System.nanoTime(), Thread.currentThread(), new boolean[1]));
+            return criarProxy(fisica);
+        } catch (SQLException | RuntimeException e) {
+            METRICA_AQUISICAO.registrarErro();
+            permissoes.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Retorna uma conexão ociosa que ainda seja válida, ou abre uma nova.
+     */
+    private Connection obterConexaoValida() throws SQLException {
+        Ociosa ociosa;
+        while ((ociosa = ociosas.pollFirst()) != null) {
+            if (validar(ociosa)) {
+                return ociosa.conn();
+            }
+            descartar(ociosa.conn());
+        }
+        return abrirConexao();
+    }
+
+    /**
+     * Abre uma conexão física e aplica os PRAGMAs de inicialização.
+     */
+    private Connection abrirConexao() throws SQLException {
+        Connection conn = DriverManager.getConnection(url, propriedades);
+        try (Statement stmt = conn.createStatement()) {
+            for (String pragma : pragmas) {
+                stmt.execute(pragma);
+            }
+        } catch (SQLException e) {
+            conn.close();
+            throw e;
+        }
+        conexoesCriadas.incrementAndGet();
+        if (tamanhoCacheComandos > 0) {
+            caches.put(conn, new CacheComandos(conn, tamanhoCacheComandos, comandosReaproveitados,
+                    comandosPreparados, comandosDescartados));
+        }
+        return conn;
+    }
+
+    /**
+     * Verifica se uma conexão ociosa ainda pode ser reutilizada. A consulta de validação só é feita
+     * nas que ficaram ociosas por muito tempo.
+     */
+    private boolean validar(Ociosa ociosa) {
+        Connection conn = ociosa.conn();
+        try {
+            if (conn.isClosed()) {
+                return false;
+            }
+            return System.nanoTime() - ociosa.desdeNanos() < VALIDAR_OCIOSA_APOS_NANOS || conn.isValid(1);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void descartar(Connection conn) {
+        conexoesDescartadas.incrementAndGet();
+        // Os comandos do cache são fechados junto com a conexão física.
+        caches.remove(conn);
+        try {
+            conn.close();
+        } catch (SQLException e) {
+            System.err.println("Erro ao fechar conexão descartada: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Devolve a conexão física ao pool, desfazendo transações pendentes.
+     */
+    private void devolver(Connection fisica) {
+        emprestadas.remove(fisica);
+        try {
+            if (fechado || fisica.isClosed()) {
+                descartar(fisica);
+                return;
+            }
+            CacheComandos cache = caches.get(fisica);
+            if (cache != null) {
+                cache.liberarPendentes();
+            }
+            // Uma transação esquecida aberta não pode vazar para o próximo usuário da conexão.
+            if (!fisica.getAutoCommit()) {
+                fisica.rollback();
+                fisica.setAutoCommit(true);
+            }
+            ociosas.offerFirst(new Ociosa(fisica, System.nanoTime()));
+            // O pool pode ter sido fechado entre a verificação acima e a devolução: sem isso, a conexão
+            // ficaria na fila depois que o close() já a esvaziou e nunca seria fechada.
+            if (fechado) {
+                descartarOciosas();
+            }
+        } catch (SQLException e) {
+            descartar(fisica);
+        } finally {
+            permissoes.release();
+        }
+    }
+
+    /**
+     * Envolve a conexão física em um proxy cujo close() devolve a conexão ao pool.
+     * Chamadas após o close() falham, como aconteceria com uma conexão física fechada.
+     */
+    private Connection criarProxy(Connection fisica) {
+        CacheComandos cache = caches.get(fisica);
+        InvocationHandler handler = new InvocationHandler() {
+            private boolean devolvida = false;
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                switch (method.getName()) {
+                    case "close":
+                        if (!devolvida) {
+                            devolvida = true;
+                            devolver(fisica);
+                        }
+                        return null;
+                    case "isClosed":
+                        return devolvida || fisica.isClosed();
+                    case "unwrap":
+                        if (((Class<?>) args[0]).isInstance(fisica)) {
+                            return fisica;
+                        }
+                        break;
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "toString":
+                        return "PooledConnection[" + fisica + "]";
+                    default:
+                        break;
+                }
+                if (devolvida) {
+                    throw new SQLException("A conexão já foi devolvida ao pool.");
+                }
+                // prepareStatement(sql) e prepareStatement(sql, chavesGeradas) passam pelo cache; as demais variantes não.
+                if (cache != null && method.getName().equals("prepareStatement")
+                        && (args.length == 1 || args[1] instanceof Integer && args.length == 2)) {
+                    return cache.preparar((String) args[0],
+                            args.length == 1 ? Statement.NO_GENERATED_KEYS : (Integer) args[1]);
+                }
+                try {
+                    return method.invoke(fisica, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            }
+        };
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, handler);
+    }
+
+    /**
+     * Reporta (uma vez) as conexões emprestadas há mais tempo que o limite configurado.
+     */
+    private void verificarVazamentos() {
+        long agora = System.nanoTime();
+        for (Emprestimo emprestimo : emprestadas.values()) {
+            long decorridoMs = TimeUnit.NANOSECONDS.toMillis(agora - emprestimo.inicioNanos());
+            if (decorridoMs >= limiteVazamentoMs && !emprestimo.reportado()[0]) {
+                emprestimo.reportado()[0] = true;
+                vazamentosDetectados.incrementAndGet();
+                Thread thread = emprestimo.thread();
+                StringBuilder aviso = new StringBuilder("Possível vazamento de conexão: emprestada há " + decorridoMs
+                        + " ms pela thread " + thread.getName() + (thread.isAlive() ? ", que agora está em:" : " (encerrada)."));
+                for (StackTraceElement elemento : thread.getStackTrace()) {
+                    aviso.append("\n\tat ").append(elemento);
+                }
+                System.err.println(aviso);
+            }
+        }
+    }
+
+    /**
+     * @return As estatísticas atuais do pool.
+     */
+    public Estatisticas getEstatisticas() {
+        long total = aquisicoes.get();
+        long esperaMedia = total == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(tempoEsperaTotalNanos.get() / total);
+        return new Estatisticas(tamanhoMaximo, emprestadas.size(), ociosas.size(), conexoesCriadas.get(),
+                conexoesDescartadas.get(), total, esperaMedia, timeouts.get(), vazamentosDetectados.get());
+    }
+
+    /**
+     * @return As estatísticas somadas dos caches de comandos preparados de todas as conexões
+     *         (a capacidade é a de uma conexão vezes o tamanho máximo do pool).
+     */
+    public CacheLru.Estatisticas getEstatisticasComandos() {
+        int tamanho = 0;
+        for (CacheComandos cache : caches.values()) {
+            tamanho += cache.tamanho();
+        }
+        return new CacheLru.Estatisticas("comandos SQL", tamanhoCacheComandos * tamanhoMaximo, tamanho,
+                comandosReaproveitados.sum(), comandosPreparados.sum(), comandosDescartados.sum());
+    }
+
+    /**
+     * Fecha todas as conexões ociosas e impede novos empréstimos.
+     * Conexões emprestadas são fechadas quando forem devolvidas.
+     */
+    public void close() {
+        fechado = true;
+        if (detectorVazamento != null) {
+            detectorVazamento.shutdownNow();
+        }
+        descartarOciosas();
+    }
+
+    private void descartarOciosas() {
+        Ociosa ociosa;
+        while ((ociosa = ociosas.pollFirst()) != null) {
+            descartar(ociosa.conn());
+        }
+    }
+}
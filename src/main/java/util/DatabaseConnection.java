@@ -1,11 +1,13 @@
 package util;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.PreparedStatement;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Utilitário para gerenciar a conexão com o banco de dados SQLite
@@ -13,73 +15,203 @@ import java.sql.PreparedStatement;
  * referencial (FOREIGN KEYs) esteja ativa.
  */
 public class DatabaseConnection {
-    // URL de conexão com o banco de dados SQLite. O arquivo será criado na pasta raiz do projeto.
-    private static final String URL = "jdbc:sqlite:eventos.db";
+    // Configuração do pool de conexões compartilhado pelos DAOs.
+    private static final long TIMEOUT_AQUISICAO_MS = 30_000;
+    private static final long LIMITE_VAZAMENTO_MS = 60_000;
+
+    // Um pool por shard (veja RoteadorShards); sem shards, só o pool do db.url.
+    private static volatile ConnectionPool[] pools;
+    // URL, perfil de armazenamento e PRAGMAs (veja ConfiguracaoBanco). Por padrão usa eventos.db na pasta raiz.
+    private static volatile ConfiguracaoBanco configuracao;
+    // Ações executadas ao fechar o pool (ex.: descartar caches com dados do banco anterior).
+    private static final List<Runnable> AO_FECHAR_POOL = new CopyOnWriteArrayList<>();
+
+    /**
+     * Propriedades do driver sqlite-jdbc usadas em todas as conexões.
+     */
+    private static Properties propriedadesDriver() {
+        Properties props = new Properties();
+        // Transações explícitas (setAutoCommit(false)) começam com BEGIN IMMEDIATE: o lock de escrita
+        // é obtido já no início, evitando que duas transações que leem e depois escrevem
+        // fiquem presas uma esperando a outra (SQLITE_BUSY na promoção do lock).
+        props.setProperty("transaction_mode", "IMMEDIATE");
+        return props;
+    }
+
+    /**
+     * Retorna os pools compartilhados (um por shard), criando-os na primeira chamada.
+     */
+    private static ConnectionPool[] getPools() {
+        ConnectionPool[] atuais = pools;
+        if (atuais == null) {
+            synchronized (DatabaseConnection.class) {
+                atuais = pools;
+                if (atuais == null) {
+                    ConfiguracaoBanco config = getConfiguracao();
+                    MonitorSql.configurar(config);
+                    atuais = new ConnectionPool[config.getQuantidadeShards()];
+                    for (int shard = 0; shard < atuais.length; shard++) {
+                        atuais[shard] = new ConnectionPool(config.getUrlShard(shard), propriedadesDriver(),
+                                config.getTamanhoPool(), TIMEOUT_AQUISICAO_MS, LIMITE_VAZAMENTO_MS,
+                                config.pragmasConexao(), config.getTamanhoCacheComandos());
+                    }
+                    pools = atuais;
+                }
+            }
+        }
+        return atuais;
+    }
+
+    /**
+     * @return A configuração ativa do banco, carregada na primeira chamada.
+     */
+    public static synchronized ConfiguracaoBanco getConfiguracao() {
+        if (configuracao == null) {
+            configuracao = ConfiguracaoBanco.carregar();
+        }
+        return configuracao;
+    }
 
     /**
-     * Estabelece e retorna uma conexão com o banco de dados.
+     * Obtém uma conexão do pool. Fechar a conexão (try-with-resources) a devolve ao pool.
+     * Com o {@link MonitorSql} ativo, a conexão vem envolvida pelos proxies de medição.
      * @return Objeto Connection.
      * @throws SQLException Se a conexão falhar ou o driver não estiver disponível.
      */
     public static Connection getConnection() throws SQLException {
+        return getConnection(0);
+    }
+
+    /**
+     * Obtém uma conexão do pool de um shard. O shard 0 é o banco principal (db.url), que guarda a
+     * cópia principal dos usuários; para escolher o shard de um evento, use {@link RoteadorShards}.
+     * @param shard Número do shard (0 a {@link #getQuantidadeShards()} - 1).
+     * @return Objeto Connection.
+     * @throws SQLException Se a conexão falhar ou o driver não estiver disponível.
+     */
+    public static Connection getConnection(int shard) throws SQLException {
+        ConnectionPool[] atuais = getPools();
+        if (shard < 0 || shard >= atuais.length) {
+            throw new SQLException("Shard " + shard + " inexistente (db.shards = " + atuais.length + ").");
+        }
         // Driver JDBC para SQLite é carregado automaticamente (Java 6+).
-        return DriverManager.getConnection(URL);
+        Connection conn = atuais[shard].getConnection();
+        return MonitorSql.isAtivo() ? JdbcMonitorado.conexao(conn) : conn;
+    }
+
+    /**
+     * @return Número de arquivos de banco (db.shards).
+     */
+    public static int getQuantidadeShards() {
+        return getPools().length;
+    }
+
+    /**
+     * @return As estatísticas atuais do pool de conexões do banco principal (shard 0).
+     */
+    public static ConnectionPool.Estatisticas getEstatisticasPool() {
+        return getEstatisticasPool(0);
     }
 
     /**
-     * Inicializa o banco de dados, criando as tabelas se não existirem.
+     * @return As estatísticas atuais do pool de conexões de um shard.
+     */
+    public static ConnectionPool.Estatisticas getEstatisticasPool(int shard) {
+        return getPools()[shard].getEstatisticas();
+    }
+
+    /**
+     * @return As estatísticas dos caches de comandos preparados das conexões do pool, somadas entre os shards.
+     */
+    public static CacheLru.Estatisticas getEstatisticasComandos() {
+        CacheLru.Estatisticas soma = null;
+        for (ConnectionPool atual : getPools()) {
+            CacheLru.Estatisticas e = atual.getEstatisticasComandos();
+            soma = soma == null ? e : new CacheLru.Estatisticas(e.nome(), soma.capacidade() + e.capacidade(),
+                    soma.tamanho() + e.tamanho(), soma.acertos() + e.acertos(), soma.faltas() + e.faltas(),
+                    soma.descartes() + e.descartes());
+        }
+        return soma;
+    }
+
+    /**
+     * Registra uma ação a executar sempre que o pool for fechado.
+     */
+    public static void aoFecharPool(Runnable acao) {
+        AO_FECHAR_POOL.add(acao);
+    }
+
+    /**
+     * Fecha os pools de conexões de todos os shards (usado ao encerrar a aplicação).
+     */
+    public static synchronized void fecharPool() {
+        if (pools != null) {
+            for (ConnectionPool atual : pools) {
+                atual.close();
+            }
+            pools = null;
+        }
+        AO_FECHAR_POOL.forEach(Runnable::run);
+        // Permite recarregar a configuração (ex.: outro db.url) na próxima abertura.
+        configuracao = null;
+    }
+
+    /**
+     * Inicializa o banco de dados, aplicando as migrações de esquema pendentes.
      * Garante que o esquema do banco de dados está sincronizado com as entidades (Models).
      */
     public static void initializeDatabase() {
-        // Uso de try-with-resources para garantir o fechamento de Connection e Statement
-        try (Connection conn = getConnection();
-             Statement stmt = conn.createStatement()) {
-
-            // Ativa a integridade referencial no SQLite (deve ser a primeira coisa feita na conexão).
-            // ESSENCIAL para que as FOREIGN KEYs funcionem, especialmente o ON DELETE CASCADE.
-            stmt.execute("PRAGMA foreign_keys = ON;");
-
-            // 1. Tabela USUARIO
-            String sqlUsuario = "CREATE TABLE IF NOT EXISTS usuario (" +
-                    "id INTEGER PRIMARY KEY AUTOINCREMENT," +
-                    "nome TEXT NOT NULL," +
-                    "email TEXT NOT NULL UNIQUE," +
-                    "senha TEXT NOT NULL," + // Senha em texto simples, para simplificar.
-                    "is_admin BOOLEAN NOT NULL DEFAULT FALSE" +
-                    ")";
-            stmt.execute(sqlUsuario);
-
-            // 2. Tabela EVENTOS
-            String sqlEventos = "CREATE TABLE IF NOT EXISTS eventos (" +
-                    "id INTEGER PRIMARY KEY AUTOINCREMENT," +
-                    "nome TEXT NOT NULL," +
-                    "categoria TEXT NOT NULL," + // Salvo como string (TECNOLOGIA, CULTURA, etc.)
-                    "data_hora TIMESTAMP NOT NULL," +
-                    "local TEXT NOT NULL," +
-                    "capacidade INTEGER NOT NULL," +
-                    "organizador_id INTEGER NOT NULL," +
-                    "descricao TEXT," +
-                    // Chave estrangeira para o organizador. Se o usuário for deletado, seus eventos também são.
-                    "FOREIGN KEY (organizador_id) REFERENCES usuario(id) ON DELETE CASCADE" +
-                    ")";
-            stmt.execute(sqlEventos);
-
-            // 3. Tabela PARTICIPACAO (Tabela de Junção/Inscrição)
-            String sqlParticipacao = "CREATE TABLE IF NOT EXISTS participacao (" +
-                    "usuario_id INTEGER NOT NULL," +
-                    "evento_id INTEGER NOT NULL," +
-                    "PRIMARY KEY (usuario_id, evento_id)," +
-                    // Se o usuário ou o evento for deletado, a inscrição deve ser removida.
-                    "FOREIGN KEY (usuario_id) REFERENCES usuario(id) ON DELETE CASCADE," +
-                    "FOREIGN KEY (evento_id) REFERENCES eventos(id) ON DELETE CASCADE" +
-                    ")";
-            stmt.execute(sqlParticipacao);
-
-            // 4. Insere o admin inicial se não existir.
+        int quantidadeShards = getQuantidadeShards();
+        // Uso de try-with-resources para garantir o fechamento da Connection
+        try (Connection conn = getConnection()) {
+
+            // A integridade referencial (PRAGMA foreign_keys) já é ativada pelo pool em cada conexão,
+            // o que é ESSENCIAL para que as FOREIGN KEYs funcionem, especialmente o ON DELETE CASCADE.
+
+            // Informa o banco e o perfil de armazenamento em uso.
+            System.out.println("Banco de dados: " + getConfiguracao().descrever());
+
+            // 1. Tabelas, contadores e índices (veja Migracoes). Só executa DDL se houver migração pendente.
+            Migracoes.aplicarPendentes(conn);
+
+            // 2. Insere o admin inicial se não existir.
             insertInitialAdmin(conn);
 
         } catch (SQLException e) {
             System.err.println("Erro ao inicializar o banco de dados: " + e.getMessage());
+            return;
+        }
+        if (quantidadeShards > 1) {
+            inicializarShards(quantidadeShards);
+        }
+    }
+
+    /**
+     * Aplica as migrações nos demais shards, sincroniza as cópias da tabela de usuários (uma gravação
+     * interrompida entre o shard 0 e as cópias é corrigida aqui) e alinha as sequências de IDs de
+     * eventos entre os shards. Se houver eventos fora do shard esperado (db.shards alterado sem
+     * executar o {@link RebalanceadorShards}), a criação de eventos fica bloqueada.
+     */
+    private static void inicializarShards(int quantidadeShards) {
+        for (int shard = 1; shard < quantidadeShards; shard++) {
+            try (Connection conn = getConnection(shard)) {
+                Migracoes.aplicarPendentes(conn);
+            } catch (SQLException e) {
+                System.err.println("Erro ao inicializar o shard " + shard + ": " + e.getMessage());
+                return;
+            }
+        }
+        if (!ReplicacaoUsuarios.copiasIguais()) {
+            System.out.println("Sincronizando as cópias da tabela de usuários entre os shards...");
+            ReplicacaoUsuarios.sincronizar();
+        }
+        RebalanceadorShards.alinharSequenciasEventos();
+        long foraDoLugar = RebalanceadorShards.contarEventosForaDoShard();
+        RoteadorShards.registrarEventosForaDoLugar(foraDoLugar);
+        if (foraDoLugar > 0) {
+            System.out.println("Aviso: " + foraDoLugar + " evento(s) fora do shard esperado para db.shards = "
+                    + quantidadeShards + ". A criação de eventos fica bloqueada até executar util.RebalanceadorShards"
+                    + " com a aplicação parada.");
         }
     }
 
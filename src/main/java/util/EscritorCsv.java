@@ -0,0 +1,86 @@
+package util;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Escritor de CSV em fluxo, no mesmo formato lido pelo {@link LeitorCsv} (RFC 4180):
+ * separador vírgula, registros terminados em CRLF e campos entre aspas apenas quando contêm
+ * vírgula, aspas ou quebra de linha (aspas escapadas como "").
+ * Os campos são escritos direto no Writer, sem montar a linha em memória.
+ */
+public class EscritorCsv {
+
+    private final Writer writer;
+    private boolean inicioRegistro = true;
+
+    /**
+     * @param writer Destino do CSV (de preferência já com buffer).
+     */
+    public EscritorCsv(Writer writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * Escreve um registro completo.
+     */
+    public void registro(String... campos) throws IOException {
+        for (String campo : campos) {
+            campo(campo);
+        }
+        fimRegistro();
+    }
+
+    /**
+     * Escreve o próximo campo do registro atual.
+     * @param valor O valor (null vira campo vazio).
+     */
+    public void campo(String valor) throws IOException {
+        if (!inicioRegistro) {
+            writer.write(',');
+        }
+        inicioRegistro = false;
+        if (valor == null || valor.isEmpty()) {
+            return;
+        }
+        if (!precisaAspas(valor)) {
+            writer.write(valor);
+            return;
+        }
+        writer.write('"');
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (c == '"') {
+                writer.write('"');
+            }
+            writer.write(c);
+        }
+        writer.write('"');
+    }
+
+    /**
+     * Escreve o próximo campo do registro atual.
+     */
+    public void campo(long valor) throws IOException {
+        campo(Long.toString(valor));
+    }
+
+    /**
+     * Termina o registro atual.
+     */
+    public void fimRegistro() throws IOException {
+        writer.write("\r\n");
+        inicioRegistro = true;
+    }
+
+    private static boolean precisaAspas(String valor) {
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        // Espaços nas pontas seriam perdidos por leitores que fazem trim.
+        return Character.isWhitespace(valor.charAt(0)) || Character.isWhitespace(valor.charAt(valor.length() - 1));
+    }
+}
@@ -0,0 +1,115 @@
+package util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latências em microssegundos, seguro para uso concorrente e sem alocação por registro.
+ * Valores até 64 µs têm faixa exata; acima disso cada potência de 2 é dividida em 32 faixas,
+ * o que limita o erro dos percentis a cerca de 3%.
+ */
+public class HistogramaLatencia {
+
+    private static final int BITS_SUBFAIXA = 5;
+    private static final int SUBFAIXAS = 1 << BITS_SUBFAIXA;
+    // Abaixo deste valor (em µs) cada microssegundo tem a própria faixa.
+    private static final int LIMITE_LINEAR = SUBFAIXAS * 2;
+    private static final int EXPOENTE_MINIMO = 63 - Long.numberOfLeadingZeros(LIMITE_LINEAR);
+    private static final int TOTAL_FAIXAS = LIMITE_LINEAR + (63 - EXPOENTE_MINIMO) * SUBFAIXAS;
+
+    private final AtomicLongArray faixas = new AtomicLongArray(TOTAL_FAIXAS);
+    // LongAdder: várias threads registrando ao mesmo tempo não disputam o mesmo contador.
+    private final LongAdder contagem = new LongAdder();
+    private final LongAdder somaMicros = new LongAdder();
+    private final AtomicLong maximoMicros = new AtomicLong();
+
+    /**
+     * Registra uma medição.
+     * @param duracaoNanos Duração medida com System.nanoTime().
+     */
+    public void registrar(long duracaoNanos) {
+        long micros = Math.max(0, TimeUnit.NANOSECONDS.toMicros(duracaoNanos));
+        faixas.incrementAndGet(indice(micros));
+        contagem.increment();
+        somaMicros.add(micros);
+        if (micros > maximoMicros.get()) {
+            maximoMicros.accumulateAndGet(micros, Math::max);
+        }
+    }
+
+    public long getContagem() {
+        return contagem.sum();
+    }
+
+    public long getMaximoMicros() {
+        return maximoMicros.get();
+    }
+
+    public long getMediaMicros() {
+        long total = contagem.sum();
+        return total == 0 ? 0 : somaMicros.sum() / total;
+    }
+
+    /**
+     * Calcula um percentil (limite superior da faixa em que ele cai).
+     * @param percentil Valor entre 0 e 100 (ex.: 99.9).
+     * @return A latência em microssegundos, ou 0 se não houver medições.
+     */
+    public long percentilMicros(double percentil) {
+        long total = contagem.sum();
+        if (total == 0) {
+            return 0;
+        }
+        long alvo = Math.max(1, (long) Math.ceil(total * percentil / 100.0));
+        long acumulado = 0;
+        for (int i = 0; i < TOTAL_FAIXAS; i++) {
+            acumulado += faixas.get(i);
+            if (acumulado >= alvo) {
+                return Math.min(limiteSuperior(i), maximoMicros.get());
+            }
+        }
+        return maximoMicros.get();
+    }
+
+    /**
+     * Descarta todas as medições.
+     */
+    public void zerar() {
+        for (int i = 0; i < TOTAL_FAIXAS; i++) {
+            faixas.set(i, 0);
+        }
+        contagem.reset();
+        somaMicros.reset();
+        maximoMicros.set(0);
+    }
+
+    /**
+     * @return Resumo no formato "n=..., média=..., p50=..., p99=..., p99.9=..., máx=..." (µs).
+     */
+    public String resumo() {
+        return String.format("n=%d, média=%dus, p50=%dus, p99=%dus, p99.9=%dus, máx=%dus",
+                getContagem(), getMediaMicros(), percentilMicros(50), percentilMicros(99),
+                percentilMicros(99.9), getMaximoMicros());
+    }
+
+    private static int indice(long micros) {
+        if (micros < LIMITE_LINEAR) {
+            return (int) micros;
+        }
+        int expoente = 63 - Long.numberOfLeadingZeros(micros);
+        int subfaixa = (int) ((micros >>> (expoente - BITS_SUBFAIXA)) & (SUBFAIXAS - 1));
+        return LIMITE_LINEAR + (expoente - EXPOENTE_MINIMO) * SUBFAIXAS + subfaixa;
+    }
+
+    private static long limiteSuperior(int indice) {
+        if (indice < LIMITE_LINEAR) {
+            return indice;
+        }
+        int expoente = EXPOENTE_MINIMO + (indice - LIMITE_LINEAR) / SUBFAIXAS;
+        int subfaixa = (indice - LIMITE_LINEAR) % SUBFAIXAS;
+        long largura = 1L << (expoente - BITS_SUBFAIXA);
+        return ((long) (SUBFAIXAS + subfaixa) << (expoente - BITS_SUBFAIXA)) + largura - 1;
+    }
+}
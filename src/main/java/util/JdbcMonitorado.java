@@ -0,0 +1,215 @@
+package util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Proxies JDBC usados pelo {@link MonitorSql}: envolvem a Connection, os Statements/PreparedStatements
+ * criados por ela e os ResultSets, medindo cada execução e guardando os parâmetros ligados.
+ * Uma consulta é considerada encerrada quando o ResultSet chega ao fim ou é fechado
+ * (o SQLite processa as linhas sob demanda, durante o next()).
+ */
+final class JdbcMonitorado {
+
+    private JdbcMonitorado() {
+    }
+
+    /**
+     * Envolve uma conexão (normalmente a conexão emprestada pelo pool).
+     */
+    static Connection conexao(Connection real) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            Object resultado = invocar(real, method, args);
+            switch (method.getName()) {
+                case "prepareStatement":
+                    return comando((Statement) resultado, (String) args[0], real);
+                case "createStatement":
+                    return comando((Statement) resultado, null, real);
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return resultado;
+            }
+        };
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, handler);
+    }
+
+    private static Statement comando(Statement real, String sqlPreparado, Connection conexao) {
+        Class<?> tipo = real instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+        return (Statement) Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[]{tipo},
+                new ComandoMonitorado(real, sqlPreparado, conexao));
+    }
+
+    private static Object invocar(Object alvo, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(alvo, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Consulta em andamento: o tempo só é registrado quando o ResultSet termina.
+     */
+    private static final class ConsultaAberta {
+        final String sql;
+        final List<Object> parametros;
+        final long inicioNanos;
+        long linhas = 0;
+        boolean encerrada = false;
+
+        ConsultaAberta(String sql, List<Object> parametros, long inicioNanos) {
+            this.sql = sql;
+            this.parametros = parametros;
+            this.inicioNanos = inicioNanos;
+        }
+    }
+
+    private static final class ComandoMonitorado implements InvocationHandler {
+        private final Statement real;
+        private final String sqlPreparado;
+        private final Connection conexao;
+        // Parâmetros ligados, pelo índice (1, 2, ...).
+        private final Map<Integer, Object> parametros = new TreeMap<>();
+        private ConsultaAberta aberta;
+
+        ComandoMonitorado(Statement real, String sqlPreparado, Connection conexao) {
+            this.real = real;
+            this.sqlPreparado = sqlPreparado;
+            this.conexao = conexao;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String nome = method.getName();
+
+            // setInt(1, x), setString(2, y)...: apenas os setters de parâmetro do PreparedStatement.
+            if (nome.startsWith("set") && method.getDeclaringClass() == PreparedStatement.class
+                    && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                parametros.put((Integer) args[0], nome.equals("setNull") ? null : args[1]);
+                return invocar(real, method, args);
+            }
+
+            switch (nome) {
+                case "clearParameters":
+                    parametros.clear();
+                    return invocar(real, method, args);
+                case "executeQuery": {
+                    encerrar();
+                    String sql = sqlDaExecucao(args);
+                    long inicio = System.nanoTime();
+                    ResultSet rs;
+                    try {
+                        rs = (ResultSet) invocar(real, method, args);
+                    } catch (Throwable e) {
+                        MonitorSql.registrar(sql, valoresParametros(), System.nanoTime() - inicio, 0, true, conexao);
+                        throw e;
+                    }
+                    aberta = new ConsultaAberta(sql, valoresParametros(), inicio);
+                    return resultado(rs, aberta);
+                }
+                case "executeUpdate":
+                case "executeLargeUpdate":
+                case "execute":
+                case "executeBatch":
+                case "executeLargeBatch": {
+                    encerrar();
+                    String sql = sqlDaExecucao(args);
+                    long inicio = System.nanoTime();
+                    try {
+                        Object resultado = invocar(real, method, args);
+                        MonitorSql.registrar(sql, valoresParametros(), System.nanoTime() - inicio,
+                                linhasAfetadas(resultado), false, conexao);
+                        return resultado;
+                    } catch (Throwable e) {
+                        MonitorSql.registrar(sql, valoresParametros(), System.nanoTime() - inicio, 0, true, conexao);
+                        throw e;
+                    }
+                }
+                case "close":
+                    encerrar();
+                    return invocar(real, method, args);
+                case "getConnection":
+                    return conexao;
+                default:
+                    return invocar(real, method, args);
+            }
+        }
+
+        // Statement simples recebe o SQL na chamada; PreparedStatement já o recebeu na criação.
+        private String sqlDaExecucao(Object[] args) {
+            if (args != null && args.length > 0 && args[0] instanceof String sql) {
+                return sql;
+            }
+            return sqlPreparado;
+        }
+
+        private List<Object> valoresParametros() {
+            return parametros.isEmpty() ? List.of() : new ArrayList<>(parametros.values());
+        }
+
+        private void encerrar() {
+            if (aberta != null && !aberta.encerrada) {
+                aberta.encerrada = true;
+                MonitorSql.registrar(aberta.sql, aberta.parametros, System.nanoTime() - aberta.inicioNanos,
+                        aberta.linhas, false, conexao);
+            }
+            aberta = null;
+        }
+
+        private ResultSet resultado(ResultSet rs, ConsultaAberta consulta) {
+            InvocationHandler handler = (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "next": {
+                        boolean temLinha = (Boolean) invocar(rs, method, args);
+                        if (temLinha) {
+                            consulta.linhas++;
+                        } else if (consulta == aberta) {
+                            encerrar();
+                        }
+                        return temLinha;
+                    }
+                    case "close":
+                        if (consulta == aberta) {
+                            encerrar();
+                        }
+                        return invocar(rs, method, args);
+                    default:
+                        return invocar(rs, method, args);
+                }
+            };
+            return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+                    new Class<?>[]{ResultSet.class}, handler);
+        }
+
+        private static long linhasAfetadas(Object resultado) {
+            if (resultado instanceof Number numero) {
+                return numero.longValue();
+            }
+            long total = 0;
+            if (resultado instanceof int[] contagens) {
+                for (int c : contagens) {
+                    total += Math.max(c, 0);
+                }
+            } else if (resultado instanceof long[] contagens) {
+                for (long c : contagens) {
+                    total += Math.max(c, 0);
+                }
+            }
+            return total;
+        }
+    }
+}
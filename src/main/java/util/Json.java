@@ -0,0 +1,191 @@
+package util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Utilitário mínimo de JSON, sem dependências externas.
+ * Suporta apenas o que o sistema usa: escrita de strings escapadas e leitura, em fluxo,
+ * de objetos "planos" (valores string, número, booleano ou null), seja em JSON Lines
+ * (um objeto por linha) ou em um array de objetos.
+ */
+public final class Json {
+
+    private Json() {
+    }
+
+    /**
+     * Escapa um texto e o envolve em aspas, pronto para ser escrito como valor JSON.
+     * @param valor O texto (null vira o literal null).
+     * @return A representação JSON do texto.
+     */
+    public static String texto(String valor) {
+        if (valor == null) {
+            return "null";
+        }
+        StringBuilder sb = new StringBuilder(valor.length() + 2);
+        sb.append('"');
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                case '\b' -> sb.append("\\b");
+                case '\f' -> sb.append("\\f");
+                default -> {
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    /**
+     * Lê objetos JSON planos de um Reader, um por vez, sem carregar o arquivo inteiro.
+     * Aceita tanto JSON Lines quanto um array de objetos ([{...}, {...}]).
+     */
+    public static final class LeitorObjetos {
+        private final Reader reader;
+        private int atual = -2; // -2: ainda não leu; -1: fim do arquivo.
+
+        public LeitorObjetos(Reader reader) {
+            this.reader = reader;
+        }
+
+        /**
+         * Lê o próximo objeto.
+         * @return Os campos do objeto (valores como texto; null para o literal null),
+         *         ou null quando não houver mais objetos.
+         * @throws IOException Em erro de leitura ou JSON inválido.
+         */
+        public Map<String, String> proximo() throws IOException {
+            // Ignora separadores entre objetos: espaços, '[', ']' e ','.
+            int c = espiar();
+            while (c != -1 && (Character.isWhitespace(c) || c == '[' || c == ']' || c == ',')) {
+                avancar();
+                c = espiar();
+            }
+            if (c == -1) {
+                return null;
+            }
+            esperar('{');
+
+            Map<String, String> campos = new LinkedHashMap<>();
+            pularEspacos();
+            if (espiar() == '}') {
+                avancar();
+                return campos;
+            }
+            while (true) {
+                pularEspacos();
+                String chave = lerTexto();
+                pularEspacos();
+                esperar(':');
+                pularEspacos();
+                campos.put(chave, lerValor());
+                pularEspacos();
+                int sep = avancar();
+                if (sep == '}') {
+                    return campos;
+                }
+                if (sep != ',') {
+                    throw new IOException("JSON inválido: esperado ',' ou '}' mas encontrado '" + (char) sep + "'.");
+                }
+            }
+        }
+
+        private String lerValor() throws IOException {
+            int c = espiar();
+            if (c == '"') {
+                return lerTexto();
+            }
+            if (c == '{' || c == '[') {
+                throw new IOException("JSON inválido: apenas objetos planos (sem objetos ou arrays aninhados) são suportados.");
+            }
+            StringBuilder sb = new StringBuilder();
+            while ((c = espiar()) != -1 && c != ',' && c != '}' && !Character.isWhitespace(c)) {
+                sb.append((char) avancar());
+            }
+            String literal = sb.toString();
+            if (literal.isEmpty()) {
+                throw new IOException("JSON inválido: valor ausente.");
+            }
+            return literal.equals("null") ? null : literal;
+        }
+
+        private String lerTexto() throws IOException {
+            esperar('"');
+            StringBuilder sb = new StringBuilder();
+            while (true) {
+                int c = avancar();
+                if (c == -1) {
+                    throw new IOException("JSON inválido: texto não terminado.");
+                }
+                if (c == '"') {
+                    return sb.toString();
+                }
+                if (c != '\\') {
+                    sb.append((char) c);
+                    continue;
+                }
+                int esc = avancar();
+                switch (esc) {
+                    case '"', '\\', '/' -> sb.append((char) esc);
+                    case 'n' -> sb.append('\n');
+                    case 'r' -> sb.append('\r');
+                    case 't' -> sb.append('\t');
+                    case 'b' -> sb.append('\b');
+                    case 'f' -> sb.append('\f');
+                    case 'u' -> {
+                        char[] hex = new char[4];
+                        for (int i = 0; i < 4; i++) {
+                            hex[i] = (char) avancar();
+                        }
+                        try {
+                            sb.append((char) Integer.parseInt(new String(hex), 16));
+                        } catch (NumberFormatException e) {
+                            throw new IOException("JSON inválido: escape unicode incorreto.");
+                        }
+                    }
+                    default -> throw new IOException("JSON inválido: escape desconhecido.");
+                }
+            }
+        }
+
+        private void esperar(char esperado) throws IOException {
+            int c = avancar();
+            if (c != esperado) {
+                throw new IOException("JSON inválido: esperado '" + esperado + "' mas encontrado " +
+                        (c == -1 ? "fim do arquivo" : "'" + (char) c + "'") + ".");
+            }
+        }
+
+        private void pularEspacos() throws IOException {
+            while (espiar() != -1 && Character.isWhitespace(espiar())) {
+                avancar();
+            }
+        }
+
+        private int espiar() throws IOException {
+            if (atual == -2) {
+                atual = reader.read();
+            }
+            return atual;
+        }
+
+        private int avancar() throws IOException {
+            int c = espiar();
+            atual = reader.read();
+            return c;
+        }
+    }
+}
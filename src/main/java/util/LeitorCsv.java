@@ -0,0 +1,130 @@
+package util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Leitor de CSV em fluxo (registro a registro), no formato RFC 4180:
+ * separador vírgula, campos opcionalmente entre aspas e aspas escapadas como "".
+ * A primeira linha é o cabeçalho e define os nomes das colunas.
+ */
+public class LeitorCsv {
+
+    private final BufferedReader reader;
+    private final List<String> cabecalho;
+    private int linhaAtual = 0;
+
+    /**
+     * @param reader Fonte do CSV (já com buffer).
+     * @throws IOException Se o arquivo estiver vazio ou não puder ser lido.
+     */
+    public LeitorCsv(BufferedReader reader) throws IOException {
+        this.reader = reader;
+        List<String> campos = lerRegistro();
+        if (campos == null) {
+            throw new IOException("Arquivo CSV vazio (cabeçalho ausente).");
+        }
+        List<String> nomes = new ArrayList<>();
+        for (String campo : campos) {
+            nomes.add(campo.trim().toLowerCase());
+        }
+        // Remove o BOM do UTF-8, se houver.
+        if (!nomes.isEmpty() && nomes.get(0).startsWith("\uFEFF")) {
+            nomes.set(0, nomes.get(0).substring(1));
+        }
+        this.cabecalho = List.copyOf(nomes);
+    }
+
+    /**
+     * @return Os nomes das colunas (em minúsculas).
+     */
+    public List<String> getCabecalho() {
+        return cabecalho;
+    }
+
+    /**
+     * @return O número da linha física onde terminou o último registro lido.
+     */
+    public int getLinhaAtual() {
+        return linhaAtual;
+    }
+
+    /**
+     * Lê o próximo registro, mapeando coluna do cabeçalho para valor.
+     * Colunas ausentes no registro ficam sem entrada no mapa.
+     * @return O registro, ou null no fim do arquivo.
+     * @throws IOException Em erro de leitura ou aspas não fechadas.
+     */
+    public Map<String, String> proximo() throws IOException {
+        List<String> campos;
+        do {
+            campos = lerRegistro();
+            if (campos == null) {
+                return null;
+            }
+            // Linhas em branco são ignoradas.
+        } while (campos.size() == 1 && campos.get(0).isEmpty());
+
+        Map<String, String> registro = new LinkedHashMap<>();
+        for (int i = 0; i < campos.size() && i < cabecalho.size(); i++) {
+            registro.put(cabecalho.get(i), campos.get(i));
+        }
+        return registro;
+    }
+
+    /**
+     * Lê um registro, que pode ocupar várias linhas físicas se houver quebra de linha entre aspas.
+     */
+    private List<String> lerRegistro() throws IOException {
+        String linha = reader.readLine();
+        if (linha == null) {
+            return null;
+        }
+        linhaAtual++;
+
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean entreAspas = false;
+
+        while (true) {
+            for (int i = 0; i < linha.length(); i++) {
+                char c = linha.charAt(i);
+                if (entreAspas) {
+                    if (c == '"') {
+                        if (i + 1 < linha.length() && linha.charAt(i + 1) == '"') {
+                            campo.append('"');
+                            i++;
+                        } else {
+                            entreAspas = false;
+                        }
+                    } else {
+                        campo.append(c);
+                    }
+                } else if (c == '"') {
+                    entreAspas = true;
+                } else if (c == ',') {
+                    campos.add(campo.toString());
+                    campo.setLength(0);
+                } else {
+                    campo.append(c);
+                }
+            }
+            if (!entreAspas) {
+                break;
+            }
+            // Campo entre aspas continua na próxima linha física.
+            linha = reader.readLine();
+            if (linha == null) {
+                throw new IOException("CSV inválido: aspas não fechadas no registro iniciado antes da linha " + linhaAtual + ".");
+            }
+            linhaAtual++;
+            campo.append('\n');
+        }
+        campos.add(campo.toString());
+        return campos;
+    }
+}
@@ -0,0 +1,125 @@
+package util;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Contagem de chamadas, de erros e histograma de latência de uma operação (método de DAO,
+ * operação do Controller, aquisição de conexão). Obtida por {@link Metricas#operacao(String)}.
+ *
+ * Uso nos DAOs, junto com a conexão no try-with-resources:
+ * <pre>
+ * try (MetricaOperacao.Medicao medicao = METRICA_X.iniciar();
+ *      Connection conn = DatabaseConnection.getConnection()) {
+ *     ...
+ * } catch (SQLException e) {
+ *     METRICA_X.registrarErro();
+ *     ...
+ * }
+ * </pre>
+ * A variável da medição não é usada no corpo do try; as classes que seguem esse padrão levam
+ * {@code @SuppressWarnings("try")} para que o -Xlint:try não acuse cada método.
+ */
+public class MetricaOperacao implements MetricaOperacaoMBean {
+
+    private final String nome;
+    private final HistogramaLatencia latencias = new HistogramaLatencia();
+    private final LongAdder erros = new LongAdder();
+
+    MetricaOperacao(String nome) {
+        this.nome = nome;
+    }
+
+    /**
+     * Medição em andamento: o close() registra o tempo decorrido desde {@link #iniciar()}.
+     */
+    public final class Medicao implements AutoCloseable {
+        private final long inicioNanos = System.nanoTime();
+
+        private Medicao() {
+        }
+
+        @Override
+        public void close() {
+            registrar(System.nanoTime() - inicioNanos);
+        }
+    }
+
+    /**
+     * Inicia uma medição, a ser fechada (try-with-resources) ao fim da operação.
+     */
+    public Medicao iniciar() {
+        return new Medicao();
+    }
+
+    /**
+     * Executa e mede uma operação. Exceções não tratadas contam como erro e são repassadas.
+     */
+    public <T> T medir(Supplier<T> acao) {
+        long inicio = System.nanoTime();
+        try {
+            return acao.get();
+        } catch (RuntimeException | Error e) {
+            registrarErro();
+            throw e;
+        } finally {
+            registrar(System.nanoTime() - inicio);
+        }
+    }
+
+    public void registrar(long duracaoNanos) {
+        latencias.registrar(duracaoNanos);
+    }
+
+    public void registrarErro() {
+        erros.increment();
+    }
+
+    // --- MBean ---
+
+    @Override
+    public String getNome() {
+        return nome;
+    }
+
+    @Override
+    public long getChamadas() {
+        return latencias.getContagem();
+    }
+
+    @Override
+    public long getErros() {
+        return erros.sum();
+    }
+
+    @Override
+    public long getMediaMicros() {
+        return latencias.getMediaMicros();
+    }
+
+    @Override
+    public long getP50Micros() {
+        return latencias.percentilMicros(50);
+    }
+
+    @Override
+    public long getP99Micros() {
+        return latencias.percentilMicros(99);
+    }
+
+    @Override
+    public long getP999Micros() {
+        return latencias.percentilMicros(99.9);
+    }
+
+    @Override
+    public long getMaximoMicros() {
+        return latencias.getMaximoMicros();
+    }
+
+    @Override
+    public void zerar() {
+        latencias.zerar();
+        erros.reset();
+    }
+}
@@ -0,0 +1,29 @@
+package util;
+
+/**
+ * Interface JMX (Standard MBean) de uma {@link MetricaOperacao}.
+ * Latências em microssegundos.
+ */
+public interface MetricaOperacaoMBean {
+
+    String getNome();
+
+    long getChamadas();
+
+    long getErros();
+
+    long getMediaMicros();
+
+    long getP50Micros();
+
+    long getP99Micros();
+
+    long getP999Micros();
+
+    long getMaximoMicros();
+
+    /**
+     * Descarta as medições acumuladas (ex.: depois de um aquecimento ou incidente).
+     */
+    void zerar();
+}
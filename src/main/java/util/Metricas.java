@@ -0,0 +1,199 @@
+package util;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registro central das métricas de desempenho (chamadas, erros e latência) de cada operação.
+ * Cada métrica é publicada como MBean em "SistemaEventos:type=Metricas,componente=X,operacao=Y"
+ * (visível no JConsole/VisualVM) e pode ser exportada como texto ou JSON.
+ *
+ * Exportação periódica (opcional), configurada por propriedades de sistema:
+ * <ul>
+ *   <li>metricas.arquivo - arquivo de destino; extensão .json gera JSON, as demais texto</li>
+ *   <li>metricas.intervalo - intervalo entre exportações, em segundos (padrão 60)</li>
+ * </ul>
+ */
+public final class Metricas {
+
+    private static final String DOMINIO_JMX = "SistemaEventos";
+
+    // Ordenado pelo nome, para que os relatórios agrupem as operações de cada componente.
+    private static final Map<String, MetricaOperacao> OPERACOES = new ConcurrentSkipListMap<>();
+
+    private static ScheduledExecutorService exportador;
+
+    private Metricas() {
+    }
+
+    /**
+     * Obtém (ou cria e registra no JMX) a métrica de uma operação.
+     * @param nome Nome no formato "Componente.operacao" (ex.: "EventoDAO.getEventoPorId").
+     * @return A métrica, compartilhada por todos que usam o mesmo nome.
+     */
+    public static MetricaOperacao operacao(String nome) {
+        return OPERACOES.computeIfAbsent(nome, n -> {
+            MetricaOperacao metrica = new MetricaOperacao(n);
+            registrarMBean(metrica);
+            return metrica;
+        });
+    }
+
+    /**
+     * @return As métricas registradas, ordenadas pelo nome.
+     */
+    public static List<MetricaOperacao> listar() {
+        return new ArrayList<>(OPERACOES.values());
+    }
+
+    /**
+     * Descarta as medições de todas as operações.
+     */
+    public static void zerarTodas() {
+        OPERACOES.values().forEach(MetricaOperacao::zerar);
+    }
+
+    private static void registrarMBean(MetricaOperacao metrica) {
+        String nome = metrica.getNome();
+        int ponto = nome.indexOf('.');
+        String componente = ponto > 0 ? nome.substring(0, ponto) : "Geral";
+        String operacao = ponto > 0 ? nome.substring(ponto + 1) : nome;
+        try {
+            MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objeto = new ObjectName(DOMINIO_JMX + ":type=Metricas,componente=" + componente
+                    + ",operacao=" + operacao);
+            if (!servidor.isRegistered(objeto)) {
+                servidor.registerMBean(metrica, objeto);
+            }
+        } catch (JMException e) {
+            // A métrica continua funcionando; apenas não aparece no JMX.
+            System.err.println("Erro ao registrar a métrica " + nome + " no JMX: " + e.getMessage());
+        }
+    }
+
+    // --- EXPORTAÇÃO ---
+
+    /**
+     * @return Tabela com uma linha por operação que já foi chamada (latências em µs).
+     */
+    public static String comoTexto() {
+        StringBuilder texto = new StringBuilder();
+        texto.append("Métricas em ").append(LocalDateTime.now().withNano(0)).append('\n');
+        texto.append(String.format("%-55s %10s %8s %10s %10s %10s %10s %10s%n",
+                "Operação", "Chamadas", "Erros", "Média", "p50", "p99", "p99.9", "Máx"));
+        for (MetricaOperacao m : OPERACOES.values()) {
+            if (m.getChamadas() == 0 && m.getErros() == 0) {
+                continue;
+            }
+            texto.append(String.format("%-55s %10d %8d %10d %10d %10d %10d %10d%n", m.getNome(), m.getChamadas(),
+                    m.getErros(), m.getMediaMicros(), m.getP50Micros(), m.getP99Micros(), m.getP999Micros(),
+                    m.getMaximoMicros()));
+        }
+        return texto.toString();
+    }
+
+    /**
+     * @return Objeto JSON com o instante da coleta e a lista de operações que já foram chamadas.
+     */
+    public static String comoJson() {
+        StringBuilder json = new StringBuilder();
+        json.append("{\"coletadoEm\":").append(Json.texto(LocalDateTime.now().withNano(0).toString()))
+                .append(",\"operacoes\":[");
+        boolean primeira = true;
+        for (MetricaOperacao m : OPERACOES.values()) {
+            if (m.getChamadas() == 0 && m.getErros() == 0) {
+                continue;
+            }
+            if (!primeira) {
+                json.append(',');
+            }
+            primeira = false;
+            json.append("{\"nome\":").append(Json.texto(m.getNome()))
+                    .append(",\"chamadas\":").append(m.getChamadas())
+                    .append(",\"erros\":").append(m.getErros())
+                    .append(",\"mediaMicros\":").append(m.getMediaMicros())
+                    .append(",\"p50Micros\":").append(m.getP50Micros())
+                    .append(",\"p99Micros\":").append(m.getP99Micros())
+                    .append(",\"p999Micros\":").append(m.getP999Micros())
+                    .append(",\"maximoMicros\":").append(m.getMaximoMicros())
+                    .append('}');
+        }
+        return json.append("]}").toString();
+    }
+
+    /**
+     * Grava a fotografia atual das métricas em um arquivo (JSON se a extensão for .json, texto caso contrário).
+     * O arquivo é substituído de uma vez, então quem o lê nunca vê um conteúdo pela metade.
+     */
+    public static void exportar(Path arquivo) throws IOException {
+        String conteudo = arquivo.getFileName().toString().toLowerCase().endsWith(".json") ? comoJson() : comoTexto();
+        Path temporario = arquivo.resolveSibling(arquivo.getFileName() + ".tmp");
+        Files.writeString(temporario, conteudo, StandardCharsets.UTF_8);
+        Files.move(temporario, arquivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Inicia a exportação periódica se a propriedade metricas.arquivo estiver definida.
+     * Chamadas repetidas não criam outro agendamento.
+     */
+    public static synchronized void iniciarExportacaoPeriodica() {
+        String destino = System.getProperty("metricas.arquivo");
+        if (destino == null || destino.isBlank() || exportador != null) {
+            return;
+        }
+        long intervalo;
+        try {
+            intervalo = Long.parseLong(System.getProperty("metricas.intervalo", "60").trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Valor numérico inválido para metricas.intervalo.");
+        }
+        if (intervalo <= 0) {
+            throw new IllegalArgumentException("metricas.intervalo deve ser positivo.");
+        }
+
+        Path arquivo = Path.of(destino.trim());
+        exportador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "metricas-exportador");
+            t.setDaemon(true);
+            return t;
+        });
+        exportador.scheduleAtFixedRate(() -> {
+            try {
+                exportar(arquivo);
+            } catch (IOException e) {
+                System.err.println("Erro ao exportar métricas para " + arquivo + ": " + e.getMessage());
+            }
+        }, intervalo, intervalo, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Interrompe a exportação periódica, gravando uma última fotografia.
+     */
+    public static synchronized void pararExportacaoPeriodica() {
+        if (exportador == null) {
+            return;
+        }
+        exportador.shutdownNow();
+        exportador = null;
+        try {
+            exportar(Path.of(System.getProperty("metricas.arquivo").trim()));
+        } catch (IOException e) {
+            System.err.println("Erro ao exportar métricas: " + e.getMessage());
+        }
+    }
+}
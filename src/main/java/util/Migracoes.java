@@ -0,0 +1,284 @@
+package util;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Migrações versionadas do esquema do banco de dados.
+ * Cada migração é aplicada uma única vez, em ordem, e registrada na tabela schema_version.
+ * Na inicialização basta ler a versão atual; o DDL só é executado quando há migrações pendentes.
+ * Para evoluir o esquema, adicione uma nova migração ao FINAL da lista (nunca altere as já publicadas).
+ */
+public final class Migracoes {
+
+    /**
+     * Passo executado por uma migração, dentro da transação da própria migração.
+     */
+    @FunctionalInterface
+    interface PassoMigracao {
+        void aplicar(Statement stmt) throws SQLException;
+    }
+
+    /**
+     * Uma migração do esquema.
+     * @param versao Número da versão (sequencial, começando em 1).
+     * @param descricao Descrição curta registrada em schema_version.
+     * @param passo Comandos que levam o esquema da versão anterior para esta.
+     */
+    record Migracao(int versao, String descricao, PassoMigracao passo) {
+    }
+
+    private static final List<Migracao> MIGRACOES = List.of(
+            new Migracao(1, "Esquema inicial (usuario, eventos, participacao)", Migracoes::criarTabelasIniciais),
+            new Migracao(2, "Contador de inscritos em eventos", Migracoes::criarContadorInscritos),
+            new Migracao(3, "Índices das consultas dos DAOs", Migracoes::criarIndices),
+            new Migracao(4, "Índice do catálogo por categoria", Migracoes::criarIndiceCategoria),
+            new Migracao(5, "Busca textual de eventos (FTS5)", Migracoes::criarBuscaTextual),
+            new Migracao(6, "Arquivo de eventos passados", Migracoes::criarArquivo)
+    );
+
+    private Migracoes() {
+    }
+
+    /**
+     * @return A versão mais recente do esquema conhecida pela aplicação.
+     */
+    public static int versaoMaisRecente() {
+        return MIGRACOES.get(MIGRACOES.size() - 1).versao();
+    }
+
+    /**
+     * Aplica as migrações pendentes na conexão informada.
+     * @param conn Conexão com o banco (em modo auto-commit).
+     * @return O número de migrações aplicadas.
+     * @throws SQLException Se alguma migração falhar (a migração com erro é desfeita).
+     */
+    public static int aplicarPendentes(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS schema_version (" +
+                    "versao INTEGER PRIMARY KEY," +
+                    "descricao TEXT NOT NULL," +
+                    "aplicada_em TIMESTAMP NOT NULL" +
+                    ")");
+        }
+
+        int versaoAtual = versaoAtual(conn);
+        int aplicadas = 0;
+
+        for (Migracao migracao : MIGRACOES) {
+            if (migracao.versao() <= versaoAtual) {
+                continue;
+            }
+            aplicar(conn, migracao);
+            aplicadas++;
+            System.out.println("Migração de esquema aplicada: v" + migracao.versao() + " - " + migracao.descricao());
+        }
+        return aplicadas;
+    }
+
+    /**
+     * @return A versão atual registrada em schema_version (0 se nenhuma migração foi aplicada).
+     */
+    public static int versaoAtual(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(versao), 0) FROM schema_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    /**
+     * Aplica uma migração e registra sua versão na mesma transação.
+     */
+    private static void aplicar(Connection conn, Migracao migracao) throws SQLException {
+        conn.setAutoCommit(false);
+        try (Statement stmt = conn.createStatement();
+             PreparedStatement registro = conn.prepareStatement(
+                     "INSERT INTO schema_version (versao, descricao, aplicada_em) VALUES (?, ?, ?)")) {
+
+            migracao.passo().aplicar(stmt);
+
+            registro.setInt(1, migracao.versao());
+            registro.setString(2, migracao.descricao());
+            registro.setTimestamp(3, Timestamp.valueOf(LocalDateTime.now()));
+            registro.executeUpdate();
+
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw new SQLException("Falha na migração v" + migracao.versao() + ": " + e.getMessage(), e);
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    // --- MIGRAÇÕES ---
+
+    /**
+     * v1: tabelas originais do sistema. Usa IF NOT EXISTS porque bancos anteriores ao
+     * controle de versão já possuem essas tabelas.
+     */
+    private static void criarTabelasIniciais(Statement stmt) throws SQLException {
+        // 1. Tabela USUARIO
+        stmt.execute("CREATE TABLE IF NOT EXISTS usuario (" +
+                "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                "nome TEXT NOT NULL," +
+                "email TEXT NOT NULL UNIQUE," +
+                "senha TEXT NOT NULL," + // Senha em texto simples, para simplificar.
+                "is_admin BOOLEAN NOT NULL DEFAULT FALSE" +
+                ")");
+
+        // 2. Tabela EVENTOS
+        stmt.execute("CREATE TABLE IF NOT EXISTS eventos (" +
+                "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                "nome TEXT NOT NULL," +
+                "categoria TEXT NOT NULL," + // Salvo como string (TECNOLOGIA, CULTURA, etc.)
+                "data_hora TIMESTAMP NOT NULL," +
+                "local TEXT NOT NULL," +
+                "capacidade INTEGER NOT NULL," +
+                "organizador_id INTEGER NOT NULL," +
+                "descricao TEXT," +
+                // Chave estrangeira para o organizador. Se o usuário for deletado, seus eventos também são.
+                "FOREIGN KEY (organizador_id) REFERENCES usuario(id) ON DELETE CASCADE" +
+                ")");
+
+        // 3. Tabela PARTICIPACAO (Tabela de Junção/Inscrição)
+        stmt.execute("CREATE TABLE IF NOT EXISTS participacao (" +
+                "usuario_id INTEGER NOT NULL," +
+                "evento_id INTEGER NOT NULL," +
+                "PRIMARY KEY (usuario_id, evento_id)," +
+                // Se o usuário ou o evento for deletado, a inscrição deve ser removida.
+                "FOREIGN KEY (usuario_id) REFERENCES usuario(id) ON DELETE CASCADE," +
+                "FOREIGN KEY (evento_id) REFERENCES eventos(id) ON DELETE CASCADE" +
+                ")");
+    }
+
+    /**
+     * v2: coluna eventos.inscritos e os triggers que a mantêm consistente.
+     * Os triggers também cobrem as remoções em cascata (ex.: ao deletar um usuário).
+     */
+    private static void criarContadorInscritos(Statement stmt) throws SQLException {
+        // Bancos criados logo antes do controle de versão podem já ter a coluna.
+        if (!possuiColuna(stmt, "eventos", "inscritos")) {
+            stmt.execute("ALTER TABLE eventos ADD COLUMN inscritos INTEGER NOT NULL DEFAULT 0");
+        }
+        stmt.execute("UPDATE eventos SET inscritos = " +
+                "(SELECT COUNT(*) FROM participacao p WHERE p.evento_id = eventos.id)");
+
+        stmt.execute("CREATE TRIGGER IF NOT EXISTS trg_participacao_inscritos_insert " +
+                "AFTER INSERT ON participacao BEGIN " +
+                "UPDATE eventos SET inscritos = inscritos + 1 WHERE id = NEW.evento_id; " +
+                "END");
+        stmt.execute("CREATE TRIGGER IF NOT EXISTS trg_participacao_inscritos_delete " +
+                "AFTER DELETE ON participacao BEGIN " +
+                "UPDATE eventos SET inscritos = inscritos - 1 WHERE id = OLD.evento_id; " +
+                "END");
+    }
+
+    /**
+     * v3: índices secundários usados pelas consultas dos DAOs.
+     */
+    private static void criarIndices(Statement stmt) throws SQLException {
+        // Inscrições por evento (a PK (usuario_id, evento_id) não serve para buscas só por evento_id),
+        // usado também pelo ON DELETE CASCADE de eventos.
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_participacao_evento ON participacao (evento_id)");
+        // Listagens ordenadas por data (ORDER BY data_hora, com id como desempate).
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_eventos_data_hora ON eventos (data_hora, id)");
+        // Eventos por organizador, já na ordem de data; usado também pelo ON DELETE CASCADE de usuario.
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_eventos_organizador ON eventos (organizador_id, data_hora)");
+    }
+
+    /**
+     * v4: índice para a paginação do catálogo filtrada por categoria (WHERE categoria = ? ORDER BY data_hora, id).
+     */
+    private static void criarIndiceCategoria(Statement stmt) throws SQLException {
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_eventos_categoria_data ON eventos (categoria, data_hora, id)");
+    }
+
+    /**
+     * v5: índice de texto completo (FTS5) sobre nome, descrição e local dos eventos.
+     * A tabela virtual usa os próprios eventos como conteúdo (content='eventos') e guarda apenas o índice;
+     * os triggers o mantêm sincronizado. O trigger de UPDATE só observa as colunas indexadas, para que
+     * a atualização do contador de inscritos a cada inscrição não reescreva o índice.
+     */
+    private static void criarBuscaTextual(Statement stmt) throws SQLException {
+        // remove_diacritics: "musica" encontra "Música". prefix: buscas por prefixo ("work*") sem varrer o índice.
+        stmt.execute("CREATE VIRTUAL TABLE IF NOT EXISTS eventos_fts USING fts5(" +
+                "nome, descricao, local, content='eventos', content_rowid='id', " +
+                "tokenize='unicode61 remove_diacritics 2', prefix='2 3')");
+        stmt.execute("INSERT INTO eventos_fts (eventos_fts) VALUES ('rebuild')");
+
+        stmt.execute("CREATE TRIGGER IF NOT EXISTS trg_eventos_fts_insert " +
+                "AFTER INSERT ON eventos BEGIN " +
+                "INSERT INTO eventos_fts (rowid, nome, descricao, local) VALUES (NEW.id, NEW.nome, NEW.descricao, NEW.local); " +
+                "END");
+        stmt.execute("CREATE TRIGGER IF NOT EXISTS trg_eventos_fts_delete " +
+                "AFTER DELETE ON eventos BEGIN " +
+                "INSERT INTO eventos_fts (eventos_fts, rowid, nome, descricao, local) " +
+                "VALUES ('delete', OLD.id, OLD.nome, OLD.descricao, OLD.local); " +
+                "END");
+        stmt.execute("CREATE TRIGGER IF NOT EXISTS trg_eventos_fts_update " +
+                "AFTER UPDATE OF nome, descricao, local ON eventos BEGIN " +
+                "INSERT INTO eventos_fts (eventos_fts, rowid, nome, descricao, local) " +
+                "VALUES ('delete', OLD.id, OLD.nome, OLD.descricao, OLD.local); " +
+                "INSERT INTO eventos_fts (rowid, nome, descricao, local) VALUES (NEW.id, NEW.nome, NEW.descricao, NEW.local); " +
+                "END");
+    }
+
+    /**
+     * v6: tabelas de arquivo, para onde o arquivamento move os eventos que já ocorreram (com as inscrições).
+     * Assim eventos e participacao guardam apenas o conjunto "quente" de eventos futuros.
+     * As FKs para usuario mantêm a deleção de conta valendo também para o histórico; não há FK para
+     * eventos_arquivo porque os eventos são movidos em lote, na mesma transação das inscrições.
+     */
+    private static void criarArquivo(Statement stmt) throws SQLException {
+        stmt.execute("CREATE TABLE IF NOT EXISTS eventos_arquivo (" +
+                "id INTEGER PRIMARY KEY," +
+                "nome TEXT NOT NULL," +
+                "categoria TEXT NOT NULL," +
+                "data_hora TIMESTAMP NOT NULL," +
+                "local TEXT NOT NULL," +
+                "capacidade INTEGER NOT NULL," +
+                "organizador_id INTEGER NOT NULL," +
+                "descricao TEXT," +
+                "inscritos INTEGER NOT NULL," +
+                "arquivado_em TIMESTAMP NOT NULL," +
+                "FOREIGN KEY (organizador_id) REFERENCES usuario(id) ON DELETE CASCADE" +
+                ")");
+        // WITHOUT ROWID: a PK (usuario_id, evento_id) já é o índice do histórico por usuário.
+        stmt.execute("CREATE TABLE IF NOT EXISTS participacao_arquivo (" +
+                "usuario_id INTEGER NOT NULL," +
+                "evento_id INTEGER NOT NULL," +
+                "PRIMARY KEY (usuario_id, evento_id)," +
+                "FOREIGN KEY (usuario_id) REFERENCES usuario(id) ON DELETE CASCADE" +
+                ") WITHOUT ROWID");
+        // Histórico paginado por data e deleção em cascata por organizador.
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_eventos_arquivo_data_hora ON eventos_arquivo (data_hora, id)");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_eventos_arquivo_organizador ON eventos_arquivo (organizador_id, data_hora)");
+        // Remove as inscrições arquivadas de um evento arquivado que for removido (ex.: organizador deletado).
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_participacao_arquivo_evento ON participacao_arquivo (evento_id)");
+        stmt.execute("CREATE TRIGGER IF NOT EXISTS trg_eventos_arquivo_delete " +
+                "AFTER DELETE ON eventos_arquivo BEGIN " +
+                "DELETE FROM participacao_arquivo WHERE evento_id = OLD.id; " +
+                "END");
+    }
+
+    /**
+     * Verifica se uma tabela possui a coluna informada.
+     */
+    private static boolean possuiColuna(Statement stmt, String tabela, String coluna) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery("PRAGMA table_info(" + tabela + ")")) {
+            while (rs.next()) {
+                if (coluna.equalsIgnoreCase(rs.getString("name"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,324 @@
+package util;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Monitor de SQL: quando ativo, as conexões entregues pelo {@link DatabaseConnection} são envolvidas
+ * por proxies que registram, para cada SQL, número de execuções, erros, tempo total/máximo e linhas
+ * retornadas ou afetadas. Execuções acima do limite vão para o log de consultas lentas, com os
+ * parâmetros ligados e o plano (EXPLAIN QUERY PLAN) da consulta. Em SQLs com colunas de credenciais,
+ * os textos ligados aparecem só com o tamanho.
+ *
+ * Desativado, o custo é apenas a leitura de um campo volatile por conexão obtida.
+ * Pode ser ligado e desligado em tempo de execução (menu de administrador ou JMX, em
+ * "SistemaEventos:type=MonitorSql"); o estado inicial vem do {@link ConfiguracaoBanco}.
+ */
+public final class MonitorSql {
+
+    // Acima disso, SQLs novos são somados em uma única entrada (ex.: SQL montado com valores literais).
+    private static final int MAXIMO_SQLS = 1000;
+    private static final String SQL_EXCEDENTE = "(demais SQLs)";
+    // SQLs que citam colunas de credenciais (ex.: a senha gravada pelo cadastro de usuários) não têm os
+    // textos ligados copiados para o log de consultas lentas: só o tamanho de cada um.
+    private static final Pattern COLUNAS_SENSIVEIS = Pattern.compile("\\bsenha\\b", Pattern.CASE_INSENSITIVE);
+
+    private static volatile boolean ativo = false;
+    private static volatile long limiteLentaNanos = TimeUnit.MILLISECONDS.toNanos(200);
+    private static volatile Path arquivoLentas = Path.of("consultas-lentas.log");
+
+    private static final Map<String, EstatisticaSql> ESTATISTICAS = new ConcurrentHashMap<>();
+    private static final LongAdder CONSULTAS_LENTAS = new LongAdder();
+    // Serializa a escrita no log, para que entradas de threads diferentes não se misturem.
+    private static final Object LOCK_LOG = new Object();
+
+    static {
+        registrarMBean();
+    }
+
+    private MonitorSql() {
+    }
+
+    /**
+     * Aplica a configuração inicial (db.monitor_sql, db.monitor_sql.lenta_ms, db.monitor_sql.arquivo).
+     */
+    static void configurar(ConfiguracaoBanco config) {
+        limiteLentaNanos = TimeUnit.MILLISECONDS.toNanos(config.getLimiteConsultaLentaMs());
+        arquivoLentas = Path.of(config.getArquivoConsultasLentas());
+        ativo = config.isMonitorSql();
+    }
+
+    public static boolean isAtivo() {
+        return ativo;
+    }
+
+    /**
+     * Liga ou desliga o monitor. Vale para as conexões obtidas a partir de agora.
+     */
+    public static void setAtivo(boolean valor) {
+        ativo = valor;
+    }
+
+    public static long getLimiteLentaMs() {
+        return TimeUnit.NANOSECONDS.toMillis(limiteLentaNanos);
+    }
+
+    public static void setLimiteLentaMs(long limiteMs) {
+        if (limiteMs < 0) {
+            throw new IllegalArgumentException("O limite de consulta lenta não pode ser negativo.");
+        }
+        limiteLentaNanos = TimeUnit.MILLISECONDS.toNanos(limiteMs);
+    }
+
+    public static Path getArquivoConsultasLentas() {
+        return arquivoLentas;
+    }
+
+    public static long getConsultasLentas() {
+        return CONSULTAS_LENTAS.sum();
+    }
+
+    /**
+     * Registra uma execução. Chamado pelos proxies de {@link JdbcMonitorado}.
+     * @param sql SQL executado.
+     * @param parametros Valores ligados, na ordem dos índices.
+     * @param duracaoNanos Duração medida com System.nanoTime() (incluindo a leitura das linhas).
+     * @param linhas Linhas lidas (consultas) ou afetadas (atualizações).
+     * @param erro Se a execução lançou exceção.
+     * @param conn Conexão usada, para obter o plano de uma consulta lenta.
+     */
+    static void registrar(String sql, List<Object> parametros, long duracaoNanos, long linhas, boolean erro,
+                          Connection conn) {
+        if (sql == null) {
+            return;
+        }
+        // Os DAOs usam constantes, então o próprio texto do SQL serve de chave (sem normalizar a cada execução).
+        EstatisticaSql estatistica = ESTATISTICAS.get(sql);
+        if (estatistica == null) {
+            String chave = ESTATISTICAS.size() < MAXIMO_SQLS ? sql : SQL_EXCEDENTE;
+            estatistica = ESTATISTICAS.computeIfAbsent(chave, EstatisticaSql::new);
+        }
+        estatistica.registrar(duracaoNanos, linhas, erro);
+
+        if (duracaoNanos >= limiteLentaNanos) {
+            CONSULTAS_LENTAS.increment();
+            registrarConsultaLenta(estatistica, sql, parametros, duracaoNanos, linhas, erro, conn);
+        }
+    }
+
+    private static void registrarConsultaLenta(EstatisticaSql estatistica, String sql, List<Object> parametros,
+                                               long duracaoNanos, long linhas, boolean erro, Connection conn) {
+        StringBuilder entrada = new StringBuilder();
+        entrada.append("=== ").append(LocalDateTime.now().withNano(0))
+                .append(" | ").append(TimeUnit.NANOSECONDS.toMillis(duracaoNanos)).append(" ms")
+                .append(" | ").append(linhas).append(" linha(s)")
+                .append(erro ? " | ERRO" : "").append(" ===\n");
+        entrada.append("SQL: ").append(normalizar(sql)).append('\n');
+        entrada.append("Parâmetros: ").append(formatarParametros(sql, parametros)).append('\n');
+        entrada.append("Plano:\n");
+        for (String linha : plano(estatistica, sql, conn)) {
+            entrada.append("  ").append(linha).append('\n');
+        }
+        entrada.append('\n');
+
+        synchronized (LOCK_LOG) {
+            try {
+                Files.writeString(arquivoLentas, entrada, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            } catch (IOException e) {
+                System.err.println("Erro ao gravar o log de consultas lentas: " + e.getMessage());
+            }
+        }
+    }
+
+    // O plano é obtido uma vez por SQL (veja VerificadorPlanos.explicar) e reaproveitado nas próximas entradas.
+    private static List<String> plano(EstatisticaSql estatistica, String sql, Connection conn) {
+        List<String> plano = estatistica.plano;
+        if (plano != null) {
+            return plano;
+        }
+        String inicio = sql.stripLeading().toUpperCase();
+        if (!(inicio.startsWith("SELECT") || inicio.startsWith("WITH") || inicio.startsWith("INSERT")
+                || inicio.startsWith("UPDATE") || inicio.startsWith("DELETE"))) {
+            return List.of("(sem plano para este tipo de comando)");
+        }
+        try {
+            plano = List.copyOf(VerificadorPlanos.explicar(conn, sql));
+        } catch (SQLException e) {
+            return List.of("(plano indisponível: " + e.getMessage() + ")");
+        }
+        if (!SQL_EXCEDENTE.equals(estatistica.sql)) {
+            estatistica.plano = plano;
+        }
+        return plano;
+    }
+
+    private static String formatarParametros(String sql, List<Object> parametros) {
+        boolean ocultarTextos = COLUNAS_SENSIVEIS.matcher(sql).find();
+        List<String> valores = new ArrayList<>(parametros.size());
+        for (Object valor : parametros) {
+            if (!(valor instanceof CharSequence texto)) {
+                valores.add(String.valueOf(valor));
+            } else if (ocultarTextos) {
+                valores.add("(texto, " + texto.length() + " caractere(s))");
+            } else {
+                valores.add("'" + texto + "'");
+            }
+        }
+        return valores.toString();
+    }
+
+    // Colapsa espaços e quebras de linha (SQLs em text blocks) para exibir o SQL em uma única linha.
+    private static String normalizar(String sql) {
+        return sql.strip().replaceAll("\\s+", " ");
+    }
+
+    // --- RELATÓRIO ---
+
+    /**
+     * @param quantidade Número máximo de SQLs listados.
+     * @return Tabela com os SQLs de maior tempo total (tempos em ms; SQLs longos são truncados).
+     */
+    public static String relatorio(int quantidade) {
+        List<EstatisticaSql> ordenadas = new ArrayList<>(ESTATISTICAS.values());
+        ordenadas.sort(Comparator.comparingLong(EstatisticaSql::totalNanos).reversed());
+
+        StringBuilder texto = new StringBuilder();
+        texto.append(String.format("Monitor de SQL: %s | consulta lenta a partir de %d ms | consultas lentas: %d"
+                        + " | log: %s%n", ativo ? "ATIVO" : "DESATIVADO", getLimiteLentaMs(), getConsultasLentas(),
+                arquivoLentas));
+        texto.append(String.format("%10s %6s %10s %9s %9s %10s  %s%n",
+                "Execuções", "Erros", "Total", "Média", "Máx", "Linhas", "SQL"));
+        for (EstatisticaSql e : ordenadas.subList(0, Math.min(quantidade, ordenadas.size()))) {
+            long execucoes = e.execucoes.sum();
+            texto.append(String.format("%10d %6d %10.1f %9.2f %9.1f %10d  %s%n", execucoes, e.erros.sum(),
+                    e.totalNanos() / 1e6, execucoes == 0 ? 0.0 : e.totalNanos() / 1e6 / execucoes,
+                    e.maximoNanos.get() / 1e6, e.linhas.sum(), truncar(normalizar(e.sql), 90)));
+        }
+        return texto.toString();
+    }
+
+    /**
+     * Descarta as estatísticas por SQL e o contador de consultas lentas (o arquivo de log é mantido).
+     */
+    public static void zerar() {
+        ESTATISTICAS.clear();
+        CONSULTAS_LENTAS.reset();
+    }
+
+    private static String truncar(String texto, int tamanho) {
+        return texto.length() <= tamanho ? texto : texto.substring(0, tamanho - 3) + "...";
+    }
+
+    private static void registrarMBean() {
+        try {
+            MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objeto = new ObjectName("SistemaEventos:type=MonitorSql");
+            if (!servidor.isRegistered(objeto)) {
+                servidor.registerMBean(new StandardMBean(new Controle(), MonitorSqlMBean.class), objeto);
+            }
+        } catch (JMException e) {
+            // O monitor continua funcionando; apenas não pode ser controlado pelo JMX.
+            System.err.println("Erro ao registrar o monitor de SQL no JMX: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Estatísticas acumuladas de um SQL.
+     */
+    private static final class EstatisticaSql {
+        final String sql;
+        final LongAdder execucoes = new LongAdder();
+        final LongAdder erros = new LongAdder();
+        final LongAdder somaNanos = new LongAdder();
+        final LongAdder linhas = new LongAdder();
+        final AtomicLong maximoNanos = new AtomicLong();
+        volatile List<String> plano;
+
+        EstatisticaSql(String sql) {
+            this.sql = sql;
+        }
+
+        void registrar(long duracaoNanos, long linhasLidas, boolean erro) {
+            execucoes.increment();
+            if (erro) {
+                erros.increment();
+            }
+            somaNanos.add(duracaoNanos);
+            linhas.add(linhasLidas);
+            if (duracaoNanos > maximoNanos.get()) {
+                maximoNanos.accumulateAndGet(duracaoNanos, Math::max);
+            }
+        }
+
+        long totalNanos() {
+            return somaNanos.sum();
+        }
+    }
+
+    /**
+     * Controle do monitor exposto no JMX.
+     */
+    private static final class Controle implements MonitorSqlMBean {
+
+        @Override
+        public boolean isAtivo() {
+            return MonitorSql.isAtivo();
+        }
+
+        @Override
+        public void setAtivo(boolean valor) {
+            MonitorSql.setAtivo(valor);
+        }
+
+        @Override
+        public long getLimiteLentaMs() {
+            return MonitorSql.getLimiteLentaMs();
+        }
+
+        @Override
+        public void setLimiteLentaMs(long limiteMs) {
+            MonitorSql.setLimiteLentaMs(limiteMs);
+        }
+
+        @Override
+        public String getArquivoConsultasLentas() {
+            return MonitorSql.getArquivoConsultasLentas().toString();
+        }
+
+        @Override
+        public long getConsultasLentas() {
+            return MonitorSql.getConsultasLentas();
+        }
+
+        @Override
+        public String relatorio(int quantidade) {
+            return MonitorSql.relatorio(quantidade);
+        }
+
+        @Override
+        public void zerar() {
+            MonitorSql.zerar();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package util;
+
+/**
+ * Interface JMX (Standard MBean) de controle do {@link MonitorSql}.
+ */
+public interface MonitorSqlMBean {
+
+    boolean isAtivo();
+
+    void setAtivo(boolean ativo);
+
+    long getLimiteLentaMs();
+
+    void setLimiteLentaMs(long limiteMs);
+
+    String getArquivoConsultasLentas();
+
+    long getConsultasLentas();
+
+    /**
+     * @return Relatório com os SQLs de maior tempo total.
+     */
+    String relatorio(int quantidade);
+
+    /**
+     * Descarta as estatísticas acumuladas por SQL.
+     */
+    void zerar();
+}
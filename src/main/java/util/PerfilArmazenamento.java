@@ -0,0 +1,66 @@
+package util;
+
+/**
+ * Perfis de durabilidade/desempenho do SQLite, aplicados em cada conexão do pool.
+ * Todos usam journal_mode=WAL, que permite leituras (listagens) em paralelo com a escrita
+ * (inscrições); o que muda é a garantia de durabilidade e o uso de memória.
+ */
+public enum PerfilArmazenamento {
+    // Cada commit é sincronizado em disco (nenhuma transação confirmada é perdida, nem em queda de energia).
+    DURAVEL("Durável", "WAL", "FULL", 0L, -2_000, "DEFAULT"),
+    // Sincroniza apenas nos checkpoints do WAL: seguro contra falhas da aplicação; em queda de energia
+    // as últimas transações podem ser perdidas, mas o banco nunca fica corrompido.
+    EQUILIBRADO("Equilibrado", "WAL", "NORMAL", 64L * 1024 * 1024, -16_000, "DEFAULT"),
+    // Sem sincronização: máximo desempenho (cargas, testes de carga); uma queda do sistema pode perder dados.
+    DESEMPENHO("Desempenho", "WAL", "OFF", 256L * 1024 * 1024, -64_000, "MEMORY");
+
+    private final String descricao;
+    private final String journalMode;
+    private final String synchronous;
+    private final long mmapSize;
+    private final int cacheSize;
+    private final String tempStore;
+
+    PerfilArmazenamento(String descricao, String journalMode, String synchronous, long mmapSize, int cacheSize,
+                        String tempStore) {
+        this.descricao = descricao;
+        this.journalMode = journalMode;
+        this.synchronous = synchronous;
+        this.mmapSize = mmapSize;
+        this.cacheSize = cacheSize;
+        this.tempStore = tempStore;
+    }
+
+    /**
+     * Retorna a descrição amigável do perfil para exibição.
+     */
+    public String getDescricao() {
+        return descricao;
+    }
+
+    public String getJournalMode() {
+        return journalMode;
+    }
+
+    public String getSynchronous() {
+        return synchronous;
+    }
+
+    /**
+     * @return Tamanho do mapeamento em memória do arquivo, em bytes (0 desativa).
+     */
+    public long getMmapSize() {
+        return mmapSize;
+    }
+
+    /**
+     * @return Valor de PRAGMA cache_size (negativo = tamanho em KiB).
+     */
+    public int getCacheSize() {
+        return cacheSize;
+    }
+
+    public String getTempStore() {
+        return tempStore;
+    }
+}
@@ -0,0 +1,276 @@
+package util;
+
+import dao.InscricaoDAO;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ferramenta de linha de comando que move eventos (com as inscrições e o arquivo) para o shard
+ * indicado pelo ID, depois de aumentar db.shards (ex.: de um arquivo único para quatro).
+ * Novos arquivos de shard são criados e recebem o esquema e a cópia dos usuários.
+ *
+ * Execute com a aplicação parada: os eventos são copiados para o shard de destino (uma transação por
+ * par de shards) e só então removidos da origem, apenas os que têm cópia idêntica no destino. Se a
+ * execução for interrompida, basta executá-la de novo: as cópias já feitas são reconhecidas. Se o
+ * destino já tiver outro evento com o mesmo ID, nada é copiado e a ferramenta para com erro, sem
+ * remover nada da origem. No final os contadores de inscritos são recalculados.
+ * Para diminuir db.shards, exporte e importe os dados (não suportado por esta ferramenta).
+ *
+ * Execução: mvn compile exec:java -Dexec.mainClass=util.RebalanceadorShards -Ddb.shards=4
+ */
+public final class RebalanceadorShards {
+
+    private static final String COLUNAS_EVENTO = "id, nome, categoria, data_hora, local, capacidade, organizador_id, descricao";
+    private static final String COLUNAS_ARQUIVO = COLUNAS_EVENTO + ", inscritos, arquivado_em";
+
+    // Mesmo evento nas duas cópias (d = destino, o = origem): todas as colunas iguais.
+    private static final String MESMO_EVENTO = "d.nome IS o.nome AND d.categoria IS o.categoria " +
+            "AND d.data_hora IS o.data_hora AND d.local IS o.local AND d.capacidade IS o.capacidade " +
+            "AND d.organizador_id IS o.organizador_id AND d.descricao IS o.descricao";
+
+    // IDs da origem que o destino já usa para outro evento (ativo ou arquivado). Copiá-los misturaria
+    // dois eventos diferentes (e as inscrições de um iriam para o outro).
+    private static final String SQL_CONFLITOS = "SELECT o.id FROM origem.eventos o JOIN eventos d ON d.id = o.id " +
+            "WHERE o.id % ?1 = ?2 AND NOT (" + MESMO_EVENTO + ") " +
+            "UNION ALL SELECT o.id FROM origem.eventos o JOIN eventos_arquivo d ON d.id = o.id WHERE o.id % ?1 = ?2 " +
+            "UNION ALL SELECT o.id FROM origem.eventos_arquivo o JOIN eventos_arquivo d ON d.id = o.id " +
+            "WHERE o.id % ?1 = ?2 AND NOT (" + MESMO_EVENTO + ") " +
+            "UNION ALL SELECT o.id FROM origem.eventos_arquivo o JOIN eventos d ON d.id = o.id WHERE o.id % ?1 = ?2 " +
+            "ORDER BY 1 LIMIT 10";
+
+    // Cópia para o shard de destino (conexão do destino, com a origem anexada como "origem"). Sem
+    // conflitos, um ID já presente no destino é uma cópia idêntica de uma execução interrompida.
+    // O contador de inscritos começa em 0 e é recalculado pelos triggers ao copiar as inscrições.
+    private static final String SQL_COPIAR_EVENTOS = "INSERT OR IGNORE INTO eventos (" + COLUNAS_EVENTO + ") " +
+            "SELECT " + COLUNAS_EVENTO + " FROM origem.eventos WHERE id % ? = ?";
+    private static final String SQL_COPIAR_PARTICIPACOES = "INSERT OR IGNORE INTO participacao (usuario_id, evento_id) " +
+            "SELECT usuario_id, evento_id FROM origem.participacao WHERE evento_id % ? = ?";
+    private static final String SQL_COPIAR_ARQUIVO = "INSERT OR IGNORE INTO eventos_arquivo (" + COLUNAS_ARQUIVO + ") " +
+            "SELECT " + COLUNAS_ARQUIVO + " FROM origem.eventos_arquivo WHERE id % ? = ?";
+    private static final String SQL_COPIAR_PARTICIPACOES_ARQUIVO = "INSERT OR IGNORE INTO participacao_arquivo (usuario_id, evento_id) " +
+            "SELECT usuario_id, evento_id FROM origem.participacao_arquivo WHERE evento_id % ? = ?";
+    // Remoção na origem, só dos eventos com cópia idêntica no destino: inscrições e índice de busca
+    // saem pelos triggers e pela cascata.
+    private static final String SQL_REMOVER_EVENTOS = "DELETE FROM origem.eventos AS o WHERE o.id % ? = ? " +
+            "AND EXISTS (SELECT 1 FROM eventos d WHERE d.id = o.id AND " + MESMO_EVENTO + ")";
+    private static final String SQL_REMOVER_ARQUIVO = "DELETE FROM origem.eventos_arquivo AS o WHERE o.id % ? = ? " +
+            "AND EXISTS (SELECT 1 FROM eventos_arquivo d WHERE d.id = o.id AND " + MESMO_EVENTO + ")";
+
+    // Próximo ID de evento de cada shard acima do maior ID já usado em qualquer shard (inclusive os
+    // arquivados, que não contam para o AUTOINCREMENT da tabela eventos).
+    private static final String SQL_MAIOR_ID_EVENTO = "SELECT MAX(" +
+            "COALESCE((SELECT seq FROM sqlite_sequence WHERE name = 'eventos'), 0), " +
+            "COALESCE((SELECT MAX(id) FROM eventos), 0), COALESCE((SELECT MAX(id) FROM eventos_arquivo), 0))";
+    private static final String SQL_CRIAR_SEQUENCIA = "INSERT INTO sqlite_sequence (name, seq) SELECT 'eventos', 0 " +
+            "WHERE NOT EXISTS (SELECT 1 FROM sqlite_sequence WHERE name = 'eventos')";
+    private static final String SQL_AJUSTAR_SEQUENCIA = "UPDATE sqlite_sequence SET seq = MAX(seq, ?) WHERE name = 'eventos'";
+
+    private static final String SQL_CONTAR_FORA_DO_SHARD = "SELECT (SELECT COUNT(*) FROM eventos WHERE id % ? <> ?) + " +
+            "(SELECT COUNT(*) FROM eventos_arquivo WHERE id % ? <> ?)";
+    private static final String SQL_RESUMO_SHARD = "SELECT (SELECT COUNT(*) FROM usuario), (SELECT COUNT(*) FROM eventos), " +
+            "(SELECT COUNT(*) FROM participacao), (SELECT COUNT(*) FROM eventos_arquivo)";
+
+    private RebalanceadorShards() {
+    }
+
+    public static void main(String[] args) {
+        // Aplica as migrações em todos os shards (criando os arquivos novos) e sincroniza os usuários.
+        DatabaseConnection.initializeDatabase();
+        try {
+            int quantidade = RoteadorShards.quantidade();
+            if (quantidade == 1) {
+                System.out.println("db.shards = 1: nada a rebalancear.");
+                return;
+            }
+            if (!ReplicacaoUsuarios.copiasIguais() && !ReplicacaoUsuarios.sincronizar()) {
+                System.out.println("Erro: não foi possível sincronizar os usuários entre os shards.");
+                System.exit(1);
+            }
+
+            long inicio = System.nanoTime();
+            long movidos = 0;
+            for (int origem = 0; origem < quantidade; origem++) {
+                for (int destino = 0; destino < quantidade; destino++) {
+                    if (destino != origem) {
+                        movidos += mover(origem, destino, quantidade);
+                    }
+                }
+            }
+            int corrigidos = new InscricaoDAO().repararContadoresInscritos();
+
+            System.out.printf("%nEventos movidos: %d | Contadores de inscritos corrigidos: %d | Tempo: %.1f s%n",
+                    movidos, corrigidos, (System.nanoTime() - inicio) / 1e9);
+            imprimirResumo(quantidade);
+        } catch (SQLException e) {
+            System.out.println("Erro no rebalanceamento: " + e.getMessage()
+                    + "\nOs eventos já copiados foram mantidos; execute novamente para continuar.");
+            System.exit(1);
+        } finally {
+            DatabaseConnection.fecharPool();
+        }
+    }
+
+    /**
+     * Move da origem para o destino os eventos (ativos e arquivados) cujo ID pertence ao destino.
+     * @return Número de eventos ativos e arquivados copiados.
+     */
+    private static long mover(int origem, int destino, int quantidade) throws SQLException {
+        String arquivoOrigem = DatabaseConnection.getConfiguracao().getArquivoShard(origem);
+        try (Connection conn = DatabaseConnection.getConnection(destino)) {
+            ReplicacaoUsuarios.anexar(conn, arquivoOrigem, "origem");
+            try {
+                long copiados;
+                conn.setAutoCommit(false);
+                try {
+                    verificarConflitos(conn, origem, destino, quantidade);
+                    copiados = executar(conn, SQL_COPIAR_EVENTOS, quantidade, destino);
+                    executar(conn, SQL_COPIAR_PARTICIPACOES, quantidade, destino);
+                    copiados += executar(conn, SQL_COPIAR_ARQUIVO, quantidade, destino);
+                    executar(conn, SQL_COPIAR_PARTICIPACOES_ARQUIVO, quantidade, destino);
+                    conn.commit();
+
+                    // Só remove da origem depois que a cópia foi gravada no destino.
+                    executar(conn, SQL_REMOVER_EVENTOS, quantidade, destino);
+                    executar(conn, SQL_REMOVER_ARQUIVO, quantidade, destino);
+                    conn.commit();
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                } finally {
+                    conn.setAutoCommit(true);
+                }
+                if (copiados > 0) {
+                    System.out.println("Shard " + origem + " -> shard " + destino + ": " + copiados + " evento(s).");
+                }
+                return copiados;
+            } finally {
+                ReplicacaoUsuarios.desanexar(conn, "origem");
+            }
+        }
+    }
+
+    /**
+     * Interrompe o rebalanceamento se algum evento da origem tiver o ID de outro evento do destino
+     * (por exemplo, criado depois de aumentar db.shards e antes de rebalancear).
+     * @throws SQLException Com os primeiros IDs em conflito; nada foi copiado nem removido neste par.
+     */
+    private static void verificarConflitos(Connection conn, int origem, int destino, int quantidade) throws SQLException {
+        List<Integer> conflitos = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement(SQL_CONFLITOS)) {
+            stmt.setInt(1, quantidade);
+            stmt.setInt(2, destino);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    conflitos.add(rs.getInt(1));
+                }
+            }
+        }
+        if (!conflitos.isEmpty()) {
+            throw new SQLException("O shard " + destino + " já tem outros eventos com IDs do shard " + origem
+                    + " (ex.: " + conflitos + "). Renumere ou remova esses eventos antes de rebalancear.");
+        }
+    }
+
+    private static int executar(Connection conn, String sql, int quantidade, int destino) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, quantidade);
+            stmt.setInt(2, destino);
+            return stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Conta os eventos (ativos e arquivados) que não estão no shard indicado pelo próprio ID, como
+     * acontece depois de aumentar db.shards sem executar esta ferramenta.
+     * @return Número de eventos fora do lugar, ou -1 em caso de erro.
+     */
+    public static long contarEventosForaDoShard() {
+        int quantidade = RoteadorShards.quantidade();
+        if (quantidade == 1) {
+            return 0;
+        }
+        try {
+            long total = 0;
+            for (long foraDoLugar : RoteadorShards.emCadaShard((conn, shard) -> {
+                try (PreparedStatement stmt = conn.prepareStatement(SQL_CONTAR_FORA_DO_SHARD)) {
+                    stmt.setInt(1, quantidade);
+                    stmt.setInt(2, shard);
+                    stmt.setInt(3, quantidade);
+                    stmt.setInt(4, shard);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        return rs.next() ? rs.getLong(1) : 0L;
+                    }
+                }
+            })) {
+                total += foraDoLugar;
+            }
+            return total;
+        } catch (SQLException e) {
+            System.err.println("Erro ao verificar a distribuição dos eventos entre os shards: " + e.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * Ajusta a sequência de IDs de eventos de todos os shards para acima do maior ID já usado em
+     * qualquer um deles. Sem isso, um shard novo (criado ao aumentar db.shards) começaria do zero e
+     * repetiria IDs de eventos que ainda estão em outro shard.
+     * @return false em caso de erro.
+     */
+    public static boolean alinharSequenciasEventos() {
+        if (RoteadorShards.quantidade() == 1) {
+            return true;
+        }
+        try {
+            long maior = 0;
+            for (long maiorDoShard : RoteadorShards.emCadaShard((conn, shard) -> {
+                try (Statement stmt = conn.createStatement();
+                     ResultSet rs = stmt.executeQuery(SQL_MAIOR_ID_EVENTO)) {
+                    return rs.next() ? rs.getLong(1) : 0L;
+                }
+            })) {
+                maior = Math.max(maior, maiorDoShard);
+            }
+            long seq = maior;
+            RoteadorShards.emCadaShard((conn, shard) -> {
+                conn.setAutoCommit(false);
+                try (Statement stmt = conn.createStatement();
+                     PreparedStatement ajustar = conn.prepareStatement(SQL_AJUSTAR_SEQUENCIA)) {
+                    stmt.executeUpdate(SQL_CRIAR_SEQUENCIA);
+                    ajustar.setLong(1, seq);
+                    ajustar.executeUpdate();
+                    conn.commit();
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                } finally {
+                    conn.setAutoCommit(true);
+                }
+                return null;
+            });
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Erro ao ajustar a sequência de IDs de eventos dos shards: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static void imprimirResumo(int quantidade) throws SQLException {
+        System.out.println("\nShard | Usuários | Eventos | Inscrições | Arquivados | Arquivo");
+        for (int shard = 0; shard < quantidade; shard++) {
+            try (Connection conn = DatabaseConnection.getConnection(shard);
+                 Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery(SQL_RESUMO_SHARD)) {
+                rs.next();
+                System.out.printf("%5d | %8d | %7d | %10d | %10d | %s%n", shard, rs.getLong(1), rs.getLong(2),
+                        rs.getLong(3), rs.getLong(4), DatabaseConnection.getConfiguracao().getArquivoShard(shard));
+            }
+        }
+    }
+}
@@ -0,0 +1,339 @@
+package util;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Replicação da tabela de usuários entre os shards ({@link RoteadorShards}). O shard 0 é a cópia
+ * principal: cadastro, deleção e alteração de usuários são gravados nele e depois copiados para os
+ * demais, que só recebem usuários por aqui. Com as cópias, as chaves estrangeiras (organizador,
+ * participante) e os JOINs com o nome do usuário continuam locais a cada shard; deletar o usuário
+ * na cópia remove em cascata os eventos e inscrições dele naquele shard.
+ *
+ * Replicações do mesmo usuário são serializadas (travas por faixa de ID): cada uma lê o estado atual
+ * no shard 0 e grava nas cópias, então a última a executar deixa as cópias com o estado mais recente.
+ * Uma replicação que falha é repetida algumas vezes; se continuar falhando, os IDs ficam pendentes e
+ * são reenviados junto com a próxima replicação. Se a aplicação for encerrada antes disso, a próxima
+ * inicialização compara as cópias com a principal e chama {@link #sincronizar()}.
+ *
+ * Com db.shards = 1 todos os métodos retornam sem acessar o banco.
+ */
+@SuppressWarnings("try")
+public final class ReplicacaoUsuarios {
+
+    private static final MetricaOperacao METRICA_REPLICAR = Metricas.operacao("ReplicacaoUsuarios.replicar");
+    private static final MetricaOperacao METRICA_SINCRONIZAR = Metricas.operacao("ReplicacaoUsuarios.sincronizar");
+
+    // Tentativas de cada replicação antes de deixar os IDs pendentes, e a espera entre elas.
+    private static final int TENTATIVAS = 3;
+    private static final long ESPERA_ENTRE_TENTATIVAS_MS = 50;
+    // Travas por faixa de ID (id % TRAVAS.length), sempre adquiridas em ordem crescente.
+    private static final ReentrantLock[] TRAVAS = new ReentrantLock[64];
+    // IDs cuja replicação falhou; reenviados com a próxima replicação ou corrigidos pela sincronização.
+    private static final Set<Integer> PENDENTES = ConcurrentHashMap.newKeySet();
+
+    // As listas de IDs e e-mails são passadas como um array JSON (json_each), como na inscrição em grupo.
+    private static final String SQL_LER_POR_ID = "SELECT id, nome, email, senha, is_admin FROM usuario " +
+            "WHERE id IN (SELECT value FROM json_each(?))";
+    private static final String SQL_IDS_POR_EMAIL = "SELECT id FROM usuario WHERE email IN (SELECT value FROM json_each(?))";
+    // Um e-mail pode ter passado para outro ID (usuário deletado e cadastrado de novo): a cópia antiga sai antes.
+    private static final String SQL_REMOVER_EMAIL_REUTILIZADO = "DELETE FROM usuario WHERE email = ? AND id <> ?";
+    private static final String SQL_GRAVAR = "INSERT INTO usuario (id, nome, email, senha, is_admin) VALUES (?, ?, ?, ?, ?) " +
+            "ON CONFLICT(id) DO UPDATE SET nome = excluded.nome, email = excluded.email, senha = excluded.senha, " +
+            "is_admin = excluded.is_admin";
+    private static final String SQL_REMOVER = "DELETE FROM usuario WHERE id = ?";
+
+    // Sincronização completa, com o arquivo do shard 0 anexado à conexão da cópia.
+    private static final String SQL_SINCRONIZAR_REMOVIDOS = "DELETE FROM usuario WHERE id NOT IN (SELECT id FROM principal.usuario)";
+    private static final String SQL_SINCRONIZAR_EMAILS = "DELETE FROM usuario WHERE EXISTS (SELECT 1 FROM principal.usuario p " +
+            "WHERE p.email = usuario.email AND p.id <> usuario.id)";
+    // O WHERE true evita a ambiguidade do ON CONFLICT depois de um SELECT (exigência da sintaxe de UPSERT do SQLite).
+    private static final String SQL_SINCRONIZAR_GRAVAR = "INSERT INTO usuario (id, nome, email, senha, is_admin) " +
+            "SELECT id, nome, email, senha, is_admin FROM principal.usuario WHERE true " +
+            "ON CONFLICT(id) DO UPDATE SET nome = excluded.nome, email = excluded.email, senha = excluded.senha, " +
+            "is_admin = excluded.is_admin";
+    // Resumo da tabela, usado para detectar cópias diferentes da principal.
+    private static final String SQL_RESUMO = "SELECT COUNT(*), COALESCE(MAX(id), 0), COALESCE(SUM(is_admin), 0), " +
+            "COALESCE(SUM(id * length(nome || email || senha)), 0) FROM usuario";
+
+    /**
+     * Linha da tabela usuario.
+     */
+    private record LinhaUsuario(int id, String nome, String email, String senha, boolean isAdmin) {
+    }
+
+    static {
+        for (int i = 0; i < TRAVAS.length; i++) {
+            TRAVAS[i] = new ReentrantLock();
+        }
+        // Os IDs pendentes se referem ao banco atual.
+        DatabaseConnection.aoFecharPool(PENDENTES::clear);
+    }
+
+    private ReplicacaoUsuarios() {
+    }
+
+    /**
+     * Copia o estado atual dos usuários informados (e dos pendentes de replicações anteriores) do
+     * shard 0 para os demais: grava os que existem no shard 0 e remove das cópias os que não existem
+     * mais (junto com os eventos e inscrições deles). Em caso de falha, tenta de novo algumas vezes.
+     * @param ids IDs dos usuários alterados.
+     * @return true se todas as cópias foram atualizadas; false se os IDs ficaram pendentes.
+     */
+    public static boolean replicar(List<Integer> ids) {
+        if (RoteadorShards.quantidade() == 1 || ids.isEmpty()) {
+            return true;
+        }
+        TreeSet<Integer> alterados = new TreeSet<>(ids);
+        alterados.addAll(PENDENTES);
+        List<ReentrantLock> travas = travas(alterados);
+        travas.forEach(ReentrantLock::lock);
+        try {
+            SQLException falha = null;
+            for (int tentativa = 1; tentativa <= TENTATIVAS; tentativa++) {
+                try {
+                    replicarUmaVez(alterados);
+                    PENDENTES.removeAll(alterados);
+                    return true;
+                } catch (SQLException e) {
+                    falha = e;
+                }
+                if (tentativa < TENTATIVAS && !esperar(ESPERA_ENTRE_TENTATIVAS_MS * tentativa)) {
+                    break;
+                }
+            }
+            PENDENTES.addAll(alterados);
+            System.err.println("Erro ao replicar usuários entre os shards: " + falha.getMessage()
+                    + " (IDs pendentes: " + alterados + ")");
+            return false;
+        } finally {
+            for (int i = travas.size() - 1; i >= 0; i--) {
+                travas.get(i).unlock();
+            }
+        }
+    }
+
+    /**
+     * Copia para os demais shards os usuários com os e-mails informados (ex.: depois de uma importação,
+     * quando os IDs gerados não são conhecidos). E-mails que não existem no shard 0 são ignorados.
+     * @return true se todas as cópias foram atualizadas.
+     */
+    public static boolean replicarPorEmails(List<String> emails) {
+        if (RoteadorShards.quantidade() == 1 || emails.isEmpty()) {
+            return true;
+        }
+        String emailsJson = emails.stream().map(Json::texto).collect(Collectors.joining(",", "[", "]"));
+        List<Integer> ids = new ArrayList<>();
+        try (Connection conn = DatabaseConnection.getConnection(0);
+             PreparedStatement stmt = conn.prepareStatement(SQL_IDS_POR_EMAIL)) {
+            stmt.setString(1, emailsJson);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getInt(1));
+                }
+            }
+        } catch (SQLException e) {
+            METRICA_REPLICAR.registrarErro();
+            System.err.println("Erro ao replicar usuários entre os shards: " + e.getMessage());
+            return false;
+        }
+        return replicar(ids);
+    }
+
+    private static void replicarUmaVez(Set<Integer> ids) throws SQLException {
+        try (MetricaOperacao.Medicao medicao = METRICA_REPLICAR.iniciar()) {
+            String idsJson = ids.stream().map(String::valueOf).collect(Collectors.joining(",", "[", "]"));
+            Map<Integer, LinhaUsuario> linhas = new LinkedHashMap<>();
+            try (Connection conn = DatabaseConnection.getConnection(0);
+                 PreparedStatement stmt = conn.prepareStatement(SQL_LER_POR_ID)) {
+                stmt.setString(1, idsJson);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        linhas.put(rs.getInt("id"), new LinhaUsuario(rs.getInt("id"), rs.getString("nome"),
+                                rs.getString("email"), rs.getString("senha"), rs.getBoolean("is_admin")));
+                    }
+                }
+            }
+            List<Integer> removidos = new ArrayList<>();
+            for (Integer id : ids) {
+                if (!linhas.containsKey(id)) {
+                    removidos.add(id);
+                }
+            }
+
+            List<Integer> copias = RoteadorShards.todos().subList(1, RoteadorShards.quantidade());
+            RoteadorShards.emParalelo(copias, shard -> {
+                gravarNaCopia(shard, linhas.values(), removidos);
+                return null;
+            });
+        } catch (SQLException e) {
+            METRICA_REPLICAR.registrarErro();
+            throw e;
+        }
+    }
+
+    /**
+     * @return As travas das faixas dos IDs, sem repetição e em ordem crescente (evita deadlock entre replicações).
+     */
+    private static List<ReentrantLock> travas(Set<Integer> ids) {
+        TreeSet<Integer> faixas = new TreeSet<>();
+        for (Integer id : ids) {
+            faixas.add(Math.floorMod(id, TRAVAS.length));
+        }
+        List<ReentrantLock> travas = new ArrayList<>(faixas.size());
+        for (Integer faixa : faixas) {
+            travas.add(TRAVAS[faixa]);
+        }
+        return travas;
+    }
+
+    /**
+     * @return false se a thread foi interrompida durante a espera.
+     */
+    private static boolean esperar(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static void gravarNaCopia(int shard, Iterable<LinhaUsuario> linhas, List<Integer> removidos) throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection(shard)) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement emailReutilizado = conn.prepareStatement(SQL_REMOVER_EMAIL_REUTILIZADO);
+                 PreparedStatement gravar = conn.prepareStatement(SQL_GRAVAR);
+                 PreparedStatement remover = conn.prepareStatement(SQL_REMOVER)) {
+                for (Integer id : removidos) {
+                    remover.setInt(1, id);
+                    remover.executeUpdate();
+                }
+                for (LinhaUsuario linha : linhas) {
+                    emailReutilizado.setString(1, linha.email());
+                    emailReutilizado.setInt(2, linha.id());
+                    emailReutilizado.executeUpdate();
+
+                    gravar.setInt(1, linha.id());
+                    gravar.setString(2, linha.nome());
+                    gravar.setString(3, linha.email());
+                    gravar.setString(4, linha.senha());
+                    gravar.setBoolean(5, linha.isAdmin());
+                    gravar.executeUpdate();
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Torna cada cópia igual à tabela de usuários do shard 0 (remove, corrige e insere o que for
+     * necessário). Usado na inicialização e pelo {@link RebalanceadorShards}.
+     * @return true se todas as cópias foram sincronizadas.
+     */
+    public static boolean sincronizar() {
+        if (RoteadorShards.quantidade() == 1) {
+            return true;
+        }
+        String principal = DatabaseConnection.getConfiguracao().getArquivoShard(0);
+        // A sincronização copia a tabela inteira: os IDs pendentes até aqui ficam resolvidos.
+        List<Integer> pendentes = new ArrayList<>(PENDENTES);
+        try (MetricaOperacao.Medicao medicao = METRICA_SINCRONIZAR.iniciar()) {
+            List<Integer> copias = RoteadorShards.todos().subList(1, RoteadorShards.quantidade());
+            RoteadorShards.emParalelo(copias, shard -> {
+                try (Connection conn = DatabaseConnection.getConnection(shard)) {
+                    anexar(conn, principal, "principal");
+                    try (Statement stmt = conn.createStatement()) {
+                        conn.setAutoCommit(false);
+                        try {
+                            stmt.executeUpdate(SQL_SINCRONIZAR_REMOVIDOS);
+                            stmt.executeUpdate(SQL_SINCRONIZAR_EMAILS);
+                            stmt.executeUpdate(SQL_SINCRONIZAR_GRAVAR);
+                            conn.commit();
+                        } catch (SQLException e) {
+                            conn.rollback();
+                            throw e;
+                        } finally {
+                            conn.setAutoCommit(true);
+                        }
+                    } finally {
+                        desanexar(conn, "principal");
+                    }
+                }
+                return null;
+            });
+            PENDENTES.removeAll(pendentes);
+            return true;
+        } catch (SQLException e) {
+            METRICA_SINCRONIZAR.registrarErro();
+            System.err.println("Erro ao sincronizar usuários entre os shards: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Compara um resumo (quantidade, maior ID, administradores e uma soma dos dados) da tabela de
+     * usuários de cada shard com o do shard 0.
+     * @return true se todas as cópias têm o mesmo resumo da principal (ou se houver um único shard).
+     */
+    public static boolean copiasIguais() {
+        if (RoteadorShards.quantidade() == 1) {
+            return true;
+        }
+        try {
+            List<List<Long>> resumos = RoteadorShards.emCadaShard((conn, shard) -> {
+                try (Statement stmt = conn.createStatement();
+                     ResultSet rs = stmt.executeQuery(SQL_RESUMO)) {
+                    rs.next();
+                    return List.of(rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getLong(4));
+                }
+            });
+            for (List<Long> resumo : resumos) {
+                if (!Objects.equals(resumo, resumos.get(0))) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Erro ao comparar usuários entre os shards: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Anexa outro arquivo de banco à conexão (ATTACH), fora de transação. Desanexe antes de devolver a conexão ao pool.
+     */
+    static void anexar(Connection conn, String arquivo, String apelido) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("ATTACH DATABASE ? AS " + apelido)) {
+            stmt.setString(1, arquivo);
+            stmt.execute();
+        }
+    }
+
+    static void desanexar(Connection conn, String apelido) {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("DETACH DATABASE " + apelido);
+        } catch (SQLException e) {
+            System.err.println("Erro ao desanexar banco " + apelido + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,322 @@
+package util;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Divisão horizontal (sharding) dos eventos e inscrições entre vários arquivos SQLite (db.shards,
+ * veja {@link ConfiguracaoBanco}). Cada arquivo tem o próprio lock de escrita e o próprio WAL, então
+ * inscrições em eventos de shards diferentes não disputam o mesmo lock.
+ *
+ * Regras:
+ * <ul>
+ *   <li>O evento fica no shard {@code id % db.shards}. Os IDs de novos eventos são gerados com esse
+ *       passo em cada shard (veja EventoDAO), então o shard sai do próprio ID, sem tabela de roteamento.</li>
+ *   <li>As inscrições (e o arquivo de eventos passados) ficam no shard do evento: inscrição, cancelamento
+ *       e contador de inscritos continuam sendo uma transação local de um único arquivo.</li>
+ *   <li>Os usuários são replicados em todos os shards, com o shard 0 como cópia principal
+ *       ({@link ReplicacaoUsuarios}), para que as chaves estrangeiras e os JOINs continuem locais.</li>
+ *   <li>Listagens e buscas consultam todos os shards em paralelo e intercalam os resultados.</li>
+ * </ul>
+ *
+ * Com db.shards = 1 todos os métodos usam só o banco principal, sem threads extras.
+ */
+public final class RoteadorShards {
+
+    // Escolhe o shard de cada novo evento em rodízio, distribuindo as escritas por igual.
+    private static final AtomicInteger PROXIMO_SHARD = new AtomicInteger();
+
+    // Eventos fora do shard esperado, contados na inicialização (db.shards aumentado sem rebalancear).
+    // Enquanto houver algum, novos eventos não são criados: o ID gerado poderia repetir o de um deles.
+    private static volatile long eventosForaDoLugar;
+
+    static {
+        DatabaseConnection.aoFecharPool(() -> eventosForaDoLugar = 0);
+    }
+
+    // Threads das consultas paralelas. Daemon: não impedem o encerramento da JVM.
+    private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(tarefa -> {
+        Thread thread = new Thread(tarefa, "consulta-shard");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Tarefa executada em um shard.
+     */
+    @FunctionalInterface
+    public interface TarefaShard<T> {
+        T executar(int shard) throws SQLException;
+    }
+
+    /**
+     * Consulta executada com uma conexão do shard (aberta e fechada pelo roteador).
+     */
+    @FunctionalInterface
+    public interface ConsultaShard<T> {
+        T executar(Connection conn, int shard) throws SQLException;
+    }
+
+    /**
+     * Prepara (com os parâmetros já preenchidos) o comando de uma leitura em fluxo em um shard.
+     */
+    @FunctionalInterface
+    public interface PreparadorShard {
+        PreparedStatement preparar(Connection conn, int shard) throws SQLException;
+    }
+
+    /**
+     * Converte a linha atual do ResultSet de um shard. Cada shard recebe o seu leitor, que pode
+     * guardar estado entre as linhas (ex.: agrupar as linhas de um mesmo evento).
+     */
+    @FunctionalInterface
+    public interface LeitorLinha<T> {
+        T ler(ResultSet rs) throws SQLException;
+    }
+
+    /**
+     * Recebe as linhas de uma leitura em fluxo, já intercaladas na ordem pedida.
+     */
+    @FunctionalInterface
+    public interface ConsumidorOrdenado<T, E extends Exception> {
+        void aceitar(T item) throws E;
+    }
+
+    private RoteadorShards() {
+    }
+
+    /**
+     * @return Número de shards (db.shards).
+     */
+    public static int quantidade() {
+        return DatabaseConnection.getQuantidadeShards();
+    }
+
+    /**
+     * @return Todos os shards, em ordem.
+     */
+    public static List<Integer> todos() {
+        int quantidade = quantidade();
+        List<Integer> shards = new ArrayList<>(quantidade);
+        for (int shard = 0; shard < quantidade; shard++) {
+            shards.add(shard);
+        }
+        return shards;
+    }
+
+    /**
+     * @return O shard que guarda o evento (e as inscrições dele).
+     */
+    public static int shardDoEvento(int eventoId) {
+        return Math.floorMod(eventoId, quantidade());
+    }
+
+    /**
+     * @return O shard onde o próximo evento será criado (rodízio).
+     */
+    public static int shardParaNovoEvento() {
+        return Math.floorMod(PROXIMO_SHARD.getAndIncrement(), quantidade());
+    }
+
+    /**
+     * Registra quantos eventos a inicialização encontrou fora do shard esperado.
+     */
+    static void registrarEventosForaDoLugar(long quantidade) {
+        eventosForaDoLugar = quantidade;
+    }
+
+    /**
+     * Impede a criação de eventos enquanto houver eventos fora do shard esperado.
+     * @throws SQLException Se a distribuição ainda não foi corrigida pelo {@link RebalanceadorShards}.
+     */
+    public static void verificarCriacaoDeEventos() throws SQLException {
+        long foraDoLugar = eventosForaDoLugar;
+        if (foraDoLugar > 0) {
+            throw new SQLException("Criação de eventos bloqueada: " + foraDoLugar + " evento(s) fora do shard "
+                    + "esperado para db.shards = " + quantidade() + ". Execute util.RebalanceadorShards.");
+        }
+    }
+
+    /**
+     * @return Uma conexão do shard que guarda o evento.
+     */
+    public static Connection conexaoDoEvento(int eventoId) throws SQLException {
+        return DatabaseConnection.getConnection(shardDoEvento(eventoId));
+    }
+
+    /**
+     * Executa a tarefa em cada shard informado, em paralelo (o primeiro na própria thread), e
+     * devolve os resultados na mesma ordem dos shards. Com um único shard, executa direto.
+     * @throws SQLException A primeira falha encontrada, depois que todas as tarefas terminaram.
+     */
+    public static <T> List<T> emParalelo(List<Integer> shards, TarefaShard<T> tarefa) throws SQLException {
+        List<T> resultados = new ArrayList<>(shards.size());
+        if (shards.size() == 1) {
+            resultados.add(tarefa.executar(shards.get(0)));
+            return resultados;
+        }
+
+        List<Future<T>> futuros = new ArrayList<>(shards.size());
+        for (int i = 1; i < shards.size(); i++) {
+            int shard = shards.get(i);
+            futuros.add(EXECUTOR.submit(() -> tarefa.executar(shard)));
+        }
+        SQLException falha = null;
+        T primeiro = null;
+        try {
+            primeiro = tarefa.executar(shards.get(0));
+        } catch (SQLException e) {
+            falha = e;
+        }
+        resultados.add(primeiro);
+        boolean interrompida = false;
+        for (Future<T> futuro : futuros) {
+            T resultado = null;
+            try {
+                while (true) {
+                    try {
+                        resultado = futuro.get();
+                        break;
+                    } catch (InterruptedException e) {
+                        // Espera as demais tarefas mesmo assim: elas usam conexões dos pools.
+                        interrompida = true;
+                    }
+                }
+            } catch (ExecutionException e) {
+                if (falha == null) {
+                    falha = e.getCause() instanceof SQLException sql ? sql
+                            : new SQLException("Erro em consulta paralela: " + e.getCause(), e.getCause());
+                }
+            }
+            resultados.add(resultado);
+        }
+        if (interrompida) {
+            Thread.currentThread().interrupt();
+        }
+        if (falha != null) {
+            throw falha;
+        }
+        return resultados;
+    }
+
+    /**
+     * Executa a consulta em todos os shards, em paralelo, cada uma com uma conexão do próprio shard.
+     * @return Os resultados, na ordem dos shards.
+     */
+    public static <T> List<T> emCadaShard(ConsultaShard<T> consulta) throws SQLException {
+        return emParalelo(todos(), shard -> {
+            try (Connection conn = DatabaseConnection.getConnection(shard)) {
+                return consulta.executar(conn, shard);
+            }
+        });
+    }
+
+    /**
+     * Junta as listas (cada uma já ordenada e com no máximo {@code limite} itens) mantendo a ordem.
+     * @param limite Número máximo de itens devolvidos.
+     */
+    public static <T> List<T> intercalar(List<List<T>> partes, Comparator<? super T> ordem, int limite) {
+        if (partes.size() == 1) {
+            List<T> unica = partes.get(0);
+            return unica.size() <= limite ? unica : new ArrayList<>(unica.subList(0, limite));
+        }
+        List<T> todos = new ArrayList<>();
+        for (List<T> parte : partes) {
+            todos.addAll(parte);
+        }
+        todos.sort(ordem);
+        return todos.size() <= limite ? todos : new ArrayList<>(todos.subList(0, limite));
+    }
+
+    /**
+     * Leitura em fluxo de todos os shards, intercalada na ordem pedida. Cada shard deve devolver as
+     * linhas já nessa ordem (ORDER BY); o roteador mantém um cursor aberto por shard e entrega sempre
+     * a menor linha disponível, sem carregar nenhum shard inteiro na memória.
+     * @param preparador Cria o comando da leitura em cada shard.
+     * @param leitores Cria o leitor de linhas de cada shard.
+     * @param ordem Ordem das linhas (a mesma do ORDER BY); empates ficam com o shard de menor número.
+     * @param consumidor Recebe as linhas.
+     * @return Número de linhas entregues.
+     * @throws SQLException Em erro de leitura em qualquer shard (o consumidor pode ter recebido parte das linhas).
+     * @throws E Se o consumidor falhar; a leitura é interrompida.
+     */
+    public static <T, E extends Exception> long percorrerIntercalado(PreparadorShard preparador,
+            Supplier<LeitorLinha<T>> leitores, Comparator<? super T> ordem,
+            ConsumidorOrdenado<T, E> consumidor) throws SQLException, E {
+        int quantidade = quantidade();
+        List<AutoCloseable> abertos = new ArrayList<>(quantidade * 3);
+        PriorityQueue<Cursor<T>> fila = new PriorityQueue<>(quantidade,
+                Comparator.<Cursor<T>, T>comparing(cursor -> cursor.atual, ordem)
+                        .thenComparingInt(cursor -> cursor.shard));
+        try {
+            for (int shard = 0; shard < quantidade; shard++) {
+                Connection conn = DatabaseConnection.getConnection(shard);
+                abertos.add(conn);
+                PreparedStatement stmt = preparador.preparar(conn, shard);
+                abertos.add(stmt);
+                ResultSet rs = stmt.executeQuery();
+                abertos.add(rs);
+                Cursor<T> cursor = new Cursor<>(shard, rs, leitores.get());
+                if (cursor.avancar()) {
+                    fila.add(cursor);
+                }
+            }
+
+            long entregues = 0;
+            Cursor<T> cursor;
+            while ((cursor = fila.poll()) != null) {
+                consumidor.aceitar(cursor.atual);
+                entregues++;
+                if (cursor.avancar()) {
+                    fila.add(cursor);
+                }
+            }
+            return entregues;
+        } finally {
+            for (int i = abertos.size() - 1; i >= 0; i--) {
+                try {
+                    abertos.get(i).close();
+                } catch (Exception e) {
+                    System.err.println("Erro ao fechar leitura de shard: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Posição da leitura em fluxo de um shard.
+     */
+    private static final class Cursor<T> {
+        final int shard;
+        final ResultSet rs;
+        final LeitorLinha<T> leitor;
+        T atual;
+
+        Cursor(int shard, ResultSet rs, LeitorLinha<T> leitor) {
+            this.shard = shard;
+            this.rs = rs;
+            this.leitor = leitor;
+        }
+
+        boolean avancar() throws SQLException {
+            if (!rs.next()) {
+                atual = null;
+                return false;
+            }
+            atual = leitor.ler(rs);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package util;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca uma constante SQL de DAO que pode fazer varredura completa de tabela
+ * (ex.: listagens administrativas de todos os registros ou rotinas de reparo).
+ * O {@link VerificadorPlanos} ignora essas consultas ao procurar varreduras indesejadas.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface VarreduraPermitida {
+    /**
+     * @return Justificativa para a varredura completa ser aceitável.
+     */
+    String value();
+}
@@ -0,0 +1,519 @@
+package util;
+
+import dao.EventoDAO;
+import dao.InscricaoDAO;
+import dao.RepositorioEventos;
+import dao.RepositorioInscricoes;
+import dao.RepositorioMemoria;
+import dao.RepositorioUsuarios;
+import dao.UsuarioDAO;
+import model.CategoriaEvento;
+import model.Evento;
+import model.EventoComDetalhes;
+import model.FiltroEventos;
+import model.ModoInscricaoGrupo;
+import model.PaginaBusca;
+import model.PaginaEventos;
+import model.ResultadoInscricao;
+import model.Usuario;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Verificação do contrato dos repositórios ({@link RepositorioUsuarios}, {@link RepositorioEventos} e
+ * {@link RepositorioInscricoes}): executa as mesmas verificações na implementação em memória
+ * ({@link RepositorioMemoria}) e nos DAOs do SQLite, em um banco temporário com o esquema atual.
+ * Cobre email único, chave (usuário, evento) da inscrição, regras e resultados da inscrição
+ * (individual, em lote e em grupo), capacidade sob concorrência, ordem e paginação das listagens,
+ * busca textual e deleções em cascata. Falha (código 1) se alguma verificação não passar em
+ * alguma das implementações.
+ *
+ * As mensagens de erro esperadas dos DAOs (ex.: email duplicado) só são exibidas se a verificação falhar.
+ *
+ * Execução: mvn compile exec:java -Dexec.mainClass=util.VerificadorContratoRepositorios
+ * (com -Ddb.shards=N, os DAOs são verificados com N shards).
+ */
+public final class VerificadorContratoRepositorios {
+
+    // Datas fixas em minutos inteiros (o SQLite guarda o instante como texto/timestamp).
+    private static final LocalDateTime FUTURO = LocalDateTime.now().plusDays(30).withSecond(0).withNano(0);
+    // Janela usada apenas pela verificação das listagens, para não misturar com os eventos das demais.
+    private static final LocalDateTime JANELA_LISTAGEM = LocalDateTime.of(2300, 1, 1, 8, 0);
+
+    private static final AtomicInteger SEQUENCIA = new AtomicInteger();
+
+    /**
+     * Implementação verificada: os três repositórios sobre o mesmo armazenamento.
+     */
+    private record Motor(String nome, RepositorioUsuarios usuarios, RepositorioEventos eventos,
+                         RepositorioInscricoes inscricoes) {
+    }
+
+    @FunctionalInterface
+    private interface Verificacao {
+        void executar(Motor motor) throws Exception;
+    }
+
+    private VerificadorContratoRepositorios() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path diretorio = Files.createTempDirectory("contrato-repositorios");
+        System.setProperty("db.url", "jdbc:sqlite:" + diretorio.resolve("contrato.db").toAbsolutePath());
+        DatabaseConnection.fecharPool();
+        DatabaseConnection.initializeDatabase();
+
+        int falhas;
+        try {
+            RepositorioMemoria memoria = new RepositorioMemoria();
+            falhas = verificar(new Motor("memória", memoria, memoria, memoria));
+            falhas += verificar(new Motor("SQLite (" + RoteadorShards.quantidade() + " shard(s))",
+                    new UsuarioDAO(), new EventoDAO(), new InscricaoDAO()));
+        } finally {
+            DatabaseConnection.fecharPool();
+            System.clearProperty("db.url");
+            try (var arquivos = Files.list(diretorio)) {
+                for (Path arquivo : arquivos.toList()) {
+                    Files.deleteIfExists(arquivo);
+                }
+            }
+            Files.deleteIfExists(diretorio);
+        }
+
+        if (falhas == 0) {
+            System.out.println("\nAs duas implementações cumprem o contrato dos repositórios.");
+        } else {
+            System.err.println("\n" + falhas + " verificação(ões) falharam.");
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Executa todas as verificações em uma implementação.
+     * @return O número de verificações que falharam.
+     */
+    private static int verificar(Motor motor) {
+        System.out.println("\n=== " + motor.nome() + " ===");
+        int falhas = 0;
+        PrintStream erroOriginal = System.err;
+        for (Map.Entry<String, Verificacao> verificacao : verificacoes().entrySet()) {
+            ByteArrayOutputStream mensagens = new ByteArrayOutputStream();
+            String falha = null;
+            System.setErr(new PrintStream(mensagens, true, StandardCharsets.UTF_8));
+            try {
+                verificacao.getValue().executar(motor);
+            } catch (Exception | AssertionError e) {
+                falha = e.getMessage() != null ? e.getMessage() : e.toString();
+            } finally {
+                System.setErr(erroOriginal);
+            }
+            if (falha == null) {
+                System.out.println("[OK]     " + verificacao.getKey());
+            } else {
+                falhas++;
+                System.out.println("[FALHOU] " + verificacao.getKey() + ": " + falha);
+                String registradas = mensagens.toString(StandardCharsets.UTF_8).trim();
+                if (!registradas.isEmpty()) {
+                    System.out.println("         " + registradas.replace("\n", "\n         "));
+                }
+            }
+        }
+        return falhas;
+    }
+
+    private static Map<String, Verificacao> verificacoes() {
+        Map<String, Verificacao> verificacoes = new LinkedHashMap<>();
+        verificacoes.put("email único e busca por ID e email", VerificadorContratoRepositorios::emailUnico);
+        verificacoes.put("IDs não reaproveitados e status de admin", VerificadorContratoRepositorios::idsEAdmin);
+        verificacoes.put("evento exige organizador existente", VerificadorContratoRepositorios::organizadorExistente);
+        verificacoes.put("regras da inscrição individual", VerificadorContratoRepositorios::regrasInscricao);
+        verificacoes.put("chave (usuário, evento) e cancelamento", VerificadorContratoRepositorios::chaveInscricao);
+        verificacoes.put("gravação em lote", VerificadorContratoRepositorios::gravacaoEmLote);
+        verificacoes.put("inscrição em grupo", VerificadorContratoRepositorios::inscricaoEmGrupo);
+        verificacoes.put("capacidade com inscrições concorrentes", VerificadorContratoRepositorios::capacidadeConcorrente);
+        verificacoes.put("ordem, filtros e paginação das listagens", VerificadorContratoRepositorios::listagens);
+        verificacoes.put("busca textual", VerificadorContratoRepositorios::buscaTextual);
+        verificacoes.put("deleção de evento em cascata", VerificadorContratoRepositorios::cascataEvento);
+        verificacoes.put("deleção de usuário em cascata", VerificadorContratoRepositorios::cascataUsuario);
+        return verificacoes;
+    }
+
+    // --- VERIFICAÇÕES ---
+
+    private static void emailUnico(Motor motor) {
+        String email = novoEmail();
+        int id = motor.usuarios().criarUsuario(new Usuario(-1, "Ana", email, "senha", false));
+        exigir(id > 0, "criarUsuario retornou " + id);
+        exigir(motor.usuarios().criarUsuario(new Usuario(-1, "Outra Ana", email, "outra", true)) == -1,
+                "email duplicado foi aceito");
+
+        Usuario porEmail = motor.usuarios().getUsuarioPorEmail(email);
+        exigir(porEmail != null && porEmail.id() == id && porEmail.nome().equals("Ana") && !porEmail.isAdmin(),
+                "getUsuarioPorEmail retornou " + porEmail);
+        exigir(porEmail.equals(motor.usuarios().getUsuarioPorId(id)), "getUsuarioPorId difere de getUsuarioPorEmail");
+        exigir(motor.usuarios().getUsuarioPorEmail(email.toUpperCase()) == null, "email comparado sem diferenciar maiúsculas");
+        exigir(motor.usuarios().getUsuarioPorEmail(novoEmail()) == null, "email inexistente encontrado");
+
+        List<Usuario> todos = motor.usuarios().listarTodosUsuarios();
+        exigir(todos.stream().anyMatch(u -> u.id() == id), "usuário ausente de listarTodosUsuarios");
+        exigir(ordenada(todos, Comparator.comparingInt(Usuario::id)), "listarTodosUsuarios fora da ordem de ID");
+    }
+
+    private static void idsEAdmin(Motor motor) {
+        int primeiro = novoUsuario(motor, "Bruno");
+        exigir(motor.usuarios().deletarUsuario(primeiro), "deletarUsuario retornou false");
+        exigir(!motor.usuarios().deletarUsuario(primeiro), "usuário deletado duas vezes");
+        exigir(motor.usuarios().getUsuarioPorId(primeiro) == null, "usuário deletado ainda encontrado");
+        int segundo = novoUsuario(motor, "Carla");
+        exigir(segundo > primeiro, "ID " + primeiro + " reaproveitado (novo ID " + segundo + ")");
+
+        exigir(motor.usuarios().atualizarStatusAdmin(segundo, true), "atualizarStatusAdmin retornou false");
+        exigir(motor.usuarios().getUsuarioPorId(segundo).isAdmin(), "status de admin não gravado");
+        exigir(motor.usuarios().atualizarStatusAdmin(segundo, false), "atualizarStatusAdmin retornou false");
+        exigir(!motor.usuarios().getUsuarioPorId(segundo).isAdmin(), "status de admin não removido");
+        exigir(!motor.usuarios().atualizarStatusAdmin(primeiro, true), "usuário inexistente atualizado");
+    }
+
+    private static void organizadorExistente(Motor motor) {
+        int removido = novoUsuario(motor, "Diego");
+        motor.usuarios().deletarUsuario(removido);
+        exigir(motor.eventos().criarEvento(evento(removido, "Sem organizador", FUTURO, 10)) == -1,
+                "evento criado com organizador inexistente");
+
+        int organizador = novoUsuario(motor, "Elisa");
+        int eventoId = motor.eventos().criarEvento(evento(organizador, "Com organizador", FUTURO, 10));
+        exigir(eventoId > 0, "criarEvento retornou " + eventoId);
+        Evento lido = motor.eventos().getEventoPorId(eventoId);
+        exigir(lido != null && lido.nome().equals("Com organizador") && lido.organizadorId() == organizador
+                && lido.dataHora().equals(FUTURO) && lido.capacidade() == 10, "getEventoPorId retornou " + lido);
+        exigir(motor.eventos().getEventoPorId(eventoId + 1_000_000) == null, "evento inexistente encontrado");
+    }
+
+    private static void regrasInscricao(Motor motor) {
+        int organizador = novoUsuario(motor, "Fábio");
+        int[] participantes = {novoUsuario(motor, "Gil"), novoUsuario(motor, "Hana"), novoUsuario(motor, "Ivo")};
+        int eventoId = novoEvento(motor, evento(organizador, "Oficina", FUTURO, 2));
+        int passadoId = novoEvento(motor, evento(organizador, "Encerrado", FUTURO.minusYears(1), 2));
+        LocalDateTime agora = LocalDateTime.now();
+
+        exigirResultado(ResultadoInscricao.NOT_FOUND, motor.inscricoes().inscreverAtomicamente(participantes[0], eventoId + 1_000_000, agora));
+        exigirResultado(ResultadoInscricao.PAST, motor.inscricoes().inscreverAtomicamente(participantes[0], passadoId, agora));
+        exigirResultado(ResultadoInscricao.OWN_EVENT, motor.inscricoes().inscreverAtomicamente(organizador, eventoId, agora));
+        exigirResultado(ResultadoInscricao.OK, motor.inscricoes().inscreverAtomicamente(participantes[0], eventoId, agora));
+        exigirResultado(ResultadoInscricao.ALREADY_ENROLLED, motor.inscricoes().inscreverAtomicamente(participantes[0], eventoId, agora));
+        exigirResultado(ResultadoInscricao.OK, motor.inscricoes().inscreverAtomicamente(participantes[1], eventoId, agora));
+        exigirResultado(ResultadoInscricao.FULL, motor.inscricoes().inscreverAtomicamente(participantes[2], eventoId, agora));
+
+        exigir(motor.inscricoes().contarParticipantes(eventoId) == 2, "contarParticipantes diferente de 2");
+        exigir(motor.inscricoes().contarParticipantes(passadoId) == 0, "evento passado com inscritos");
+        exigir(!motor.inscricoes().isInscrito(participantes[2], eventoId), "inscrição recusada foi gravada");
+    }
+
+    private static void chaveInscricao(Motor motor) {
+        int organizador = novoUsuario(motor, "Júlia");
+        int usuario = novoUsuario(motor, "Kauê");
+        int eventoId = novoEvento(motor, evento(organizador, "Palestra", FUTURO, 5));
+        int outroEventoId = novoEvento(motor, evento(organizador, "Outra palestra", FUTURO, 5));
+
+        exigir(motor.inscricoes().criarInscricao(usuario, eventoId), "criarInscricao retornou false");
+        exigir(!motor.inscricoes().criarInscricao(usuario, eventoId), "inscrição duplicada aceita");
+        exigir(motor.inscricoes().criarInscricao(usuario, outroEventoId), "mesmo usuário recusado em outro evento");
+        exigir(!motor.inscricoes().criarInscricao(usuario, eventoId + 1_000_000), "inscrição em evento inexistente");
+        exigir(motor.inscricoes().isInscrito(usuario, eventoId), "isInscrito retornou false");
+        exigir(motor.inscricoes().contarParticipantes(eventoId) == 1, "contarParticipantes diferente de 1");
+
+        exigir(motor.inscricoes().removerInscricao(usuario, eventoId), "removerInscricao retornou false");
+        exigir(!motor.inscricoes().removerInscricao(usuario, eventoId), "inscrição removida duas vezes");
+        exigir(!motor.inscricoes().isInscrito(usuario, eventoId), "inscrição removida ainda encontrada");
+        exigir(motor.inscricoes().isInscrito(usuario, outroEventoId), "cancelamento afetou outro evento");
+        exigir(motor.inscricoes().contarParticipantes(eventoId) == 0, "contador não voltou a 0");
+    }
+
+    private static void gravacaoEmLote(Motor motor) {
+        int organizador = novoUsuario(motor, "Lia");
+        int a = novoUsuario(motor, "Mauro");
+        int b = novoUsuario(motor, "Nina");
+        int eventoId = novoEvento(motor, evento(organizador, "Show", FUTURO, 1));
+        int outroEventoId = novoEvento(motor, evento(organizador, "Outro show", FUTURO, 1));
+
+        List<ResultadoInscricao> resultados = motor.inscricoes().gravarLote(List.of(
+                new RepositorioInscricoes.OperacaoInscricao(false, a, eventoId),
+                new RepositorioInscricoes.OperacaoInscricao(false, b, eventoId),
+                new RepositorioInscricoes.OperacaoInscricao(true, a, eventoId),
+                new RepositorioInscricoes.OperacaoInscricao(false, b, eventoId),
+                new RepositorioInscricoes.OperacaoInscricao(true, a, eventoId),
+                new RepositorioInscricoes.OperacaoInscricao(false, a, outroEventoId),
+                new RepositorioInscricoes.OperacaoInscricao(false, organizador, outroEventoId)), LocalDateTime.now());
+        List<ResultadoInscricao> esperados = List.of(ResultadoInscricao.OK, ResultadoInscricao.FULL, ResultadoInscricao.OK,
+                ResultadoInscricao.OK, ResultadoInscricao.NOT_ENROLLED, ResultadoInscricao.OK, ResultadoInscricao.OWN_EVENT);
+        exigir(esperados.equals(resultados), "esperado " + esperados + ", obtido " + resultados);
+        exigir(motor.inscricoes().isInscrito(b, eventoId) && !motor.inscricoes().isInscrito(a, eventoId),
+                "estado final do lote diferente das operações");
+        exigir(motor.inscricoes().contarParticipantes(eventoId) == 1, "contarParticipantes diferente de 1");
+    }
+
+    private static void inscricaoEmGrupo(Motor motor) {
+        int organizador = novoUsuario(motor, "Otávio");
+        int a = novoUsuario(motor, "Paula");
+        int b = novoUsuario(motor, "Quim");
+        int c = novoUsuario(motor, "Rita");
+        int inexistente = novoUsuario(motor, "Saulo");
+        motor.usuarios().deletarUsuario(inexistente);
+        int eventoId = novoEvento(motor, evento(organizador, "Turma", FUTURO, 2));
+        LocalDateTime agora = LocalDateTime.now();
+
+        Map<Integer, ResultadoInscricao> tudoOuNada = motor.inscricoes().inscreverEmGrupo(
+                List.of(a, inexistente, b), eventoId, ModoInscricaoGrupo.TUDO_OU_NADA, agora);
+        exigir(List.of(a, inexistente, b).equals(new ArrayList<>(tudoOuNada.keySet())), "ordem do grupo não preservada");
+        exigirResultado(ResultadoInscricao.ROLLED_BACK, tudoOuNada.get(a));
+        exigirResultado(ResultadoInscricao.USER_NOT_FOUND, tudoOuNada.get(inexistente));
+        exigir(motor.inscricoes().contarParticipantes(eventoId) == 0, "grupo desfeito gravou inscrições");
+
+        Map<Integer, ResultadoInscricao> melhorEsforco = motor.inscricoes().inscreverEmGrupo(
+                List.of(a, a, organizador, b, c), eventoId, ModoInscricaoGrupo.MELHOR_ESFORCO, agora);
+        exigir(melhorEsforco.size() == 4, "duplicados do grupo não ignorados");
+        exigirResultado(ResultadoInscricao.OK, melhorEsforco.get(a));
+        exigirResultado(ResultadoInscricao.OWN_EVENT, melhorEsforco.get(organizador));
+        exigirResultado(ResultadoInscricao.OK, melhorEsforco.get(b));
+        exigirResultado(ResultadoInscricao.FULL, melhorEsforco.get(c));
+        exigir(motor.inscricoes().contarParticipantes(eventoId) == 2, "contarParticipantes diferente de 2");
+
+        Map<Integer, ResultadoInscricao> repetido = motor.inscricoes().inscreverEmGrupo(
+                List.of(a), eventoId, ModoInscricaoGrupo.MELHOR_ESFORCO, agora);
+        exigirResultado(ResultadoInscricao.ALREADY_ENROLLED, repetido.get(a));
+        Map<Integer, ResultadoInscricao> semEvento = motor.inscricoes().inscreverEmGrupo(
+                List.of(c), eventoId + 1_000_000, ModoInscricaoGrupo.MELHOR_ESFORCO, agora);
+        exigirResultado(ResultadoInscricao.NOT_FOUND, semEvento.get(c));
+    }
+
+    private static void capacidadeConcorrente(Motor motor) throws Exception {
+        int capacidade = 10;
+        int concorrentes = 40;
+        int organizador = novoUsuario(motor, "Tiago");
+        int eventoId = novoEvento(motor, evento(organizador, "Lançamento", FUTURO, capacidade));
+        List<Integer> usuarios = new ArrayList<>();
+        for (int i = 0; i < concorrentes; i++) {
+            usuarios.add(novoUsuario(motor, "Cliente " + i));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            CountDownLatch largada = new CountDownLatch(1);
+            List<Future<ResultadoInscricao>> futuros = new ArrayList<>();
+            for (Integer usuario : usuarios) {
+                futuros.add(executor.submit(() -> {
+                    largada.await();
+                    return motor.inscricoes().inscreverAtomicamente(usuario, eventoId, LocalDateTime.now());
+                }));
+            }
+            largada.countDown();
+            int aceitas = 0;
+            for (Future<ResultadoInscricao> futuro : futuros) {
+                ResultadoInscricao resultado = futuro.get();
+                exigir(resultado == ResultadoInscricao.OK || resultado == ResultadoInscricao.FULL,
+                        "resultado inesperado: " + resultado);
+                aceitas += resultado == ResultadoInscricao.OK ? 1 : 0;
+            }
+            exigir(aceitas == capacidade, aceitas + " inscrições aceitas para " + capacidade + " vagas");
+            exigir(motor.inscricoes().contarParticipantes(eventoId) == capacidade, "contador diferente da capacidade");
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static void listagens(Motor motor) {
+        int organizador = novoUsuario(motor, "Úrsula");
+        int outroOrganizador = novoUsuario(motor, "Vera");
+        int participante = novoUsuario(motor, "Wagner");
+        // Datas repetidas para verificar o desempate pelo ID.
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            CategoriaEvento categoria = i % 2 == 0 ? CategoriaEvento.TECNOLOGIA : CategoriaEvento.CULTURA;
+            int dono = i % 3 == 0 ? outroOrganizador : organizador;
+            ids.add(novoEvento(motor, new Evento(-1, "Listagem " + i, categoria, JANELA_LISTAGEM.plusHours(7 - i / 2),
+                    "Sala " + i, 50, dono, "Evento da verificação de listagens.")));
+        }
+        for (int i = 0; i < ids.size(); i += 2) {
+            exigirResultado(ResultadoInscricao.OK, motor.inscricoes().inscreverAtomicamente(participante, ids.get(i), LocalDateTime.now()));
+        }
+
+        FiltroEventos janela = new FiltroEventos(null, JANELA_LISTAGEM, JANELA_LISTAGEM.plusDays(1));
+        List<EventoComDetalhes> percorridos = new ArrayList<>();
+        int total = motor.eventos().percorrerEventos(janela, percorridos::add);
+        exigir(total == 7 && percorridos.size() == 7, "percorrerEventos entregou " + total + " evento(s)");
+        exigir(ordenada(percorridos, ORDEM_DETALHES), "percorrerEventos fora da ordem (data_hora, id)");
+        for (EventoComDetalhes evento : percorridos) {
+            int posicao = ids.indexOf(evento.getId());
+            exigir(evento.inscritos() == (posicao % 2 == 0 ? 1 : 0), "inscritos incorreto no evento " + evento.getId());
+            String esperado = posicao % 3 == 0 ? "Vera" : "Úrsula";
+            exigir(esperado.equals(evento.nomeOrganizador()), "nome do organizador incorreto: " + evento.nomeOrganizador());
+        }
+
+        // Páginas de 3 a partir do cursor devem reproduzir o percurso completo.
+        List<EventoComDetalhes> paginados = new ArrayList<>();
+        PaginaEventos.Cursor cursor = null;
+        int paginas = 0;
+        do {
+            PaginaEventos pagina = motor.eventos().listarPaginaEventos(janela, cursor, 3);
+            paginados.addAll(pagina.eventos());
+            cursor = pagina.proxima();
+            paginas++;
+        } while (cursor != null && paginas < 10);
+        exigir(paginas == 3, paginas + " página(s) em vez de 3");
+        exigir(ids(paginados).equals(ids(percorridos)), "paginação difere do percurso: " + ids(paginados));
+
+        FiltroEventos cultura = new FiltroEventos(CategoriaEvento.CULTURA, JANELA_LISTAGEM, JANELA_LISTAGEM.plusDays(1));
+        List<Integer> idsCultura = ids(motor.eventos().listarPaginaEventos(cultura, null, 10).eventos());
+        exigir(idsCultura.equals(ids(percorridos.stream().filter(e -> e.getCategoria() == CategoriaEvento.CULTURA).toList())),
+                "filtro por categoria incorreto: " + idsCultura);
+        FiltroEventos inicio = new FiltroEventos(null, JANELA_LISTAGEM.plusHours(6), JANELA_LISTAGEM.plusDays(1));
+        exigir(motor.eventos().listarPaginaEventos(inicio, null, 10).eventos().size() == 4, "filtro de início incorreto");
+
+        List<EventoComDetalhes> doOrganizador = motor.eventos().listarEventosComDetalhesPorOrganizador(outroOrganizador);
+        exigir(ids(doOrganizador).equals(ids(percorridos.stream().filter(e -> e.evento().organizadorId() == outroOrganizador).toList())),
+                "listarEventosComDetalhesPorOrganizador incorreto: " + ids(doOrganizador));
+        List<Evento> simples = motor.eventos().listarEventosPorOrganizador(outroOrganizador);
+        exigir(simples.stream().map(Evento::id).toList().equals(ids(doOrganizador)), "listarEventosPorOrganizador incorreto");
+
+        List<EventoComDetalhes> inscritos = motor.eventos().listarEventosComDetalhesInscritosPorUsuario(participante);
+        exigir(inscritos.size() == 4 && ordenada(inscritos, ORDEM_DETALHES), "eventos do inscrito incorretos: " + ids(inscritos));
+        exigir(motor.eventos().listarEventosInscritosPorUsuario(participante).stream().map(Evento::id).toList()
+                .equals(ids(inscritos)), "listarEventosInscritosPorUsuario incorreto");
+
+        List<EventoComDetalhes> todos = motor.eventos().listarTodosEventosComDetalhes();
+        exigir(ordenada(todos, ORDEM_DETALHES) && todos.stream().map(EventoComDetalhes::getId).toList().containsAll(ids),
+                "listarTodosEventosComDetalhes incorreto");
+        exigir(motor.eventos().listarTodosEventos().size() == todos.size(), "listarTodosEventos difere da listagem com detalhes");
+    }
+
+    private static void buscaTextual(Motor motor) {
+        int organizador = novoUsuario(motor, "Xavier");
+        int noNome = novoEvento(motor, new Evento(-1, "Festival Xilofônico", CategoriaEvento.CULTURA, FUTURO,
+                "Praça Central", 100, organizador, "Apresentações abertas."));
+        int naDescricao = novoEvento(motor, new Evento(-1, "Encontro de percussão", CategoriaEvento.CULTURA, FUTURO.plusHours(1),
+                "Auditório", 100, organizador, "Inclui oficina xilofonica para iniciantes."));
+        int outraCategoria = novoEvento(motor, new Evento(-1, "Xilofônico digital", CategoriaEvento.TECNOLOGIA, FUTURO.plusHours(2),
+                "Laboratório", 100, organizador, "Síntese de sons."));
+
+        PaginaBusca busca = motor.eventos().buscarEventos("\"xilof\"*", FiltroEventos.TODOS, 1, 10);
+        List<Integer> encontrados = ids(busca.eventos());
+        exigir(encontrados.size() == 3 && encontrados.containsAll(List.of(noNome, naDescricao, outraCategoria)),
+                "busca por prefixo sem acento encontrou " + encontrados);
+        exigir(encontrados.indexOf(noNome) < encontrados.indexOf(naDescricao), "termo no nome menos relevante que na descrição");
+
+        List<Integer> todosTermos = ids(motor.eventos().buscarEventos("\"xilofonico\"* \"PRAÇA\"*", FiltroEventos.TODOS, 1, 10).eventos());
+        exigir(todosTermos.equals(List.of(noNome)), "busca com dois termos encontrou " + todosTermos);
+
+        FiltroEventos cultura = new FiltroEventos(CategoriaEvento.CULTURA, null, null);
+        List<Integer> filtrados = ids(motor.eventos().buscarEventos("\"xilof\"*", cultura, 1, 10).eventos());
+        exigir(filtrados.size() == 2 && !filtrados.contains(outraCategoria), "filtro da busca incorreto: " + filtrados);
+
+        PaginaBusca primeira = motor.eventos().buscarEventos("\"xilof\"*", FiltroEventos.TODOS, 1, 2);
+        PaginaBusca segunda = motor.eventos().buscarEventos("\"xilof\"*", FiltroEventos.TODOS, 2, 2);
+        exigir(primeira.temProxima() && primeira.eventos().size() == 2, "primeira página da busca incorreta");
+        exigir(!segunda.temProxima() && segunda.eventos().size() == 1, "segunda página da busca incorreta");
+        exigir(motor.eventos().buscarEventos("\"zzzinexistente\"*", FiltroEventos.TODOS, 1, 10).eventos().isEmpty(),
+                "busca sem correspondência retornou eventos");
+    }
+
+    private static void cascataEvento(Motor motor) {
+        int organizador = novoUsuario(motor, "Yara");
+        int participante = novoUsuario(motor, "Zeca");
+        int eventoId = novoEvento(motor, evento(organizador, "Cancelado", FUTURO, 5));
+        exigirResultado(ResultadoInscricao.OK, motor.inscricoes().inscreverAtomicamente(participante, eventoId, LocalDateTime.now()));
+
+        exigir(motor.eventos().deletarEvento(eventoId), "deletarEvento retornou false");
+        exigir(!motor.eventos().deletarEvento(eventoId), "evento deletado duas vezes");
+        exigir(motor.eventos().getEventoPorId(eventoId) == null, "evento deletado ainda encontrado");
+        exigir(!motor.inscricoes().isInscrito(participante, eventoId), "inscrição do evento deletado mantida");
+        exigir(motor.eventos().listarEventosInscritosPorUsuario(participante).isEmpty(), "evento deletado na lista do inscrito");
+        exigir(motor.eventos().listarEventosPorOrganizador(organizador).isEmpty(), "evento deletado na lista do organizador");
+    }
+
+    private static void cascataUsuario(Motor motor) {
+        int organizador = novoUsuario(motor, "Alice");
+        int participante = novoUsuario(motor, "Beto");
+        int outroOrganizador = novoUsuario(motor, "Caio");
+        int doOrganizador = novoEvento(motor, evento(organizador, "Do organizador", FUTURO, 5));
+        int deOutro = novoEvento(motor, evento(outroOrganizador, "De outro", FUTURO, 5));
+        LocalDateTime agora = LocalDateTime.now();
+        exigirResultado(ResultadoInscricao.OK, motor.inscricoes().inscreverAtomicamente(participante, doOrganizador, agora));
+        exigirResultado(ResultadoInscricao.OK, motor.inscricoes().inscreverAtomicamente(participante, deOutro, agora));
+        exigirResultado(ResultadoInscricao.OK, motor.inscricoes().inscreverAtomicamente(organizador, deOutro, agora));
+
+        exigir(motor.usuarios().deletarUsuario(organizador), "deletarUsuario retornou false");
+        exigir(motor.eventos().getEventoPorId(doOrganizador) == null, "evento do usuário deletado mantido");
+        exigir(!motor.inscricoes().isInscrito(participante, doOrganizador), "inscrição no evento removido mantida");
+        exigir(motor.inscricoes().contarParticipantes(deOutro) == 1, "inscrição do usuário deletado mantida");
+        exigir(motor.eventos().listarEventosInscritosPorUsuario(participante).stream().map(Evento::id).toList()
+                .equals(List.of(deOutro)), "eventos do inscrito incorretos depois da cascata");
+
+        exigir(motor.usuarios().deletarUsuario(participante), "deletarUsuario retornou false");
+        exigir(motor.inscricoes().contarParticipantes(deOutro) == 0, "contador não atualizado pela cascata");
+        exigir(motor.eventos().getEventoPorId(deOutro) != null, "evento de outro organizador removido");
+    }
+
+    // --- AUXILIARES ---
+
+    private static final Comparator<EventoComDetalhes> ORDEM_DETALHES =
+            Comparator.comparing(EventoComDetalhes::getDataHora).thenComparingInt(EventoComDetalhes::getId);
+
+    private static String novoEmail() {
+        return "contrato" + SEQUENCIA.incrementAndGet() + "@verificacao.local";
+    }
+
+    private static int novoUsuario(Motor motor, String nome) {
+        int id = motor.usuarios().criarUsuario(new Usuario(-1, nome, novoEmail(), "senha", false));
+        exigir(id > 0, "criarUsuario retornou " + id);
+        return id;
+    }
+
+    private static Evento evento(int organizadorId, String nome, LocalDateTime dataHora, int capacidade) {
+        return new Evento(-1, nome, CategoriaEvento.OUTROS, dataHora, "Local", capacidade, organizadorId, "Descrição.");
+    }
+
+    private static int novoEvento(Motor motor, Evento evento) {
+        int id = motor.eventos().criarEvento(evento);
+        exigir(id > 0, "criarEvento retornou " + id);
+        return id;
+    }
+
+    private static List<Integer> ids(List<EventoComDetalhes> eventos) {
+        return eventos.stream().map(EventoComDetalhes::getId).toList();
+    }
+
+    private static <T> boolean ordenada(List<T> lista, Comparator<? super T> ordem) {
+        for (int i = 1; i < lista.size(); i++) {
+            if (ordem.compare(lista.get(i - 1), lista.get(i)) > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void exigirResultado(ResultadoInscricao esperado, ResultadoInscricao obtido) {
+        exigir(esperado == obtido, "esperado " + esperado + ", obtido " + obtido);
+    }
+
+    private static void exigir(boolean condicao, String mensagem) {
+        if (!condicao) {
+            throw new IllegalStateException(mensagem);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package util;
+
+import dao.ArquivoEventosDAO;
+import dao.EventoDAO;
+import dao.ExportacaoDAO;
+import dao.ImportacaoDAO;
+import dao.InscricaoDAO;
+import dao.UsuarioDAO;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Modo de verificação dos planos de consulta (EXPLAIN QUERY PLAN) de todos os SQLs dos DAOs.
+ * Cria um banco temporário com o esquema atual (via {@link Migracoes}), analisa cada constante
+ * SQL_* das classes do pacote dao e falha se alguma consulta "quente" fizer varredura completa
+ * de tabela. Consultas que podem varrer tudo devem ser marcadas com {@link VarreduraPermitida}.
+ *
+ * Execução: mvn compile exec:java -Dexec.mainClass=util.VerificadorPlanos
+ */
+public final class VerificadorPlanos {
+
+    // Classes cujas constantes SQL_* são verificadas. Novos DAOs devem ser incluídos aqui.
+    private static final List<Class<?>> CLASSES_DAO = List.of(EventoDAO.class, InscricaoDAO.class, UsuarioDAO.class,
+            ImportacaoDAO.class, ArquivoEventosDAO.class, ExportacaoDAO.class);
+
+    private static final String PREFIXO_CONSTANTE = "SQL_";
+
+    private VerificadorPlanos() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        File arquivo = File.createTempFile("verificador-planos", ".db");
+        arquivo.deleteOnExit();
+
+        List<String> falhas;
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + arquivo.getAbsolutePath())) {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("PRAGMA foreign_keys = ON;");
+            }
+            Migracoes.aplicarPendentes(conn);
+            falhas = verificar(conn);
+        } catch (SQLException e) {
+            System.err.println("Erro ao verificar planos de consulta: " + e.getMessage());
+            System.exit(2);
+            return;
+        }
+
+        if (falhas.isEmpty()) {
+            System.out.println("\nNenhuma consulta quente faz varredura completa de tabela.");
+        } else {
+            System.err.println("\n" + falhas.size() + " consulta(s) com varredura completa de tabela:");
+            falhas.forEach(f -> System.err.println(" - " + f));
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Analisa o plano de todas as constantes SQL dos DAOs registrados.
+     * @param conn Conexão com um banco que já possui o esquema atual.
+     * @return Descrição das consultas com varredura completa (lista vazia se nenhuma).
+     * @throws SQLException Se alguma consulta não puder ser preparada.
+     */
+    public static List<String> verificar(Connection conn) throws SQLException {
+        List<String> falhas = new ArrayList<>();
+
+        for (Class<?> classe : CLASSES_DAO) {
+            for (Field campo : classe.getDeclaredFields()) {
+                if (!ehConstanteSql(campo)) {
+                    continue;
+                }
+                String nome = classe.getSimpleName() + "." + campo.getName();
+                String sql = lerConstante(campo);
+                VarreduraPermitida permitida = campo.getAnnotation(VarreduraPermitida.class);
+
+                List<String> plano = explicar(conn, sql);
+                List<String> varreduras = plano.stream().filter(VerificadorPlanos::ehVarreduraCompleta).toList();
+
+                String situacao;
+                if (varreduras.isEmpty()) {
+                    situacao = "OK";
+                } else if (permitida != null) {
+                    situacao = "VARREDURA PERMITIDA (" + permitida.value() + ")";
+                } else {
+                    situacao = "FALHA";
+                    falhas.add(nome + " -> " + String.join("; ", varreduras));
+                }
+
+                System.out.println("[" + situacao + "] " + nome);
+                plano.forEach(linha -> System.out.println("      " + linha));
+            }
+        }
+        return falhas;
+    }
+
+    /**
+     * Executa EXPLAIN QUERY PLAN, ligando NULL a todos os parâmetros (o plano não depende dos valores).
+     * @return As linhas de detalhe do plano.
+     */
+    static List<String> explicar(Connection conn, String sql) throws SQLException {
+        List<String> linhas = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement("EXPLAIN QUERY PLAN " + sql)) {
+            int parametros = stmt.getParameterMetaData().getParameterCount();
+            for (int i = 1; i <= parametros; i++) {
+                stmt.setObject(i, null);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    linhas.add(rs.getString("detail"));
+                }
+            }
+        }
+        return linhas;
+    }
+
+    /**
+     * Uma linha "SCAN tabela" sem "USING ... INDEX" indica leitura de todas as linhas da tabela.
+     * Percorrer uma tabela virtual (ex.: json_each com a lista de IDs recebida) não conta como varredura.
+     */
+    static boolean ehVarreduraCompleta(String detalhe) {
+        return detalhe.startsWith("SCAN ") && !detalhe.contains(" USING ") && !detalhe.equals("SCAN CONSTANT ROW")
+                && !detalhe.contains(" VIRTUAL TABLE ");
+    }
+
+    private static boolean ehConstanteSql(Field campo) {
+        int mod = campo.getModifiers();
+        return Modifier.isStatic(mod) && Modifier.isFinal(mod) && campo.getType() == String.class
+                && campo.getName().startsWith(PREFIXO_CONSTANTE);
+    }
+
+    private static String lerConstante(Field campo) {
+        try {
+            campo.setAccessible(true);
+            return (String) campo.get(null);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Não foi possível ler " + campo, e);
+        }
+    }
+}
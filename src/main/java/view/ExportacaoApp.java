@@ -0,0 +1,93 @@
+package view;
+
+import controller.AppController;
+import controller.ExportadorDados;
+import model.CategoriaEvento;
+import model.FiltroEventos;
+import model.RelatorioExportacao;
+import util.DatabaseConnection;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+/**
+ * Ponto de entrada de linha de comando para a exportação de eventos com as listas de inscritos.
+ *
+ * Uso: ExportacaoApp &lt;arquivo.csv|.jsonl[.gz]&gt; [evento=ID] [organizador=ID] [categoria=NOME]
+ * [de="dd/MM/yyyy HH:mm"] [ate="dd/MM/yyyy HH:mm"]
+ * Exemplo: mvn compile exec:java -Dexec.mainClass=view.ExportacaoApp -Dexec.args="inscritos.csv.gz evento=42"
+ */
+public class ExportacaoApp {
+
+    private static final String USO = "Uso: ExportacaoApp <arquivo.csv|.jsonl[.gz]> [evento=ID] [organizador=ID] "
+            + "[categoria=NOME] [de=\"dd/MM/yyyy HH:mm\"] [ate=\"dd/MM/yyyy HH:mm\"]";
+
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println(USO);
+            System.exit(1);
+        }
+
+        Path arquivo = Path.of(args[0]);
+        Integer eventoId = null;
+        Integer organizadorId = null;
+        CategoriaEvento categoria = null;
+        LocalDateTime inicio = null;
+        LocalDateTime fim = null;
+
+        for (int i = 1; i < args.length; i++) {
+            int igual = args[i].indexOf('=');
+            String chave = igual < 0 ? args[i] : args[i].substring(0, igual).trim().toLowerCase();
+            String valor = igual < 0 ? "" : args[i].substring(igual + 1).trim();
+            switch (chave) {
+                case "evento" -> eventoId = lerInteiro(chave, valor);
+                case "organizador" -> organizadorId = lerInteiro(chave, valor);
+                case "categoria" -> {
+                    categoria = AppController.parseCategoria(valor);
+                    if (categoria == null) {
+                        sair("Erro: Categoria '" + valor + "' inválida.");
+                    }
+                }
+                case "de" -> inicio = lerDataHora(chave, valor);
+                case "ate" -> fim = lerDataHora(chave, valor);
+                default -> sair("Erro: Opção '" + args[i] + "' desconhecida.\n" + USO);
+            }
+        }
+
+        DatabaseConnection.initializeDatabase();
+        try {
+            System.out.println("Exportando para " + arquivo + "...");
+            RelatorioExportacao relatorio = new ExportadorDados()
+                    .exportar(arquivo, new FiltroEventos(categoria, inicio, fim), eventoId, organizadorId);
+            System.out.println("\n" + relatorio);
+        } catch (IOException e) {
+            System.out.println("Erro na exportação: " + e.getMessage());
+            System.exit(1);
+        } finally {
+            DatabaseConnection.fecharPool();
+        }
+    }
+
+    private static Integer lerInteiro(String chave, String valor) {
+        try {
+            return Integer.parseInt(valor);
+        } catch (NumberFormatException e) {
+            sair("Erro: Valor '" + valor + "' inválido para " + chave + ".");
+            return null;
+        }
+    }
+
+    private static LocalDateTime lerDataHora(String chave, String valor) {
+        LocalDateTime dataHora = AppController.parseDataHora(valor);
+        if (dataHora == null) {
+            sair("Erro: Data '" + valor + "' inválida para " + chave + ". Use o padrão 'dd/MM/yyyy HH:mm'.");
+        }
+        return dataHora;
+    }
+
+    private static void sair(String mensagem) {
+        System.out.println(mensagem);
+        System.exit(1);
+    }
+}
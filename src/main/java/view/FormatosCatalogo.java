@@ -0,0 +1,112 @@
+package view;
+
+import controller.SnapshotCatalogo;
+import model.EventoComDetalhes;
+import util.Json;
+
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Formatos de exibição de eventos compartilhados pela View: a tabela do console e o JSON da API HTTP.
+ * Usados tanto na impressão item a item quanto nos snapshots pré-renderizados do catálogo.
+ */
+final class FormatosCatalogo {
+
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+    private static final String LINHA_TABELA =
+            "-------------------------------------------------------------------------------------------------------\n";
+
+    /**
+     * Tabela de eventos do console.
+     */
+    static final SnapshotCatalogo.Formato TABELA = new SnapshotCatalogo.Formato() {
+        @Override
+        public String inicio() {
+            return LINHA_TABELA
+                    + String.format("%-5s | %-25s | %-12s | %-16s | %-15s | %-10s\n", "ID", "Nome do Evento", "Categoria", "Data e Hora", "Organizador", "Inscritos")
+                    + LINHA_TABELA;
+        }
+
+        @Override
+        public String separador() {
+            return "";
+        }
+
+        @Override
+        public String item(EventoComDetalhes e) {
+            // Uso dos getters delegados
+            return String.format("%-5d | %-25s | %-12s | %-16s | %-15s | %-10s\n",
+                    e.getId(),
+                    truncar(e.getNome(), 25),
+                    truncar(e.getCategoria().name(), 12),
+                    e.getDataHora().format(FORMATTER),
+                    truncar(e.nomeOrganizador(), 15), // Nome do organizador do DTO
+                    e.inscritos() + "/" + e.getCapacidade()); // Inscritos / capacidade
+        }
+
+        @Override
+        public String fim() {
+            return LINHA_TABELA;
+        }
+
+        @Override
+        public String vazio() {
+            return "Nenhum evento encontrado.\n";
+        }
+    };
+
+    /**
+     * Array JSON de eventos da API HTTP.
+     */
+    static final SnapshotCatalogo.Formato JSON = new SnapshotCatalogo.Formato() {
+        @Override
+        public String inicio() {
+            return "[";
+        }
+
+        @Override
+        public String separador() {
+            return ",";
+        }
+
+        @Override
+        public String item(EventoComDetalhes e) {
+            return "{\"id\":" + e.getId()
+                    + ",\"nome\":" + Json.texto(e.getNome())
+                    + ",\"categoria\":" + Json.texto(e.getCategoria().name())
+                    + ",\"dataHora\":" + Json.texto(e.getDataHora().toString())
+                    + ",\"local\":" + Json.texto(e.evento().local())
+                    + ",\"capacidade\":" + e.getCapacidade()
+                    + ",\"inscritos\":" + e.inscritos()
+                    + ",\"organizadorId\":" + e.evento().organizadorId()
+                    + ",\"organizador\":" + Json.texto(e.nomeOrganizador())
+                    + ",\"descricao\":" + Json.texto(e.evento().descricao()) + "}";
+        }
+
+        @Override
+        public String fim() {
+            return "]";
+        }
+
+        @Override
+        public String vazio() {
+            return "[]";
+        }
+    };
+
+    private FormatosCatalogo() {
+    }
+
+    /**
+     * Função utilitária para truncar strings para exibição em tabela.
+     * @param value A string a ser truncada.
+     * @param length O comprimento máximo.
+     * @return A string truncada com "..." se necessário.
+     */
+    static String truncar(String value, int length) {
+        if (value != null && value.length() > length) {
+            return value.substring(0, length - 3) + "...";
+        }
+        return value;
+    }
+}
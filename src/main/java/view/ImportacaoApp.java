@@ -0,0 +1,70 @@
+package view;
+
+import controller.ImportadorDados;
+import model.RelatorioImportacao;
+import util.DatabaseConnection;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Ponto de entrada de linha de comando para a importação em lote.
+ *
+ * Uso: ImportacaoApp &lt;usuarios|eventos|inscricoes&gt; &lt;arquivo.csv|.json|.jsonl&gt; [tamanhoLote]
+ * Exemplo: mvn compile exec:java -Dexec.mainClass=view.ImportacaoApp -Dexec.args="usuarios usuarios.csv"
+ */
+public class ImportacaoApp {
+
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.out.println("Uso: ImportacaoApp <usuarios|eventos|inscricoes> <arquivo.csv|.json|.jsonl> [tamanhoLote]");
+            System.exit(1);
+        }
+
+        ImportadorDados.TipoImportacao tipo;
+        try {
+            tipo = ImportadorDados.TipoImportacao.valueOf(args[0].trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            System.out.println("Erro: Tipo '" + args[0] + "' inválido. Use usuarios, eventos ou inscricoes.");
+            System.exit(1);
+            return;
+        }
+
+        Path arquivo = Path.of(args[1]);
+        if (!Files.isReadable(arquivo)) {
+            System.out.println("Erro: Arquivo '" + arquivo + "' não encontrado ou sem permissão de leitura.");
+            System.exit(1);
+        }
+
+        int tamanhoLote = ImportadorDados.TAMANHO_LOTE_PADRAO;
+        if (args.length >= 3) {
+            try {
+                tamanhoLote = Integer.parseInt(args[2]);
+            } catch (NumberFormatException e) {
+                System.out.println("Erro: Tamanho de lote '" + args[2] + "' inválido.");
+                System.exit(1);
+            }
+        }
+
+        DatabaseConnection.initializeDatabase();
+        try {
+            System.out.println("Importando " + tipo.name().toLowerCase() + " de " + arquivo + "...");
+            RelatorioImportacao relatorio = new ImportadorDados(tamanhoLote).importar(tipo, arquivo);
+
+            System.out.println("\n" + relatorio);
+            if (!relatorio.motivosRejeicao().isEmpty()) {
+                System.out.println("\nRegistros rejeitados:");
+                relatorio.motivosRejeicao().forEach(m -> System.out.println(" - " + m));
+                if (relatorio.rejeitados() > relatorio.motivosRejeicao().size()) {
+                    System.out.println(" ... e mais " + (relatorio.rejeitados() - relatorio.motivosRejeicao().size()) + " rejeições.");
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("Erro na importação: " + e.getMessage());
+            System.exit(1);
+        } finally {
+            DatabaseConnection.fecharPool();
+        }
+    }
+}
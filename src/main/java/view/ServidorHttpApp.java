@@ -0,0 +1,771 @@
+package view;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import controller.AppController;
+import controller.ArquivamentoEventos;
+import controller.ExportadorDados;
+import controller.FilaInscricoes;
+import controller.SnapshotCatalogo;
+import model.CategoriaEvento;
+import model.EventoComDetalhes;
+import model.FiltroEventos;
+import model.PaginaBusca;
+import model.PaginaEventos;
+import model.ResultadoInscricao;
+import model.Usuario;
+import util.DatabaseConnection;
+import util.Json;
+import util.MetricaOperacao;
+import util.Metricas;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * API HTTP/JSON embutida (com.sun.net.httpserver do próprio JDK), que atende muitos usuários
+ * simultâneos pelo mesmo AppController. Cada cliente se identifica com o token recebido no login
+ * (cabeçalho "Authorization: Bearer &lt;token&gt;"), veja {@link SessoesHttp}.
+ *
+ * As requisições são atendidas por um pool limitado de threads com fila limitada; com a fila cheia
+ * a requisição recebe 503 sem esperar a fila, respondido por um pequeno pool separado (nunca pela
+ * thread do dispatcher, que só aceita conexões). Uma requisição que não chega inteira em
+ * http.tempo_requisicao segundos tem a conexão fechada, para que clientes lentos não prendam threads.
+ * As conexões são mantidas abertas entre requisições (keep-alive do HTTP/1.1): toda resposta tem
+ * Content-Length e o corpo da requisição é sempre lido por inteiro.
+ *
+ * Uso: mvn compile exec:java -Dexec.mainClass=view.ServidorHttpApp
+ * Propriedades: http.porta (8080), http.threads (64), http.fila (1000), http.sessao.minutos (30),
+ * http.tempo_requisicao (10).
+ */
+@SuppressWarnings("try")
+public class ServidorHttpApp {
+
+    private static final int TAMANHO_MAXIMO_CORPO = 64 * 1024;
+    private static final int TAMANHO_PAGINA_PADRAO = 20;
+    private static final Pattern PORTADOR = Pattern.compile("(?i)Bearer\\s+(\\S+)");
+
+    // Threads que respondem 503 às requisições recusadas pela fila cheia.
+    private static final int THREADS_RECUSA = 16;
+
+    // Marca a thread que está atendendo uma requisição recusada pela fila cheia.
+    private static final ThreadLocal<Boolean> SOBRECARGA = ThreadLocal.withInitial(() -> Boolean.FALSE);
+    private static final MetricaOperacao METRICA_RECUSADAS = Metricas.operacao("ServidorHttp.recusadas");
+
+    static {
+        // Prazo para receber a requisição inteira (linha, cabeçalhos e corpo); depois disso o HttpServer
+        // fecha a conexão. Lido pelo JDK na criação do primeiro HttpServer, por isso é definido aqui.
+        if (System.getProperty("sun.net.httpserver.maxReqTime") == null) {
+            System.setProperty("sun.net.httpserver.maxReqTime",
+                    String.valueOf(Integer.getInteger("http.tempo_requisicao", 10)));
+        }
+    }
+
+    private final AppController controller;
+    private final SessoesHttp sessoes;
+    private final SnapshotCatalogo snapshotEventos = new SnapshotCatalogo(FormatosCatalogo.JSON, StandardCharsets.UTF_8);
+    private final List<Rota> rotas = new ArrayList<>();
+    private final ThreadPoolExecutor executor;
+    private final ThreadPoolExecutor recusas;
+    private final HttpServer servidor;
+
+    /**
+     * Dados de uma requisição já roteada.
+     * @param caminho Matcher do caminho (grupos = parâmetros da rota, ex.: ID do evento).
+     * @param parametros Parâmetros da query string.
+     * @param corpo Campos do objeto JSON do corpo (vazio se não houver corpo).
+     * @param cabecalhos Cabeçalhos da requisição.
+     * @param token Token da sessão, se enviado.
+     * @param usuarioId Usuário da sessão, ou null se a requisição não estiver autenticada.
+     */
+    private record Requisicao(Matcher caminho, Map<String, String> parametros, Map<String, String> corpo,
+                              Headers cabecalhos, String token, Integer usuarioId) {
+
+        int idDoCaminho() {
+            try {
+                return Integer.parseInt(caminho.group(1));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("ID inválido: " + caminho.group(1) + ".");
+            }
+        }
+    }
+
+    /**
+     * @param corpo JSON da resposta, já em UTF-8 (vazio no 304 e nas respostas em fluxo).
+     * @param cabecalhos Cabeçalhos extras (ex.: ETag).
+     * @param fluxo Corpo escrito em fluxo, sem tamanho conhecido (ex.: exportações), ou null.
+     */
+    private record Resposta(int status, byte[] corpo, Map<String, String> cabecalhos, Fluxo fluxo) {
+
+        Resposta(int status, String json) {
+            this(status, json.getBytes(StandardCharsets.UTF_8), Map.of(), null);
+        }
+
+        Resposta(int status, byte[] corpo, Map<String, String> cabecalhos) {
+            this(status, corpo, cabecalhos, null);
+        }
+    }
+
+    /**
+     * Corpo gerado durante o envio da resposta (chunked), depois que a ação já decidiu o status.
+     */
+    @FunctionalInterface
+    private interface Fluxo {
+        void escrever(OutputStream saida) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface Acao {
+        /**
+         * @throws IllegalArgumentException Se os parâmetros forem inválidos (vira 400).
+         */
+        Resposta executar(Requisicao requisicao);
+    }
+
+    private record Rota(String metodo, Pattern caminho, boolean exigeLogin, MetricaOperacao metrica, Acao acao) {
+    }
+
+    /**
+     * @param controller Controller compartilhado por todas as requisições.
+     * @param porta Porta TCP (0 escolhe uma porta livre).
+     * @param threads Número de requisições atendidas ao mesmo tempo.
+     * @param capacidadeFila Número de requisições aguardando uma thread livre.
+     * @param inatividadeSessao Tempo sem uso após o qual a sessão expira.
+     */
+    public ServidorHttpApp(AppController controller, int porta, int threads, int capacidadeFila,
+                           Duration inatividadeSessao) throws IOException {
+        if (threads <= 0 || capacidadeFila <= 0) {
+            throw new IllegalArgumentException("O número de threads e a capacidade da fila devem ser positivos.");
+        }
+        this.controller = controller;
+        this.sessoes = new SessoesHttp(inatividadeSessao);
+        registrarRotas();
+
+        // Ler a requisição recusada pode demorar (cliente lento, até o prazo da requisição): por isso as
+        // recusas têm threads próprias em vez de rodar no dispatcher, que pararia de aceitar conexões.
+        // A fila das recusas não tem limite; cada item é uma conexão já aceita, que o prazo encerra.
+        AtomicInteger contadorRecusas = new AtomicInteger();
+        this.recusas = new ThreadPoolExecutor(THREADS_RECUSA, THREADS_RECUSA, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), r -> {
+                    Thread t = new Thread(r, "http-recusa-" + contadorRecusas.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+        this.recusas.allowCoreThreadTimeOut(true);
+
+        AtomicInteger contador = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacidadeFila), r -> {
+                    Thread t = new Thread(r, "http-" + contador.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                }, (tarefa, executorCheio) -> recusas.execute(() -> {
+                    // Fila cheia: a requisição é atendida só para responder 503.
+                    SOBRECARGA.set(Boolean.TRUE);
+                    try {
+                        tarefa.run();
+                    } finally {
+                        SOBRECARGA.set(Boolean.FALSE);
+                    }
+                }));
+
+        // Backlog do socket igual à fila: conexões além disso esperam no sistema operacional.
+        this.servidor = HttpServer.create(new InetSocketAddress(porta), capacidadeFila);
+        this.servidor.createContext("/api/", this::atender);
+        this.servidor.setExecutor(executor);
+    }
+
+    public void iniciar() {
+        servidor.start();
+    }
+
+    /**
+     * Para de aceitar conexões e aguarda até o prazo as requisições em andamento.
+     */
+    public void parar(int prazoSegundos) {
+        servidor.stop(prazoSegundos);
+        executor.shutdown();
+        recusas.shutdown();
+        try {
+            executor.awaitTermination(prazoSegundos, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public int getPorta() {
+        return servidor.getAddress().getPort();
+    }
+
+    public int getSessoesAtivas() {
+        return sessoes.getSessoesAtivas();
+    }
+
+    // --- ROTAS ---
+
+    private void registrarRotas() {
+        rota("POST", "/api/login", false, "login", this::login);
+        rota("POST", "/api/logout", true, "logout", this::logout);
+        rota("POST", "/api/usuarios", false, "criarConta", this::criarConta);
+
+        rota("GET", "/api/eventos", true, "listarEventos", this::listarEventos);
+        rota("GET", "/api/eventos/busca", true, "buscarEventos", this::buscarEventos);
+        rota("GET", "/api/eventos/snapshot", true, "snapshotEventos", this::snapshotEventos);
+        rota("POST", "/api/eventos", true, "criarEvento", this::criarEvento);
+        rota("DELETE", "/api/eventos/(\\d+)", true, "deletarEvento", this::deletarEvento);
+        rota("POST", "/api/eventos/(\\d+)/inscricao", true, "inscrever", this::inscrever);
+        rota("DELETE", "/api/eventos/(\\d+)/inscricao", true, "cancelarInscricao", this::cancelarInscricao);
+        rota("GET", "/api/eventos/(\\d+)/inscritos", true, "exportarInscritosEvento", this::exportarInscritosEvento);
+
+        rota("GET", "/api/me", true, "meusDados", this::meusDados);
+        rota("DELETE", "/api/me", true, "deletarMinhaConta", this::deletarMinhaConta);
+        rota("GET", "/api/me/inscricoes", true, "minhasInscricoes",
+                r -> ok(eventos(controller.listarInscricoesDoUsuario(r.usuarioId()))));
+        rota("GET", "/api/me/eventos", true, "meusEventosOrganizados",
+                r -> ok(eventos(controller.listarEventosOrganizados(r.usuarioId()))));
+        rota("GET", "/api/me/historico", true, "meuHistorico",
+                r -> ok(eventos(controller.listarHistoricoDoUsuario(r.usuarioId()))));
+        rota("GET", "/api/me/exportacao", true, "exportarInscritos", this::exportarInscritos);
+
+        rota("GET", "/api/admin/usuarios", true, "listarUsuarios", this::listarUsuarios);
+        rota("PUT", "/api/admin/usuarios/(\\d+)/admin", true, "alterarStatusAdmin", this::alterarStatusAdmin);
+        rota("DELETE", "/api/admin/usuarios/(\\d+)", true, "deletarUsuario", this::deletarUsuario);
+        rota("POST", "/api/admin/arquivamento", true, "arquivarEventos", this::arquivarEventos);
+        rota("GET", "/api/admin/historico", true, "historicoEventos", this::historicoEventos);
+        rota("GET", "/api/admin/metricas", true, "metricas",
+                r -> comoAdmin(r, () -> ok(Metricas.comoJson())));
+    }
+
+    private void rota(String metodo, String caminho, boolean exigeLogin, String nome, Acao acao) {
+        rotas.add(new Rota(metodo, Pattern.compile(caminho), exigeLogin, Metricas.operacao("ServidorHttp." + nome), acao));
+    }
+
+    // --- ATENDIMENTO ---
+
+    private void atender(HttpExchange troca) {
+        try (troca) {
+            if (SOBRECARGA.get()) {
+                METRICA_RECUSADAS.registrarErro();
+                troca.getResponseHeaders().set("Retry-After", "1");
+                // Sem ler o corpo: a conexão é fechada depois da resposta.
+                troca.getResponseHeaders().set("Connection", "close");
+                responder(troca, new Resposta(503, erro("Servidor sobrecarregado. Tente novamente em instantes.")));
+                return;
+            }
+
+            // O corpo é sempre lido por inteiro, para que a conexão possa ser reaproveitada.
+            byte[] bytes = troca.getRequestBody().readNBytes(TAMANHO_MAXIMO_CORPO + 1);
+            if (bytes.length > TAMANHO_MAXIMO_CORPO) {
+                troca.getResponseHeaders().set("Connection", "close");
+                responder(troca, new Resposta(413, erro("Corpo da requisição maior que " + TAMANHO_MAXIMO_CORPO + " bytes.")));
+                return;
+            }
+            Map<String, String> corpo;
+            try {
+                corpo = lerCorpo(bytes);
+            } catch (IllegalArgumentException e) {
+                responder(troca, new Resposta(400, erro(e.getMessage())));
+                return;
+            }
+
+            String caminho = troca.getRequestURI().getPath();
+            Rota encontrada = null;
+            Matcher matcher = null;
+            boolean caminhoExiste = false;
+            for (Rota rota : rotas) {
+                Matcher m = rota.caminho().matcher(caminho);
+                if (m.matches()) {
+                    caminhoExiste = true;
+                    if (rota.metodo().equals(troca.getRequestMethod())) {
+                        encontrada = rota;
+                        matcher = m;
+                        break;
+                    }
+                }
+            }
+            if (encontrada == null) {
+                responder(troca, caminhoExiste ? new Resposta(405, erro("Método não permitido."))
+                        : new Resposta(404, erro("Recurso não encontrado.")));
+                return;
+            }
+
+            String token = token(troca);
+            Integer usuarioId = sessoes.usuarioDo(token);
+            if (encontrada.exigeLogin() && usuarioId == null) {
+                responder(troca, new Resposta(401, erro("Faça login para continuar.")));
+                return;
+            }
+
+            Requisicao requisicao = new Requisicao(matcher, parametros(troca.getRequestURI().getRawQuery()), corpo,
+                    troca.getRequestHeaders(), token, usuarioId);
+            responder(troca, executar(encontrada, requisicao));
+        } catch (IOException e) {
+            // Cliente desconectou no meio da resposta: não há a quem avisar.
+            System.err.println("Erro ao responder requisição HTTP: " + e.getMessage());
+        }
+    }
+
+    private Resposta executar(Rota rota, Requisicao requisicao) {
+        try (MetricaOperacao.Medicao medicao = rota.metrica().iniciar()) {
+            return rota.acao().executar(requisicao);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return new Resposta(400, erro(e.getMessage()));
+        } catch (RuntimeException e) {
+            rota.metrica().registrarErro();
+            System.err.println("Erro ao atender " + rota.metodo() + " " + rota.caminho() + ": " + e);
+            return new Resposta(500, erro("Erro interno do servidor."));
+        }
+    }
+
+    private static void responder(HttpExchange troca, Resposta resposta) throws IOException {
+        resposta.cabecalhos().forEach(troca.getResponseHeaders()::set);
+        if (resposta.fluxo() != null) {
+            responderEmFluxo(troca, resposta);
+            return;
+        }
+        if (resposta.status() == 304) {
+            // 304 não tem corpo (-1 = sem Content-Length).
+            troca.sendResponseHeaders(304, -1);
+            return;
+        }
+        byte[] bytes = resposta.corpo();
+        troca.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        troca.sendResponseHeaders(resposta.status(), bytes.length);
+        try (OutputStream saida = troca.getResponseBody()) {
+            saida.write(bytes);
+        }
+    }
+
+    /**
+     * Envia a resposta em chunks, comprimida com gzip se o cliente aceitar. Um erro no meio do envio
+     * não tem mais como virar status HTTP: ele é registrado no log e o corpo termina onde parou.
+     */
+    private static void responderEmFluxo(HttpExchange troca, Resposta resposta) throws IOException {
+        String aceita = troca.getRequestHeaders().getFirst("Accept-Encoding");
+        boolean gzip = aceita != null && aceita.toLowerCase().contains("gzip");
+        if (gzip) {
+            troca.getResponseHeaders().set("Content-Encoding", "gzip");
+        }
+        troca.getResponseHeaders().add("Vary", "Accept-Encoding");
+        troca.sendResponseHeaders(resposta.status(), 0);
+        try (OutputStream saida = gzip ? new GZIPOutputStream(troca.getResponseBody(), 64 * 1024)
+                : troca.getResponseBody()) {
+            resposta.fluxo().escrever(saida);
+        }
+    }
+
+    private static String token(HttpExchange troca) {
+        String autorizacao = troca.getRequestHeaders().getFirst("Authorization");
+        if (autorizacao == null) {
+            return null;
+        }
+        Matcher m = PORTADOR.matcher(autorizacao.trim());
+        return m.matches() ? m.group(1) : null;
+    }
+
+    /**
+     * Interpreta o objeto JSON do corpo, se houver.
+     * @throws IllegalArgumentException Se o corpo não for um objeto JSON plano válido.
+     */
+    private static Map<String, String> lerCorpo(byte[] bytes) {
+        if (new String(bytes, StandardCharsets.UTF_8).isBlank()) {
+            return Map.of();
+        }
+        try {
+            Map<String, String> campos = new Json.LeitorObjetos(
+                    new InputStreamReader(new ByteArrayInputStream(bytes), StandardCharsets.UTF_8)).proximo();
+            return campos != null ? campos : Map.of();
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e.getMessage());
+        }
+    }
+
+    private static Map<String, String> parametros(String query) {
+        Map<String, String> parametros = new HashMap<>();
+        if (query == null || query.isEmpty()) {
+            return parametros;
+        }
+        for (String par : query.split("&")) {
+            int igual = par.indexOf('=');
+            String chave = igual < 0 ? par : par.substring(0, igual);
+            String valor = igual < 0 ? "" : par.substring(igual + 1);
+            parametros.put(URLDecoder.decode(chave, StandardCharsets.UTF_8), URLDecoder.decode(valor, StandardCharsets.UTF_8));
+        }
+        return parametros;
+    }
+
+    // --- AÇÕES: SESSÃO E CONTA ---
+
+    private Resposta login(Requisicao r) {
+        Usuario usuario = controller.fazerLogin(r.corpo().get("email"), r.corpo().get("senha"));
+        if (usuario == null) {
+            return new Resposta(401, erro("Email ou senha inválidos."));
+        }
+        String token = sessoes.criar(usuario.id());
+        return ok("{\"token\":" + Json.texto(token) + ",\"usuario\":" + usuario(usuario) + "}");
+    }
+
+    private Resposta logout(Requisicao r) {
+        sessoes.encerrar(r.token());
+        return ok("{}");
+    }
+
+    private Resposta criarConta(Requisicao r) {
+        String nome = r.corpo().get("nome");
+        String email = r.corpo().get("email");
+        String senha = r.corpo().get("senha");
+        String invalido = AppController.validarDadosConta(nome, email, senha);
+        if (invalido != null) {
+            return new Resposta(400, erro(invalido));
+        }
+        if (!controller.criarNovaConta(nome, email, senha)) {
+            return new Resposta(409, erro("Não foi possível criar a conta (o email já pode estar em uso)."));
+        }
+        return new Resposta(201, "{}");
+    }
+
+    private Resposta meusDados(Requisicao r) {
+        Usuario usuario = controller.getUsuario(r.usuarioId());
+        return usuario == null ? new Resposta(404, erro("Usuário não encontrado.")) : ok(usuario(usuario));
+    }
+
+    private Resposta deletarMinhaConta(Requisicao r) {
+        if (!controller.deletarConta(r.usuarioId(), r.usuarioId())) {
+            return new Resposta(409, erro("Não foi possível deletar a conta (o único administrador não pode se deletar)."));
+        }
+        sessoes.encerrarDoUsuario(r.usuarioId());
+        return ok("{}");
+    }
+
+    // --- AÇÕES: EVENTOS ---
+
+    /**
+     * GET /api/eventos?categoria=&futuros=true&tamanho=&aposData=&aposId= (paginação por chave).
+     */
+    private Resposta listarEventos(Requisicao r) {
+        PaginaEventos.Cursor apos = null;
+        String aposData = r.parametros().get("aposData");
+        if (aposData != null) {
+            apos = new PaginaEventos.Cursor(LocalDateTime.parse(aposData), inteiro(r, "aposId", 0));
+        }
+        PaginaEventos pagina = controller.listarEventosPaginados(filtro(r), apos, tamanhoPagina(r));
+        return ok(pagina(pagina));
+    }
+
+    /**
+     * GET /api/eventos/busca?q=&categoria=&futuros=true&pagina=&tamanho=
+     */
+    private Resposta buscarEventos(Requisicao r) {
+        String termos = r.parametros().getOrDefault("q", "");
+        PaginaBusca pagina = controller.buscarEventos(termos, filtro(r), inteiro(r, "pagina", 1), tamanhoPagina(r));
+        return ok("{\"eventos\":" + eventos(pagina.eventos()) + ",\"pagina\":" + pagina.pagina()
+                + ",\"temProxima\":" + pagina.temProxima() + "}");
+    }
+
+    /**
+     * GET /api/eventos/snapshot: todos os eventos, servidos do snapshot pré-renderizado.
+     * Responde 304 quando o If-None-Match já é o ETag do snapshot atual; a versão do catálogo também
+     * vai no cabeçalho X-Versao-Catalogo.
+     */
+    private Resposta snapshotEventos(Requisicao r) {
+        SnapshotCatalogo.Instantaneo snapshot = snapshotEventos.obter();
+        if (snapshot == null) {
+            return new Resposta(503, erro("Catálogo de eventos indisponível."));
+        }
+        Map<String, String> cabecalhos =
+                Map.of("ETag", snapshot.etag(), "X-Versao-Catalogo", Long.toString(snapshot.versao()));
+        if (snapshot.etag().equals(r.cabecalhos().getFirst("If-None-Match"))) {
+            return new Resposta(304, new byte[0], cabecalhos);
+        }
+        return new Resposta(200, snapshot.bytes(), cabecalhos);
+    }
+
+    private Resposta criarEvento(Requisicao r) {
+        Map<String, String> c = r.corpo();
+        // Mesmas validações do controller, feitas antes para devolver a mensagem ao cliente.
+        if (AppController.parseCategoria(c.get("categoria")) == null) {
+            return new Resposta(400, erro("Categoria inválida."));
+        }
+        LocalDateTime dataHora = AppController.parseDataHora(c.get("dataHora"));
+        if (dataHora == null) {
+            return new Resposta(400, erro("Formato de data e hora inválido. Use o padrão 'dd/MM/yyyy HH:mm'."));
+        }
+        int capacidade = inteiro(c.get("capacidade"), "capacidade", 0);
+        String invalido = AppController.validarDadosEvento(c.get("nome"), dataHora, c.get("local"), capacidade,
+                c.get("descricao"), LocalDateTime.now());
+        if (invalido != null) {
+            return new Resposta(400, erro(invalido));
+        }
+        int id = controller.criarNovoEvento(r.usuarioId(), c.get("nome"), c.get("categoria"), c.get("dataHora"),
+                c.get("local"), capacidade, c.get("descricao"));
+        return id == -1 ? new Resposta(500, erro("Falha ao criar evento.")) : new Resposta(201, "{\"id\":" + id + "}");
+    }
+
+    private Resposta deletarEvento(Requisicao r) {
+        if (!controller.deletarEvento(r.idDoCaminho(), r.usuarioId())) {
+            return new Resposta(403, erro("Evento não encontrado ou sem permissão para deletá-lo."));
+        }
+        return ok("{}");
+    }
+
+    private Resposta inscrever(Requisicao r) {
+        ResultadoInscricao resultado = controller.inscreverEmEventoComResultado(r.usuarioId(), r.idDoCaminho());
+        int status = switch (resultado) {
+            case OK -> 201;
+            case NOT_FOUND, USER_NOT_FOUND -> 404;
+            case ERRO -> 500;
+            default -> 409;
+        };
+        return new Resposta(status, "{\"resultado\":" + Json.texto(resultado.name())
+                + ",\"mensagem\":" + Json.texto(resultado.getDescricao()) + "}");
+    }
+
+    /**
+     * GET /api/eventos/{id}/inscritos?formato=csv|jsonl (organizador do evento ou admin).
+     */
+    private Resposta exportarInscritosEvento(Requisicao r) {
+        int eventoId = r.idDoCaminho();
+        ExportadorDados.FormatoExportacao formato = formatoExportacao(r);
+        if (!controller.podeExportarInscritos(r.usuarioId(), eventoId)) {
+            return new Resposta(403, erro("Evento não encontrado ou sem permissão para exportar os inscritos."));
+        }
+        return exportacao(formato, "inscritos-evento-" + eventoId,
+                saida -> controller.exportarInscritos(r.usuarioId(), eventoId, FiltroEventos.TODOS, formato, saida));
+    }
+
+    /**
+     * GET /api/me/exportacao?formato=csv|jsonl&categoria=&futuros=true
+     * Eventos organizados pelo usuário (todos, para admins) com os inscritos.
+     */
+    private Resposta exportarInscritos(Requisicao r) {
+        ExportadorDados.FormatoExportacao formato = formatoExportacao(r);
+        FiltroEventos filtro = filtro(r);
+        return exportacao(formato, "inscritos",
+                saida -> controller.exportarInscritos(r.usuarioId(), null, filtro, formato, saida));
+    }
+
+    private static Resposta exportacao(ExportadorDados.FormatoExportacao formato, String nomeArquivo, Fluxo fluxo) {
+        boolean csv = formato == ExportadorDados.FormatoExportacao.CSV;
+        String extensao = csv ? ".csv" : ".jsonl";
+        return new Resposta(200, new byte[0], Map.of(
+                "Content-Type", csv ? "text/csv; charset=utf-8" : "application/x-ndjson; charset=utf-8",
+                "Content-Disposition", "attachment; filename=\"" + nomeArquivo + extensao + "\""), fluxo);
+    }
+
+    private static ExportadorDados.FormatoExportacao formatoExportacao(Requisicao r) {
+        String formato = r.parametros().getOrDefault("formato", "csv");
+        try {
+            return ExportadorDados.FormatoExportacao.valueOf(formato.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Formato '" + formato + "' inválido. Use csv ou jsonl.");
+        }
+    }
+
+    private Resposta cancelarInscricao(Requisicao r) {
+        if (!controller.cancelarPresenca(r.usuarioId(), r.idDoCaminho())) {
+            return new Resposta(409, erro("Você não está inscrito neste evento."));
+        }
+        return ok("{}");
+    }
+
+    // --- AÇÕES: ADMIN ---
+
+    private Resposta comoAdmin(Requisicao r, Supplier<Resposta> acao) {
+        Usuario usuario = controller.getUsuario(r.usuarioId());
+        if (usuario == null || !usuario.isAdmin()) {
+            return new Resposta(403, erro("Apenas administradores podem executar esta operação."));
+        }
+        return acao.get();
+    }
+
+    private Resposta listarUsuarios(Requisicao r) {
+        return comoAdmin(r, () -> {
+            StringBuilder json = new StringBuilder("[");
+            for (Usuario u : controller.listarTodosUsuarios()) {
+                if (json.length() > 1) {
+                    json.append(',');
+                }
+                json.append(usuario(u));
+            }
+            return ok(json.append(']').toString());
+        });
+    }
+
+    private Resposta alterarStatusAdmin(Requisicao r) {
+        String admin = r.corpo().get("admin");
+        if (!"true".equals(admin) && !"false".equals(admin)) {
+            throw new IllegalArgumentException("Informe \"admin\": true ou false.");
+        }
+        if (!controller.toggleAdminStatus(r.usuarioId(), r.idDoCaminho(), Boolean.parseBoolean(admin))) {
+            return new Resposta(409, erro("Não foi possível alterar o status de admin. Verifique o ID e as regras de negócio."));
+        }
+        return ok("{}");
+    }
+
+    private Resposta deletarUsuario(Requisicao r) {
+        int alvo = r.idDoCaminho();
+        if (!controller.deletarConta(r.usuarioId(), alvo)) {
+            return new Resposta(409, erro("Não foi possível deletar a conta. Verifique a permissão ou o ID."));
+        }
+        sessoes.encerrarDoUsuario(alvo);
+        return ok("{}");
+    }
+
+    private Resposta arquivarEventos(Requisicao r) {
+        int arquivados = controller.arquivarEventosPassados(r.usuarioId());
+        if (arquivados < 0) {
+            return new Resposta(403, erro("Apenas administradores podem arquivar eventos."));
+        }
+        return ok("{\"arquivados\":" + arquivados + "}");
+    }
+
+    /**
+     * GET /api/admin/historico?tamanho=&antesData=&antesId= (do mais recente para o mais antigo).
+     */
+    private Resposta historicoEventos(Requisicao r) {
+        return comoAdmin(r, () -> {
+            PaginaEventos.Cursor antes = null;
+            String antesData = r.parametros().get("antesData");
+            if (antesData != null) {
+                antes = new PaginaEventos.Cursor(LocalDateTime.parse(antesData), inteiro(r, "antesId", 0));
+            }
+            return ok(pagina(controller.listarHistoricoEventos(antes, tamanhoPagina(r))));
+        });
+    }
+
+    // --- PARÂMETROS ---
+
+    private static FiltroEventos filtro(Requisicao r) {
+        String categoriaStr = r.parametros().get("categoria");
+        CategoriaEvento categoria = null;
+        if (categoriaStr != null && !categoriaStr.isBlank()) {
+            categoria = AppController.parseCategoria(categoriaStr);
+            if (categoria == null) {
+                throw new IllegalArgumentException("Categoria '" + categoriaStr + "' inválida.");
+            }
+        }
+        boolean futuros = "true".equalsIgnoreCase(r.parametros().get("futuros"));
+        return futuros ? FiltroEventos.futuros(categoria) : new FiltroEventos(categoria, null, null);
+    }
+
+    private static int tamanhoPagina(Requisicao r) {
+        int tamanho = inteiro(r, "tamanho", TAMANHO_PAGINA_PADRAO);
+        if (tamanho <= 0 || tamanho > AppController.TAMANHO_MAXIMO_PAGINA) {
+            throw new IllegalArgumentException("O tamanho da página deve estar entre 1 e " + AppController.TAMANHO_MAXIMO_PAGINA + ".");
+        }
+        return tamanho;
+    }
+
+    private static int inteiro(Requisicao r, String nome, int padrao) {
+        return inteiro(r.parametros().get(nome), nome, padrao);
+    }
+
+    private static int inteiro(String valor, String nome, int padrao) {
+        if (valor == null || valor.isBlank()) {
+            return padrao;
+        }
+        try {
+            return Integer.parseInt(valor.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Valor numérico inválido para " + nome + ": '" + valor + "'.");
+        }
+    }
+
+    // --- JSON ---
+
+    private static Resposta ok(String json) {
+        return new Resposta(200, json);
+    }
+
+    private static String erro(String mensagem) {
+        return "{\"erro\":" + Json.texto(mensagem) + "}";
+    }
+
+    // A senha nunca sai na resposta.
+    private static String usuario(Usuario u) {
+        return "{\"id\":" + u.id() + ",\"nome\":" + Json.texto(u.nome()) + ",\"email\":" + Json.texto(u.email())
+                + ",\"admin\":" + u.isAdmin() + "}";
+    }
+
+    private static String eventos(List<EventoComDetalhes> eventos) {
+        if (eventos.isEmpty()) {
+            return FormatosCatalogo.JSON.vazio();
+        }
+        StringBuilder json = new StringBuilder(FormatosCatalogo.JSON.inicio());
+        for (int i = 0; i < eventos.size(); i++) {
+            if (i > 0) {
+                json.append(FormatosCatalogo.JSON.separador());
+            }
+            json.append(FormatosCatalogo.JSON.item(eventos.get(i)));
+        }
+        return json.append(FormatosCatalogo.JSON.fim()).toString();
+    }
+
+    private static String pagina(PaginaEventos pagina) {
+        String proxima = pagina.proxima() == null ? "null"
+                : "{\"dataHora\":" + Json.texto(pagina.proxima().dataHora().toString()) + ",\"id\":" + pagina.proxima().id() + "}";
+        return "{\"eventos\":" + eventos(pagina.eventos()) + ",\"proxima\":" + proxima + "}";
+    }
+
+    // --- PONTO DE ENTRADA ---
+
+    public static void main(String[] ignoredArgs) throws IOException {
+        int porta = propriedade("http.porta", 8080);
+        int threads = propriedade("http.threads", 64);
+        int fila = propriedade("http.fila", 1000);
+        int minutosSessao = propriedade("http.sessao.minutos", 30);
+
+        DatabaseConnection.initializeDatabase();
+        Metricas.iniciarExportacaoPeriodica();
+        ArquivamentoEventos.iniciarPeriodico();
+        // Muitas requisições simultâneas: inscrições e cancelamentos gravados em lotes (commit em grupo).
+        FilaInscricoes filaInscricoes = new FilaInscricoes();
+        AppController controller = new AppController(filaInscricoes);
+        int eventosCatalogo = controller.carregarCatalogo();
+        if (eventosCatalogo >= 0) {
+            System.out.println("Catálogo em memória: " + eventosCatalogo + " evento(s).");
+        }
+
+        ServidorHttpApp servidor = new ServidorHttpApp(controller, porta, threads, fila, Duration.ofMinutes(minutosSessao));
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            System.out.println("Encerrando o servidor HTTP...");
+            servidor.parar(5);
+            filaInscricoes.close();
+            Metricas.pararExportacaoPeriodica();
+            ArquivamentoEventos.pararPeriodico();
+            DatabaseConnection.fecharPool();
+        }, "http-encerramento"));
+        servidor.iniciar();
+        System.out.println("API HTTP ouvindo na porta " + servidor.getPorta() + " (" + threads + " threads, fila de " + fila + ").");
+    }
+
+    private static int propriedade(String nome, int padrao) {
+        try {
+            return Integer.parseInt(System.getProperty(nome, String.valueOf(padrao)).trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Valor numérico inválido para " + nome + ".");
+        }
+    }
+}
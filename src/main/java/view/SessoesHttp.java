@@ -0,0 +1,106 @@
+package view;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sessões da API HTTP: cada login gera um token aleatório, enviado pelo cliente no cabeçalho
+ * "Authorization: Bearer &lt;token&gt;". A sessão guarda apenas o ID do usuário (o status de admin é
+ * conferido a cada requisição) e expira depois de um tempo sem uso.
+ *
+ * Substitui o campo estático usuarioLogado do console, que só permite uma pessoa por processo.
+ */
+final class SessoesHttp {
+
+    // A cada quantos logins as sessões expiradas são removidas do mapa.
+    private static final int INTERVALO_LIMPEZA = 256;
+
+    private final SecureRandom aleatorio = new SecureRandom();
+    private final Map<String, Sessao> sessoes = new ConcurrentHashMap<>();
+    private final AtomicInteger criacoes = new AtomicInteger();
+    private final long inatividadeMaximaNanos;
+
+    /**
+     * Sessão ativa. O último acesso é atualizado sem trava: basta um valor recente.
+     */
+    private static final class Sessao {
+        final int usuarioId;
+        volatile long ultimoAcessoNanos;
+
+        Sessao(int usuarioId, long agora) {
+            this.usuarioId = usuarioId;
+            this.ultimoAcessoNanos = agora;
+        }
+    }
+
+    /**
+     * @param inatividadeMaxima Tempo sem requisições após o qual a sessão expira.
+     */
+    SessoesHttp(Duration inatividadeMaxima) {
+        this.inatividadeMaximaNanos = inatividadeMaxima.toNanos();
+    }
+
+    /**
+     * Abre uma sessão para o usuário.
+     * @return O token da sessão.
+     */
+    String criar(int usuarioId) {
+        if (criacoes.incrementAndGet() % INTERVALO_LIMPEZA == 0) {
+            removerExpiradas();
+        }
+        byte[] bytes = new byte[32];
+        aleatorio.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        sessoes.put(token, new Sessao(usuarioId, System.nanoTime()));
+        return token;
+    }
+
+    /**
+     * @return O ID do usuário da sessão, ou null se o token não existir ou a sessão tiver expirado.
+     */
+    Integer usuarioDo(String token) {
+        if (token == null) {
+            return null;
+        }
+        Sessao sessao = sessoes.get(token);
+        if (sessao == null) {
+            return null;
+        }
+        long agora = System.nanoTime();
+        if (agora - sessao.ultimoAcessoNanos > inatividadeMaximaNanos) {
+            sessoes.remove(token, sessao);
+            return null;
+        }
+        sessao.ultimoAcessoNanos = agora;
+        return sessao.usuarioId;
+    }
+
+    /**
+     * Encerra a sessão do token (logout).
+     */
+    void encerrar(String token) {
+        if (token != null) {
+            sessoes.remove(token);
+        }
+    }
+
+    /**
+     * Encerra todas as sessões de um usuário (ex.: conta deletada).
+     */
+    void encerrarDoUsuario(int usuarioId) {
+        sessoes.values().removeIf(s -> s.usuarioId == usuarioId);
+    }
+
+    int getSessoesAtivas() {
+        return sessoes.size();
+    }
+
+    private void removerExpiradas() {
+        long agora = System.nanoTime();
+        sessoes.values().removeIf(s -> agora - s.ultimoAcessoNanos > inatividadeMaximaNanos);
+    }
+}
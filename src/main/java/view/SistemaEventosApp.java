@@ -1,12 +1,19 @@
 package view;
 
 import controller.AppController;
+import controller.ArquivamentoEventos;
+import controller.SnapshotCatalogo;
 import model.CategoriaEvento;
 import model.EventoComDetalhes;
+import model.FiltroEventos;
+import model.PaginaBusca;
+import model.PaginaEventos;
 import model.Usuario;
 import util.DatabaseConnection;
+import util.Metricas;
+import util.MonitorSql;
 
-import java.time.format.DateTimeFormatter;
+import java.nio.charset.Charset;
 import java.util.InputMismatchException;
 import java.util.List;
 import java.util.Scanner;
@@ -22,7 +29,10 @@ public class SistemaEventosApp {
     private static final Scanner scanner = new Scanner(System.in);
     // Variável de estado que armazena o usuário logado, controlando a sessão.
     private static Usuario usuarioLogado = null;
-    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+    // Tabela com todos os eventos, pré-renderizada na codificação do console (veja SnapshotCatalogo).
+    private static final SnapshotCatalogo SNAPSHOT_TABELA = new SnapshotCatalogo(FormatosCatalogo.TABELA, Charset.defaultCharset());
+    // Número de eventos exibidos por página ao navegar pelo catálogo.
+    private static final int EVENTOS_POR_PAGINA = 20;
 
 
     /**
@@ -32,13 +42,28 @@ public class SistemaEventosApp {
         // Garante que o banco de dados e as tabelas sejam criados e que o
         // usuário administrador padrão seja inserido.
         DatabaseConnection.initializeDatabase();
+        // Exportação periódica das métricas, se -Dmetricas.arquivo=... foi informado.
+        Metricas.iniciarExportacaoPeriodica();
+        // Move os eventos passados para o arquivo antes de carregar o catálogo (e, depois, periodicamente).
+        int eventosArquivados = ArquivamentoEventos.iniciarPeriodico();
+        if (eventosArquivados > 0) {
+            System.out.println("Eventos passados arquivados: " + eventosArquivados + ".");
+        }
+        // Catálogo de eventos em memória (a navegação não precisa ir ao banco).
+        int eventosCatalogo = controller.carregarCatalogo();
+        if (eventosCatalogo >= 0) {
+            System.out.println("Catálogo em memória: " + eventosCatalogo + " evento(s).");
+        }
 
         try {
             // Inicia o fluxo de autenticação/menu principal.
             exibirMenuLogin();
         } finally {
-            // Garante que o Scanner seja fechado ao encerrar a aplicação.
+            // Garante que o Scanner e as conexões do pool sejam fechados ao encerrar a aplicação.
             scanner.close();
+            Metricas.pararExportacaoPeriodica();
+            ArquivamentoEventos.pararPeriodico();
+            DatabaseConnection.fecharPool();
         }
     }
 
@@ -129,6 +154,8 @@ public class SistemaEventosApp {
             System.out.println("6. Criar Novo Evento");
             System.out.println("7. Deletar Evento (Apenas os que você organizou)");
             System.out.println("8. Deletar Minha Conta");
+            System.out.println("9. Buscar Eventos");
+            System.out.println("10. Meu Histórico de Eventos");
             System.out.println("0. Fazer Logout");
             System.out.print("Escolha uma opção: ");
 
@@ -136,7 +163,7 @@ public class SistemaEventosApp {
 
             switch (opcao) {
                 case 1:
-                    listarEventosDisponiveis(controller.listarTodosEventosComDetalhes());
+                    navegarCatalogo();
                     break;
                 case 2:
                     inscreverEmEvento();
@@ -159,6 +186,12 @@ public class SistemaEventosApp {
                 case 8:
                     deletarConta(usuarioLogado.id());
                     break;
+                case 9:
+                    buscarEventos();
+                    break;
+                case 10:
+                    listarMeuHistorico();
+                    break;
                 case 0:
                     fazerLogout();
                     break;
@@ -176,8 +209,15 @@ public class SistemaEventosApp {
         System.out.println("\nTotal de eventos inscritos: " + eventos.size());
     }
 
+    private static void listarMeuHistorico() {
+        System.out.println("\n--- Meu Histórico de Eventos (eventos passados) ---");
+        List<EventoComDetalhes> eventos = controller.listarHistoricoDoUsuario(usuarioLogado.id());
+        listarEventosDisponiveis(eventos);
+        System.out.println("\nTotal de eventos no histórico: " + eventos.size());
+    }
+
     private static void inscreverEmEvento() {
-        listarEventosDisponiveis(controller.listarTodosEventosComDetalhes());
+        navegarCatalogo();
 
         System.out.print("\nDigite o ID do evento para se inscrever: ");
         int eventoId = lerOpcao();
@@ -337,6 +377,11 @@ public class SistemaEventosApp {
             System.out.println("4. Deletar Evento (Qualquer um)");
             System.out.println("5. Alterar Status de Admin de Usuário");
             System.out.println("6. Deletar Conta de Usuário (Qualquer um)");
+            System.out.println("7. Ver Métricas de Desempenho");
+            System.out.println("8. Monitor de SQL (consultas lentas)");
+            System.out.println("9. Buscar Eventos");
+            System.out.println("10. Arquivar Eventos Passados");
+            System.out.println("11. Histórico de Eventos Arquivados");
             System.out.println("0. Fazer Logout");
             System.out.print("Escolha uma opção: ");
 
@@ -344,7 +389,7 @@ public class SistemaEventosApp {
 
             switch (opcao) {
                 case 1:
-                    listarEventosDisponiveis(controller.listarTodosEventosComDetalhes());
+                    exibirCatalogoCompleto();
                     break;
                 case 2:
                     listarTodosUsuarios();
@@ -361,6 +406,21 @@ public class SistemaEventosApp {
                 case 6:
                     deletarContaDeTerceiros();
                     break;
+                case 7:
+                    exibirMetricas();
+                    break;
+                case 8:
+                    exibirMonitorSql();
+                    break;
+                case 9:
+                    buscarEventos();
+                    break;
+                case 10:
+                    arquivarEventosPassados();
+                    break;
+                case 11:
+                    navegarHistorico();
+                    break;
                 case 0:
                     fazerLogout();
                     break;
@@ -370,6 +430,61 @@ public class SistemaEventosApp {
         }
     }
 
+    private static void arquivarEventosPassados() {
+        int arquivados = controller.arquivarEventosPassados(usuarioLogado.id());
+        if (arquivados >= 0) {
+            System.out.println("\nEventos passados arquivados: " + arquivados + ".");
+        } else {
+            // O Controller já exibe a mensagem de erro específica.
+            System.out.println("Falha ao arquivar eventos passados.");
+        }
+    }
+
+    private static void exibirMetricas() {
+        System.out.println("\n--- Métricas de Desempenho (latências em microssegundos) ---");
+        System.out.print(Metricas.comoTexto());
+        for (int shard = 0; shard < DatabaseConnection.getQuantidadeShards(); shard++) {
+            System.out.println((shard > 0 ? "Shard " + shard + ": " : "") + DatabaseConnection.getEstatisticasPool(shard));
+        }
+        System.out.println(DatabaseConnection.getEstatisticasComandos());
+        controller.getEstatisticasCacheUsuarios().forEach(System.out::println);
+    }
+
+    private static void exibirMonitorSql() {
+        System.out.println("\n--- Monitor de SQL (tempos em milissegundos) ---");
+        System.out.print(MonitorSql.relatorio(15));
+
+        System.out.println("\n1. " + (MonitorSql.isAtivo() ? "Desativar" : "Ativar") + " monitor");
+        System.out.println("2. Alterar limite de consulta lenta (atual: " + MonitorSql.getLimiteLentaMs() + " ms)");
+        System.out.println("3. Zerar estatísticas");
+        System.out.println("0. Voltar");
+        System.out.print("Escolha uma opção: ");
+
+        switch (lerOpcao()) {
+            case 1:
+                MonitorSql.setAtivo(!MonitorSql.isAtivo());
+                System.out.println("Monitor de SQL " + (MonitorSql.isAtivo() ? "ativado." : "desativado."));
+                break;
+            case 2:
+                System.out.print("Novo limite (ms): ");
+                int limite = lerOpcao();
+                if (limite < 0) {
+                    System.out.println("Erro: Limite inválido.");
+                } else {
+                    MonitorSql.setLimiteLentaMs(limite);
+                    System.out.println("Consultas a partir de " + limite + " ms serão registradas em "
+                            + MonitorSql.getArquivoConsultasLentas() + ".");
+                }
+                break;
+            case 3:
+                MonitorSql.zerar();
+                System.out.println("Estatísticas do monitor de SQL zeradas.");
+                break;
+            default:
+                break;
+        }
+    }
+
     private static void listarTodosUsuarios() {
         System.out.println("\n--- Lista de Todos os Usuários ---");
         List<Usuario> usuarios = controller.listarTodosUsuarios();
@@ -387,8 +502,8 @@ public class SistemaEventosApp {
             // Uso dos getters POJO: getId(), getNome(), getEmail(), isAdmin()
             System.out.printf("%-5d | %-20s | %-30s | %-5s\n",
                     u.id(),
-                    truncate(u.nome(), 20),
-                    truncate(u.email(), 30),
+                    FormatosCatalogo.truncar(u.nome(), 20),
+                    FormatosCatalogo.truncar(u.email(), 30),
                     u.isAdmin() ? "SIM" : "NÃO");
         }
         System.out.println("----------------------------------------------------------------------");
@@ -428,6 +543,118 @@ public class SistemaEventosApp {
 
     // --- UTILS DA VIEW ---
 
+    /**
+     * Navega pelo catálogo de eventos página a página (paginação por chave no Controller).
+     * Cada página é impressa assim que chega, sem carregar o catálogo inteiro.
+     */
+    private static void navegarCatalogo() {
+        PaginaEventos pagina = controller.listarEventosPaginados(FiltroEventos.TODOS, null, EVENTOS_POR_PAGINA);
+        int numeroPagina = 1;
+
+        while (true) {
+            if (pagina.eventos().isEmpty()) {
+                System.out.println("Nenhum evento encontrado.");
+                return;
+            }
+            System.out.println("\n--- Eventos (página " + numeroPagina + ") ---");
+            listarEventosDisponiveis(pagina.eventos());
+
+            if (!pagina.temProxima()) {
+                return;
+            }
+            System.out.print("Pressione ENTER para a próxima página ou digite S para parar: ");
+            if (scanner.nextLine().trim().equalsIgnoreCase("S")) {
+                return;
+            }
+            pagina = controller.listarEventosPaginados(FiltroEventos.TODOS, pagina.proxima(), EVENTOS_POR_PAGINA);
+            numeroPagina++;
+        }
+    }
+
+    /**
+     * Exibe o catálogo inteiro de uma vez a partir do snapshot pré-renderizado: sem mudanças
+     * desde a última exibição, é só uma cópia dos bytes para o console.
+     */
+    private static void exibirCatalogoCompleto() {
+        SnapshotCatalogo.Instantaneo snapshot = SNAPSHOT_TABELA.obter();
+        if (snapshot == null) {
+            // Catálogo indisponível: a navegação paginada consulta o banco diretamente.
+            navegarCatalogo();
+            return;
+        }
+        System.out.println("\n--- Todos os Eventos (" + snapshot.eventos() + ") ---");
+        System.out.write(snapshot.bytes(), 0, snapshot.bytes().length);
+        System.out.flush();
+    }
+
+    /**
+     * Navega pelo histórico de eventos arquivados, do mais recente para o mais antigo.
+     */
+    private static void navegarHistorico() {
+        PaginaEventos pagina = controller.listarHistoricoEventos(null, EVENTOS_POR_PAGINA);
+        int numeroPagina = 1;
+
+        while (true) {
+            if (pagina.eventos().isEmpty()) {
+                System.out.println("Nenhum evento arquivado.");
+                return;
+            }
+            System.out.println("\n--- Histórico de Eventos (página " + numeroPagina + ") ---");
+            listarEventosDisponiveis(pagina.eventos());
+
+            if (!pagina.temProxima()) {
+                return;
+            }
+            System.out.print("Pressione ENTER para a próxima página ou digite S para parar: ");
+            if (scanner.nextLine().trim().equalsIgnoreCase("S")) {
+                return;
+            }
+            pagina = controller.listarHistoricoEventos(pagina.proxima(), EVENTOS_POR_PAGINA);
+            numeroPagina++;
+        }
+    }
+
+    private static void buscarEventos() {
+        System.out.println("\n--- Buscar Eventos ---");
+        System.out.print("Palavras (nome, descrição ou local): ");
+        String termos = scanner.nextLine();
+
+        System.out.print("Categoria (ENTER para todas): ");
+        String categoriaStr = scanner.nextLine();
+        CategoriaEvento categoria = null;
+        if (!categoriaStr.isBlank()) {
+            categoria = AppController.parseCategoria(categoriaStr);
+            if (categoria == null) {
+                System.out.println("Erro: Categoria '" + categoriaStr + "' inválida.");
+                return;
+            }
+        }
+
+        System.out.print("Somente eventos futuros? (S/N): ");
+        boolean somenteFuturos = scanner.nextLine().trim().equalsIgnoreCase("S");
+        FiltroEventos filtro = somenteFuturos ? FiltroEventos.futuros(categoria)
+                : new FiltroEventos(categoria, null, null);
+
+        PaginaBusca pagina = controller.buscarEventos(termos, filtro, 1, EVENTOS_POR_PAGINA);
+        while (true) {
+            if (pagina.eventos().isEmpty()) {
+                System.out.println("Nenhum evento encontrado.");
+                return;
+            }
+            System.out.println("\n--- Resultados (página " + pagina.pagina() + ", por relevância) ---");
+            listarEventosDisponiveis(pagina.eventos());
+
+            if (!pagina.temProxima()) {
+                return;
+            }
+            System.out.print("Pressione ENTER para a próxima página ou digite S para parar: ");
+            if (scanner.nextLine().trim().equalsIgnoreCase("S")) {
+                return;
+            }
+            pagina = controller.buscarEventos(termos, filtro, pagina.pagina() + 1, EVENTOS_POR_PAGINA);
+        }
+    }
+
     /**
      * Exibe uma lista de eventos formatada como tabela.
      * @param eventos A lista de EventoComDetalhes a ser exibida.
@@ -438,23 +665,24 @@ public class SistemaEventosApp {
             return;
         }
 
-        // Tabela formatada para exibição (ajustada para EventoComDetalhes)
-        System.out.println("-------------------------------------------------------------------------------------------------------");
-        System.out.printf("%-5s | %-25s | %-12s | %-16s | %-15s | %-10s\n", "ID", "Nome do Evento", "Categoria", "Data e Hora", "Organizador", "Capacidade");
-        System.out.println("-------------------------------------------------------------------------------------------------------");
-
+        imprimirCabecalhoEventos();
         for (EventoComDetalhes e : eventos) {
-            // Uso dos getters delegados
-            String dataFormatada = e.getDataHora().format(FORMATTER);
-            System.out.printf("%-5d | %-25s | %-12s | %-16s | %-15s | %-10d\n",
-                    e.getId(),
-                    truncate(e.getNome(), 25),
-                    truncate(e.getCategoria().name(), 12),
-                    dataFormatada,
-                    truncate(e.nomeOrganizador(), 15), // Nome do organizador do DTO
-                    e.getCapacidade());
-        }
-        System.out.println("-------------------------------------------------------------------------------------------------------");
+            imprimirLinhaEvento(e);
+        }
+        imprimirRodapeEventos();
+    }
+
+    // Tabela formatada para exibição (mesmo formato dos snapshots, veja FormatosCatalogo)
+    private static void imprimirCabecalhoEventos() {
+        System.out.print(FormatosCatalogo.TABELA.inicio());
+    }
+
+    private static void imprimirLinhaEvento(EventoComDetalhes e) {
+        System.out.print(FormatosCatalogo.TABELA.item(e));
+    }
+
+    private static void imprimirRodapeEventos() {
+        System.out.print(FormatosCatalogo.TABELA.fim());
     }
 
     /**
@@ -481,17 +709,4 @@ public class SistemaEventosApp {
             return -1;
         }
     }
-
-    /**
-     * Função utilitária para truncar strings para exibição em tabela.
-     * @param value A string a ser truncada.
-     * @param length O comprimento máximo.
-     * @return A string truncada com "..." se necessário.
-     */
-    private static String truncate(String value, int length) {
-        if (value != null && value.length() > length) {
-            return value.substring(0, length - 3) + "...";
-        }
-        return value;
-    }
 }
\ No newline at end of file